@@ -0,0 +1,508 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import benchmark.AssemblerOperations;
+import exception.InitException;
+import util.StringUtil;
+
+/**
+ * JMH 벤치마크(benchmark 패키지)가 측정하는 어셈블러의 작업을 만든다.
+ * 어셈블러의 클래스와 같은 기본 패키지에 있어야 패키지 내부의 테이블과 단계별 메소드를 호출할 수 있으며,
+ * benchmark 패키지에서는 AssemblerOperations.Provider로 찾아 사용한다. (META-INF/services)
+ *
+ * 측정 항목
+ *   1) loadInputFile : SourceBuffer.load
+ *   2) putToken : 모든 라인의 토큰 분리 (섹션별 TokenTable.putToken)
+ *   3) setLocation : 모든 섹션의 주소 할당
+ *   4) makeObjectCode : 모든 섹션의 object code 생성
+ *   5) makeObjectProgram : 모든 섹션의 오브젝트 프로그램 생성
+ *      makeObjectProgram.record : 같은 작업. operationsPerInvocation이 레코드(H, D, R, T, M, E) 수이다.
+ *   6) SymbolTable.search : 모든 레이블 검색
+ *   7) StringUtil.* : 모든 operand에 대한 분류 함수
+ *   8) assemble : pass1, pass2 전체
+ *   9) operandScan.scanner / operandScan.regex : operand 분류 (isLiteral, getLiteral, isForm, isEmpty)를
+ *      현재의 문자 scanner와 이전의 정규식 구현으로 각각 수행 (소스와 관계없이 고정된 1M operand 한 바퀴)
+ *      operand는 리터럴, 상수, 심볼, 수식, 숫자, 공백과 형식이 틀린 값을 섞어 고정된 seed로 만들며,
+ *      측정 전에 두 구현의 결과가 모든 operand에서 같은지 확인한다.
+ * 각 측정의 준비 작업(새 테이블 생성 등)은 측정할 작업에 포함하지 않는다.
+ */
+public class AssemblerWorkloads implements AssemblerOperations.Provider {
+	private static final byte[] END = { 'E', 'N', 'D' };
+	/** operandScan 측정에 사용하는 operand 수 */
+	private static final int OPERAND_CORPUS_SIZE = 1000000;
+	private static final long OPERAND_CORPUS_SEED = 20161017L;
+	
+	// 문자 scanner로 바꾸기 전의 StringUtil 정규식 (operandScan.regex)
+	private static final String LITERAL_PATTERN_REGEXP = "^={1}[CX]{1}[']{1}[0-9a-zA-Z]*[']{1}$";
+	private static final String LITERAL_FIND_PATTERN_REGEXP = "'[0-9a-zA-Z]*'";
+	private static final String DATA_PATTERN_REGEXP = "^[CX]{1}[']{1}[0-9a-zA-Z]*[']{1}$";
+	
+	/**
+	 * 이름에 해당하는 측정 작업을 준비한다.
+	 * @param input : 측정할 소스 파일
+	 * @param lines : 0보다 크면 input의 섹션을 반복하여 lines 라인 이상의 소스를 만들어 사용한다.
+	 * @param name : 벤치마크 이름
+	 * @return
+	 */
+	@Override
+	public AssemblerOperations prepare(String input, int lines, String name) {
+		if(name.startsWith("operandScan.")) { // 소스와 관계없는 측정
+			return operandScan(name);
+		}
+		
+		InstTable instTable = new InstTable();
+		SourceBuffer source = SourceBuffer.load(input);
+		BenchmarkWorkload workload = new BenchmarkWorkload(lines > 0 ? synthesize(source, lines) : source.data);
+		
+		workload.prepare(instTable);
+		
+		Assembler assembler = workload.assembler;
+		
+		switch(name) {
+		case "loadInputFile":
+			return new AssemblerOperations(null, () -> SourceBuffer.load(workload.file.toString()), 1);
+		case "putToken":
+			Assembler[] tokenized = new Assembler[1];
+			
+			return new AssemblerOperations(() -> tokenized[0] = workload.newAssembler(instTable), () -> {
+				Assembler empty = tokenized[0];
+				
+				for(int i = 0; i < workload.sectionBegin.length; i++) {
+					empty.tokenize(empty.TokenList.get(i), workload.sectionBegin[i], workload.sectionEnd(i));
+				}
+				
+				return empty;
+			}, 1);
+		case "setLocation":
+			return new AssemblerOperations(null, () -> {
+				for(TokenTable tokenTable : assembler.TokenList) {
+					tokenTable.setLocation();
+				}
+				
+				return assembler;
+			}, 1);
+		case "makeObjectCode":
+			return new AssemblerOperations(null, () -> {
+				for(TokenTable tokenTable : assembler.TokenList) {
+					tokenTable.makeObjectCode();
+				}
+				
+				return assembler;
+			}, 1);
+		case "makeObjectProgram":
+		case "makeObjectProgram.record":
+			int records = 0; // 모든 섹션의 레코드 수
+			
+			for(TokenTable tokenTable : assembler.TokenList) {
+				records = records + countRecords(tokenTable.makeObjectProgram());
+			}
+			
+			return new AssemblerOperations(null, () -> {
+				int length = 0;
+				
+				for(TokenTable tokenTable : assembler.TokenList) {
+					length = length + tokenTable.makeObjectProgram().length();
+				}
+				
+				return length;
+			}, name.equals("makeObjectProgram") ? 1 : records);
+		case "SymbolTable.search":
+			return new AssemblerOperations(null, () -> {
+				int found = 0;
+				
+				for(int i = 0; i < assembler.TokenList.size(); i++) {
+					SymbolTable symbolTable = assembler.TokenList.get(i).symTab;
+					
+					for(String symbol : workload.labelList.get(i)) {
+						found = found + symbolTable.search(symbol);
+					}
+				}
+				
+				return found;
+			}, 1);
+		case "StringUtil.isNumber":
+			return classifier(workload, StringUtil::isNumber);
+		case "StringUtil.isLetter":
+			return classifier(workload, StringUtil::isLetter);
+		case "StringUtil.isLiteral":
+			return classifier(workload, StringUtil::isLiteral);
+		case "StringUtil.isArithmetic":
+			return classifier(workload, StringUtil::isArithmetic);
+		case "StringUtil.isForm":
+			return classifier(workload, StringUtil::isForm);
+		case "assemble":
+			return new AssemblerOperations(null, () -> {
+				Assembler full = new Assembler(instTable);
+				
+				full.setVerbose(false);
+				
+				return full.assemble(workload.source);
+			}, 1);
+		default:
+			throw new IllegalArgumentException("Unknown benchmark: " + name);
+		}
+	}
+	
+	/**
+	 * operand 문자열 전체에 대해 분류 함수를 수행하는 측정 작업을 만든다.
+	 * @param workload
+	 * @param classifier
+	 * @return
+	 */
+	private static AssemblerOperations classifier(BenchmarkWorkload workload, Predicate<String> classifier) {
+		return new AssemblerOperations(null, () -> {
+			int count = 0;
+			
+			for(String operand : workload.operandList) {
+				if(classifier.test(operand)) {
+					count++;
+				}
+			}
+			
+			return count;
+		}, 1);
+	}
+	
+	/**
+	 * operandScan 측정 작업을 만든다. operand를 만든 뒤 두 구현의 결과가 같은지 확인한다.
+	 * @param name : operandScan.scanner 또는 operandScan.regex
+	 * @return
+	 */
+	private static AssemblerOperations operandScan(String name) {
+		String[] corpus = makeOperandCorpus(OPERAND_CORPUS_SIZE, OPERAND_CORPUS_SEED);
+		
+		for(String operand : corpus) {
+			if(scanOperand(operand) != regexScanOperand(operand)
+					|| !Objects.equals(StringUtil.getLiteral(operand), regexGetLiteral(operand))) {
+				throw new IllegalStateException("Scanner and regex disagree on operand: " + operand);
+			}
+		}
+		
+		Supplier<Object> operation;
+		
+		switch(name) {
+		case "operandScan.scanner":
+			operation = () -> {
+				int result = 0;
+				
+				for(String operand : corpus) {
+					result = result + scanOperand(operand);
+				}
+				
+				return result;
+			};
+			break;
+		case "operandScan.regex":
+			operation = () -> {
+				int result = 0;
+				
+				for(String operand : corpus) {
+					result = result + regexScanOperand(operand);
+				}
+				
+				return result;
+			};
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown benchmark: " + name);
+		}
+		
+		return new AssemblerOperations(null, operation, 1);
+	}
+	
+	/**
+	 * 실제 소스에 나오는 형태의 operand를 고정된 seed로 섞어서 만든다.
+	 * @param count : operand 수
+	 * @param seed
+	 * @return
+	 */
+	static String[] makeOperandCorpus(int count, long seed) {
+		Random random = new Random(seed);
+		String[] corpus = new String[count];
+		
+		for(int i = 0; i < count; i++) {
+			switch(random.nextInt(12)) {
+			case 0: // 문자 리터럴
+				corpus[i] = "=C'" + randomWord(random, 1 + random.nextInt(6)) + "'";
+				break;
+			case 1: // 16진수 리터럴
+				corpus[i] = "=X'" + randomHex(random, 2 * (1 + random.nextInt(3))) + "'";
+				break;
+			case 2: // BYTE 상수
+				corpus[i] = "C'" + randomWord(random, 1 + random.nextInt(6)) + "'";
+				break;
+			case 3:
+				corpus[i] = "X'" + randomHex(random, 2 * (1 + random.nextInt(3))) + "'";
+				break;
+			case 4: // 심볼, 레지스터
+			case 5:
+				corpus[i] = randomWord(random, 1 + random.nextInt(6)).toUpperCase(Locale.ROOT);
+				break;
+			case 6: // 수식
+				corpus[i] = randomWord(random, 1 + random.nextInt(6)) + "+-*/".charAt(random.nextInt(4)) + randomWord(random, 1 + random.nextInt(6));
+				break;
+			case 7: // 숫자, 즉시/간접 주소
+				corpus[i] = (random.nextBoolean() ? "" : random.nextBoolean() ? "#" : "@") + random.nextInt(4096);
+				break;
+			case 8: // 빈 값
+				corpus[i] = random.nextBoolean() ? "" : "  ";
+				break;
+			case 9: // 따옴표가 닫히지 않은 리터럴
+				corpus[i] = "=C'" + randomWord(random, 1 + random.nextInt(6));
+				break;
+			case 10: // 허용하지 않는 문자가 있는 리터럴, 상수
+				corpus[i] = (random.nextBoolean() ? "=C'" : "C'") + randomWord(random, 1 + random.nextInt(3)) + " " + randomWord(random, 1) + "'";
+				break;
+			default: // 형식을 나타내는 문자가 틀린 값
+				corpus[i] = (random.nextBoolean() ? "=Y'" : "'") + randomWord(random, 1 + random.nextInt(6)) + "'";
+				break;
+			}
+		}
+		
+		return corpus;
+	}
+	
+	private static String randomWord(Random random, int length) {
+		final String letters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+		char[] word = new char[length];
+		
+		for(int i = 0; i < length; i++) {
+			word[i] = letters.charAt(i == 0 ? random.nextInt(52) : random.nextInt(letters.length()));
+		}
+		
+		return new String(word);
+	}
+	
+	private static String randomHex(Random random, int length) {
+		char[] hex = new char[length];
+		
+		for(int i = 0; i < length; i++) {
+			hex[i] = "0123456789ABCDEF".charAt(random.nextInt(16));
+		}
+		
+		return new String(hex);
+	}
+	
+	/**
+	 * operand 하나를 현재의 문자 scanner로 분류한다. (operandScan.scanner)
+	 * @param operand
+	 * @return 분류 결과 (비트 0 : isLiteral, 1 : isForm, 2 : isEmpty, 나머지 : getLiteral의 hash)
+	 */
+	private static int scanOperand(String operand) {
+		String literal = StringUtil.getLiteral(operand);
+		
+		return (StringUtil.isLiteral(operand) ? 1 : 0) | (StringUtil.isForm(operand) ? 2 : 0) | (StringUtil.isEmpty(operand) ? 4 : 0)
+				| (literal == null ? 0 : literal.hashCode() << 3);
+	}
+	
+	/**
+	 * operand 하나를 이전의 정규식 구현으로 분류한다. (operandScan.regex)
+	 * @param operand
+	 * @return scanOperand와 같은 형식의 분류 결과
+	 */
+	private static int regexScanOperand(String operand) {
+		String literal = regexGetLiteral(operand);
+		
+		return (regexIsLiteral(operand) ? 1 : 0) | (regexIsForm(operand) ? 2 : 0) | (regexIsEmpty(operand) ? 4 : 0)
+				| (literal == null ? 0 : literal.hashCode() << 3);
+	}
+	
+	// 이전 StringUtil의 구현 begin --
+	private static boolean regexIsEmpty(String val) {
+		return val == null || val.trim().equals("");
+	}
+	
+	private static boolean regexIsLiteral(String str) {
+		if(regexIsEmpty(str)) {
+			return false;
+		}
+		
+		return Pattern.matches(LITERAL_PATTERN_REGEXP, str);
+	}
+	
+	private static String regexGetLiteral(String str) {
+		if(!regexIsLiteral(str)) {
+			return null;
+		}
+		
+		Pattern pattern = Pattern.compile(LITERAL_FIND_PATTERN_REGEXP);
+		Matcher matcher = pattern.matcher(str);
+		
+		if(matcher.find()) {
+			return matcher.group().replace("'", "");
+		}
+		
+		return null;
+	}
+	
+	private static boolean regexIsForm(String str) {
+		if(regexIsEmpty(str)) {
+			return false;
+		}
+		
+		return Pattern.matches(DATA_PATTERN_REGEXP, str);
+	}
+	// 이전 StringUtil의 구현 end --
+	
+	/**
+	 * 오브젝트 프로그램의 레코드 수를 센다. (섹션 구분용 빈 줄 제외)
+	 * @param objectProgram
+	 * @return
+	 */
+	private static int countRecords(String objectProgram) {
+		int count = 0;
+		
+		for(int i = 0; i < objectProgram.length(); i++) {
+			if(objectProgram.charAt(i) == '\n' && i > 0 && objectProgram.charAt(i - 1) != '\n') {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * base의 CSECT 섹션들(첫 CSECT부터 END 전까지)을 반복하여 lines 라인 이상의 소스를 만든다.
+	 * CSECT가 없으면 END 전까지의 문장을 반복한다. (레이블 중복 가능)
+	 * @param base : 기준 소스
+	 * @param lines : 최소 라인 수
+	 * @return
+	 */
+	static byte[] synthesize(SourceBuffer base, int lines) {
+		int[] sectionBegin = base.findSections();
+		int end = base.size();
+		
+		while(end > 0 && !SourceBuffer.isOperator(base.data, base.getBegin(end - 1), base.getEnd(end - 1), END)) {
+			end--;
+		}
+		
+		if(end == 0) {
+			throw new InitException("END statement not found.");
+		}
+		
+		int repeatBegin = sectionBegin.length > 1 ? sectionBegin[1] : 0;
+		int repeatEnd = end - 1;
+		
+		if(repeatBegin >= repeatEnd) {
+			throw new InitException("Nothing to repeat in the input.");
+		}
+		
+		StringBuilder source = new StringBuilder();
+		int lineCount = 0;
+		
+		for(int line = 0; line < repeatBegin; line++) { // 첫 섹션
+			appendLine(source, base, line);
+			lineCount++;
+		}
+		
+		while(lineCount < lines - 1) { // 반복할 섹션
+			for(int line = repeatBegin; line < repeatEnd; line++) {
+				appendLine(source, base, line);
+				lineCount++;
+			}
+		}
+		
+		appendLine(source, base, repeatEnd); // END
+		
+		return source.toString().getBytes(StandardCharsets.ISO_8859_1);
+	}
+	
+	private static void appendLine(StringBuilder source, SourceBuffer base, int line) {
+		source.append(new String(base.data, base.getBegin(line), base.getEnd(line) - base.getBegin(line), StandardCharsets.ISO_8859_1))
+			  .append('\n');
+	}
+}
+
+/**
+ * 벤치마크에 사용하는 소스와, 단계별 측정에 필요한 미리 처리된 상태
+ */
+class BenchmarkWorkload {
+	SourceBuffer source;
+	Path file; // loadInputFile 측정용 파일
+	int[] sectionBegin; // 섹션별 시작 라인
+	
+	Assembler assembler; // 토큰 분리, 주소 할당, object code 생성까지 수행된 상태
+	ArrayList<ArrayList<String>> labelList; // 섹션별 레이블
+	ArrayList<String> operandList; // 모든 operand
+	
+	BenchmarkWorkload(byte[] data) {
+		this.source = new SourceBuffer(data);
+	}
+	
+	/**
+	 * 측정 전에 파일과 테이블을 준비한다.
+	 * @param instTable
+	 */
+	void prepare(InstTable instTable) {
+		try {
+			file = Files.createTempFile("benchmark-", ".txt");
+			file.toFile().deleteOnExit();
+			Files.write(file, source.data);
+		} catch(IOException e) {
+			throw new InitException("An error occurred while writing the benchmark input.");
+		}
+		
+		sectionBegin = source.findSections();
+		assembler = this.newAssembler(instTable);
+		labelList = new ArrayList<>();
+		operandList = new ArrayList<>();
+		
+		for(int i = 0; i < sectionBegin.length; i++) {
+			TokenTable tokenTable = assembler.TokenList.get(i);
+			ArrayList<String> labels = new ArrayList<>();
+			
+			assembler.tokenize(tokenTable, sectionBegin[i], this.sectionEnd(i));
+			tokenTable.setLocation();
+			tokenTable.extTab.validation(tokenTable.symTab);
+			tokenTable.makeObjectCode();
+			
+			for(Token token : tokenTable.tokenList) {
+				if(token.label != null) {
+					labels.add(token.label);
+				}
+				
+				if(token.operand != null) {
+					for(String operand : token.operand) {
+						if(operand != null) {
+							operandList.add(operand);
+						}
+					}
+				}
+			}
+			
+			labelList.add(labels);
+		}
+	}
+	
+	/**
+	 * 섹션별 테이블만 생성된 Assembler를 만든다.
+	 * @param instTable
+	 * @return
+	 */
+	Assembler newAssembler(InstTable instTable) {
+		Assembler assembler = new Assembler(instTable);
+		
+		assembler.setVerbose(false);
+		assembler.source = source;
+		
+		for(int i = 0; i < sectionBegin.length; i++) {
+			assembler.addSection();
+		}
+		
+		return assembler;
+	}
+	
+	int sectionEnd(int sectionNumber) {
+		return sectionNumber + 1 < sectionBegin.length ? sectionBegin[sectionNumber + 1] : source.size();
+	}
+}
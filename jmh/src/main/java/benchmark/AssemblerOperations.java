@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * JMH 벤치마크가 측정할 작업 하나 (준비 작업, 측정할 작업).
+ * 측정 작업은 기본 패키지의 AssemblerWorkloads가 만든다. JMH는 기본 패키지의 벤치마크 클래스를 허용하지 않고,
+ * 이름 있는 패키지에서는 기본 패키지의 클래스를 참조할 수 없으므로 AssemblerWorkloads는 Provider로 등록된다. (META-INF/services)
+ */
+public final class AssemblerOperations {
+	/**
+	 * 이름에 해당하는 측정 작업을 만드는 객체. (AssemblerWorkloads)
+	 */
+	public interface Provider {
+		/**
+		 * 측정 작업을 준비한다.
+		 * @param input : 측정할 소스 파일
+		 * @param lines : 0보다 크면 input의 섹션을 반복하여 lines 라인 이상의 소스를 만들어 사용한다.
+		 * @param name : 벤치마크 이름
+		 * @return
+		 */
+		AssemblerOperations prepare(String input, int lines, String name);
+	}
+	
+	/** operation 전마다 수행할 준비 작업. 없으면 null */
+	final Runnable prepare;
+	/** 측정할 작업 */
+	final Supplier<Object> operation;
+	/** operation 한 번에 포함된 작업 수 (makeObjectProgram.record의 레코드 수) */
+	final int operationsPerInvocation;
+	
+	/**
+	 * 생성자 선언
+	 * @param prepare : operation 전마다 수행할 준비 작업 (측정하지 않음). 없으면 null
+	 * @param operation : 측정할 작업
+	 * @param operationsPerInvocation : operation 한 번에 포함된 작업 수
+	 */
+	public AssemblerOperations(Runnable prepare, Supplier<Object> operation, int operationsPerInvocation) {
+		this.prepare = prepare;
+		this.operation = operation;
+		this.operationsPerInvocation = operationsPerInvocation;
+	}
+	
+	/**
+	 * 측정 작업을 준비한다.
+	 * @param input : 측정할 소스 파일
+	 * @param lines : 0보다 크면 input의 섹션을 반복하여 lines 라인 이상의 소스를 만들어 사용한다.
+	 * @param name : 벤치마크 이름
+	 * @return
+	 */
+	static AssemblerOperations load(String input, int lines, String name) {
+		Provider provider = ServiceLoader.load(Provider.class).findFirst()
+				.orElseThrow(() -> new IllegalStateException("AssemblerWorkloads is not on the classpath."));
+		
+		return provider.prepare(input, lines, name);
+	}
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * operand 분류 (isLiteral, getLiteral, isForm, isEmpty)를 현재의 문자 scanner와 이전의 정규식 구현으로 비교하는 JMH 벤치마크.
+ * 고정된 seed로 만든 1M operand 한 바퀴의 시간을 측정한다. (AssemblerWorkloads.makeOperandCorpus)
+ * 소스와 관계가 없으므로 PhaseBenchmark와 달리 input, lines를 바꾸어 반복하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class OperandScanBenchmark {
+	@Param({ "operandScan.scanner", "operandScan.regex" })
+	public String benchmark;
+	
+	private Supplier<Object> operation;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		operation = AssemblerOperations.load("src/input.txt", 0, benchmark).operation;
+	}
+	
+	@Benchmark
+	public Object measure() {
+		return operation.get(); // 반환값은 JMH가 소비한다. (Blackhole)
+	}
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 어셈블러의 단계별 JMH 벤치마크.
+ * 준비 작업이 필요 없는 단계를 측정한다. (putToken은 PutTokenBenchmark)
+ *
+ *   1) loadInputFile : SourceBuffer.load
+ *   2) setLocation : 모든 섹션의 주소 할당
+ *   3) makeObjectCode : 모든 섹션의 object code 생성
+ *   4) makeObjectProgram : 모든 섹션의 오브젝트 프로그램 생성
+ *   5) SymbolTable.search : 모든 레이블 검색
+ *   6) StringUtil.* : 모든 operand에 대한 분류 함수
+ *   7) assemble : pass1, pass2 전체
+ * 입력은 src/input.txt와, 그 섹션을 반복하여 만든 lines 라인 이상의 소스이다. (lines = 0 이면 input.txt 그대로)
+ * 결과(operation 하나의 평균 시간)의 단위는 단계 전체이며, -prof gc의 gc.alloc.rate.norm은 단계 전체의 할당량이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class PhaseBenchmark {
+	@Param({ "loadInputFile", "setLocation", "makeObjectCode", "makeObjectProgram", "SymbolTable.search",
+			"StringUtil.isNumber", "StringUtil.isLetter", "StringUtil.isLiteral", "StringUtil.isArithmetic", "StringUtil.isForm",
+			"assemble" })
+	public String benchmark;
+	
+	@Param({ "src/input.txt" })
+	public String input;
+	
+	@Param({ "0", "100000", "1000000" })
+	public int lines;
+	
+	private Supplier<Object> operation;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		AssemblerOperations operations = AssemblerOperations.load(input, lines, benchmark);
+		
+		if(operations.prepare != null) {
+			throw new IllegalStateException(benchmark + " needs per-invocation preparation.");
+		}
+		
+		operation = operations.operation;
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		operation = null;
+	}
+	
+	@Benchmark
+	public Object measure() {
+		return operation.get(); // 반환값은 JMH가 소비한다. (Blackhole)
+	}
+}
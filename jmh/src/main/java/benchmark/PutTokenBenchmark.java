@@ -0,0 +1,57 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 모든 라인의 토큰 분리(섹션별 TokenTable.putToken) JMH 벤치마크.
+ * operation마다 새 테이블이 필요하므로 Level.Invocation 준비 작업으로 빈 테이블을 만든다. (측정 시간에 포함되지 않음)
+ * operation 하나가 밀리초 단위이므로 Level.Invocation의 오차는 무시할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class PutTokenBenchmark {
+	@Param({ "src/input.txt" })
+	public String input;
+	
+	@Param({ "0", "100000", "1000000" })
+	public int lines;
+	
+	private Runnable prepare;
+	private Supplier<Object> operation;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		AssemblerOperations operations = AssemblerOperations.load(input, lines, "putToken");
+		
+		prepare = operations.prepare;
+		operation = operations.operation;
+	}
+	
+	@Setup(Level.Invocation)
+	public void prepareInvocation() {
+		prepare.run();
+	}
+	
+	@Benchmark
+	public Object putToken() {
+		return operation.get();
+	}
+}
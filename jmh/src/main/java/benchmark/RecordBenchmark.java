@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 오브젝트 프로그램 생성(makeObjectProgram)의 레코드(H, D, R, T, M, E) 하나당 비용을 측정하는 JMH 벤치마크.
+ * 레코드 수는 소스마다 다르므로 @OperationsPerInvocation 대신 보조 카운터(records)로 초당 레코드 수를 함께 기록한다.
+ * 레코드 하나당 시간은 1 / records(초당 레코드 수) 이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class RecordBenchmark {
+	/**
+	 * 만든 레코드 수 (JMH가 초당 값으로 출력)
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Records {
+		public long records;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			records = 0;
+		}
+	}
+	
+	@Param({ "src/input.txt" })
+	public String input;
+	
+	@Param({ "0", "100000", "1000000" })
+	public int lines;
+	
+	private Supplier<Object> operation;
+	private int recordCount;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		AssemblerOperations operations = AssemblerOperations.load(input, lines, "makeObjectProgram.record");
+		
+		operation = operations.operation;
+		recordCount = operations.operationsPerInvocation;
+	}
+	
+	@Benchmark
+	public Object makeObjectProgram(Records records) {
+		records.records = records.records + recordCount;
+		
+		return operation.get();
+	}
+}
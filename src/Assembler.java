@@ -1,308 +1,719 @@
-import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-
-import exception.InitException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 
 /**
  * Assembler : 
- *  α׷ SIC/XE ӽ  Assembler α׷  ƾ̴.
- * α׷  ۾  . 
- * 1) ó ϸ Instruction  о鿩 assembler Ѵ. 
- * 2) ڰ ۼ input  о  Ѵ. 
- * 3) input   ܾ ϰ ǹ̸ ľؼ Ѵ. (pass1) 
- * 4) м   ǻͰ   ִ object code Ѵ. (pass2) 
+ * 이 프로그램은 SIC/XE 머신을 위한 Assembler 프로그램의 메인 루틴이다.
+ * 프로그램의 수행 작업은 다음과 같다. 
+ * 1) 처음 시작하면 Instruction 명세를 읽어들여서 assembler를 세팅한다. 
+ * 2) 사용자가 작성한 input 파일을 읽어들인 후 저장한다. 
+ * 3) input 파일의 문장들을 단어별로 분할하고 의미를 파악해서 정리한다. (pass1) 
+ * 4) 분석된 내용을 바탕으로 컴퓨터가 사용할 수 있는 object code를 생성한다. (pass2) 
  * 
  * 
- * ۼ ǻ : 
- *  1) ο Ŭ, ο , ο Լ  󸶵 . ,   Լ ϰų  üϴ  ȵȴ.
- *  2)  ۼ ڵ带   ʿ信  ó, ̽ Ǵ    .
- *  3)  void Ÿ ϰ  ʿ信  ٸ  Ÿ  .
- *  4) , Ǵ ܼâ ѱ ½Ű  . (ä . ּ Ե ѱ  )
+ * 작성중의 유의사항 : 
+ *  1) 새로운 클래스, 새로운 변수, 새로운 함수 선언은 얼마든지 허용됨. 단, 기존의 변수와 함수들을 삭제하거나 완전히 대체하는 것은 안된다.
+ *  2) 마찬가지로 작성된 코드를 삭제하지 않으면 필요에 따라 예외처리, 인터페이스 또는 상속 사용 또한 허용됨.
+ *  3) 모든 void 타입의 리턴값은 유저의 필요에 따라 다른 리턴 타입으로 변경 가능.
+ *  4) 파일, 또는 콘솔창에 한글을 출력시키지 말 것. (채점상의 이유. 주석에 포함된 한글은 상관 없음)
  * 
  *     
- *  + ϴ α׷   ϰ  е   ޺κп ÷ ٶϴ. 뿡     ֽϴ.
+ *  + 제공하는 프로그램 구조의 개선방법을 제안하고 싶은 분들은 보고서의 결론 뒷부분에 첨부 바랍니다. 내용에 따라 가산점이 있을 수 있습니다.
  */
 public class Assembler {
 	
-	// ش Ŭ ϴ   ʱȭ
+	// 해당 클래스에서 사용하는 전역 변수 초기화
 	private static final String INPUT_FILE_PREFIX = "src/";
 	private static final String OUTPUT_FILE_PREFIX = "src/output/";
+	private static final String THREADS_PROPERTY = "assembler.threads";
+	private static final String PIPELINE_PROPERTY = "assembler.pipeline";
+	private static final String CACHE_PROPERTY = "assembler.cache";
+	private static final String COALESCE_PROPERTY = "assembler.coalesceModify";
+	private static final String INST_PROPERTY = "assembler.inst";
+	private static final String STATS_OPTION = "--stats";
+	/** 결과 파일을 동시에 저장하는 최소 object program 길이 (문자 수) */
+	private static final int CONCURRENT_OUTPUT_LENGTH = 256 * 1024;
+	
+	/** 섹션을 동시에 처리할 스레드 수. 1이면 순차 처리한다. (-Dassembler.threads=n) */
+	private int parallelism = Integer.getInteger(THREADS_PROPERTY, 1);
+	
+	/** 단계별 스레드와 큐로 연결된 파이프라인으로 처리할지 여부 (-Dassembler.pipeline=true) */
+	private boolean pipelined = Boolean.getBoolean(PIPELINE_PROPERTY);
+	
+	/** M 레코드를 주소 순서로 정렬하고 상쇄되는 +X, -X 쌍을 제외하여 출력할지 여부 (-Dassembler.coalesceModify=true) */
+	private boolean coalesceModify = Boolean.getBoolean(COALESCE_PROPERTY);
 	
-	public static int numberOfSection = 0;
+	/** 단계별 진행 메시지 출력 여부 */
+	private boolean verbose = true;
 	
-	/** instruction    */
+	/** 섹션 단위 증분 빌드 캐시. null이면 사용하지 않는다. (-Dassembler.cache=디렉토리) */
+	private BuildCache cache;
+	/** 섹션별 캐시 키 */
+	private String[] sectionKey;
+	/** 캐시에서 복원한 섹션별 오브젝트 프로그램 (복원하지 않은 섹션은 null) */
+	private String[] cachedProgram;
+	
+	/** 단계별, 섹션별 계측 정보. null이면 계측하지 않는다. (--stats) */
+	private AssemblyStats stats;
+	
+	/** 소스 오류를 모으는 공간. null이면 첫 오류에서 예외를 던진다. */
+	private Diagnostics diagnostics;
+	
+	/** instruction 명세를 저장한 공간 */
 	InstTable instTable;
-	/** о input      ϴ . */
-	ArrayList<String> lineList;
-	/** α׷ section symbol table ϴ */
+	/** 읽어들인 input 파일의 내용과 각 라인의 위치를 저장하는 공간. */
+	SourceBuffer source;
+	/** 프로그램의 section별로 symbol table을 저장하는 공간*/
 	ArrayList<SymbolTable> symtabList;
-	/** α׷ section literal table ϴ */
+	/** 프로그램의 section별로 literal table을 저장하는 공간*/
 	ArrayList<LiteralTable> literaltabList;
-	/** α׷ section α׷ ϴ */
+	/** 프로그램의 section별로 프로그램을 저장하는 공간*/
 	ArrayList<TokenTable> TokenList;
-	/** α׷ section ǿ  ϴ */
+	/** 프로그램의 section별로 정의와 참조를 저장하는 공간*/
 	ArrayList<ExtTable> extList;
-	/** α׷ section  ϴ */
+	/** 프로그램의 section 정보를 저장하는 공간*/
 	ArrayList<Section> sectionList;
-	/** α׷ section  ϴ */
+	/** 프로그램의 section 정보를 저장하는 공간*/
 	ArrayList<ModifyTable> modifyList;
 	
 	/** 
-	 * Token, Ǵ þ   Ʈ ڵ  · ϴ .   
-	 * ʿ  String   Ŭ Ͽ ArrayList üص .
+	 * Token, 또는 지시어에 따라 만들어진 오브젝트 코드들을 출력 형태로 저장하는 공간.   
+	 * 필요한 경우 String 대신 별도의 클래스를 선언하여 ArrayList를 교체해도 무방함.
 	 */
 	ArrayList<String> codeList;
 	
 	/**
-	 * Ŭ ʱȭ. instruction Table ʱȭ ÿ Ѵ.
+	 * 클래스 초기화. instruction Table을 초기화와 동시에 세팅한다.
 	 * 
-	 * @param instFile : instruction  ۼ  ̸. 
+	 * @param instFile : instruction 명세를 작성한 파일 이름. 
 	 */
 	public Assembler(String instFile) {
-		instTable = new InstTable(instFile);
-		lineList = new ArrayList<String>();
+		this(new InstTable(instFile));
+	}
+	
+	/**
+	 * 클래스 초기화. 이미 읽어들인 instruction Table을 공유한다.
+	 * InstTable은 변경되지 않으므로 여러 Assembler 인스턴스가 동시에 사용할 수 있다.
+	 * 
+	 * @param instTable : instruction 명세를 저장한 테이블
+	 */
+	public Assembler(InstTable instTable) {
+		this.instTable = instTable;
 		symtabList = new ArrayList<SymbolTable>();
 		literaltabList = new ArrayList<LiteralTable>();
 		TokenList = new ArrayList<TokenTable>();
 		codeList = new ArrayList<String>();
 		
-		// ű ߰ ̺
+		// 신규 추가 테이블
 		extList = new ArrayList<>();
 		sectionList = new ArrayList<>();
 		modifyList = new ArrayList<>();
 	}
 
 	/** 
-	 *   ƾ
+	 * 어셈블러의 메인 루틴
 	 */
 	public static void main(String[] args) {
-		Assembler assembler = new Assembler(INPUT_FILE_PREFIX + "inst.data");
+		// instruction 명세 파일을 지정하지 않으면 inst.data로부터 생성된 상수를 사용한다. (-Dassembler.inst=파일)
+		String instFile = System.getProperty(INST_PROPERTY);
+		Assembler assembler = new Assembler(instFile == null ? new InstTable() : new InstTable(instFile));
+		
+		String statsFile = null; // 계측 결과 JSON 파일 (--stats 또는 --stats=파일)
+		
+		if(System.getProperty(CACHE_PROPERTY) != null) {
+			assembler.setCache(new BuildCache(Paths.get(System.getProperty(CACHE_PROPERTY)), BuildCache.DEFAULT_MAX_SIZE));
+		}
+		
+		for(String arg : args) {
+			if(arg.equals(STATS_OPTION)) {
+				statsFile = OUTPUT_FILE_PREFIX + "stats.json";
+			} else if(arg.startsWith(STATS_OPTION + "=")) {
+				statsFile = arg.substring(STATS_OPTION.length() + 1);
+			}
+		}
+		
+		if(statsFile != null) {
+			assembler.setStats(new AssemblyStats(INPUT_FILE_PREFIX + "input.txt"));
+		}
+		
+		assembler.setDiagnostics(new Diagnostics()); // 모든 오류를 모아서 출력
+		
+		if(assembler.pipelined) { // 파이프라인은 모든 단계가 끝난 뒤 테이블을 출력한다.
+			assembler.assemble(INPUT_FILE_PREFIX + "input.txt");
+			assembler.exitOnErrors(INPUT_FILE_PREFIX + "input.txt");
+			
+			assembler.printOutputs(OUTPUT_FILE_PREFIX + "symtab_20180427", OUTPUT_FILE_PREFIX + "literaltab_20180427", OUTPUT_FILE_PREFIX + "output_20180427");
+			assembler.printStats(statsFile);
+			
+			if(assembler.cache != null) {
+				assembler.cache.flush(); // 저장 대기 중인 항목 기록
+			}
+			return;
+		}
+		
 		assembler.loadInputFile(INPUT_FILE_PREFIX + "input.txt");	
 		assembler.pass1();
-
-		assembler.printSymbolTable(OUTPUT_FILE_PREFIX + "symtab_20180427");
-		assembler.printLiteralTable(OUTPUT_FILE_PREFIX + "literaltab_20180427");
 		assembler.pass2();
-		assembler.printObjectCode(OUTPUT_FILE_PREFIX + "output_20180427");
+		assembler.exitOnErrors(INPUT_FILE_PREFIX + "input.txt");
+		
+		// 세 결과 파일을 동시에 저장 (저장에 실패하면 예외로 종료)
+		assembler.printOutputs(OUTPUT_FILE_PREFIX + "symtab_20180427", OUTPUT_FILE_PREFIX + "literaltab_20180427", OUTPUT_FILE_PREFIX + "output_20180427");
+		assembler.printStats(statsFile);
+		
+		if(assembler.cache != null) {
+			assembler.cache.flush(); // 저장 대기 중인 항목 기록
+			System.err.println(assembler.cache.getStatistics());
+		}
 	}
-
+	
 	/**
-	 * inputFile о鿩 lineList Ѵ.
-	 * @param inputFile : input  ̸.
+	 * 섹션을 동시에 처리할 스레드 수를 설정한다.
+	 * @param parallelism : 스레드 수. 1 이하이면 순차 처리한다.
 	 */
-	private void loadInputFile(String inputFile) {
-		try {
-			File file = new File(inputFile);
-			
-			FileReader fileReader = new FileReader(file); //  Ʈ 
-			BufferedReader bufferedReader = new BufferedReader(fileReader); //  
-			
-			String line = ""; //   
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * 파이프라인 처리 여부를 설정한다.
+	 * @param pipelined : true이면 읽기, 토큰 분리, 주소 할당, object code 생성, 출력 단계를 겹쳐서 처리한다.
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+	
+	/**
+	 * M 레코드 병합 출력 여부를 설정한다. 섹션을 추가하기 전에 설정해야 한다.
+	 * @param coalesceModify : true이면 M 레코드를 주소 순서로 정렬하고, 같은 필드에 대한 +X, -X 쌍을 제외한다. (적재 결과는 같다)
+	 */
+	public void setCoalesceModify(boolean coalesceModify) {
+		this.coalesceModify = coalesceModify;
+	}
+	
+	/**
+	 * 단계별 진행 메시지 출력 여부를 설정한다. (여러 파일을 처리할 때는 끈다)
+	 * @param verbose
+	 */
+	public void setVerbose(boolean verbose) {
+		this.verbose = verbose;
+	}
+	
+	/**
+	 * 섹션 단위 증분 빌드 캐시를 설정한다. 여러 Assembler가 같은 캐시를 공유할 수 있다.
+	 * 내용이 바뀌지 않은 섹션은 pass1, pass2를 수행하지 않고 캐시의 결과로 테이블과 오브젝트 프로그램을 복원한다.
+	 * 복원된 섹션의 TokenTable에는 토큰이 없다. 파이프라인 처리에서는 사용하지 않는다.
+	 * @param cache : 빌드 캐시. null이면 사용하지 않는다.
+	 */
+	public void setCache(BuildCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * 단계별, 섹션별 계측을 설정한다. 섹션별 카운터는 pass2가 끝날 때 모은다.
+	 * @param stats : 계측 정보. null이면 계측하지 않는다.
+	 */
+	public void setStats(AssemblyStats stats) {
+		this.stats = stats;
+	}
+	
+	/**
+	 * 계측 정보를 반환한다.
+	 * @return 계측하지 않으면 null
+	 */
+	public AssemblyStats getStats() {
+		return stats;
+	}
+	
+	/**
+	 * 진단 모드를 설정한다. 소스 오류가 발생하면 예외를 던지지 않고 기록한 뒤, 오류가 난 토큰만 건너뛰고 모든 섹션을 끝까지 처리한다.
+	 * 오류가 있으면 오브젝트 프로그램은 불완전하므로, 어셈블 후 diagnostics.hasErrors()를 확인해야 한다.
+	 * 오류가 있는 섹션은 빌드 캐시에 저장하지 않는다. 섹션을 추가하기 전(어셈블 전)에 설정해야 한다.
+	 * @param diagnostics : 오류를 모을 공간. null이면 첫 오류에서 예외를 던진다.
+	 */
+	public void setDiagnostics(Diagnostics diagnostics) {
+		this.diagnostics = diagnostics;
+	}
+	
+	/**
+	 * 진단 정보를 반환한다.
+	 * @return 진단 모드가 아니면 null
+	 */
+	public Diagnostics getDiagnostics() {
+		return diagnostics;
+	}
+	
+	/**
+	 * inputFile을 읽어들여 pass1, pass2를 수행하고 오브젝트 프로그램을 반환한다.
+	 * 모든 상태는 인스턴스에 저장되므로, 인스턴스를 달리하면 여러 스레드에서 동시에 호출할 수 있다.
+	 * 
+	 * @param inputFile : input 파일 이름.
+	 * @return 오브젝트 프로그램
+	 */
+	public String assemble(String inputFile) {
+		if(pipelined) {
+			new AssemblyPipeline(this).run(inputFile);
 			
-			while((line = bufferedReader.readLine()) != null) {
-				if(line.trim().length() != 0 
-						&& !line.trim().startsWith(".")) { //      ̰ 0ϰ ּ  ߰ 
-					lineList.add(line);
-				}
+			if(stats != null) { // 파이프라인은 단계가 겹치므로 섹션별 카운터만 모은다.
+				stats.collect(TokenList);
 			}
-			
+		} else {
+			this.loadInputFile(inputFile);
+			this.pass1();
+			this.pass2();
+		}
+		
+		return this.getObjectProgram();
+	}
+	
+	/**
+	 * 이미 읽어들인 source에 대해 pass1, pass2를 수행하고 오브젝트 프로그램을 반환한다.
+	 * 
+	 * @param source : 읽어들인 input 파일
+	 * @return 오브젝트 프로그램
+	 */
+	public String assemble(SourceBuffer source) {
+		this.source = source;
+		this.pass1();
+		this.pass2();
+		
+		return this.getObjectProgram();
+	}
+	
+	/**
+	 * codeList의 섹션별 오브젝트 프로그램을 이어서 반환한다.
+	 * @return
+	 */
+	public String getObjectProgram() {
+		StringBuilder stringBuilder = new StringBuilder();
+		
+		codeList.forEach(stringBuilder::append);
+		
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * inputFile을 읽어들여서 source에 저장한다.
+	 * @param inputFile : input 파일 이름.
+	 */
+	private void loadInputFile(String inputFile) {
+		if(stats != null) {
+			stats.beginPhase(AssemblyStats.LOAD);
+		}
+		
+		source = SourceBuffer.load(inputFile); // 파일 전체를 한 번에 읽고 라인 위치만 기록
+		
+		if(stats != null) {
+			stats.endPhase(AssemblyStats.LOAD, false);
+		}
+		
+		if(verbose) {
 			System.out.println("init line complete!");
-			
-			bufferedReader.close();
-		} catch(FileNotFoundException e) {
-			throw new InitException(inputFile + " not found.");
-		} catch (IOException e) {
-			throw new InitException("An error occurred while reading the " + inputFile + ".");
 		}
 	}
 
 	/** 
-	 * pass1  Ѵ.
-	 *   1) α׷ ҽ ĵϿ ū и  ū̺ 
-	 *   2) label symbolTable 
+	 * pass1 과정을 수행한다.
+	 *   1) 프로그램 소스를 스캔하여 토큰단위로 분리한 뒤 토큰테이블 생성
+	 *   2) label을 symbolTable에 정리
 	 *   
-	 *    ǻ : SymbolTable TokenTable α׷ section ϳ Ǿ Ѵ.
+	 *    주의사항 : SymbolTable과 TokenTable은 프로그램의 section별로 하나씩 선언되어야 한다.
+	 *    
+	 *   섹션의 경계(CSECT)는 토큰을 만들기 전에 미리 찾는다. 심볼과 리터럴은 섹션별로 관리되므로, 
+	 *   parallelism이 2 이상이면 섹션 단위로 토큰 분리와 주소 할당을 ForkJoinPool에서 동시에 처리한다.
 	 */
 	private void pass1() {
-		// н 1  ϴ  ʱȭ
-		TokenTable tokenTable = null;
-		LiteralTable literalTable = null;
-		SymbolTable symbolTable = null;
-		ExtTable extTable = null;
-		Section section = null;
-		ModifyTable modify = null;
-		Token newSectionFirstToken = null;
-		
-		// ū 
-		for(String line : lineList) {
+		if(stats != null) {
+			stats.beginPhase(AssemblyStats.PASS1);
+		}
+		
+		// 섹션 경계 탐색
+		int[] sectionBegin = source.findSections();
+		boolean pooled = parallelism > 1 && sectionBegin.length > 1;
+		
+		if(stats != null) {
+			stats.setSectionCount(sectionBegin.length);
+		}
+		
+		// 섹션 별 테이블 생성 (소스 순서)
+		for(int sectionNumber = 0; sectionNumber < sectionBegin.length; sectionNumber++) {
+			this.addSection();
+		}
+		
+		if(cache != null) {
+			sectionKey = new String[sectionBegin.length];
+			cachedProgram = new String[sectionBegin.length];
+		}
+		
+		if(pooled) {
+			ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, sectionBegin.length));
 			
-			//    ʱȭ begin --
-			if(TokenList.size() < (Assembler.numberOfSection + 1)) { 
-				if(tokenTable != null) { // ū ̺   
-					newSectionFirstToken = tokenTable.getToken(tokenTable.tokenList.size() - 1); //  ū ȸ (CSECT)
-					tokenTable.removeLastToken(); //  ū 
-					
-					tokenTable.setLocation(); // ū ּ Ҵ
-				}
-				
-				symbolTable = new SymbolTable(); // ű  ɺ ̺ 
-				literalTable = new LiteralTable(); // ű  ͷ ̺ 
-				extTable = new ExtTable();  // ű  ܺ/ ̺ 
-				section = new Section(); //   ϴ  ü 
-				modify = new ModifyTable();
-				
-				// Ʈ Ҵ
-				symtabList.add(symbolTable);
-				literaltabList.add(literalTable);
-				extList.add(extTable);
-				sectionList.add(section);
-				modifyList.add(modify);
+			try {
+				ArrayList<ForkJoinTask<?>> taskList = new ArrayList<>(sectionBegin.length);
 				
-				tokenTable = new TokenTable(symbolTable, instTable, literalTable, extTable, section, modify); // ū ̺ 
-				
-				if(newSectionFirstToken != null) {
-					tokenTable.setToken(newSectionFirstToken); // ű  ù° 
+				for(int sectionNumber = 0; sectionNumber < sectionBegin.length; sectionNumber++) { // 섹션 별 작업 등록
+					final int number = sectionNumber;
 					
-					newSectionFirstToken = null; // ٽ űԼ   ó  ֵ ʱȭ
+					taskList.add(pool.submit(() -> this.pass1(number, sectionBegin)));
 				}
 				
-				TokenList.add(tokenTable); // ū Ʈ ū ̺ ߰
+				for(ForkJoinTask<?> task : taskList) { // 소스 순서대로 완료 대기
+					task.join();
+				}
+			} finally {
+				pool.shutdown();
 			}
-			//    ʱȭ end --
+		} else {
+			for(int sectionNumber = 0; sectionNumber < sectionBegin.length; sectionNumber++) {
+				this.pass1(sectionNumber, sectionBegin);
+			}
+		}
+		
+		if(stats != null) {
+			stats.endPhase(AssemblyStats.PASS1, pooled);
+		}
+		
+		if(verbose) {
+			System.err.println("pass 1 complete!");
+		}
+	}
+	
+	/**
+	 * 섹션 하나에 대한 pass1 과정을 수행한다. 해당 섹션의 라인과 테이블만 사용한다.
+	 * @param sectionNumber : 섹션 순번
+	 * @param sectionBegin : 섹션별 시작 라인 번호
+	 */
+	private void pass1(int sectionNumber, int[] sectionBegin) {
+		TokenTable tokenTable = TokenList.get(sectionNumber);
+		int end = sectionNumber + 1 < sectionBegin.length ? sectionBegin[sectionNumber + 1] : source.size();
+		SectionTimer timer = AssemblyStats.beginSection(stats, sectionNumber, 1);
+		
+		if(cache != null) { // 내용이 같은 섹션의 결과가 있으면 복원
+			sectionKey[sectionNumber] = BuildCache.key(instTable, source, sectionBegin[sectionNumber], end, coalesceModify);
+			
+			CacheEntry entry = cache.get(sectionKey[sectionNumber]);
 			
-			tokenTable.putToken(line); // ū 
+			if(entry != null) {
+				entry.restore(tokenTable);
+				cachedProgram[sectionNumber] = entry.objectProgram;
+				AssemblyStats.endSection(stats, timer, tokenTable, true);
+				return;
+			}
 		}
 		
-		//  ū ̺ ̼ Ҵ
+		// 토큰 설정
+		this.tokenize(tokenTable, sectionBegin[sectionNumber], end);
+		
+		// 토큰에 주소정보 할당
 		tokenTable.setLocation();
 		
-		System.err.println("pass 1 complete!");
+		AssemblyStats.endSection(stats, timer, tokenTable, false);
 	}
 	
 	/**
-	 * ۼ SymbolTable ¿ ° Ѵ.
-	 * @param fileName : Ǵ  ̸
+	 * 신규 섹션의 테이블들을 생성하여 리스트 끝에 추가한다.
+	 * @return 신규 섹션의 토큰 테이블
 	 */
-	private void printSymbolTable(String fileName) {
-		try {
-			BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(fileName));
-			StringBuilder stringBuilder = new StringBuilder();
+	TokenTable addSection() {
+		SymbolTable symbolTable = new SymbolTable(); // 신규 섹션의 심볼 테이블 생성
+		LiteralTable literalTable = new LiteralTable(); // 신규 섹션의 리터럴 테이블 생성
+		ExtTable extTable = new ExtTable();  // 신규 섹션의 외부참조/정의 테이블 생성
+		Section section = new Section(); // 섹션 정보를 관리하는 섹션 객체 생성
+		ModifyTable modify = new ModifyTable();
+		modify.coalesce = coalesceModify;
+		TokenTable tokenTable = new TokenTable(symbolTable, instTable, literalTable, extTable, section, modify); // 토큰 테이블 생성
+		
+		tokenTable.diagnostics = diagnostics;
+		
+		// 리스트에 할당
+		symtabList.add(symbolTable);
+		literaltabList.add(literalTable);
+		extList.add(extTable);
+		sectionList.add(section);
+		modifyList.add(modify);
+		TokenList.add(tokenTable);
+		
+		return tokenTable;
+	}
+	
+	/**
+	 * source의 begin 라인부터 end 라인 전까지 토큰으로 분리하여 토큰 테이블에 추가한다.
+	 * @param tokenTable : 섹션의 토큰 테이블
+	 * @param begin : 시작 라인 번호
+	 * @param end : 끝 라인 번호 (포함하지 않음)
+	 */
+	void tokenize(TokenTable tokenTable, int begin, int end) {
+		this.tokenize(tokenTable, source, begin, end);
+	}
+	
+	/**
+	 * source의 begin 라인부터 end 라인 전까지 토큰으로 분리하여 토큰 테이블에 추가한다.
+	 * @param tokenTable : 섹션의 토큰 테이블
+	 * @param source : 섹션의 라인이 기록된 input 파일 (나누어 읽는 중의 view일 수 있다)
+	 * @param begin : 시작 라인 번호
+	 * @param end : 끝 라인 번호 (포함하지 않음)
+	 */
+	void tokenize(TokenTable tokenTable, SourceBuffer source, int begin, int end) {
+		for(int line = begin; line < end; line++) {
+			tokenTable.putToken(source.data, source.getBegin(line), source.getEnd(line)); // 토큰 삽입
+		}
+	}
+	
+	/**
+	 * 작성된 SymbolTable들을 출력형태로 변환한다. (섹션 사이는 빈 줄로 구분)
+	 * @return
+	 */
+	String formatSymbolTable() {
+		return OutputWriter.format(this::writeSymbolTable);
+	}
+	
+	/**
+	 * 작성된 SymbolTable들을 출력형태로 기록한다. (섹션 사이는 빈 줄로 구분)
+	 * @param out : 출력 대상
+	 * @throws IOException
+	 */
+	void writeSymbolTable(Appendable out) throws IOException {
+		for(int i = 0; i < TokenList.size(); i++) { // 섹션 수 만큼 반복
+			TokenTable tokenTable = TokenList.get(i); 
 			
-			for(int i = 0; i < TokenList.size(); i++) { //   ŭ ݺ
-				TokenTable tokenTable = TokenList.get(i); 
-				
-				for(int z = 0; z < tokenTable.symTab.symbolList.size(); z++) { //    ɺ  ŭ ݺ
-					stringBuilder.append(tokenTable.symTab.symbolList.get(z)) // ۿ Է
-							     .append("\t")
-							     .append(String.format("%02X", tokenTable.symTab.locationList.get(z)))
-								 .append("\n");
-				}
-				
-				stringBuilder.append("\n");
+			for(int z = 0; z < tokenTable.symTab.size(); z++) { // 각 섹션 별 심볼 수 만큼 반복
+				out.append(tokenTable.symTab.getSymbol(z)) // 버퍼에 입력
+				   .append("\t")
+				   .append(String.format("%02X", tokenTable.symTab.getLocation(z)))
+				   .append("\n");
+			}
+			
+			out.append("\n");
+		}
+	}
+	
+	/**
+	 * 작성된 LiteralTable들을 출력형태로 변환한다.
+	 * @return
+	 */
+	String formatLiteralTable() {
+		return OutputWriter.format(this::writeLiteralTable);
+	}
+	
+	/**
+	 * 작성된 LiteralTable들을 출력형태로 기록한다.
+	 * @param out : 출력 대상
+	 * @throws IOException
+	 */
+	void writeLiteralTable(Appendable out) throws IOException {
+		for(int i = 0; i < TokenList.size(); i++) { // 섹션 수 만큼 반복
+			TokenTable tokenTable = TokenList.get(i); 
+			
+			for(int z = 0; z < tokenTable.literalTab.size(); z++) { // 각 섹션 별 리터럴 수 만큼 반복
+				out.append(tokenTable.literalTab.getLiteral(z)) // 버퍼에 입력
+				   .append("\t")
+				   .append(String.format("%02X", tokenTable.literalTab.getLocation(z)))
+				   .append("\n");
+			}
+		}
+	}
+	
+	/**
+	 * 작성된 codeList를 섹션 순서대로 기록한다. (이어 붙인 문자열을 만들지 않는다)
+	 * @param out : 출력 대상
+	 * @throws IOException
+	 */
+	void writeObjectCode(Appendable out) throws IOException {
+		for(String objectProgram : codeList) {
+			out.append(objectProgram);
+		}
+	}
+	
+	/**
+	 * SymbolTable, LiteralTable, codeList를 동시에 저장한다. 테이블은 공용 ForkJoinPool에서, object program은 호출한 스레드에서 저장한다.
+	 * object program이 작으면 스레드를 쓰는 비용이 더 크므로 순서대로 저장한다.
+	 * 각 파일은 모두 기록된 뒤에만 교체되며, 하나라도 실패하면 OutputException을 던진다. (시간은 모두 write 단계로 계측)
+	 * @param symtabFile : symbol table 파일 이름
+	 * @param littabFile : literal table 파일 이름
+	 * @param objectFile : object program 파일 이름
+	 */
+	void printOutputs(String symtabFile, String littabFile, String objectFile) {
+		long objectLength = 0;
+		
+		if(stats != null) {
+			stats.beginPhase(AssemblyStats.WRITE);
+		}
+		
+		for(String objectProgram : codeList) {
+			objectLength = objectLength + objectProgram.length();
+		}
+		
+		if(objectLength < CONCURRENT_OUTPUT_LENGTH) {
+			OutputWriter.write(symtabFile, this::writeSymbolTable);
+			OutputWriter.write(littabFile, this::writeLiteralTable);
+			OutputWriter.write(objectFile, this::writeObjectCode);
+		} else {
+			ForkJoinTask<?> symtabTask = ForkJoinPool.commonPool().submit(() -> OutputWriter.write(symtabFile, this::writeSymbolTable));
+			ForkJoinTask<?> littabTask = ForkJoinPool.commonPool().submit(() -> OutputWriter.write(littabFile, this::writeLiteralTable));
+			RuntimeException failure = null;
+			
+			try {
+				OutputWriter.write(objectFile, this::writeObjectCode);
+			} catch(RuntimeException e) {
+				failure = e;
+			} finally { // 테이블 저장이 끝난 뒤에 결과를 알린다. (먼저 발생한 예외를 던지고 나머지는 suppressed로 붙인다)
+				failure = join(symtabTask, failure);
+				failure = join(littabTask, failure);
 			}
 			
-			bufferedOutputStream.write(stringBuilder.toString().getBytes()); //  
-			bufferedOutputStream.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
+			if(failure != null) {
+				throw failure;
+			}
+		}
+		
+		if(stats != null) {
+			stats.endPhase(AssemblyStats.WRITE, false);
 		}
 		
-		System.out.println("print symbol table complete!");
+		if(verbose) {
+			System.out.println("print symbol table complete!");
+			System.out.println("print literal table complete!");
+			System.out.println("print object program complete!");
+		}
 	}
 
 	/**
-	 * ۼ LiteralTable ¿ ° Ѵ.
-	 * @param fileName : Ǵ  ̸
+	 * 저장 작업이 끝날 때까지 기다린다.
+	 * @param task : 저장 작업
+	 * @param failure : 먼저 발생한 예외. 없으면 null
+	 * @return 먼저 발생한 예외 (작업의 예외는 suppressed로 붙인다). 없으면 작업의 예외 또는 null
 	 */
-	private void printLiteralTable(String fileName) {
+	private static RuntimeException join(ForkJoinTask<?> task, RuntimeException failure) {
 		try {
-			BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(fileName));
-			StringBuilder stringBuilder = new StringBuilder();
+			task.join();
+		} catch(RuntimeException e) {
+			// 다른 스레드에서 발생한 예외는 같은 종류의 새 예외(cause가 원래 예외)로 다시 던져지므로 원래 예외를 사용한다.
+			RuntimeException error = e.getCause() != null && e.getCause().getClass() == e.getClass() ? (RuntimeException) e.getCause() : e;
 			
-			for(int i = 0; i < TokenList.size(); i++) { //   ŭ ݺ
-				TokenTable tokenTable = TokenList.get(i); 
-				
-				for(int z = 0; z < tokenTable.literalTab.literalList.size(); z++) { //    ͷ  ŭ ݺ
-					stringBuilder.append(tokenTable.literalTab.literalList.get(z)) // ۿ Է
-							     .append("\t")
-							     .append(String.format("%02X", tokenTable.literalTab.locationList.get(z)))
-								 .append("\n");
-				}
+			if(failure == null) {
+				return error;
 			}
 			
-			bufferedOutputStream.write(stringBuilder.toString().getBytes()); //  
-			bufferedOutputStream.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
+			failure.addSuppressed(error);
 		}
 		
-		System.out.println("print literal table complete!");
+		return failure;
 	}
 
 	/**
-	 * pass2  Ѵ.
-	 *   1) м   object code Ͽ codeList .
+	 * pass2 과정을 수행한다.
+	 *   1) 분석된 내용을 바탕으로 object code를 생성하여 codeList에 저장.
+	 *   
+	 *   pass1이 끝난 뒤 섹션별 테이블은 서로 독립적이므로, parallelism이 2 이상이면
+	 *   섹션 단위로 ForkJoinPool에서 동시에 처리한 뒤 소스 순서대로 codeList에 모은다.
 	 */
 	private void pass2() {
+		boolean pooled = parallelism > 1 && sectionList.size() > 1;
 		
-		// н 1  ϴ  ʱȭ
-		TokenTable tokenTable = null;
-		SymbolTable symbolTable = null;
-		ExtTable extTable = null;
-		
-		// pass 2 
-		for(int sectionNumber = 0; sectionNumber < sectionList.size(); sectionNumber++) {
-			//    ʱȭ 
-			tokenTable = TokenList.get(sectionNumber);
-			extTable = extList.get(sectionNumber);
-			symbolTable = symtabList.get(sectionNumber);
-			
-			// ܺ  ̺ Ѵ.
-			extTable.validation(symbolTable);
-			
-			// Ʈ ڵ带 Ѵ.
-			tokenTable.makeObjectCode();
-			
-			// Ʈ α׷ Ѵ.
-			String objectProgram = tokenTable.makeObjectProgram();
+		if(stats != null) {
+			stats.beginPhase(AssemblyStats.PASS2);
+		}
+		
+		if(pooled) {
+			ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, sectionList.size()));
 			
-			codeList.add(objectProgram);
+			try {
+				ArrayList<ForkJoinTask<String>> taskList = new ArrayList<>(sectionList.size());
+				
+				for(int sectionNumber = 0; sectionNumber < sectionList.size(); sectionNumber++) { // 섹션 별 작업 등록
+					final int number = sectionNumber;
+					
+					taskList.add(pool.submit(() -> this.pass2(number)));
+				}
+				
+				for(ForkJoinTask<String> task : taskList) { // 소스 순서대로 결과 수집
+					codeList.add(task.join());
+				}
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			// pass 2 수행
+			for(int sectionNumber = 0; sectionNumber < sectionList.size(); sectionNumber++) {
+				codeList.add(this.pass2(sectionNumber));
+			}
+		}
+		
+		if(stats != null) {
+			stats.endPhase(AssemblyStats.PASS2, pooled);
+			stats.collect(TokenList);
 		}
 		
-		System.err.println("pass 2 complete!");
+		if(verbose) {
+			System.err.println("pass 2 complete!");
+		}
 	}
 	
 	/**
-	 * ۼ codeList ¿ ° Ѵ.
-	 * @param fileName : Ǵ  ̸
+	 * 섹션 하나에 대한 pass2 과정을 수행한다. 해당 섹션의 테이블만 사용한다.
+	 * @param sectionNumber : 섹션 순번
+	 * @return 섹션의 오브젝트 프로그램
 	 */
-	private void printObjectCode(String fileName) {
-		try {
-			BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(fileName));
-			StringBuilder stringBuilder = new StringBuilder();
-			
-			codeList.stream().forEach(stringBuilder::append);
-			
-			bufferedOutputStream.write(stringBuilder.toString().getBytes()); //  
-			bufferedOutputStream.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
+	private String pass2(int sectionNumber) {
+		// 섹션 별 변수 초기화 
+		TokenTable tokenTable = TokenList.get(sectionNumber);
+		SectionTimer timer = AssemblyStats.beginSection(stats, sectionNumber, 2);
+		
+		if(cache != null && cachedProgram[sectionNumber] != null) { // 캐시에서 복원한 섹션
+			AssemblyStats.endSection(stats, timer, tokenTable, true);
+			return cachedProgram[sectionNumber];
+		}
+		
+		// 외부 정의 테이블을 검증한다.
+		tokenTable.validateExtdef();
+		
+		// 오브젝트 코드를 생성한다.
+		tokenTable.makeObjectCode();
+		
+		// 오브젝트 프로그램을 생성한다.
+		String objectProgram = tokenTable.makeObjectProgram();
+		
+		if(cache != null && tokenTable.errorCount == 0) { // 오류가 있는 섹션은 저장하지 않는다.
+			cache.put(sectionKey[sectionNumber], CacheEntry.capture(tokenTable, objectProgram));
 		}
 		
-		System.out.println("print object program complete!");
+		AssemblyStats.endSection(stats, timer, tokenTable, false);
+		
+		return objectProgram;
+	}
+	
+	/**
+	 * 진단 모드에서 오류가 있으면 모든 오류를 표준 에러로 출력하고 종료한다. (오브젝트 프로그램은 저장하지 않는다)
+	 * @param inputFile : 오류 앞에 붙일 input 파일 이름
+	 */
+	private void exitOnErrors(String inputFile) {
+		if(diagnostics == null || !diagnostics.hasErrors()) {
+			return;
+		}
+		
+		System.err.print(diagnostics.format(inputFile));
+		System.err.println(diagnostics.size() + " error(s)");
+		System.exit(1);
+	}
+	
+	/**
+	 * 계측 요약을 표준 에러로 출력하고 JSON으로 저장한다.
+	 * @param jsonFile : JSON 파일 이름. null이면 아무것도 하지 않는다.
+	 */
+	void printStats(String jsonFile) {
+		if(stats == null || jsonFile == null) {
+			return;
+		}
+		
+		List<AssemblyStats> statsList = Collections.singletonList(stats);
+		
+		System.err.print(AssemblyStats.summary(statsList, 10));
+		AssemblyStats.writeJson(Paths.get(jsonFile), statsList);
 	}
 	
 }
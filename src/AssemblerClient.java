@@ -0,0 +1,106 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * AssemblerDaemon에 어셈블 요청을 보내는 클라이언트.
+ * instruction 명세를 읽지 않고 요청과 응답만 전달하므로, 파일 하나의 처리 시간은 JVM 시작 시간과 데몬의 어셈블 시간이 대부분이다.
+ *
+ * 사용법 : java AssemblerClient [-socket 경로 | -port n] (파일 | - | -stats | -shutdown)
+ *   1) 파일 : 데몬이 파일을 어셈블하고 결과(symtab, littab, obj)를 파일 옆에 저장한다. 응답은 표준 출력으로 출력한다.
+ *   2) - : 표준 입력의 소스를 어셈블하고 결과를 표준 출력으로 출력한다.
+ *   3) -stats : 데몬의 처리 통계
+ *   4) -shutdown : 데몬 종료
+ * 오류 응답은 표준 에러로 출력하고 1을 반환한다.
+ */
+public class AssemblerClient {
+	/**
+	 * 클라이언트의 메인 루틴
+	 */
+	public static void main(String[] args) throws IOException {
+		SocketAddress address = UnixDomainSocketAddress.of(AssemblerDaemon.DEFAULT_SOCKET);
+		String type = null;
+		byte[] body = null;
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("-socket") && i + 1 < args.length) {
+				address = UnixDomainSocketAddress.of(args[++i]);
+			} else if(args[i].equals("-port") && i + 1 < args.length) {
+				address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[++i]));
+			} else if(args[i].equals("-stats")) {
+				type = AssemblerDaemon.STATS;
+				body = new byte[0];
+			} else if(args[i].equals("-shutdown")) {
+				type = AssemblerDaemon.SHUTDOWN;
+				body = new byte[0];
+			} else if(args[i].equals("-")) {
+				type = AssemblerDaemon.TEXT;
+				body = System.in.readAllBytes();
+			} else {
+				type = AssemblerDaemon.FILE; // 데몬의 작업 디렉토리와 다를 수 있으므로 절대 경로로 보낸다.
+				body = Paths.get(args[i]).toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8);
+			}
+		}
+		
+		if(type == null) {
+			System.err.println("usage: java AssemblerClient [-socket path | -port n] (file | - | -stats | -shutdown)");
+			System.exit(2);
+		}
+		
+		try {
+			System.exit(request(address, type, body));
+		} catch(IOException e) { // 데몬이 실행 중이 아닌 경우
+			System.err.println("cannot reach daemon at " + address + " : " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * 요청 하나를 보내고 응답 본문을 출력한다.
+	 * @param address : 데몬 주소
+	 * @param type : 요청 종류
+	 * @param body : 요청 본문
+	 * @return 종료 코드. 성공 0, 오류 응답 1
+	 * @throws IOException
+	 */
+	static int request(SocketAddress address, String type, byte[] body) throws IOException {
+		try(SocketChannel channel = address instanceof UnixDomainSocketAddress
+				? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open()) {
+			channel.connect(address);
+			
+			OutputStream output = Channels.newOutputStream(channel);
+			InputStream input = new BufferedInputStream(Channels.newInputStream(channel));
+			
+			AssemblerDaemon.writeMessage(output, type, body);
+			
+			String[] header = AssemblerDaemon.readHeader(input);
+			
+			if(header == null) {
+				throw new IOException("Connection closed by daemon.");
+			}
+			
+			byte[] response = AssemblerDaemon.readBody(input, header);
+			
+			if(header[0].equals(AssemblerDaemon.OK)) {
+				System.out.write(response);
+				System.out.flush();
+				return 0;
+			}
+			
+			System.err.write(response);
+			System.err.println();
+			return 1;
+		}
+	}
+}
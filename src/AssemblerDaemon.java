@@ -0,0 +1,616 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import exception.InitException;
+
+/**
+ * 어셈블 요청을 로컬 소켓(Unix domain socket 또는 loopback 포트)으로 받아 처리하는 상주 프로세스.
+ * instruction 명세를 한 번만 읽고 JVM을 유지하므로, 요청마다 JVM 시작, 클래스 로딩, inst.data 분석, JIT 준비 비용이 들지 않는다.
+ * 요청마다 별도의 Assembler를 스레드 풀에서 수행하며, 한 요청의 오류는 다른 요청에 영향을 주지 않는다.
+ *
+ * 사용법 : java AssemblerDaemon [-inst inst.data] [-threads n] [-cache 디렉토리] [-socket 경로 | -port n] [-watch 디렉토리] ...
+ *   -watch : 디렉토리 하위의 *.asm, *.txt 파일이 바뀌면 백그라운드에서 다시 어셈블하여 결과를 파일 옆에 저장한다.
+ *
+ * 요청과 응답은 "헤더 라인(\n) + 본문" 형식이다. 본문의 길이는 헤더에 byte 수로 적는다.
+ *   1) FILE 길이 : 본문은 input 파일의 절대 경로. 결과(symtab, littab, obj)를 파일 옆에도 저장한다.
+ *   2) TEXT 길이 : 본문은 소스 내용
+ *   3) STATS 0 : 처리 통계
+ *   4) SHUTDOWN 0 : 종료
+ * 응답 헤더는 "OK 길이" 또는 "ERROR 길이"이다.
+ * OK 본문은 오브젝트 프로그램, 심볼 테이블, 리터럴 테이블을 "#OBJ", "#SYMTAB", "#LITTAB" 라인으로 구분하여 담는다.
+ * ERROR 본문은 소스 오류이면 모든 오류의 위치와 메시지(Diagnostics, "파일:라인:컬럼: error: 메시지")와 오류 수,
+ * 그 밖의 오류(파일 없음 등)이면 예외 이름과 메시지이다. TEXT 요청의 파일 이름은 "<stdin>"으로 표시한다.
+ * 헤더의 형식이 잘못되었거나 길이가 음수, MAX_BODY_LENGTH 초과이면 다음 요청을 구분할 수 없으므로 연결을 끊는다.
+ */
+public class AssemblerDaemon {
+	/** 기본 소켓 경로 (AssemblerClient와 공유) */
+	static final Path DEFAULT_SOCKET = Paths.get(System.getProperty("java.io.tmpdir"), "sicxe-assembler.sock");
+	/** 파일 변경 이벤트를 모으는 시간 (편집기의 연속 저장을 한 번에 처리) */
+	private static final long WATCH_DELAY_MILLIS = 50;
+	/** TEXT 요청의 오류 위치에 표시하는 파일 이름 */
+	private static final String TEXT_NAME = "<stdin>";
+	/** 본문의 최대 길이 (10000000 문장의 소스가 약 115MB) */
+	static final int MAX_BODY_LENGTH = 512 * 1024 * 1024;
+	
+	/* 요청 종류 */
+	static final String FILE = "FILE";
+	static final String TEXT = "TEXT";
+	static final String STATS = "STATS";
+	static final String SHUTDOWN = "SHUTDOWN";
+	
+	/* 응답 종류 */
+	static final String OK = "OK";
+	static final String ERROR = "ERROR";
+	
+	/** 모든 Assembler가 공유하는 instruction 명세 */
+	InstTable instTable;
+	/** 동시에 처리할 요청 수 */
+	int threads;
+	/** 섹션 단위 증분 빌드 캐시 (null이면 사용하지 않음) */
+	BuildCache cache;
+	
+	private ServerSocketChannel server;
+	private ExecutorService executor;
+	private volatile boolean running;
+	
+	/* 처리 통계 */
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong lineCount = new AtomicLong();
+	private final AtomicLong assembleNanos = new AtomicLong();
+	
+	/**
+	 * 생성자 선언
+	 * @param instTable : 공유할 instruction 명세
+	 * @param threads : 동시에 처리할 요청 수
+	 */
+	public AssemblerDaemon(InstTable instTable, int threads) {
+		this.instTable = instTable;
+		this.threads = Math.max(threads, 1);
+	}
+	
+	/**
+	 * 상주 프로세스의 메인 루틴
+	 */
+	public static void main(String[] args) {
+		String instFile = null; // 지정하지 않으면 생성된 상수(InstData) 사용
+		int threads = Runtime.getRuntime().availableProcessors();
+		String cacheDirectory = null;
+		SocketAddress address = UnixDomainSocketAddress.of(DEFAULT_SOCKET);
+		ArrayList<Path> watchList = new ArrayList<>();
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("-inst") && i + 1 < args.length) {
+				instFile = args[++i];
+			} else if(args[i].equals("-threads") && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else if(args[i].equals("-cache") && i + 1 < args.length) {
+				cacheDirectory = args[++i];
+			} else if(args[i].equals("-socket") && i + 1 < args.length) {
+				address = UnixDomainSocketAddress.of(args[++i]);
+			} else if(args[i].equals("-port") && i + 1 < args.length) {
+				address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[++i]));
+			} else if(args[i].equals("-watch") && i + 1 < args.length) {
+				watchList.add(Paths.get(args[++i]).toAbsolutePath().normalize());
+			} else {
+				System.err.println("usage: java AssemblerDaemon [-inst inst.data] [-threads n] [-cache dir] [-socket path | -port n] [-watch dir] ...");
+				System.exit(2);
+			}
+		}
+		
+		AssemblerDaemon daemon = new AssemblerDaemon(instFile == null ? new InstTable() : new InstTable(instFile), threads);
+		
+		if(cacheDirectory != null) {
+			daemon.cache = new BuildCache(Paths.get(cacheDirectory), BuildCache.DEFAULT_MAX_SIZE);
+		}
+		
+		try {
+			if(!watchList.isEmpty()) {
+				daemon.startWatch(watchList);
+			}
+			
+			daemon.serve(address);
+		} catch(IOException e) {
+			System.err.println("daemon stopped : " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * address에서 요청을 받는다. SHUTDOWN 요청을 받거나 stop()이 호출될 때 까지 반환하지 않는다.
+	 * @param address : Unix domain socket 경로 또는 loopback 주소
+	 * @throws IOException
+	 */
+	public void serve(SocketAddress address) throws IOException {
+		if(address instanceof UnixDomainSocketAddress) {
+			Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath()); // 이전 프로세스가 남긴 소켓 파일
+			server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		} else {
+			server = ServerSocketChannel.open();
+		}
+		
+		server.bind(address);
+		executor = Executors.newFixedThreadPool(threads);
+		running = true;
+		
+		System.err.println("listening on " + server.getLocalAddress());
+		
+		try {
+			while(running) {
+				SocketChannel channel;
+				
+				try {
+					channel = server.accept();
+				} catch(ClosedChannelException e) { // stop()
+					break;
+				}
+				
+				executor.execute(() -> this.handle(channel));
+			}
+		} finally {
+			this.stop();
+			executor.shutdown();
+			
+			if(cache != null) { // 처리 중인 요청이 끝난 뒤 저장 대기 중인 항목 기록
+				try {
+					executor.awaitTermination(1, TimeUnit.MINUTES);
+				} catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				
+				cache.flush();
+			}
+			
+			if(address instanceof UnixDomainSocketAddress) {
+				Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+			}
+		}
+	}
+	
+	/**
+	 * 요청 받기를 멈춘다. 처리 중인 요청은 끝까지 수행한다.
+	 */
+	public void stop() {
+		running = false;
+		
+		try {
+			if(server != null) {
+				server.close();
+			}
+		} catch(IOException e) {
+			// 이미 닫힌 경우
+		}
+	}
+	
+	/**
+	 * 연결 하나의 요청들을 순서대로 처리한다. 연결이 끊어지면 반환한다.
+	 * @param channel
+	 */
+	private void handle(SocketChannel channel) {
+		try(channel) {
+			InputStream input = new BufferedInputStream(Channels.newInputStream(channel));
+			OutputStream output = Channels.newOutputStream(channel);
+			String[] header;
+			
+			while((header = readHeader(input)) != null) {
+				byte[] body = readBody(input, header);
+				
+				try {
+					switch(header[0]) {
+					case FILE:
+						this.assembleFile(output, Paths.get(new String(body, StandardCharsets.UTF_8)));
+						break;
+					case TEXT:
+						this.assembleText(output, body);
+						break;
+					case STATS:
+						writeMessage(output, OK, this.getStatistics().getBytes(StandardCharsets.ISO_8859_1));
+						break;
+					case SHUTDOWN:
+						writeMessage(output, OK, new byte[0]);
+						this.stop();
+						return;
+					default:
+						writeMessage(output, ERROR, ("Unknown request " + header[0]).getBytes(StandardCharsets.ISO_8859_1));
+						break;
+					}
+				} catch(RuntimeException e) { // 잘못된 경로(InvalidPathException) 등. 본문은 모두 읽었으므로 연결을 유지한다.
+					failedCount.incrementAndGet();
+					writeMessage(output, ERROR, describe(e).getBytes(StandardCharsets.ISO_8859_1));
+				}
+			}
+		} catch(IOException e) {
+			// 클라이언트가 연결을 끊은 경우. 다른 연결에는 영향이 없다.
+		}
+	}
+	
+	/**
+	 * input 파일을 어셈블하고 결과를 파일 옆에 저장한 뒤 응답한다.
+	 * @param output
+	 * @param file : input 파일의 절대 경로
+	 * @throws IOException
+	 */
+	private void assembleFile(OutputStream output, Path file) throws IOException {
+		Assembler assembler = this.newAssembler();
+		long startTime = System.nanoTime();
+		String errors;
+		
+		try {
+			assembler.assemble(file.toString());
+			errors = errors(assembler, file.toString());
+			
+			if(errors == null) { // 소스 오류가 있으면 결과 파일은 저장하지 않는다.
+				BatchAssembler.writeOutputs(assembler, file);
+			}
+		} catch(RuntimeException e) {
+			errors = describe(e);
+		}
+		
+		if(errors != null) {
+			failedCount.incrementAndGet();
+			writeMessage(output, ERROR, errors.getBytes(StandardCharsets.ISO_8859_1));
+			return;
+		}
+		
+		this.record(assembler, startTime);
+		writeMessage(output, OK, format(assembler));
+	}
+	
+	/**
+	 * 소스 내용을 어셈블하고 결과를 응답한다. 파일은 저장하지 않는다.
+	 * @param output
+	 * @param text : 소스 내용
+	 * @throws IOException
+	 */
+	private void assembleText(OutputStream output, byte[] text) throws IOException {
+		Assembler assembler = this.newAssembler();
+		long startTime = System.nanoTime();
+		String errors;
+		
+		try {
+			assembler.assemble(new SourceBuffer(text));
+			errors = errors(assembler, TEXT_NAME);
+		} catch(RuntimeException e) {
+			errors = describe(e);
+		}
+		
+		if(errors != null) {
+			failedCount.incrementAndGet();
+			writeMessage(output, ERROR, errors.getBytes(StandardCharsets.ISO_8859_1));
+			return;
+		}
+		
+		this.record(assembler, startTime);
+		writeMessage(output, OK, format(assembler));
+	}
+	
+	/**
+	 * 요청마다 사용할 Assembler를 생성한다. (instruction 명세와 캐시는 공유)
+	 * 소스의 모든 오류를 응답하도록 진단 모드로 설정한다. (BatchAssembler와 같음)
+	 * @return
+	 */
+	private Assembler newAssembler() {
+		Assembler assembler = new Assembler(instTable);
+		
+		assembler.setVerbose(false);
+		assembler.setCache(cache);
+		assembler.setDiagnostics(new Diagnostics());
+		
+		return assembler;
+	}
+	
+	/**
+	 * 어셈블 중 모은 소스 오류를 응답 형식으로 반환한다.
+	 * @param assembler : 어셈블이 끝난 Assembler
+	 * @param fileName : 오류 위치에 표시할 파일 이름
+	 * @return 오류마다 "파일:라인:컬럼: error: 메시지" 라인과 오류 수. 오류가 없으면 null
+	 */
+	private static String errors(Assembler assembler, String fileName) {
+		Diagnostics diagnostics = assembler.getDiagnostics();
+		
+		if(!diagnostics.hasErrors()) {
+			return null;
+		}
+		
+		return diagnostics.format(fileName) + diagnostics.size() + " error(s)";
+	}
+	
+	/**
+	 * 성공한 요청의 통계를 기록한다.
+	 * @param assembler
+	 * @param startTime
+	 */
+	private void record(Assembler assembler, long startTime) {
+		assembleNanos.addAndGet(System.nanoTime() - startTime);
+		lineCount.addAndGet(assembler.source.size());
+		requestCount.incrementAndGet();
+	}
+	
+	/**
+	 * 처리 통계를 출력 형태로 반환한다.
+	 * @return
+	 */
+	public String getStatistics() {
+		long requests = requestCount.get();
+		
+		return String.format("requests %d (%d failed), %d lines, assemble %.3fms avg%s",
+				requests, failedCount.get(), lineCount.get(), requests == 0 ? 0.0 : assembleNanos.get() / 1e6 / requests,
+				cache != null ? "\n" + cache.getStatistics() : "");
+	}
+	
+	// 감시 모드 begin --
+	
+	/**
+	 * 디렉토리들을 감시하는 백그라운드 스레드를 시작한다.
+	 * 바뀐 input 파일은 잠시 모았다가 한 번씩 어셈블하고 결과를 파일 옆에 저장한다. 결과 파일(symtab, littab, obj)은 감시 대상이 아니다.
+	 * @param directoryList : 감시할 디렉토리 (하위 디렉토리 포함)
+	 * @throws IOException
+	 */
+	public void startWatch(ArrayList<Path> directoryList) throws IOException {
+		WatchService watchService = directoryList.get(0).getFileSystem().newWatchService();
+		HashMap<WatchKey, Path> keyMap = new HashMap<>();
+		
+		for(Path directory : directoryList) {
+			register(watchService, keyMap, directory);
+		}
+		
+		Thread thread = new Thread(() -> this.watch(watchService, keyMap), "assembler-watch");
+		
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * 파일 변경 이벤트를 받아 바뀐 input 파일을 다시 어셈블한다.
+	 * @param watchService
+	 * @param keyMap : 감시 키 -> 디렉토리
+	 */
+	private void watch(WatchService watchService, HashMap<WatchKey, Path> keyMap) {
+		try {
+			while(true) {
+				LinkedHashSet<Path> changedSet = new LinkedHashSet<>();
+				WatchKey key = watchService.take();
+				
+				do { // 연속된 이벤트를 모은다.
+					this.collect(watchService, keyMap, key, changedSet);
+				} while((key = watchService.poll(WATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS)) != null);
+				
+				for(Path file : changedSet) {
+					this.assembleWatched(file);
+				}
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * 감시 키의 이벤트에서 바뀐 input 파일을 모은다. 새 디렉토리는 감시 대상에 추가한다.
+	 * @param watchService
+	 * @param keyMap
+	 * @param key
+	 * @param changedSet : 바뀐 input 파일
+	 */
+	private void collect(WatchService watchService, HashMap<WatchKey, Path> keyMap, WatchKey key, LinkedHashSet<Path> changedSet) {
+		Path directory = keyMap.get(key);
+		
+		for(WatchEvent<?> event : key.pollEvents()) {
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+				continue;
+			}
+			
+			Path path = directory.resolve((Path) event.context());
+			
+			if(Files.isDirectory(path)) {
+				try {
+					register(watchService, keyMap, path);
+				} catch(IOException e) {
+					System.err.println("watch failed " + path + " : " + e.getMessage());
+				}
+			} else if(Files.isRegularFile(path) && BatchAssembler.SOURCE_MATCHER.matches(path.getFileName())) {
+				changedSet.add(path);
+			}
+		}
+		
+		if(!key.reset()) { // 삭제된 디렉토리
+			keyMap.remove(key);
+		}
+	}
+	
+	/**
+	 * 감시 중 바뀐 파일을 어셈블하고 결과를 출력한다.
+	 * @param file
+	 */
+	private void assembleWatched(Path file) {
+		Assembler assembler = this.newAssembler();
+		long startTime = System.nanoTime();
+		
+		try {
+			assembler.assemble(file.toString());
+			
+			String errors = errors(assembler, file.toString());
+			
+			if(errors != null) {
+				failedCount.incrementAndGet();
+				System.err.println("FAILED " + file + " :");
+				System.err.println(errors);
+				return;
+			}
+			
+			BatchAssembler.writeOutputs(assembler, file);
+			
+			this.record(assembler, startTime);
+			System.err.println(String.format("assembled %s (%.3fms)", file, (System.nanoTime() - startTime) / 1e6));
+		} catch(RuntimeException e) {
+			failedCount.incrementAndGet();
+			System.err.println("FAILED " + file + " : " + describe(e));
+		}
+	}
+	
+	/**
+	 * 디렉토리와 하위 디렉토리를 감시 대상에 등록한다.
+	 * @param watchService
+	 * @param keyMap
+	 * @param directory
+	 * @throws IOException
+	 */
+	private static void register(WatchService watchService, HashMap<WatchKey, Path> keyMap, Path directory) throws IOException {
+		if(!Files.isDirectory(directory)) {
+			throw new InitException(directory + " is not a directory.");
+		}
+		
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attributes) throws IOException {
+				WatchKey key = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+				
+				keyMap.put(key, path);
+				
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+	
+	// 감시 모드 end --
+	
+	// 메시지 형식 begin --
+	
+	/**
+	 * 어셈블 결과를 응답 본문 형식으로 변환한다.
+	 * @param assembler : 어셈블이 끝난 Assembler
+	 * @return
+	 */
+	static byte[] format(Assembler assembler) {
+		StringBuilder stringBuilder = new StringBuilder();
+		
+		stringBuilder.append("#OBJ\n")
+					 .append(assembler.getObjectProgram())
+					 .append("#SYMTAB\n")
+					 .append(assembler.formatSymbolTable())
+					 .append("#LITTAB\n")
+					 .append(assembler.formatLiteralTable());
+		
+		return stringBuilder.toString().getBytes(StandardCharsets.ISO_8859_1);
+	}
+	
+	/**
+	 * 예외를 오류 메시지로 변환한다.
+	 * @param e
+	 * @return
+	 */
+	static String describe(Throwable e) {
+		return e.getClass().getSimpleName() + (e.getMessage() != null ? " " + e.getMessage() : "");
+	}
+	
+	/**
+	 * 헤더 라인과 본문을 기록한다.
+	 * @param output
+	 * @param type : 요청 또는 응답 종류
+	 * @param body
+	 * @throws IOException
+	 */
+	static void writeMessage(OutputStream output, String type, byte[] body) throws IOException {
+		byte[] header = (type + " " + body.length + "\n").getBytes(StandardCharsets.ISO_8859_1);
+		byte[] message = new byte[header.length + body.length];
+		
+		System.arraycopy(header, 0, message, 0, header.length);
+		System.arraycopy(body, 0, message, header.length, body.length);
+		
+		output.write(message); // 한 번에 기록
+		output.flush();
+	}
+	
+	/**
+	 * 헤더 라인을 읽어 종류와 본문 길이로 나눈다.
+	 * @param input
+	 * @return { 종류, 길이 }. 연결이 끊어진 경우 null
+	 * @throws IOException
+	 */
+	static String[] readHeader(InputStream input) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(32);
+		int ch;
+		
+		while((ch = input.read()) != '\n') {
+			if(ch == -1) {
+				if(line.size() == 0) {
+					return null;
+				}
+				
+				throw new EOFException("Incomplete header.");
+			}
+			
+			line.write(ch);
+		}
+		
+		String[] header = line.toString(StandardCharsets.ISO_8859_1).split(" ");
+		
+		if(header.length != 2) {
+			throw new IOException("Invalid header.");
+		}
+		
+		return header;
+	}
+	
+	/**
+	 * 헤더에 적힌 길이만큼 본문을 읽는다.
+	 * @param input
+	 * @param header
+	 * @return
+	 * @throws IOException : 길이가 숫자가 아니거나 음수, MAX_BODY_LENGTH 초과인 경우 (잘못된 헤더)
+	 */
+	static byte[] readBody(InputStream input, String[] header) throws IOException {
+		int length;
+		
+		try {
+			length = Integer.parseInt(header[1]);
+		} catch(NumberFormatException e) {
+			throw new IOException("Invalid body length.");
+		}
+		
+		if(length < 0 || length > MAX_BODY_LENGTH) {
+			throw new IOException("Invalid body length.");
+		}
+		
+		byte[] body = input.readNBytes(length);
+		
+		if(body.length != length) {
+			throw new EOFException("Incomplete body.");
+		}
+		
+		return body;
+	}
+	
+	// 메시지 형식 end --
+}
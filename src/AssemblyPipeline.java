@@ -0,0 +1,152 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 어셈블 과정을 단계별 스레드로 나누고 크기가 제한된 큐로 연결하여 섹션 단위로 겹쳐서 처리하는 클래스.
+ *
+ * 단계 구성
+ *   1) 읽기 : 파일을 나누어 읽으며 섹션 경계(CSECT)를 찾고, 섹션이 닫히는 즉시 테이블을 생성하여 전달
+ *   2) 토큰 분리 : 섹션의 라인을 Token으로 분리하고 검증
+ *   3) 주소 할당 : setLocation
+ *   4) object code 생성 : 외부 정의 검증, makeObjectCode
+ *   5) 레코드 출력 : makeObjectProgram (호출한 스레드에서 수행)
+ *
+ * 각 단계는 섹션을 소스 순서대로 처리하므로, 앞 섹션이 다음 CSECT로 닫히는 즉시 (파일의 나머지를 읽기 전에)
+ * 다음 단계가 시작되고 결과는 소스 순서대로 codeList에 모인다.
+ */
+public class AssemblyPipeline {
+	private static final int QUEUE_CAPACITY = 4; // 단계 사이 큐의 크기 (대기 중인 섹션 수)
+	private static final int STAGE_COUNT = 4; // 별도 스레드로 수행하는 단계 수
+	
+	/** 더 이상 처리할 섹션이 없음을 다음 단계에 알리는 표시 */
+	private static final SectionWork END = new SectionWork(null, null, 0, 0);
+	
+	Assembler assembler;
+	
+	/** 가장 먼저 실패한 단계의 예외 */
+	private AtomicReference<Throwable> failure;
+	
+	/**
+	 * 생성자 선언
+	 * @param assembler : 결과를 저장할 어셈블러 (테이블 리스트, codeList)
+	 */
+	public AssemblyPipeline(Assembler assembler) {
+		this.assembler = assembler;
+		this.failure = new AtomicReference<>();
+	}
+	
+	/**
+	 * inputFile에 대해 모든 단계를 수행한다.
+	 * 한 단계라도 실패하면 나머지 단계를 중단하고 처음 발생한 예외를 던진다.
+	 * @param inputFile : input 파일 이름
+	 */
+	public void run(String inputFile) {
+		BlockingQueue<SectionWork> readQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		BlockingQueue<SectionWork> tokenQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		BlockingQueue<SectionWork> locationQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		BlockingQueue<SectionWork> codeQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		ExecutorService executor = Executors.newFixedThreadPool(STAGE_COUNT);
+		
+		try {
+			// 1) 읽기
+			executor.execute(() -> this.stage(null, readQueue, work -> {
+				assembler.source = SourceBuffer.load(inputFile,
+						(source, begin, end) -> readQueue.put(new SectionWork(assembler.addSection(), source, begin, end)));
+			}));
+			
+			// 2) 토큰 분리
+			executor.execute(() -> this.stage(readQueue, tokenQueue, work -> {
+				assembler.tokenize(work.tokenTable, work.source, work.begin, work.end);
+				tokenQueue.put(work);
+			}));
+			
+			// 3) 주소 할당
+			executor.execute(() -> this.stage(tokenQueue, locationQueue, work -> {
+				work.tokenTable.setLocation();
+				locationQueue.put(work);
+			}));
+			
+			// 4) object code 생성
+			executor.execute(() -> this.stage(locationQueue, codeQueue, work -> {
+				work.tokenTable.validateExtdef();
+				work.tokenTable.makeObjectCode();
+				codeQueue.put(work);
+			}));
+			
+			// 5) 레코드 출력
+			for(SectionWork work = codeQueue.take(); work != END; work = codeQueue.take()) {
+				assembler.codeList.add(work.tokenTable.makeObjectProgram());
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, new IllegalStateException("Assembly pipeline interrupted.", e));
+		} finally {
+			executor.shutdownNow(); // 실패한 경우 대기 중인 앞 단계를 중단
+		}
+		
+		Throwable cause = failure.get();
+		
+		if(cause instanceof Error) {
+			throw (Error) cause;
+		} else if(cause != null) {
+			throw (RuntimeException) cause;
+		}
+	}
+	
+	/**
+	 * 한 단계를 수행한다. input이 null이면 첫 단계로 한 번만 수행한다.
+	 * 정상 종료, 실패 여부와 관계 없이 마지막에 END를 다음 단계로 전달한다.
+	 * @param input : 이전 단계의 큐
+	 * @param output : 다음 단계의 큐
+	 * @param task : 섹션 하나에 대한 작업
+	 */
+	private void stage(BlockingQueue<SectionWork> input, BlockingQueue<SectionWork> output, StageTask task) {
+		try {
+			if(input == null) {
+				task.process(null);
+			} else {
+				for(SectionWork work = input.take(); work != END; work = input.take()) {
+					task.process(work);
+				}
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt(); // 다른 단계의 실패로 중단됨
+			return;
+		} catch(RuntimeException | Error e) {
+			failure.compareAndSet(null, e);
+		}
+		
+		try {
+			output.put(END);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * 섹션 하나에 대한 단계별 작업
+	 */
+	private interface StageTask {
+		void process(SectionWork work) throws InterruptedException;
+	}
+	
+	/**
+	 * 단계 사이에서 전달되는 섹션 정보
+	 */
+	private static class SectionWork {
+		TokenTable tokenTable; // 섹션의 토큰 테이블
+		SourceBuffer source; // 섹션의 라인까지 읽어들인 input 파일
+		int begin; // 시작 라인 번호
+		int end; // 끝 라인 번호 (포함하지 않음)
+		
+		SectionWork(TokenTable tokenTable, SourceBuffer source, int begin, int end) {
+			this.tokenTable = tokenTable;
+			this.source = source;
+			this.begin = begin;
+			this.end = end;
+		}
+	}
+}
@@ -0,0 +1,376 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import exception.InitException;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * 파일 하나를 어셈블하는 동안의 계측 정보. (--stats)
+ *   1) 단계별 시간과 할당량 : load, pass1, pass2, write(symtab, littab, obj)
+ *   2) 섹션별 pass1, pass2의 시간과 할당량
+ *   3) 섹션별 카운터 : 토큰 수, 심볼/리터럴 검색 수와 찾은 수, 심볼을 찾을 때 비교한 슬롯 수, M 레코드 수, T 레코드 수
+ *
+ * 할당량은 단계를 수행한 스레드의 할당량이다. (ThreadMXBean) 섹션을 여러 스레드에서 처리한 단계는 섹션별 할당량을 더한다.
+ * 카운터는 섹션별 테이블이 항상 세고 있으므로, 계측을 켜지 않아도 비용은 필드 증가뿐이다.
+ * 섹션마다 JFR 이벤트(sicxe.SectionAssembly)를 남기므로, --stats 없이도 JFR 기록으로 운영 중의 섹션별 시간을 볼 수 있다.
+ */
+public class AssemblyStats {
+	static final String[] PHASES = { "load", "pass1", "pass2", "write" };
+	static final int LOAD = 0;
+	static final int PASS1 = 1;
+	static final int PASS2 = 2;
+	static final int WRITE = 3;
+	
+	/** 스레드별 할당량 조회. 처음 사용할 때 초기화한다. (계측하지 않으면 management를 읽지 않는다) */
+	private static com.sun.management.ThreadMXBean threadBean;
+	
+	/** input 파일 이름 */
+	String name;
+	/** 단계별 시간 (ns) */
+	long[] phaseNanos = new long[PHASES.length];
+	/** 단계별 할당량 (byte) */
+	long[] phaseBytes = new long[PHASES.length];
+	/** 섹션별 계측 정보 (소스 순서) */
+	SectionStats[] sections = new SectionStats[0];
+	
+	private long phaseBegin;
+	private long phaseAllocated;
+	
+	/**
+	 * 생성자 선언
+	 * @param name : input 파일 이름
+	 */
+	public AssemblyStats(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * 현재 스레드의 누적 할당량을 반환한다.
+	 * @return byte. 지원하지 않는 JVM이면 0
+	 */
+	static long allocatedBytes() {
+		if(threadBean == null) {
+			threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		}
+		
+		return threadBean.isThreadAllocatedMemorySupported() ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+	}
+	
+	/**
+	 * 단계를 시작한다. 단계는 호출한 스레드에서 순서대로 수행된다.
+	 * @param phase : LOAD, PASS1, PASS2, WRITE
+	 */
+	void beginPhase(int phase) {
+		phaseAllocated = allocatedBytes();
+		phaseBegin = System.nanoTime();
+	}
+	
+	/**
+	 * 단계를 끝내고 시간과 할당량을 더한다.
+	 * @param phase
+	 * @param pooled : 섹션을 다른 스레드에서 처리했으면 true. 섹션별 할당량을 더한다.
+	 */
+	void endPhase(int phase, boolean pooled) {
+		phaseNanos[phase] = phaseNanos[phase] + System.nanoTime() - phaseBegin;
+		phaseBytes[phase] = phaseBytes[phase] + allocatedBytes() - phaseAllocated;
+		
+		if(pooled) {
+			for(SectionStats section : sections) {
+				phaseBytes[phase] = phaseBytes[phase] + (phase == PASS1 ? section.pass1Bytes : section.pass2Bytes);
+			}
+		}
+	}
+	
+	/**
+	 * 섹션 수를 설정한다. pass1을 시작하기 전에 호출한다.
+	 * @param count
+	 */
+	void setSectionCount(int count) {
+		sections = new SectionStats[count];
+		
+		for(int i = 0; i < count; i++) {
+			sections[i] = new SectionStats();
+		}
+	}
+	
+	/**
+	 * 섹션 하나의 처리를 시작한다.
+	 * JFR 이벤트는 JFR이 초기화된 경우에만 만든다. (이벤트 클래스를 읽고 등록하는 데 수백 ms가 걸린다)
+	 * @param stats : 계측 정보. null이면 JFR 이벤트만 기록한다.
+	 * @param sectionNumber
+	 * @param pass : 1 또는 2
+	 * @return 진행 중인 측정. 계측하지 않고 JFR도 꺼져 있으면 null
+	 */
+	static SectionTimer beginSection(AssemblyStats stats, int sectionNumber, int pass) {
+		boolean recording = FlightRecorder.isInitialized();
+		
+		if(stats == null && !recording) {
+			return null;
+		}
+		
+		return new SectionTimer(sectionNumber, pass, allocatedBytes(), recording ? SectionAssemblyEvent.start() : null);
+	}
+	
+	/**
+	 * 섹션 하나의 처리를 끝낸다. 섹션을 처리한 스레드에서 호출한다.
+	 * @param stats : 계측 정보. null이면 JFR 이벤트만 기록한다.
+	 * @param timer : beginSection이 반환한 측정. null이면 아무것도 하지 않는다.
+	 * @param tokenTable : 섹션의 토큰 테이블
+	 * @param cached : 빌드 캐시에서 복원한 섹션이면 true
+	 */
+	static void endSection(AssemblyStats stats, SectionTimer timer, TokenTable tokenTable, boolean cached) {
+		if(timer == null) {
+			return;
+		}
+		
+		long nanos = System.nanoTime() - timer.startNanos;
+		long bytes = allocatedBytes() - timer.allocated;
+		
+		if(stats != null) {
+			SectionStats section = stats.sections[timer.sectionNumber];
+			
+			if(timer.pass == 1) {
+				section.pass1Nanos = nanos;
+				section.pass1Bytes = bytes;
+			} else {
+				section.pass2Nanos = nanos;
+				section.pass2Bytes = bytes;
+			}
+			
+			section.cached = cached;
+		}
+		
+		if(timer.event != null) {
+			timer.event.finish(timer, tokenTable, bytes, cached);
+		}
+	}
+	
+	/**
+	 * 어셈블이 끝난 뒤 섹션별 테이블의 카운터를 모은다.
+	 * @param tokenList : 섹션별 토큰 테이블
+	 */
+	void collect(List<TokenTable> tokenList) {
+		if(sections.length != tokenList.size()) { // 파이프라인 처리는 섹션 수를 미리 알 수 없다.
+			SectionStats[] collected = Arrays.copyOf(sections, tokenList.size());
+			
+			for(int i = sections.length; i < collected.length; i++) {
+				collected[i] = new SectionStats();
+			}
+			
+			sections = collected;
+		}
+		
+		for(int i = 0; i < sections.length; i++) {
+			TokenTable tokenTable = tokenList.get(i);
+			SectionStats section = sections[i];
+			
+			section.file = name;
+			section.name = tokenTable.section.programName;
+			section.tokens = tokenTable.tokenList.size();
+			section.symbols = tokenTable.symTab.size();
+			section.symbolLookups = tokenTable.symTab.lookupCount;
+			section.symbolHits = tokenTable.symTab.hitCount;
+			section.symbolDepth = tokenTable.symTab.hitDepth;
+			section.literals = tokenTable.literalTab.size();
+			section.literalLookups = tokenTable.literalTab.lookupCount;
+			section.literalHits = tokenTable.literalTab.hitCount;
+			section.modifyRecords = tokenTable.modifyRecordCount;
+			section.textRecords = tokenTable.textRecordCount;
+		}
+	}
+	
+	/**
+	 * 모든 섹션의 카운터를 더한다.
+	 * @return
+	 */
+	SectionStats total() {
+		SectionStats total = new SectionStats();
+		
+		total.name = "(total)";
+		
+		for(SectionStats section : sections) {
+			total.add(section);
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * 사람이 읽는 요약을 만든다. 섹션은 pass1 + pass2 시간이 긴 순서로 top개까지 출력한다.
+	 * @param statsList : 파일별 계측 정보
+	 * @param top : 출력할 섹션 수
+	 * @return
+	 */
+	static String summary(List<AssemblyStats> statsList, int top) {
+		StringBuilder buffer = new StringBuilder();
+		long[] phaseNanos = new long[PHASES.length];
+		long[] phaseBytes = new long[PHASES.length];
+		SectionStats total = new SectionStats();
+		ArrayList<SectionStats> sectionList = new ArrayList<>();
+		
+		for(AssemblyStats stats : statsList) {
+			for(int i = 0; i < PHASES.length; i++) {
+				phaseNanos[i] = phaseNanos[i] + stats.phaseNanos[i];
+				phaseBytes[i] = phaseBytes[i] + stats.phaseBytes[i];
+			}
+			
+			for(SectionStats section : stats.sections) {
+				total.add(section);
+				sectionList.add(section);
+			}
+		}
+		
+		buffer.append(String.format(Locale.ROOT, "assembly stats : %d files, %d sections\n", statsList.size(), sectionList.size()));
+		buffer.append(String.format(Locale.ROOT, "%-8s %12s %14s\n", "phase", "time(ms)", "alloc(KB)"));
+		
+		for(int i = 0; i < PHASES.length; i++) {
+			buffer.append(String.format(Locale.ROOT, "%-8s %12.3f %14d\n", PHASES[i], phaseNanos[i] / 1e6, phaseBytes[i] / 1024));
+		}
+		
+		buffer.append(String.format(Locale.ROOT, "tokens %d, symbol lookups %d (hits %d, avg depth %.2f), literal lookups %d (hits %d), T records %d, M records %d\n",
+				total.tokens, total.symbolLookups, total.symbolHits, total.averageDepth(), total.literalLookups, total.literalHits,
+				total.textRecords, total.modifyRecords));
+		
+		sectionList.sort(Comparator.comparingLong(SectionStats::nanos).reversed());
+		
+		buffer.append(String.format(Locale.ROOT, "top sections by pass1 + pass2 time\n%-24s %-8s %10s %10s %12s %8s %10s %6s %6s\n",
+				"file", "section", "pass1(ms)", "pass2(ms)", "alloc(KB)", "tokens", "lookups", "T", "M"));
+		
+		for(int i = 0; i < Math.min(top, sectionList.size()); i++) {
+			SectionStats section = sectionList.get(i);
+			String file = section.file;
+			
+			buffer.append(String.format(Locale.ROOT, "%-24s %-8s %10.3f %10.3f %12d %8d %10d %6d %6d%s\n",
+					file.length() > 24 ? "..." + file.substring(file.length() - 21) : file, section.name,
+					section.pass1Nanos / 1e6, section.pass2Nanos / 1e6, (section.pass1Bytes + section.pass2Bytes) / 1024,
+					section.tokens, section.symbolLookups + section.literalLookups, section.textRecords, section.modifyRecords,
+					section.cached ? " (cached)" : ""));
+		}
+		
+		return buffer.toString();
+	}
+	
+	/**
+	 * 파일 하나의 계측 정보를 JSON 객체로 만든다.
+	 * @return
+	 */
+	String toJson() {
+		StringBuilder json = new StringBuilder();
+		
+		json.append("{\n    \"file\" : ").append(SectionStats.quote(name)).append(",\n    \"phases\" : {");
+		
+		for(int i = 0; i < PHASES.length; i++) {
+			json.append(i == 0 ? "\n" : ",\n").append("        \"").append(PHASES[i]).append("\" : { \"nanos\" : ").append(phaseNanos[i])
+				.append(", \"allocatedBytes\" : ").append(phaseBytes[i]).append(" }");
+		}
+		
+		json.append("\n    },\n    \"total\" : ").append(this.total().toJson()).append(",\n    \"sections\" : [");
+		
+		for(int i = 0; i < sections.length; i++) {
+			json.append(i == 0 ? "\n" : ",\n").append("        ").append(sections[i].toJson());
+		}
+		
+		json.append("\n    ]\n}");
+		
+		return json.toString();
+	}
+	
+	/**
+	 * 파일별 계측 정보를 JSON 배열로 저장한다.
+	 * @param file
+	 * @param statsList
+	 */
+	static void writeJson(Path file, List<AssemblyStats> statsList) {
+		StringBuilder json = new StringBuilder("[");
+		
+		for(int i = 0; i < statsList.size(); i++) {
+			json.append(i == 0 ? "\n" : ",\n").append(statsList.get(i).toJson());
+		}
+		
+		json.append("\n]\n");
+		
+		try {
+			Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+		} catch(IOException e) {
+			throw new InitException("An error occurred while writing the " + file + ".");
+		}
+	}
+}
+
+/**
+ * 섹션 하나의 계측 정보
+ */
+class SectionStats {
+	String file; // input 파일 이름
+	String name; // 섹션(프로그램) 이름
+	boolean cached; // 빌드 캐시에서 복원 여부
+	long pass1Nanos;
+	long pass1Bytes;
+	long pass2Nanos;
+	long pass2Bytes;
+	
+	long tokens;
+	long symbols;
+	long symbolLookups;
+	long symbolHits;
+	long symbolDepth; // 찾은 심볼마다 비교한 슬롯 수의 합
+	long literals;
+	long literalLookups;
+	long literalHits;
+	long modifyRecords;
+	long textRecords;
+	
+	long nanos() {
+		return pass1Nanos + pass2Nanos;
+	}
+	
+	/**
+	 * 찾은 심볼 하나를 찾기 위해 비교한 평균 슬롯 수
+	 * @return
+	 */
+	double averageDepth() {
+		return symbolHits == 0 ? 0 : (double) symbolDepth / symbolHits;
+	}
+	
+	void add(SectionStats section) {
+		pass1Nanos = pass1Nanos + section.pass1Nanos;
+		pass1Bytes = pass1Bytes + section.pass1Bytes;
+		pass2Nanos = pass2Nanos + section.pass2Nanos;
+		pass2Bytes = pass2Bytes + section.pass2Bytes;
+		tokens = tokens + section.tokens;
+		symbols = symbols + section.symbols;
+		symbolLookups = symbolLookups + section.symbolLookups;
+		symbolHits = symbolHits + section.symbolHits;
+		symbolDepth = symbolDepth + section.symbolDepth;
+		literals = literals + section.literals;
+		literalLookups = literalLookups + section.literalLookups;
+		literalHits = literalHits + section.literalHits;
+		modifyRecords = modifyRecords + section.modifyRecords;
+		textRecords = textRecords + section.textRecords;
+	}
+	
+	String toJson() {
+		return String.format(Locale.ROOT, "{ \"name\" : %s, \"cached\" : %b, \"pass1\" : { \"nanos\" : %d, \"allocatedBytes\" : %d }, "
+				+ "\"pass2\" : { \"nanos\" : %d, \"allocatedBytes\" : %d }, \"tokens\" : %d, \"symbols\" : %d, "
+				+ "\"symbolLookups\" : %d, \"symbolHits\" : %d, \"symbolHitDepth\" : %d, \"literals\" : %d, "
+				+ "\"literalLookups\" : %d, \"literalHits\" : %d, \"textRecords\" : %d, \"modifyRecords\" : %d }",
+				quote(name), cached, pass1Nanos, pass1Bytes, pass2Nanos, pass2Bytes, tokens, symbols,
+				symbolLookups, symbolHits, symbolDepth, literals, literalLookups, literalHits, textRecords, modifyRecords);
+	}
+	
+	static String quote(String value) {
+		if(value == null) {
+			return "null";
+		}
+		
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+}
@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import exception.AssemblerException;
+import exception.InitException;
+
+/**
+ * 여러 input 파일을 한 번에 어셈블하는 진입점.
+ * instruction 명세는 한 번만 읽어 모든 파일이 공유하며, 파일마다 별도의 Assembler를 스레드 풀에서 수행한다.
+ * 결과(symtab, littab, obj)는 각 input 파일 옆에 저장하고, 한 파일의 오류는 다른 파일의 처리에 영향을 주지 않는다.
+ *
+ * 사용법 : java BatchAssembler [-inst inst.data] [-threads n] [-cache 디렉토리] [--stats[=파일]] (디렉토리 | glob | 파일 | @파일목록) ...
+ *   1) 디렉토리 : 하위의 *.asm, *.txt 파일 전체
+ *   2) glob : 예) "src/**.asm"
+ *   3) @파일목록 : 한 줄에 하나씩 경로가 적힌 파일
+ * 소스 오류가 있는 파일은 모든 오류를 표준 에러로 출력하고 실패로 처리한다. (결과 파일은 저장하지 않음)
+ * --stats는 모든 파일의 단계별 합계와 시간이 긴 섹션을 표준 에러로 출력하고, 파일별 계측 정보를 JSON으로 저장한다. (기본 stats.json)
+ */
+public class BatchAssembler {
+	static final PathMatcher SOURCE_MATCHER = FileSystems.getDefault().getPathMatcher("glob:*.{asm,txt}");
+	
+	/** 모든 Assembler가 공유하는 instruction 명세 */
+	InstTable instTable;
+	/** 동시에 어셈블할 파일 수 */
+	int threads;
+	/** 섹션 단위 증분 빌드 캐시 (null이면 사용하지 않음) */
+	BuildCache cache;
+	/** 계측 결과 JSON 파일 (null이면 계측하지 않음) */
+	String statsFile;
+	
+	/**
+	 * 생성자 선언
+	 * @param instTable : 공유할 instruction 명세
+	 * @param threads : 동시에 어셈블할 파일 수
+	 */
+	public BatchAssembler(InstTable instTable, int threads) {
+		this.instTable = instTable;
+		this.threads = Math.max(threads, 1);
+	}
+	
+	/**
+	 * 배치 어셈블러의 메인 루틴
+	 */
+	public static void main(String[] args) {
+		String instFile = null; // 지정하지 않으면 생성된 상수(InstData) 사용
+		int threads = Runtime.getRuntime().availableProcessors();
+		String cacheDirectory = null;
+		String statsFile = null;
+		ArrayList<String> targetList = new ArrayList<>();
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("-inst") && i + 1 < args.length) {
+				instFile = args[++i];
+			} else if(args[i].equals("-threads") && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else if(args[i].equals("-cache") && i + 1 < args.length) {
+				cacheDirectory = args[++i];
+			} else if(args[i].equals("--stats")) {
+				statsFile = "stats.json";
+			} else if(args[i].startsWith("--stats=")) {
+				statsFile = args[i].substring("--stats=".length());
+			} else {
+				targetList.add(args[i]);
+			}
+		}
+		
+		if(targetList.isEmpty()) {
+			System.err.println("usage: java BatchAssembler [-inst inst.data] [-threads n] [-cache dir] [--stats[=file]] (directory | glob | file | @list) ...");
+			System.exit(2);
+		}
+		
+		BatchAssembler batch = new BatchAssembler(instFile == null ? new InstTable() : new InstTable(instFile), threads);
+		
+		if(cacheDirectory != null) {
+			batch.cache = new BuildCache(Paths.get(cacheDirectory), BuildCache.DEFAULT_MAX_SIZE);
+		}
+		
+		batch.statsFile = statsFile;
+		
+		int failed = batch.run(expand(targetList));
+		
+		System.exit(failed == 0 ? 0 : 1);
+	}
+	
+	/**
+	 * 파일들을 어셈블하고 처리량을 출력한다.
+	 * @param fileList : input 파일 목록
+	 * @return 실패한 파일 수
+	 */
+	public int run(ArrayList<Path> fileList) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(fileList.size(), 1)));
+		ArrayList<Future<Integer>> resultList = new ArrayList<>(fileList.size());
+		AssemblyStats[] statsList = new AssemblyStats[fileList.size()]; // 파일별 계측 정보 (입력 순서)
+		long startTime = System.nanoTime();
+		
+		try {
+			for(int i = 0; i < fileList.size(); i++) { // 파일 별 작업 등록
+				Path file = fileList.get(i);
+				
+				if(statsFile != null) {
+					statsList[i] = new AssemblyStats(file.toString());
+				}
+				
+				AssemblyStats stats = statsList[i];
+				
+				resultList.add(executor.submit(() -> this.assemble(file, stats)));
+			}
+			
+			long lineCount = 0;
+			int failed = 0;
+			
+			for(int i = 0; i < resultList.size(); i++) { // 입력 순서대로 결과 수집
+				int lines = this.getResult(resultList.get(i), fileList.get(i));
+				
+				if(lines < 0) {
+					failed++;
+					statsList[i] = null; // 실패한 파일은 계측 결과에서 제외
+				} else {
+					lineCount = lineCount + lines;
+				}
+			}
+			
+			double seconds = Math.max(System.nanoTime() - startTime, 1) / 1e9;
+			int succeeded = fileList.size() - failed;
+			
+			System.out.println(String.format("assembled %d files (%d failed), %d lines in %.3fs : %.1f files/s, %.0f lines/s",
+					succeeded, failed, lineCount, seconds, succeeded / seconds, lineCount / seconds));
+			
+			if(cache != null) {
+				cache.flush(); // 저장 대기 중인 항목 기록
+				System.out.println(cache.getStatistics());
+			}
+			
+			if(statsFile != null) {
+				ArrayList<AssemblyStats> succeededList = new ArrayList<>();
+				
+				for(AssemblyStats stats : statsList) {
+					if(stats != null) {
+						succeededList.add(stats);
+					}
+				}
+				
+				System.err.print(AssemblyStats.summary(succeededList, 10));
+				AssemblyStats.writeJson(Paths.get(statsFile), succeededList);
+			}
+			
+			return failed;
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * 파일 하나를 어셈블하고 결과를 파일 옆에 저장한다.
+	 * @param file : input 파일
+	 * @param stats : 계측 정보. null이면 계측하지 않는다.
+	 * @return 처리한 라인 수
+	 */
+	private int assemble(Path file, AssemblyStats stats) {
+		Assembler assembler = new Assembler(instTable);
+		Diagnostics diagnostics = new Diagnostics();
+		
+		assembler.setVerbose(false);
+		assembler.setCache(cache);
+		assembler.setStats(stats);
+		assembler.setDiagnostics(diagnostics);
+		assembler.assemble(file.toString());
+		
+		if(diagnostics.hasErrors()) { // 파일의 모든 오류를 한 번에 출력
+			System.err.print(diagnostics.format(file.toString()));
+			throw new AssemblerException(diagnostics.size() + " error(s)");
+		}
+		
+		writeOutputs(assembler, file);
+		
+		return assembler.source.size();
+	}
+	
+	/**
+	 * 어셈블 결과(symtab, littab, obj)를 input 파일 옆에 저장한다.
+	 * @param assembler : 어셈블이 끝난 Assembler
+	 * @param file : input 파일
+	 */
+	static void writeOutputs(Assembler assembler, Path file) {
+		String prefix = outputPrefix(file);
+		
+		assembler.printOutputs(prefix + ".symtab", prefix + ".littab", prefix + ".obj");
+	}
+	
+	/**
+	 * 파일 하나의 결과를 기다린다. 실패한 경우 오류를 출력한다.
+	 * @param result
+	 * @param file
+	 * @return 처리한 라인 수. 실패한 경우 -1
+	 */
+	private int getResult(Future<Integer> result, Path file) {
+		try {
+			return result.get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Batch assembly interrupted.", e);
+		} catch(Exception e) {
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			
+			System.err.println("FAILED " + file + " : " + cause.getClass().getSimpleName()
+					+ (cause.getMessage() != null ? " " + cause.getMessage() : ""));
+			
+			return -1;
+		}
+	}
+	
+	/**
+	 * 인자로 받은 디렉토리, glob, 파일, @파일목록을 input 파일 목록으로 변환한다. (중복 제외, 입력 순서 유지)
+	 * @param targetList
+	 * @return
+	 */
+	static ArrayList<Path> expand(ArrayList<String> targetList) {
+		LinkedHashSet<Path> fileSet = new LinkedHashSet<>();
+		
+		try {
+			for(String target : targetList) {
+				if(target.startsWith("@")) { // 파일 목록
+					for(String line : Files.readAllLines(Paths.get(target.substring(1)))) {
+						if(!line.trim().isEmpty()) {
+							fileSet.add(Paths.get(line.trim()).normalize());
+						}
+					}
+				} else if(isGlob(target)) { // glob
+					PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + target);
+					
+					try(Stream<Path> stream = Files.walk(globBase(target))) {
+						stream.filter(path -> Files.isRegularFile(path) && matcher.matches(path))
+							  .sorted()
+							  .forEach(path -> fileSet.add(path.normalize()));
+					}
+				} else if(Files.isDirectory(Paths.get(target))) { // 디렉토리
+					try(Stream<Path> stream = Files.walk(Paths.get(target))) {
+						stream.filter(path -> Files.isRegularFile(path) && SOURCE_MATCHER.matches(path.getFileName()))
+							  .sorted()
+							  .forEach(path -> fileSet.add(path.normalize()));
+					}
+				} else { // 파일
+					fileSet.add(Paths.get(target).normalize());
+				}
+			}
+		} catch(IOException e) {
+			throw new InitException("An error occurred while reading the input list. (" + e.getMessage() + ")");
+		}
+		
+		return new ArrayList<>(fileSet);
+	}
+	
+	/**
+	 * glob 문자가 포함되어 있는지 확인한다.
+	 * @param target
+	 * @return
+	 */
+	private static boolean isGlob(String target) {
+		for(int i = 0; i < target.length(); i++) {
+			char ch = target.charAt(i);
+			
+			if(ch == '*' || ch == '?' || ch == '[' || ch == '{') {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * glob 문자가 나오기 전까지의 디렉토리를 반환한다. (탐색 시작 위치)
+	 * @param glob
+	 * @return
+	 */
+	private static Path globBase(String glob) {
+		Path base = Paths.get("");
+		int end = 0;
+		
+		while(end < glob.length() && "*?[{".indexOf(glob.charAt(end)) < 0) {
+			end++;
+		}
+		
+		int slash = glob.lastIndexOf('/', end);
+		
+		if(slash > 0) {
+			base = Paths.get(glob.substring(0, slash));
+		} else if(slash == 0) {
+			base = Paths.get("/");
+		}
+		
+		return base;
+	}
+	
+	/**
+	 * 결과 파일 이름의 공통 부분 (확장자를 제외한 input 파일 경로)
+	 * @param file
+	 * @return
+	 */
+	private static String outputPrefix(Path file) {
+		String name = file.toString();
+		int dot = name.lastIndexOf('.');
+		
+		return dot > name.lastIndexOf(file.getFileSystem().getSeparator()) ? name.substring(0, dot) : name;
+	}
+}
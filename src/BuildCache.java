@@ -0,0 +1,470 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import exception.InitException;
+import util.StringUtil;
+
+/**
+ * 섹션 단위의 어셈블 결과를 디스크에 저장해 두는 증분 빌드 캐시.
+ *
+ * 키는 섹션의 라인(뒤쪽 공백 제외)과 instruction 명세 버전의 SHA-256 해시이며,
+ * 값은 섹션의 심볼 테이블, 리터럴 테이블, 외부 정의/참조, 수정 정보와 오브젝트 프로그램(H~E 레코드)이다.
+ * 섹션은 서로 독립적으로 어셈블되므로 내용이 같은 섹션은 캐시의 결과로 대체할 수 있다.
+ *
+ *   1) 무결성 : 항목마다 magic, 형식 버전, 키, CRC32를 저장하고 읽을 때 검사한다. 손상된 항목은 삭제한다.
+ *   2) 크기 제한 : 전체 크기가 maxSize를 넘으면 가장 오래 사용하지 않은 항목부터 삭제한다. (LRU)
+ *      열 때도 정리하며, 이전 실행이 남긴 임시 파일도 삭제한다.
+ *   3) 통계 : hit, miss, store, eviction, corrupt 수
+ *   4) 비동기 저장 : put은 항목을 대기열에 넣고 바로 반환하며, 저장 스레드가 모아서 파일로 기록한다.
+ *      기록 전의 항목도 get으로 읽을 수 있다. 저장 스레드는 daemon이므로 종료 전에 flush를 호출해야 한다.
+ *
+ * 여러 Assembler가 하나의 인스턴스를 동시에 사용할 수 있다.
+ */
+public class BuildCache {
+	public static final long DEFAULT_MAX_SIZE = 64L << 20; // 64MB
+	
+	private static final int MAGIC = 0x53584343; // "SXCC"
+	private static final int FORMAT_VERSION = 1;
+	private static final String SUFFIX = ".sec";
+	private static final String TEMP_SUFFIX = ".tmp";
+	/** 이 시간보다 오래된 임시 파일은 저장 중에 중단된 것으로 보고 삭제한다. (다른 프로세스가 쓰고 있는 파일은 남긴다) */
+	private static final long STALE_TEMP_MILLIS = 10 * 60 * 1000L;
+	
+	Path directory; // 캐시 디렉토리
+	long maxSize; // 최대 크기 (byte)
+	
+	private LinkedHashMap<String, Long> index; // 키 -> 항목 크기 (사용 순서, LRU)
+	private long totalSize;
+	
+	private LinkedHashMap<String, CacheEntry> pendingMap; // 저장 대기 중인 항목
+	private boolean writing; // 저장 스레드가 대기열을 처리 중인지 여부
+	private ExecutorService writer; // 저장 스레드
+	
+	/* 통계 */
+	private long hits;
+	private long misses;
+	private long stores;
+	private long evictions;
+	private long corrupt;
+	
+	/**
+	 * 캐시 디렉토리를 열고 기존 항목을 마지막 사용 시각 순서로 읽어들인다.
+	 * 중단된 저장이 남긴 임시 파일을 삭제하고, 최대 크기를 넘으면 오래된 항목부터 삭제한다.
+	 * @param directory : 캐시 디렉토리 (없으면 생성)
+	 * @param maxSize : 최대 크기 (byte)
+	 */
+	public BuildCache(Path directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.index = new LinkedHashMap<>(16, 0.75f, true);
+		this.pendingMap = new LinkedHashMap<>();
+		this.writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "build-cache-writer");
+			
+			thread.setDaemon(true);
+			
+			return thread;
+		});
+		
+		try {
+			Files.createDirectories(directory);
+			
+			ArrayList<Path> fileList = new ArrayList<>();
+			ArrayList<Path> tempFileList = new ArrayList<>();
+			long staleTime = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+			
+			try(Stream<Path> stream = Files.list(directory)) {
+				stream.forEach(path -> {
+					String name = path.getFileName().toString();
+					
+					if(name.endsWith(SUFFIX)) {
+						fileList.add(path);
+					} else if(name.endsWith(TEMP_SUFFIX) && lastModified(path).toMillis() < staleTime) {
+						tempFileList.add(path);
+					}
+				});
+			}
+			
+			for(Path file : tempFileList) { // 중단된 저장이 남긴 임시 파일
+				Files.deleteIfExists(file);
+			}
+			
+			fileList.sort((a, b) -> lastModified(a).compareTo(lastModified(b))); // 오래된 항목부터
+			
+			for(Path file : fileList) {
+				String name = file.getFileName().toString();
+				long size = Files.size(file);
+				
+				index.put(name.substring(0, name.length() - SUFFIX.length()), size);
+				totalSize = totalSize + size;
+			}
+			
+			this.evict(null);
+		} catch(IOException e) {
+			throw new InitException("An error occurred while opening the build cache " + directory + ".");
+		}
+	}
+	
+	/**
+	 * 섹션의 캐시 키를 계산한다. 섹션의 라인은 뒤쪽 공백을 제외하고 개행 문자로 이어서 해시한다.
+	 * @param instTable : instruction 명세 (버전이 키에 포함된다)
+	 * @param source : input 파일
+	 * @param begin : 섹션 시작 라인 번호
+	 * @param end : 섹션 끝 라인 번호 (포함하지 않음)
+	 * @return
+	 */
+	public static String key(InstTable instTable, SourceBuffer source, int begin, int end) {
+		return key(instTable, source, begin, end, false);
+	}
+	
+	/**
+	 * 섹션의 캐시 키를 계산한다. M 레코드 병합 출력은 오브젝트 프로그램이 달라지므로 키에 포함한다.
+	 * @param instTable : instruction 명세 (버전이 키에 포함된다)
+	 * @param source : input 파일
+	 * @param begin : 섹션 시작 라인 번호
+	 * @param end : 섹션 끝 라인 번호 (포함하지 않음)
+	 * @param coalesceModify : M 레코드 병합 출력 여부 (기본 출력의 키는 이전과 같다)
+	 * @return
+	 */
+	public static String key(InstTable instTable, SourceBuffer source, int begin, int end, boolean coalesceModify) {
+		MessageDigest digest = newDigest();
+		
+		digest.update(instTable.getVersion().getBytes(StandardCharsets.ISO_8859_1));
+		digest.update((byte) '\n');
+		
+		if(coalesceModify) {
+			digest.update((byte) 'M');
+			digest.update((byte) '\n');
+		}
+		
+		for(int line = begin; line < end; line++) {
+			int lineBegin = source.getBegin(line);
+			int lineEnd = source.getEnd(line);
+			
+			while(lineEnd > lineBegin && Token.isBlank(source.data[lineEnd - 1])) {
+				lineEnd--;
+			}
+			
+			digest.update(source.data, lineBegin, lineEnd - lineBegin);
+			digest.update((byte) '\n');
+		}
+		
+		return StringUtil.toHex(digest.digest());
+	}
+	
+	/**
+	 * 키에 해당하는 항목을 읽어들인다.
+	 * @param key
+	 * @return 캐시 항목. 없거나 손상된 경우 null
+	 */
+	public CacheEntry get(String key) {
+		synchronized(this) {
+			CacheEntry pending = pendingMap.get(key);
+			
+			if(pending != null) { // 아직 기록하지 않은 항목
+				hits++;
+				return pending;
+			}
+			
+			if(index.get(key) == null) { // 사용 순서 갱신
+				misses++;
+				return null;
+			}
+		}
+		
+		Path file = this.getFile(key);
+		
+		try {
+			CacheEntry entry = read(Files.readAllBytes(file), key);
+			
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis())); // 재시작 후에도 LRU 순서 유지
+			
+			synchronized(this) {
+				hits++;
+			}
+			
+			return entry;
+		} catch(IOException | RuntimeException e) { // 손상되었거나 다른 프로세스가 삭제한 항목
+			synchronized(this) {
+				corrupt++;
+				misses++;
+				this.remove(key);
+			}
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * 항목을 저장 대기열에 넣는다. 저장 스레드가 대기열의 항목을 차례로 기록한다.
+	 * @param key
+	 * @param entry : 저장 후에 바뀌지 않아야 한다.
+	 */
+	public void put(String key, CacheEntry entry) {
+		synchronized(this) {
+			pendingMap.put(key, entry);
+			
+			if(!writing) {
+				writing = true;
+				writer.execute(this::writePending);
+			}
+		}
+	}
+	
+	/**
+	 * 저장 대기 중인 항목을 모두 기록할 때까지 기다린다.
+	 */
+	public synchronized void flush() {
+		while(writing) {
+			try {
+				this.wait();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * 대기열이 빌 때까지 항목을 기록한다. (저장 스레드)
+	 */
+	private void writePending() {
+		ArrayList<Map.Entry<String, CacheEntry>> batch = new ArrayList<>();
+		
+		while(true) {
+			synchronized(this) {
+				if(pendingMap.isEmpty()) {
+					writing = false;
+					this.notifyAll();
+					return;
+				}
+				
+				batch.clear();
+				
+				for(Map.Entry<String, CacheEntry> pending : pendingMap.entrySet()) {
+					batch.add(new AbstractMap.SimpleImmutableEntry<>(pending));
+				}
+			}
+			
+			for(Map.Entry<String, CacheEntry> pending : batch) {
+				boolean stored = false;
+				long size = 0;
+				
+				try {
+					size = this.store(pending.getKey(), pending.getValue());
+					stored = true;
+				} catch(IOException | RuntimeException e) {
+					// 캐시 저장 실패는 어셈블 결과에 영향을 주지 않는다.
+				}
+				
+				synchronized(this) {
+					pendingMap.remove(pending.getKey(), pending.getValue()); // 기록 중에 다시 저장된 항목은 남긴다.
+					
+					if(stored) {
+						Long oldSize = index.put(pending.getKey(), size);
+						
+						totalSize = totalSize + size - (oldSize == null ? 0 : oldSize);
+						stores++;
+						
+						this.evict(pending.getKey());
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 항목을 파일로 기록한다. 임시 파일에 쓴 뒤 이름을 바꾸므로 중간에 실패해도 손상된 항목이 남지 않는다.
+	 * @param key
+	 * @param entry
+	 * @return 기록한 크기 (byte)
+	 * @throws IOException : 기록에 실패한 경우 (임시 파일은 삭제한다)
+	 */
+	private long store(String key, CacheEntry entry) throws IOException {
+		byte[] data = write(entry, key);
+		Path tempFile = Files.createTempFile(directory, key, TEMP_SUFFIX);
+		
+		try {
+			Files.write(tempFile, data);
+			Files.move(tempFile, this.getFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException | RuntimeException e) {
+			try {
+				Files.deleteIfExists(tempFile);
+			} catch(IOException deleteError) {
+				e.addSuppressed(deleteError); // 다음 실행의 시작 시 정리된다.
+			}
+			
+			throw e;
+		}
+		
+		return data.length;
+	}
+	
+	/**
+	 * 크기 제한 : 전체 크기가 maxSize 이하가 될 때까지 가장 오래 사용하지 않은 항목부터 삭제한다. (synchronized 안에서 호출)
+	 * @param keep : 삭제하지 않을 항목 (방금 저장한 항목). 없으면 null
+	 */
+	private void evict(String keep) {
+		Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+		
+		while(totalSize > maxSize && iterator.hasNext()) {
+			Map.Entry<String, Long> eldest = iterator.next();
+			
+			if(eldest.getKey().equals(keep)) {
+				continue;
+			}
+			
+			iterator.remove();
+			totalSize = totalSize - eldest.getValue();
+			evictions++;
+			
+			try {
+				Files.deleteIfExists(this.getFile(eldest.getKey()));
+			} catch(IOException e) {
+				// 다음 실행의 시작 시 다시 정리된다.
+			}
+		}
+	}
+	
+	/**
+	 * 통계를 출력 형태로 반환한다.
+	 * @return
+	 */
+	public synchronized String getStatistics() {
+		return String.format("cache: %d hits, %d misses, %d stores, %d evictions, %d corrupt, %d entries (%d bytes)",
+				hits, misses, stores, evictions, corrupt, index.size(), totalSize);
+	}
+	
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	/**
+	 * SHA-256 해시 객체를 생성한다.
+	 * @return
+	 */
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // 모든 JVM이 지원해야 하는 알고리즘
+		}
+	}
+	
+	/**
+	 * 항목을 색인과 디스크에서 삭제한다. (synchronized 안에서 호출)
+	 * @param key
+	 */
+	private void remove(String key) {
+		Long size = index.remove(key);
+		
+		if(size != null) {
+			totalSize = totalSize - size;
+		}
+		
+		try {
+			Files.deleteIfExists(this.getFile(key));
+		} catch(IOException e) {
+			// 남은 파일은 다음 실행에서 읽을 때 다시 검사된다.
+		}
+	}
+	
+	private Path getFile(String key) {
+		return directory.resolve(key + SUFFIX);
+	}
+	
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch(IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+	
+	/**
+	 * 항목을 파일 형식으로 변환한다. (magic, 형식 버전, 키, 내용 길이, 내용, CRC32)
+	 * @param entry
+	 * @param key
+	 * @return
+	 */
+	private static byte[] write(CacheEntry entry, String key) {
+		try {
+			ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+			
+			entry.write(new DataOutputStream(payload));
+			
+			byte[] body = payload.toByteArray();
+			ByteArrayOutputStream file = new ByteArrayOutputStream(body.length + 128);
+			DataOutputStream output = new DataOutputStream(file);
+			java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+			
+			crc.update(body);
+			
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			output.writeUTF(key);
+			output.writeInt(body.length);
+			output.write(body);
+			output.writeLong(crc.getValue());
+			
+			return file.toByteArray();
+		} catch(IOException e) {
+			throw new IllegalStateException(e); // 메모리 스트림은 실패하지 않는다.
+		}
+	}
+	
+	/**
+	 * 파일 형식을 검사하고 항목으로 변환한다.
+	 * @param data
+	 * @param key
+	 * @return
+	 * @throws IOException : 형식이 맞지 않거나 손상된 경우
+	 */
+	private static CacheEntry read(byte[] data, String key) throws IOException {
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+		
+		if(input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !input.readUTF().equals(key)) {
+			throw new IOException("Invalid cache entry header.");
+		}
+		
+		int length = input.readInt();
+		
+		if(length < 0 || length > data.length) {
+			throw new IOException("Invalid cache entry length.");
+		}
+		
+		byte[] body = new byte[length];
+		java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+		
+		input.readFully(body);
+		crc.update(body);
+		
+		if(input.readLong() != crc.getValue() || input.available() != 0) {
+			throw new IOException("Cache entry checksum mismatch.");
+		}
+		
+		return CacheEntry.read(new DataInputStream(new ByteArrayInputStream(body)));
+	}
+}
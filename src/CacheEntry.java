@@ -0,0 +1,250 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 섹션 하나의 어셈블 결과. pass1, pass2를 수행하지 않고 섹션의 테이블을 복원하는 데 필요한 정보만 저장한다.
+ */
+class CacheEntry {
+	// 섹션 정보
+	String programName;
+	int startAddress;
+	int programLength;
+	boolean isMain;
+	
+	// 심볼 테이블
+	String[] symbolList;
+	int[] symbolLocationList;
+	
+	// 리터럴 테이블
+	String[] literalList;
+	int[] literalLocationList;
+	char[] literalTypeList;
+	
+	// 외부 정의, 참조
+	String[] extdefList;
+	int[] extdefLocationList;
+	String[] extrefList;
+	
+	// 수정 정보
+	int[] modifyLocationList;
+	int[] modifyLengthList;
+	char[] modifySignList;
+	String[] modifyLabelList;
+	
+	// 오브젝트 프로그램 (H ~ E 레코드)
+	String objectProgram;
+	
+	/**
+	 * pass2가 끝난 섹션의 결과를 저장한다.
+	 * @param tokenTable : 섹션의 토큰 테이블
+	 * @param objectProgram : 섹션의 오브젝트 프로그램
+	 * @return
+	 */
+	static CacheEntry capture(TokenTable tokenTable, String objectProgram) {
+		CacheEntry entry = new CacheEntry();
+		Section section = tokenTable.section;
+		SymbolTable symTab = tokenTable.symTab;
+		LiteralTable literalTab = tokenTable.literalTab;
+		ExtTable extTab = tokenTable.extTab;
+		ModifyTable modifyTab = tokenTable.modifyTab;
+		
+		entry.programName = section.programName;
+		entry.startAddress = section.startAddress;
+		entry.programLength = section.programLength;
+		entry.isMain = section.isMain;
+		
+		entry.symbolList = new String[symTab.size()];
+		entry.symbolLocationList = new int[symTab.size()];
+		for(int i = 0; i < symTab.size(); i++) {
+			entry.symbolList[i] = symTab.getSymbol(i);
+			entry.symbolLocationList[i] = symTab.getLocation(i);
+		}
+		
+		entry.literalList = new String[literalTab.size()];
+		entry.literalLocationList = new int[literalTab.size()];
+		entry.literalTypeList = new char[literalTab.size()];
+		for(int i = 0; i < literalTab.size(); i++) {
+			entry.literalList[i] = literalTab.getLiteral(i);
+			entry.literalLocationList[i] = literalTab.getLocation(i);
+			entry.literalTypeList[i] = literalTab.literalTypeList[i];
+		}
+		
+		entry.extdefList = new String[extTab.extdef.size()];
+		entry.extdefLocationList = new int[extTab.extdef.size()];
+		for(int i = 0; i < extTab.extdef.size(); i++) {
+			entry.extdefList[i] = extTab.extdef.get(i).name;
+			entry.extdefLocationList[i] = extTab.extdef.get(i).location;
+		}
+		
+		entry.extrefList = new String[extTab.extref.size()];
+		for(int i = 0; i < extTab.extref.size(); i++) {
+			entry.extrefList[i] = extTab.extref.get(i).name;
+		}
+		
+		entry.modifyLocationList = new int[modifyTab.size()];
+		entry.modifyLengthList = new int[modifyTab.size()];
+		entry.modifySignList = new char[modifyTab.size()];
+		entry.modifyLabelList = new String[modifyTab.size()];
+		for(int i = 0; i < modifyTab.size(); i++) {
+			entry.modifyLocationList[i] = modifyTab.getLocation(i);
+			entry.modifyLengthList[i] = modifyTab.getLength(i);
+			entry.modifySignList[i] = modifyTab.getSign(i);
+			entry.modifyLabelList[i] = modifyTab.getLabel(i);
+		}
+		
+		entry.objectProgram = objectProgram;
+		
+		return entry;
+	}
+	
+	/**
+	 * 저장된 결과로 섹션의 테이블을 복원한다. (토큰은 복원하지 않는다)
+	 * @param tokenTable : 비어있는 섹션의 토큰 테이블
+	 */
+	void restore(TokenTable tokenTable) {
+		Section section = tokenTable.section;
+		
+		section.programName = programName;
+		section.startAddress = startAddress;
+		section.programLength = programLength;
+		section.isMain = isMain;
+		
+		for(int i = 0; i < symbolList.length; i++) {
+			tokenTable.symTab.putSymbol(symbolList[i], symbolLocationList[i]);
+		}
+		
+		for(int i = 0; i < literalList.length; i++) {
+			tokenTable.literalTab.putLiteral(literalList[i], literalLocationList[i], literalTypeList[i]);
+		}
+		
+		tokenTable.extTab.addExtdef(extdefList);
+		for(int i = 0; i < extdefList.length; i++) {
+			tokenTable.extTab.getExtdef(extdefList[i]).modifyExtdef(extdefLocationList[i]);
+		}
+		tokenTable.extTab.addExtref(extrefList);
+		
+		for(int i = 0; i < modifyLabelList.length; i++) {
+			tokenTable.modifyTab.add(modifyLocationList[i], modifyLengthList[i], modifySignList[i], modifyLabelList[i]);
+		}
+	}
+	
+	/**
+	 * 항목의 내용을 기록한다.
+	 * @param output
+	 * @throws IOException
+	 */
+	void write(DataOutputStream output) throws IOException {
+		output.writeBoolean(programName != null);
+		if(programName != null) {
+			output.writeUTF(programName);
+		}
+		output.writeInt(startAddress);
+		output.writeInt(programLength);
+		output.writeBoolean(isMain);
+		
+		output.writeInt(symbolList.length);
+		for(int i = 0; i < symbolList.length; i++) {
+			output.writeUTF(symbolList[i]);
+			output.writeInt(symbolLocationList[i]);
+		}
+		
+		output.writeInt(literalList.length);
+		for(int i = 0; i < literalList.length; i++) {
+			output.writeUTF(literalList[i]);
+			output.writeInt(literalLocationList[i]);
+			output.writeChar(literalTypeList[i]);
+		}
+		
+		output.writeInt(extdefList.length);
+		for(int i = 0; i < extdefList.length; i++) {
+			output.writeUTF(extdefList[i]);
+			output.writeInt(extdefLocationList[i]);
+		}
+		
+		output.writeInt(extrefList.length);
+		for(int i = 0; i < extrefList.length; i++) {
+			output.writeUTF(extrefList[i]);
+		}
+		
+		output.writeInt(modifyLabelList.length);
+		for(int i = 0; i < modifyLabelList.length; i++) {
+			output.writeInt(modifyLocationList[i]);
+			output.writeInt(modifyLengthList[i]);
+			output.writeChar(modifySignList[i]);
+			output.writeUTF(modifyLabelList[i]);
+		}
+		
+		byte[] program = objectProgram.getBytes(StandardCharsets.ISO_8859_1); // 64KB를 넘을 수 있으므로 writeUTF를 사용하지 않는다.
+		
+		output.writeInt(program.length);
+		output.write(program);
+	}
+	
+	/**
+	 * 기록된 항목의 내용을 읽어들인다.
+	 * @param input
+	 * @return
+	 * @throws IOException
+	 */
+	static CacheEntry read(DataInputStream input) throws IOException {
+		CacheEntry entry = new CacheEntry();
+		
+		entry.programName = input.readBoolean() ? input.readUTF() : null;
+		entry.startAddress = input.readInt();
+		entry.programLength = input.readInt();
+		entry.isMain = input.readBoolean();
+		
+		int count = input.readInt();
+		entry.symbolList = new String[count];
+		entry.symbolLocationList = new int[count];
+		for(int i = 0; i < count; i++) {
+			entry.symbolList[i] = input.readUTF();
+			entry.symbolLocationList[i] = input.readInt();
+		}
+		
+		count = input.readInt();
+		entry.literalList = new String[count];
+		entry.literalLocationList = new int[count];
+		entry.literalTypeList = new char[count];
+		for(int i = 0; i < count; i++) {
+			entry.literalList[i] = input.readUTF();
+			entry.literalLocationList[i] = input.readInt();
+			entry.literalTypeList[i] = input.readChar();
+		}
+		
+		count = input.readInt();
+		entry.extdefList = new String[count];
+		entry.extdefLocationList = new int[count];
+		for(int i = 0; i < count; i++) {
+			entry.extdefList[i] = input.readUTF();
+			entry.extdefLocationList[i] = input.readInt();
+		}
+		
+		count = input.readInt();
+		entry.extrefList = new String[count];
+		for(int i = 0; i < count; i++) {
+			entry.extrefList[i] = input.readUTF();
+		}
+		
+		count = input.readInt();
+		entry.modifyLocationList = new int[count];
+		entry.modifyLengthList = new int[count];
+		entry.modifySignList = new char[count];
+		entry.modifyLabelList = new String[count];
+		for(int i = 0; i < count; i++) {
+			entry.modifyLocationList[i] = input.readInt();
+			entry.modifyLengthList[i] = input.readInt();
+			entry.modifySignList[i] = input.readChar();
+			entry.modifyLabelList[i] = input.readUTF();
+		}
+		
+		byte[] program = new byte[input.readInt()];
+		
+		input.readFully(program);
+		entry.objectProgram = new String(program, StandardCharsets.ISO_8859_1);
+		
+		return entry;
+	}
+}
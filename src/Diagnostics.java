@@ -0,0 +1,221 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import exception.AssemblerException;
+import exception.SymbolDuplicationException;
+
+/**
+ * 어셈블 중 발생한 소스 오류를 모으는 클래스. (진단 모드)
+ * Assembler에 설정하면 오류가 발생한 토큰만 건너뛰고 섹션 끝까지, 그리고 모든 섹션을 계속 처리하여 한 번에 모든 오류를 보고한다.
+ * 오류 위치는 소스의 byte offset으로만 기록하고, 라인 번호는 출력할 때 소스를 한 번만 스캔하여 계산한다. (라인 끝은 SourceBuffer와 같이 \r, \n, \r\n)
+ * 섹션을 동시에 처리할 수 있으므로 추가와 조회는 동기화한다.
+ *
+ * 출력 형식 : 파일:라인:컬럼: error: 메시지 (토큰)
+ */
+public class Diagnostics {
+	/** 발생 순서대로 기록된 오류 */
+	private ArrayList<Diagnostic> diagnosticList = new ArrayList<>();
+	/** 라인 번호 계산 여부 (오류가 추가되면 다시 계산) */
+	private boolean resolved = true;
+	
+	/**
+	 * 토큰 처리 중 발생한 오류를 기록한다. 오류의 종류에 따라 label, 명령어, operand 중 원인 위치를 고른다.
+	 * @param token : 오류가 발생한 토큰
+	 * @param e : 발생한 오류
+	 */
+	synchronized void add(Token token, AssemblerException e) {
+		byte[] source = token.source;
+		int lineBegin = token.operatorOffset;
+		int operatorEnd = token.operatorOffset + token.operatorLength;
+		
+		while(lineBegin > 0 && source[lineBegin - 1] != '\n' && source[lineBegin - 1] != '\r') { // 명령어 앞의 라인 시작 위치
+			lineBegin--;
+		}
+		
+		int operandBegin = operatorEnd;
+		int operandEnd = operatorEnd;
+		
+		if(token.operand != null) { // 명령어 뒤의 operand 구간
+			while(operandBegin < source.length && Token.isBlank(source[operandBegin])) {
+				operandBegin++;
+			}
+			
+			operandEnd = operandBegin;
+			
+			while(operandEnd < source.length && source[operandEnd] != '\n' && source[operandEnd] != '\r' && !Token.isBlank(source[operandEnd])) {
+				operandEnd++;
+			}
+		}
+		
+		int offset = token.operatorOffset;
+		String text = e.getToken();
+		int found = text == null ? -1 : indexOf(source, operandBegin, operandEnd, text);
+		
+		// 원인 위치 선택 begin --
+		if(e instanceof SymbolDuplicationException && token.label != null && token.label.equals(text)) { // 중복된 label
+			offset = lineBegin;
+		} else if(found >= 0) { // operand 안의 심볼
+			offset = found;
+		} else if(token.instruction == null) { // 명령어 검증 실패
+			text = new String(source, token.operatorOffset, token.operatorLength, StandardCharsets.ISO_8859_1);
+		} else if(token.operand != null) { // operand 오류
+			offset = operandBegin;
+			text = text != null ? text : new String(source, operandBegin, operandEnd - operandBegin, StandardCharsets.ISO_8859_1);
+		} else {
+			text = text != null ? text : token.operator;
+		}
+		// 원인 위치 선택 end --
+		
+		this.add(new Diagnostic(source, lineBegin, offset, text, e.getMessage()));
+	}
+	
+	/**
+	 * 토큰을 만들지 못한 라인의 오류를 기록한다.
+	 * @param source : 프로그램 코드 전체
+	 * @param lineBegin : 라인 시작 위치
+	 * @param e : 발생한 오류
+	 */
+	synchronized void add(byte[] source, int lineBegin, AssemblerException e) {
+		this.add(new Diagnostic(source, lineBegin, lineBegin, e.getToken(), e.getMessage()));
+	}
+	
+	private void add(Diagnostic diagnostic) {
+		diagnosticList.add(diagnostic);
+		resolved = false;
+	}
+	
+	/**
+	 * @return 기록된 오류 수
+	 */
+	public synchronized int size() {
+		return diagnosticList.size();
+	}
+	
+	/**
+	 * @return 오류가 하나라도 있으면 true
+	 */
+	public boolean hasErrors() {
+		return this.size() > 0;
+	}
+	
+	/**
+	 * 소스 위치 순서로 정렬된 오류 목록을 반환한다. 라인 번호와 컬럼이 계산되어 있다.
+	 * @return
+	 */
+	public synchronized List<Diagnostic> getDiagnostics() {
+		this.resolve();
+		
+		return new ArrayList<>(diagnosticList);
+	}
+	
+	/**
+	 * 모든 오류를 출력 형태로 변환한다. (한 줄에 하나)
+	 * @param fileName : 오류 앞에 붙일 input 파일 이름
+	 * @return
+	 */
+	public String format(String fileName) {
+		StringBuilder stringBuilder = new StringBuilder();
+		
+		for(Diagnostic diagnostic : this.getDiagnostics()) {
+			stringBuilder.append(fileName)
+						 .append(':').append(diagnostic.line)
+						 .append(':').append(diagnostic.column)
+						 .append(": error: ").append(diagnostic.message);
+			
+			if(diagnostic.token != null) {
+				stringBuilder.append(" (").append(diagnostic.token).append(')');
+			}
+			
+			stringBuilder.append('\n');
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	/**
+	 * 오류를 소스 위치 순서로 정렬하고 라인 번호를 계산한다.
+	 * 정렬된 순서로 개행 문자를 이어서 세므로 오류 수와 관계없이 소스를 한 번만 스캔한다.
+	 */
+	private void resolve() {
+		if(resolved) {
+			return;
+		}
+		
+		diagnosticList.sort(Comparator.comparingInt((Diagnostic diagnostic) -> diagnostic.offset)); // 같은 위치는 발생 순서 유지
+		
+		byte[] source = null;
+		int position = 0;
+		int line = 1;
+		
+		for(Diagnostic diagnostic : diagnosticList) {
+			if(diagnostic.source != source || diagnostic.lineBegin < position) { // 다른 소스 (문자열로 만든 토큰)
+				source = diagnostic.source;
+				position = 0;
+				line = 1;
+			}
+			
+			for(; position < diagnostic.lineBegin; position++) {
+				if(source[position] == '\n' || (source[position] == '\r' && (position + 1 >= source.length || source[position + 1] != '\n'))) { // \r\n은 한 번
+					line++;
+				}
+			}
+			
+			diagnostic.line = line;
+			diagnostic.column = diagnostic.offset - diagnostic.lineBegin + 1;
+		}
+		
+		resolved = true;
+	}
+	
+	/**
+	 * source의 begin부터 end 전까지의 구간에서 text가 처음 나오는 위치를 찾는다.
+	 * @param source
+	 * @param begin
+	 * @param end
+	 * @param text
+	 * @return 찾지 못하면 -1
+	 */
+	private static int indexOf(byte[] source, int begin, int end, String text) {
+		for(int i = begin; i + text.length() <= end; i++) {
+			int length = 0;
+			
+			while(length < text.length() && source[i + length] == text.charAt(length)) {
+				length++;
+			}
+			
+			if(length == text.length()) {
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+}
+
+/**
+ * 소스 오류 하나의 위치와 내용
+ */
+class Diagnostic {
+	byte[] source; // 프로그램 코드 전체
+	int lineBegin; // 라인 시작 위치
+	int offset; // 오류 위치
+	int line; // 라인 번호 (1부터, Diagnostics.getDiagnostics 에서 계산)
+	int column; // 컬럼 (1부터, byte 단위)
+	String token; // 원인이 된 토큰. 없으면 null
+	String message;
+	
+	Diagnostic(byte[] source, int lineBegin, int offset, String token, String message) {
+		this.source = source;
+		this.lineBegin = lineBegin;
+		this.offset = offset;
+		this.token = token;
+		this.message = message;
+	}
+	
+	@Override
+	public String toString() {
+		return line + ":" + column + ": " + message + (token != null ? " (" + token + ")" : "");
+	}
+}
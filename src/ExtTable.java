@@ -1,173 +1,200 @@
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 
+import exception.SymbolDuplicationException;
 import exception.SymbolNotFoundException;
 
 /**
- * ܺ ǿ ܺ  ϴ Ŭ
- * 
+ * 외부 정의와 외부 참조를 관리하는 클래스
+ *
  * @author Cary
  *
  */
 public class ExtTable {
-	ArrayList<Extdef> extdef; // ܺ 
-	ArrayList<Extref> extref; // ܺ 
+	ArrayList<Extdef> extdef; // 외부 정의 (선언 순서)
+	ArrayList<Extref> extref; // 외부 참조 (선언 순서)
 	
-	private static StringBuilder stringBuilder = new StringBuilder();
+	private HashMap<String, Extdef> extdefMap; // 이름 -> 외부 정의
+	private HashSet<String> extrefSet; // 외부 참조 이름
 	
 	public ExtTable() {
 		this.extdef = new ArrayList<>();
 		this.extref = new ArrayList<>();
+		this.extdefMap = new HashMap<>();
+		this.extrefSet = new HashSet<>();
 	}
 	
 	/**
-	 * ܺ  ߰
-	 * 
+	 * 외부 정의 추가
+	 *
 	 * @param str
 	 */
-	public void addExtdef(String[] data) { 
-		Arrays.stream(data).forEach(x-> extdef.add(new Extdef(x)));
+	public void addExtdef(String[] data) {
+		for(String name : data) {
+			Extdef def = new Extdef(name);
+			
+			if(extdefMap.putIfAbsent(name, def) != null) { // 같은 이름을 두 번 정의할 수 없음
+				throw new SymbolDuplicationException(name);
+			}
+			
+			extdef.add(def);
+		}
 	}
 	
 	/**
-	 * ܺ  ߰
-	 * 
+	 * 외부 참조 추가
+	 *
 	 * @param str
 	 */
 	public void addExtref(String[] data) {
-		Arrays.stream(data).forEach(x-> extref.add(new Extref(x)));
+		for(String name : data) {
+			if(extrefSet.add(name)) { // 중복 선언은 한 번만 등록
+				extref.add(new Extref(name));
+			}
+		}
+	}
+	
+	/**
+	 * 나중에 추가된 외부 정의, 참조를 삭제한다. (증분 어셈블)
+	 *
+	 * @param extdefCount : 남길 외부 정의 수
+	 * @param extrefCount : 남길 외부 참조 수
+	 */
+	public void truncate(int extdefCount, int extrefCount) {
+		while(extdef.size() > extdefCount) {
+			extdefMap.remove(extdef.remove(extdef.size() - 1).name);
+		}
+		
+		while(extref.size() > extrefCount) {
+			extrefSet.remove(extref.remove(extref.size() - 1).name);
+		}
 	}
 	
 	/**
-	 * ܺ   Ѵ.
-	 * 
+	 * 외부 정의 정보를 검증한다.
+	 * 심볼 테이블의 해시 인덱스를 이용해 모든 외부 정의의 주소를 한 번에 확정한다.
+	 *
 	 * @param symbolTab
 	 */
 	public void validation(SymbolTable symbolTab) {
-		extdef.stream().forEach(x-> {
-			int symbolIndex = symbolTab.search(x.name);
+		this.validation(symbolTab, null);
+	}
+	
+	/**
+	 * 외부 정의 정보를 검증한다.
+	 * undefinedList가 있으면 정의되지 않은 심볼을 예외 대신 목록에 추가하고 나머지 외부 정의를 계속 검증한다. (진단 모드)
+	 *
+	 * @param symbolTab
+	 * @param undefinedList : 정의되지 않은 외부 정의 이름을 모을 목록. null이면 첫 오류에서 예외를 던진다.
+	 */
+	void validation(SymbolTable symbolTab, ArrayList<String> undefinedList) {
+		for(int i = 0; i < extdef.size(); i++) {
+			Extdef def = extdef.get(i);
+			int symbolLocation = symbolTab.getLocation(def.name);
 			
-			if(symbolIndex == -1) {
-				throw new SymbolNotFoundException();
+			if(symbolLocation == SymbolTable.NOT_FOUND) {
+				if(undefinedList == null) {
+					throw new SymbolNotFoundException(def.name);
+				}
+				
+				undefinedList.add(def.name);
+				continue;
 			}
 			
-			x.modifyExtdef(symbolTab.locationList.get(symbolIndex));
-		});
+			def.modifyExtdef(symbolLocation);
+		}
 	}
-
+	
 	/**
-	 * ܺ   Ͱ ִ ȮѴ.
-	 * 
+	 * 외부 참조 영역에 데이터가 있는지 확인한다.
+	 *
 	 * @param str
 	 * @return
 	 */
 	public boolean isExtref(String str) {
-		return extref.stream()
-				     .anyMatch(x-> x.name.equals(str));
+		return extrefSet.contains(str);
 	}
 	
 	/**
-	 * ܺ   Ʈ α׷ Ŀ ߾ Ѵ.
-	 * 
-	 * @return
+	 * 외부 정의 영역에서 이름에 해당하는 외부 정의를 조회한다.
+	 *
+	 * @param name
+	 * @return 외부 정의. 없을 경우 null
 	 */
-	public String printDef() {
-		stringBuilder.setLength(0);
-		
-		stringBuilder.append("D");
-		this.extdef.forEach(x-> stringBuilder.append(x.print()));
-		stringBuilder.append("\n");
-		
-		return stringBuilder.toString();
+	public Extdef getExtdef(String name) {
+		return extdefMap.get(name);
 	}
 	
+	/**
+	 * 외부 정의 레코드(D)를 레코드 버퍼에 바로 기록한다.
+	 *
+	 * @param emitter
+	 */
+	void emitDef(RecordEmitter emitter) {
+		emitter.beginRecord('D');
+		for(int i = 0; i < extdef.size(); i++) {
+			Extdef def = extdef.get(i);
+			
+			emitter.name(def.name, 6);
+			emitter.fixedHex(def.location, 6);
+		}
+		emitter.endRecord();
+	}
 	
 	/**
-	 * ܺ   Ʈ α׷ Ŀ ߾ Ѵ.
-	 * 
-	 * @return
+	 * 외부 참조 레코드(R)를 레코드 버퍼에 바로 기록한다.
+	 *
+	 * @param emitter
 	 */
-	public String printRef() {
-		stringBuilder.setLength(0);
-		
-		stringBuilder.append("R");
-		this.extref.forEach(x-> stringBuilder.append(String.format("%-6s", x.name)));
-		stringBuilder.append("\n");
-		
-		return stringBuilder.toString();
+	void emitRef(RecordEmitter emitter) {
+		emitter.beginRecord('R');
+		for(int i = 0; i < extref.size(); i++) {
+			emitter.name(extref.get(i).name, 6);
+		}
+		emitter.endRecord();
 	}
 }
 
 
 /**
- * ܺ  ü
- * 
+ * 외부 정의 객체
+ *
  * @author Cary
  *
  */
 class Extdef {
-	// ̸
+	// 이름
 	public String name;
-	// ּ
+	// 주소
 	public int location;
 	
-	private static StringBuilder stringBuilder = new StringBuilder();
-	
 	public Extdef(String name) {
 		this.name = name;
 		this.location = -1;
 	}
 	
 	/**
-	 * ܺ  ü ּҸ Ѵ.
-	 * 
+	 * 외부 정의 객체의 주소를 수정한다.
+	 *
 	 * @param location
 	 */
 	public void modifyExtdef(int location) {
 		this.location = location;
 	}
-	
-	/**
-	 * ܺ  ü Ʈ α׷ Ŀ ߾ Ѵ.
-	 * 
-	 * @return
-	 */
-	public String print() {
-		stringBuilder.setLength(0);
-		
-		stringBuilder.append(String.format("%-6s", name))
-				     .append(String.format("%06X", location));
-	
-		return stringBuilder.toString();
-	}
 }
 
 /**
- * ܺ  ü
- * 
+ * 외부 참조 객체
+ *
  * @author Cary
  *
  */
 class Extref {
-	// ̸
+	// 이름
 	public String name;
 	
-	private static StringBuilder stringBuilder = new StringBuilder();
-	
 	public Extref(String name) {
 		this.name = name;
 	}
-	
-	/**
-	 * ܺ  ü Ʈ α׷ Ŀ ߾ Ѵ.
-	 * 
-	 * @return
-	 */
-	public String print() {
-		stringBuilder.setLength(0);
-		
-		stringBuilder.append(String.format("%-6s", name));
-	
-		return stringBuilder.toString();
-	}
 }
\ No newline at end of file
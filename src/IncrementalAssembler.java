@@ -0,0 +1,835 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+
+import util.StringUtil;
+
+/**
+ * 편집기 연동을 위한 증분 어셈블러.
+ * 섹션별 TokenTable을 유지한 채 라인 단위의 편집을 받아, 바뀐 부분만 다시 처리한다.
+ *
+ * 편집 하나의 처리 순서
+ *   1) 토큰 분리 : 바뀐 라인만 다시 Token으로 분리하고 해당 섹션의 tokenList를 수정
+ *      섹션 내 토큰 index는 라인 블록별 문장 수로 계산한다. (라인 수에 비례하여 세지 않는다)
+ *   2) 주소 배치에 영향이 없는 편집(크기, 리터럴이 같고 레이블 이름만 바뀐 경우 포함)은 주소 할당을 건너뛰고
+ *      바뀐 토큰(과 이름이 바뀐 심볼을 참조하는 토큰)의 object code만 바로 다시 생성
+ *   3) 그 외의 편집은 섹션에 기록만 해 두고, getObjectProgram(또는 getAssembler) 호출 시 섹션별로 한 번에 처리
+ *      - 주소 할당 : 미뤄둔 편집 중 첫 토큰부터 setLocation을 다시 수행 (이전 토큰은 기록된 상태에서 이어서 처리)
+ *      - object code 생성 : 바뀐 토큰, 주소가 바뀐 토큰, 주소가 바뀌거나 추가, 삭제된 심볼/리터럴을 참조하는 토큰만 다시 생성
+ *      크기가 바뀌는 편집은 이후의 모든 주소를 옮기므로, 편집마다 수행하지 않고 여러 편집을 모아 한 번만 수행한다.
+ *      이 경우 편집 지점 이후의 토큰을 모두 다시 생성하므로 비용은 섹션의 크기에 비례한다.
+ *   4) 레코드 출력 : getObjectProgram 호출 시 바뀐 섹션만 다시 생성 (섹션 전체의 레코드를 다시 만든다)
+ *
+ * CSECT, START 라인이 바뀌어 섹션 구성이 달라지는 경우와 EXTREF가 바뀐 경우에는 전체(또는 섹션 전체)를 다시 처리한다.
+ * 토큰 분리에서 발생한 예외는 편집에서, 주소 할당과 object code 생성에서 발생한 예외는 getObjectProgram에서 던진다.
+ * 오류가 있는 섹션은 다음 편집 때 섹션 전체를 다시 처리한다.
+ * 결과는 같은 내용으로 Assembler를 처음부터 수행한 결과와 같다.
+ */
+public class IncrementalAssembler {
+	/** 문장 수를 세는 라인 블록의 크기 */
+	private static final int LINE_BLOCK = 256;
+	
+	/** 모든 섹션이 공유하는 instruction 명세 */
+	InstTable instTable;
+	/** 섹션별 테이블을 보관하는 어셈블러 (출력 함수와 codeList를 그대로 사용한다) */
+	Assembler assembler;
+	
+	/** 편집기의 라인 (빈 라인, 주석 포함) */
+	ArrayList<byte[]> lineList;
+	/** 라인별 토큰. 빈 라인, 주석은 null */
+	ArrayList<Token> lineTokenList;
+	/** 소스 순서대로 저장된 섹션 */
+	ArrayList<IncrementalSection> sectionList;
+	/** 라인 블록(LINE_BLOCK 라인)별 문장 수 (섹션 내 토큰 index 계산) */
+	private int[] blockStatements;
+	
+	/** 처리한 편집 수 (Token.updateMark와 비교) */
+	private int updateCount;
+	/** 이번 편집에서 object code를 다시 생성할 토큰 */
+	private ArrayList<Token> dirtyList;
+	
+	/**
+	 * 생성자 선언
+	 * @param instTable : 공유할 instruction 명세
+	 */
+	public IncrementalAssembler(InstTable instTable) {
+		this.instTable = instTable;
+		this.lineList = new ArrayList<>();
+		this.lineTokenList = new ArrayList<>();
+		this.sectionList = new ArrayList<>();
+		this.dirtyList = new ArrayList<>();
+		this.blockStatements = new int[1];
+		this.assembler = new Assembler(instTable);
+	}
+	
+	/**
+	 * 전체 내용을 설정하고 처음부터 어셈블한다.
+	 * @param text : 소스 전체 (\n, \r\n 개행)
+	 */
+	public void setText(String text) {
+		lineList.clear();
+		
+		int begin = 0;
+		
+		for(int i = 0; i <= text.length(); i++) {
+			if(i == text.length() || text.charAt(i) == '\n') {
+				int end = i > begin && text.charAt(i - 1) == '\r' ? i - 1 : i;
+				
+				if(i < text.length() || begin < text.length()) { // 마지막 개행 뒤의 빈 라인은 제외
+					lineList.add(toBytes(text.substring(begin, end)));
+				}
+				
+				begin = i + 1;
+			}
+		}
+		
+		this.rebuild();
+	}
+	
+	/**
+	 * line번째 라인의 내용을 바꾼다.
+	 * @param line : 0부터 시작하는 라인 번호
+	 * @param text : 새 내용 (개행 제외)
+	 */
+	public void replaceLine(int line, String text) {
+		this.edit(line, toBytes(text), lineList.get(line));
+	}
+	
+	/**
+	 * line번째 위치에 라인을 추가한다. 기존 line번째 이후의 라인은 하나씩 밀린다.
+	 * @param line : 0부터 시작하는 라인 번호 (getLineCount()이면 마지막에 추가)
+	 * @param text : 새 내용 (개행 제외)
+	 */
+	public void insertLine(int line, String text) {
+		this.edit(line, toBytes(text), null);
+	}
+	
+	/**
+	 * line번째 라인을 삭제한다.
+	 * @param line : 0부터 시작하는 라인 번호
+	 */
+	public void removeLine(int line) {
+		this.edit(line, null, lineList.get(line));
+	}
+	
+	/**
+	 * 라인 수를 반환한다.
+	 * @return
+	 */
+	public int getLineCount() {
+		return lineList.size();
+	}
+	
+	/**
+	 * 섹션별 테이블을 보관하는 어셈블러를 반환한다. (심볼, 리터럴 테이블 출력)
+	 * 미뤄둔 편집을 먼저 처리한다. 처리 중 발생한 예외는 getObjectProgram에서 던진다.
+	 * @return
+	 */
+	public Assembler getAssembler() {
+		for(IncrementalSection section : sectionList) {
+			if(section.error == null) {
+				try {
+					this.locate(section);
+				} catch(RuntimeException e) {
+					// section.error에 기록됨
+				}
+			}
+		}
+		
+		return assembler;
+	}
+	
+	/**
+	 * 오브젝트 프로그램을 반환한다. 미뤄둔 편집을 처리하고, 편집 이후 바뀐 섹션만 다시 생성한다.
+	 * @return 오브젝트 프로그램
+	 */
+	public String getObjectProgram() {
+		for(int i = 0; i < sectionList.size(); i++) {
+			IncrementalSection section = sectionList.get(i);
+			
+			if(section.error != null) { // 오류가 있는 섹션
+				throw section.error;
+			}
+			
+			this.locate(section);
+			
+			if(section.objectProgram == null) {
+				section.objectProgram = section.tokenTable.makeObjectProgram();
+				assembler.codeList.set(i, section.objectProgram);
+			}
+		}
+		
+		return assembler.getObjectProgram();
+	}
+	
+	/**
+	 * 라인 하나를 편집한다.
+	 * @param line : 라인 번호
+	 * @param newLine : 새 내용. 삭제인 경우 null
+	 * @param oldLine : 기존 내용. 추가인 경우 null
+	 */
+	private void edit(int line, byte[] newLine, byte[] oldLine) {
+		// 섹션 구성이 바뀔 수 있는 경우 전체를 다시 처리 (첫 문장 앞의 편집은 첫 섹션의 시작을 바꿀 수 있다)
+		if(sectionList.isEmpty() || isSectionLine(oldLine) || isSectionLine(newLine) || this.isBeforeFirstStatement(line)) {
+			if(oldLine == null) {
+				lineList.add(line, newLine);
+			} else if(newLine == null) {
+				lineList.remove(line);
+			} else {
+				lineList.set(line, newLine);
+			}
+			
+			this.rebuild();
+			return;
+		}
+		
+		// 섹션 탐색 (추가하는 라인은 해당 위치의 CSECT 라인 앞, 즉 이전 섹션에 속한다)
+		int sectionNumber = this.findSection(oldLine == null ? line - 1 : line);
+		IncrementalSection section = sectionList.get(sectionNumber);
+		Token oldToken = oldLine == null ? null : lineTokenList.get(line);
+		
+		// 라인 반영 begin --
+		if(oldLine == null) {
+			lineList.add(line, newLine);
+			lineTokenList.add(line, null);
+		} else if(newLine == null) {
+			lineList.remove(line);
+			lineTokenList.remove(line);
+		} else {
+			lineList.set(line, newLine);
+			lineTokenList.set(line, null);
+		}
+		
+		if(oldLine == null || newLine == null) { // 이후 섹션의 시작 라인 이동
+			for(int i = sectionNumber + 1; i < sectionList.size(); i++) {
+				sectionList.get(i).firstLine += oldLine == null ? 1 : -1;
+			}
+		}
+		
+		this.updateStatementCount(line, newLine, oldLine);
+		// 라인 반영 end --
+		
+		if(section.error != null) { // 오류가 있던 섹션은 전체를 다시 처리
+			this.build(sectionNumber);
+			return;
+		}
+		
+		try {
+			this.update(section, line, oldToken, newLine);
+		} catch(RuntimeException e) {
+			section.error = e;
+			throw e;
+		}
+		
+		if(section.tokenTable.tokenList.isEmpty()) { // 첫 섹션의 문장이 모두 삭제된 경우
+			this.rebuild();
+		}
+	}
+	
+	/**
+	 * 섹션 안의 토큰 하나가 바뀐 결과를 반영한다.
+	 * @param section : 편집된 라인의 섹션
+	 * @param line : 편집된 라인 번호
+	 * @param oldToken : 기존 토큰. 없으면 null
+	 * @param newLine : 새 내용. 삭제인 경우 null
+	 */
+	private void update(IncrementalSection section, int line, Token oldToken, byte[] newLine) {
+		TokenTable tokenTable = section.tokenTable;
+		Token newToken = null;
+		
+		// 1) 토큰 분리 begin --
+		if(newLine != null && SourceBuffer.isStatement(newLine, 0, newLine.length)) {
+			newToken = tokenTable.createToken(newLine, 0, newLine.length);
+			lineTokenList.set(line, newToken);
+		}
+		
+		if(oldToken == null && newToken == null) { // 빈 라인, 주석만 바뀐 경우
+			return;
+		}
+		
+		int index = this.countStatements(section.firstLine, line); // 섹션 내 토큰 index (오류가 없는 섹션은 모든 문장에 토큰이 있다)
+		boolean located = tokenTable.locatedCount == tokenTable.tokenList.size(); // 편집 전 모든 토큰의 주소가 할당된 상태
+		
+		if(oldToken != null) {
+			section.removeReference(oldToken);
+			tokenTable.codeBytes = tokenTable.codeBytes - oldToken.byteSize;
+		}
+		
+		if(oldToken != null && newToken != null) {
+			tokenTable.tokenList.set(index, newToken);
+		} else if(newToken != null) {
+			tokenTable.tokenList.add(index, newToken);
+		} else {
+			tokenTable.tokenList.remove(index);
+		}
+		
+		if(newToken != null) {
+			section.addReference(newToken);
+		}
+		// 1) 토큰 분리 end --
+		
+		section.objectProgram = null;
+		
+		// 2) 주소 배치에 영향이 없는 편집 begin --
+		String oldLabel = oldToken == null ? null : oldToken.label;
+		String newLabel = newToken == null ? null : newToken.label;
+		boolean renamed = oldLabel != null && newLabel != null && !oldLabel.equals(newLabel) && located;
+		boolean extrefChanged = isKind(oldToken, Instruction.Kind.EXTREF) || isKind(newToken, Instruction.Kind.EXTREF);
+		boolean keepSymbols = located && (Objects.equals(oldLabel, newLabel) || renamed); // 심볼의 등록 순서가 바뀌지 않는 경우
+		
+		if(!keepSymbols || oldToken == null || newToken == null || !isSameLayout(oldToken, newToken)
+				|| renamed && (section.isReferencedByEqu(oldLabel) || section.isReferencedByEqu(newLabel))) {
+			// 3) 주소가 바뀌는 편집은 미뤄둔다. (이 토큰 이후의 처리 직후 상태는 유효하지 않다)
+			tokenTable.locatedCount = Math.min(tokenTable.locatedCount, index);
+			section.defer(oldToken, newToken, extrefChanged);
+			return;
+		}
+		
+		updateCount++;
+		dirtyList.clear();
+		
+		newToken.copyLocation(oldToken); // 주소 배치에 영향이 없으므로 다시 할당하지 않는다.
+		this.markDirty(newToken);
+		
+		if(renamed) { // 레이블의 순서가 같으므로 심볼 이름만 변경
+			tokenTable.symTab.rename(oldToken.symbolMark - 1, newLabel);
+			this.markReferences(section, oldLabel);
+			this.markReferences(section, newLabel);
+		}
+		
+		tokenTable.extTab.validation(tokenTable.symTab);
+		
+		if(extrefChanged) { // 외부 참조 여부는 모든 토큰에 영향을 준다.
+			tokenTable.makeObjectCode();
+		} else {
+			tokenTable.makeObjectCode(dirtyList, oldToken.modifyEnd > oldToken.modifyBegin);
+		}
+		// 2) 주소 배치에 영향이 없는 편집 end --
+	}
+	
+	/**
+	 * 섹션에 미뤄둔 편집을 처리한다. 미뤄둔 편집이 없으면 아무것도 하지 않는다.
+	 * 오류가 발생하면 섹션에 기록하고 그대로 던진다.
+	 * @param section
+	 */
+	private void locate(IncrementalSection section) {
+		if(!section.pending) {
+			return;
+		}
+		
+		TokenTable tokenTable = section.tokenTable;
+		
+		updateCount++;
+		dirtyList.clear();
+		
+		try {
+			for(Token token : section.pendingTokenList) { // 새 토큰
+				this.markDirty(token);
+			}
+			
+			this.relocate(section);
+			
+			tokenTable.extTab.validation(tokenTable.symTab);
+			
+			if(section.extrefChanged) { // 외부 참조 여부는 모든 토큰에 영향을 준다.
+				tokenTable.makeObjectCode();
+			} else {
+				tokenTable.makeObjectCode(dirtyList, section.modifyChanged);
+			}
+		} catch(RuntimeException e) {
+			section.error = e;
+			throw e;
+		} finally {
+			section.clearPending();
+		}
+	}
+	
+	/**
+	 * 미뤄둔 편집 중 첫 토큰부터 주소를 다시 할당하고, object code를 다시 생성할 토큰을 표시한다.
+	 *   1) 주소가 바뀐 토큰
+	 *   2) 주소가 바뀌거나 추가, 삭제된 심볼과 리터럴을 참조하는 토큰
+	 * @param section
+	 */
+	private void relocate(IncrementalSection section) {
+		TokenTable tokenTable = section.tokenTable;
+		ArrayList<Token> tokenList = tokenTable.tokenList;
+		LiteralTable literalTab = tokenTable.literalTab;
+		int from = tokenTable.locatedCount;
+		
+		// 다시 할당하기 전의 주소 기록
+		int[] oldLocation = new int[tokenList.size() - from];
+		
+		for(int i = from; i < tokenList.size(); i++) {
+			oldLocation[i - from] = tokenList.get(i).location;
+		}
+		
+		int pendingIndex = from == 0 ? 0 : tokenList.get(from - 1).poolMark; // 이 index 이후의 리터럴만 주소가 바뀔 수 있다.
+		HashMap<String, Integer> oldLiteral = new HashMap<>();
+		
+		for(int i = pendingIndex; i < literalTab.size(); i++) {
+			oldLiteral.put(literalTab.getLiteral(i), literalTab.getLocation(i));
+		}
+		
+		tokenTable.setLocation(from, !section.labelChanged); // 레이블이 그대로면 심볼의 등록 순서도 같다.
+		
+		// 추가, 삭제된 심볼
+		for(String label : section.pendingLabelList) {
+			this.markReferences(section, label);
+		}
+		
+		// 주소가 바뀐 토큰과 심볼
+		for(int i = from; i < tokenList.size(); i++) {
+			Token token = tokenList.get(i);
+			
+			if(token.location != oldLocation[i - from]) {
+				this.markDirty(token);
+				
+				if(token.label != null) {
+					this.markReferences(section, token.label);
+				}
+			}
+		}
+		
+		// 주소가 바뀌거나 추가, 삭제된 리터럴
+		for(int i = pendingIndex; i < literalTab.size(); i++) {
+			Integer location = oldLiteral.remove(literalTab.getLiteral(i));
+			
+			if(location == null || location != literalTab.getLocation(i)) {
+				this.markReferences(section, literalTab.getLiteral(i));
+			}
+		}
+		
+		for(String literal : oldLiteral.keySet()) {
+			this.markReferences(section, literal);
+		}
+	}
+	
+	/**
+	 * 이름을 참조하는 토큰을 모두 표시한다.
+	 * @param section
+	 * @param name : 심볼 또는 리터럴
+	 */
+	private void markReferences(IncrementalSection section, String name) {
+		LinkedHashSet<Token> referenceSet = section.referenceMap.get(name);
+		
+		if(referenceSet != null) {
+			for(Token token : referenceSet) {
+				this.markDirty(token);
+			}
+		}
+	}
+	
+	/**
+	 * 이번 편집에서 object code를 다시 생성할 토큰으로 표시한다. (중복 제외)
+	 * @param token
+	 */
+	private void markDirty(Token token) {
+		if(token.updateMark != updateCount) {
+			token.updateMark = updateCount;
+			dirtyList.add(token);
+		}
+	}
+	
+	/**
+	 * 라인 전체를 섹션으로 나누고 모든 섹션을 처음부터 다시 처리한다.
+	 * 오류가 있는 섹션이 있어도 나머지 섹션을 처리한 뒤 처음 발생한 예외를 던진다.
+	 */
+	private void rebuild() {
+		assembler = new Assembler(instTable);
+		assembler.setVerbose(false);
+		sectionList.clear();
+		lineTokenList.clear();
+		
+		// 섹션 시작 라인 탐색 (첫 문장, CSECT 문장. 첫 섹션은 0번 라인부터 시작한다)
+		for(int line = 0; line < lineList.size(); line++) {
+			byte[] data = lineList.get(line);
+			
+			if(SourceBuffer.isStatement(data, 0, data.length) 
+					&& (sectionList.isEmpty() || SourceBuffer.isOperator(data, 0, data.length, SourceBuffer.CSECT))) {
+				sectionList.add(new IncrementalSection(assembler.addSection(), sectionList.isEmpty() ? 0 : line));
+				assembler.codeList.add(null);
+			}
+			
+			lineTokenList.add(null);
+		}
+		
+		this.countStatements();
+		
+		RuntimeException error = null;
+		
+		for(int sectionNumber = 0; sectionNumber < sectionList.size(); sectionNumber++) {
+			try {
+				this.build(sectionNumber);
+			} catch(RuntimeException e) {
+				error = error == null ? e : error;
+			}
+		}
+		
+		if(error != null) {
+			throw error;
+		}
+	}
+	
+	/**
+	 * 섹션 하나를 처음부터 다시 처리한다. (토큰 분리, 주소 할당, object code 생성)
+	 * @param sectionNumber
+	 */
+	private void build(int sectionNumber) {
+		IncrementalSection section = sectionList.get(sectionNumber);
+		TokenTable tokenTable = section.tokenTable;
+		int end = sectionNumber + 1 < sectionList.size() ? sectionList.get(sectionNumber + 1).firstLine : lineList.size();
+		
+		tokenTable.tokenList.clear();
+		tokenTable.locatedCount = 0;
+		section.referenceMap.clear();
+		section.objectProgram = null;
+		section.error = null;
+		section.clearPending();
+		
+		try {
+			for(int line = section.firstLine; line < end; line++) {
+				byte[] data = lineList.get(line);
+				Token token = null;
+				
+				if(SourceBuffer.isStatement(data, 0, data.length)) {
+					token = tokenTable.createToken(data, 0, data.length);
+					
+					tokenTable.tokenList.add(token);
+					section.addReference(token);
+				}
+				
+				lineTokenList.set(line, token);
+			}
+			
+			tokenTable.setLocation();
+			tokenTable.extTab.validation(tokenTable.symTab);
+			tokenTable.makeObjectCode();
+		} catch(RuntimeException e) {
+			section.error = e;
+			throw e;
+		}
+	}
+	
+	/**
+	 * 모든 라인 블록의 문장 수를 센다.
+	 */
+	private void countStatements() {
+		blockStatements = new int[lineList.size() / LINE_BLOCK + 1];
+		
+		for(int line = 0; line < lineList.size(); line++) {
+			blockStatements[line / LINE_BLOCK] += isStatement(lineList.get(line));
+		}
+	}
+	
+	/**
+	 * [from, to) 라인 중 문장의 수를 센다. 블록 단위로 더하고 양 끝 블록의 일부만 라인을 확인한다.
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	private int countStatements(int from, int to) {
+		int count = 0;
+		int block = from / LINE_BLOCK;
+		int lastBlock = to / LINE_BLOCK;
+		
+		if(block == lastBlock) {
+			for(int line = from; line < to; line++) {
+				count += isStatement(lineList.get(line));
+			}
+			
+			return count;
+		}
+		
+		for(int line = from; line < (block + 1) * LINE_BLOCK; line++) {
+			count += isStatement(lineList.get(line));
+		}
+		
+		for(int i = block + 1; i < lastBlock; i++) {
+			count += blockStatements[i];
+		}
+		
+		for(int line = lastBlock * LINE_BLOCK; line < to; line++) {
+			count += isStatement(lineList.get(line));
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * 라인 하나의 편집을 블록별 문장 수에 반영한다. (lineList 반영 후 호출)
+	 * 라인이 추가, 삭제되면 이후 블록의 경계에 있는 라인이 옆 블록으로 옮겨진다.
+	 * @param line : 편집된 라인 번호
+	 * @param newLine : 새 내용. 삭제인 경우 null
+	 * @param oldLine : 기존 내용. 추가인 경우 null
+	 */
+	private void updateStatementCount(int line, byte[] newLine, byte[] oldLine) {
+		int block = line / LINE_BLOCK;
+		
+		if(oldLine != null && newLine != null) { // 변경
+			blockStatements[block] += isStatement(newLine) - isStatement(oldLine);
+			return;
+		}
+		
+		int lastBlock = lineList.size() / LINE_BLOCK; // 삭제 전 라인 수도 이 블록까지만 사용한다.
+		
+		if(lastBlock >= blockStatements.length) {
+			blockStatements = Arrays.copyOf(blockStatements, lastBlock * 2 + 1);
+		}
+		
+		if(oldLine == null) { // 추가 : 각 블록의 마지막 라인이 다음 블록의 첫 라인이 된다.
+			blockStatements[block] += isStatement(newLine);
+			
+			for(int i = block + 1; i * LINE_BLOCK < lineList.size(); i++) {
+				int moved = isStatement(lineList.get(i * LINE_BLOCK));
+				
+				blockStatements[i - 1] -= moved;
+				blockStatements[i] += moved;
+			}
+		} else { // 삭제 : 각 블록의 첫 라인이 이전 블록의 마지막 라인이 된다.
+			blockStatements[block] -= isStatement(oldLine);
+			
+			for(int i = block + 1; i * LINE_BLOCK <= lineList.size(); i++) {
+				int moved = isStatement(lineList.get(i * LINE_BLOCK - 1));
+				
+				blockStatements[i] -= moved;
+				blockStatements[i - 1] += moved;
+			}
+		}
+	}
+	
+	/**
+	 * line이 속한 섹션 번호를 찾는다. (이진 탐색)
+	 * @param line
+	 * @return
+	 */
+	private int findSection(int line) {
+		int low = 0;
+		int high = sectionList.size() - 1;
+		
+		while(low < high) {
+			int middle = (low + high + 1) >>> 1;
+			
+			if(sectionList.get(middle).firstLine <= line) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * line 앞에 문장이 없는지 확인한다.
+	 * @param line
+	 * @return
+	 */
+	private boolean isBeforeFirstStatement(int line) {
+		for(int i = 0; i < line; i++) {
+			byte[] data = lineList.get(i);
+			
+			if(SourceBuffer.isStatement(data, 0, data.length)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 섹션 구성에 영향을 주는 라인(CSECT, START)인지 확인한다.
+	 * @param data : 라인 내용. null이면 false
+	 * @return
+	 */
+	private static boolean isSectionLine(byte[] data) {
+		return data != null && (SourceBuffer.isOperator(data, 0, data.length, SourceBuffer.CSECT)
+				|| SourceBuffer.isOperator(data, 0, data.length, SourceBuffer.START));
+	}
+	
+	/**
+	 * 두 토큰이 주소 배치에 같은 영향을 주는지 확인한다. (명령어 크기, 리터럴, 지시어의 operand가 같은 경우. 레이블은 비교하지 않는다)
+	 * @param oldToken
+	 * @param newToken
+	 * @return
+	 */
+	private static boolean isSameLayout(Token oldToken, Token newToken) {
+		Instruction oldInstruction = oldToken.instruction;
+		Instruction newInstruction = newToken.instruction;
+		
+		if(oldInstruction.kind != newInstruction.kind || oldInstruction.format != newInstruction.format) {
+			return false;
+		}
+		
+		if(oldToken.operandInfo.kind == OperandInfo.Kind.LITERAL || newToken.operandInfo.kind == OperandInfo.Kind.LITERAL) {
+			return oldToken.operandInfo.kind == newToken.operandInfo.kind
+					&& oldToken.operandInfo.literalType == newToken.operandInfo.literalType
+					&& oldToken.operandInfo.name.equals(newToken.operandInfo.name);
+		}
+		
+		switch(newInstruction.kind) {
+		case OPERATION: // 주소는 명령어 크기만큼만 증가한다.
+		case RSUB:
+		case SHIFT:
+		case BYTE:
+		case WORD:
+			return true;
+		default: // 지시어는 operand에 따라 주소, 테이블이 바뀐다.
+			return Arrays.equals(oldToken.operand, newToken.operand);
+		}
+	}
+	
+	private static int isStatement(byte[] data) {
+		return SourceBuffer.isStatement(data, 0, data.length) ? 1 : 0;
+	}
+	
+	private static boolean isKind(Token token, Instruction.Kind kind) {
+		return token != null && token.instruction.kind == kind;
+	}
+	
+	private static byte[] toBytes(String text) {
+		return text.getBytes(StandardCharsets.ISO_8859_1);
+	}
+}
+
+/**
+ * 증분 어셈블러의 섹션 정보
+ */
+class IncrementalSection {
+	TokenTable tokenTable; // 섹션의 토큰 테이블
+	int firstLine; // 섹션 시작 라인 번호
+	HashMap<String, LinkedHashSet<Token>> referenceMap; // 심볼, 리터럴 이름 -> 참조하는 토큰 (Token은 equals를 재정의하지 않으므로 객체 단위, 등록 순서)
+	String objectProgram; // 섹션의 오브젝트 프로그램. 다시 생성해야 하면 null
+	RuntimeException error; // 마지막 처리에서 발생한 예외. 없으면 null
+	
+	// 미뤄둔 편집 (주소가 바뀌는 편집. 다시 할당할 첫 토큰은 tokenTable.locatedCount)
+	boolean pending; // 미뤄둔 편집이 있는지 여부
+	ArrayList<Token> pendingTokenList; // object code를 생성해야 하는 새 토큰
+	ArrayList<String> pendingLabelList; // 추가, 삭제된 레이블 (참조하는 토큰의 object code를 다시 생성)
+	boolean modifyChanged; // 삭제된 토큰에 수정 정보가 있었는지 여부
+	boolean extrefChanged; // EXTREF가 바뀌었는지 여부 (섹션 전체의 object code를 다시 생성)
+	boolean labelChanged; // 레이블이 추가, 삭제, 변경되었는지 여부 (심볼을 다시 등록)
+	
+	IncrementalSection(TokenTable tokenTable, int firstLine) {
+		this.tokenTable = tokenTable;
+		this.firstLine = firstLine;
+		this.referenceMap = new HashMap<>();
+		this.pendingTokenList = new ArrayList<>();
+		this.pendingLabelList = new ArrayList<>();
+	}
+	
+	/**
+	 * 주소가 바뀌는 편집을 기록한다.
+	 * @param oldToken : 삭제되거나 바뀐 토큰. 없으면 null
+	 * @param newToken : 추가되거나 바뀐 토큰. 없으면 null
+	 * @param extrefChanged : EXTREF 문장의 편집인지 여부
+	 */
+	void defer(Token oldToken, Token newToken, boolean extrefChanged) {
+		pending = true;
+		this.extrefChanged = this.extrefChanged || extrefChanged;
+		labelChanged = labelChanged || !Objects.equals(oldToken == null ? null : oldToken.label, newToken == null ? null : newToken.label);
+		
+		if(oldToken != null) {
+			pendingTokenList.remove(oldToken); // 미뤄둔 편집에서 추가된 토큰인 경우
+			modifyChanged = modifyChanged || oldToken.modifyEnd > oldToken.modifyBegin;
+			
+			if(oldToken.label != null) {
+				pendingLabelList.add(oldToken.label);
+			}
+		}
+		
+		if(newToken != null) {
+			pendingTokenList.add(newToken);
+			
+			if(newToken.label != null) {
+				pendingLabelList.add(newToken.label);
+			}
+		}
+	}
+	
+	/**
+	 * 미뤄둔 편집의 기록을 지운다.
+	 */
+	void clearPending() {
+		pending = false;
+		pendingTokenList.clear();
+		pendingLabelList.clear();
+		modifyChanged = false;
+		extrefChanged = false;
+		labelChanged = false;
+	}
+	
+	/**
+	 * 토큰이 operand에서 참조하는 심볼, 리터럴 이름을 등록한다.
+	 * @param token
+	 */
+	void addReference(Token token) {
+		OperandInfo operandInfo = token.operandInfo;
+		
+		if(operandInfo.name != null) {
+			referenceMap.computeIfAbsent(operandInfo.name, key -> new LinkedHashSet<>(4)).add(token);
+		}
+		
+		if(operandInfo.terms != null) {
+			for(String term : operandInfo.terms) {
+				if(!StringUtil.isEmpty(term)) {
+					referenceMap.computeIfAbsent(term, key -> new LinkedHashSet<>(4)).add(token);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * EQU 토큰이 이름을 참조하는지 확인한다. (EQU의 주소는 pass1에서 계산된다)
+	 * @param name
+	 * @return
+	 */
+	boolean isReferencedByEqu(String name) {
+		LinkedHashSet<Token> referenceSet = referenceMap.get(name);
+		
+		if(referenceSet != null) {
+			for(Token token : referenceSet) {
+				if(token.instruction.kind == Instruction.Kind.EQU) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * 토큰이 참조하는 이름의 등록을 해제한다. 참조하는 토큰이 없어진 이름은 지운다.
+	 * @param token
+	 */
+	void removeReference(Token token) {
+		OperandInfo operandInfo = token.operandInfo;
+		
+		if(operandInfo.name != null) {
+			this.removeReference(operandInfo.name, token);
+		}
+		
+		if(operandInfo.terms != null) {
+			for(String term : operandInfo.terms) {
+				if(!StringUtil.isEmpty(term)) {
+					this.removeReference(term, token);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 이름 하나에서 토큰의 등록을 해제한다. (같은 이름을 두 번 참조한 경우 두 번째에는 이미 지워져 있다)
+	 * @param name
+	 * @param token
+	 */
+	private void removeReference(String name, Token token) {
+		LinkedHashSet<Token> referenceSet = referenceMap.get(name);
+		
+		if(referenceSet != null && referenceSet.remove(token) && referenceSet.isEmpty()) {
+			referenceMap.remove(name);
+		}
+	}
+}
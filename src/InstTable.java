@@ -3,45 +3,88 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 import exception.InitException;
+import util.StringUtil;
 
 
 /**
- *  instruction  ϴ Ŭ. instruction data Ѵ
- *  instruction  ,    ϴ Լ,   ϴ Լ   Ѵ.
+ * 모든 instruction의 정보를 관리하는 클래스. instruction data들을 저장한다
+ * 또한 instruction 관련 연산, 예를 들면 목록을 구축하는 함수, 관련 정보를 제공하는 함수 등을 제공 한다.
+ * 
+ * 생성 이후에는 변경되지 않는 스냅샷이므로, 한 번 읽어들인 인스턴스를 여러 Assembler(스레드)가 공유할 수 있다.
  */
 public class InstTable {
 	/** 
-	 * inst.data  ҷ ϴ .
-	 *  ɾ ̸  شϴ Instruction    ִ.
+	 * inst.data 파일을 불러와 저장하는 공간.
+	 *  명령어의 이름을 집어넣으면 해당하는 Instruction의 정보들을 리턴할 수 있다.
 	 */
-	HashMap<String, Instruction> instMap;
+	final Map<String, Instruction> instMap;
 	
 	/**
-	 * Ŭ ʱȭ. Ľ ÿ óѴ.
-	 * @param instFile : instuction     ̸
+	 * 명령어 이름의 byte로 검색하기 위한 해시 인덱스 (open addressing).
+	 *  토큰 분석 시 명령어 문자열을 만들지 않고 소스의 byte 구간으로 바로 검색한다.
+	 */
+	private final Instruction[] byteIndex;
+	
+	/** 명세 파일 내용의 해시값 (HEX) */
+	private final String version;
+	
+	/**
+	 * 클래스 초기화. 파싱을 동시에 처리한다.
+	 * @param instFile : instuction에 대한 명세가 저장된 파일 이름
 	 */
 	public InstTable(String instFile) {
-		instMap = new HashMap<String, Instruction>();
-		openFile(instFile);
+		MessageDigest digest = BuildCache.newDigest();
+		
+		instMap = Collections.unmodifiableMap(openFile(instFile, digest));
+		byteIndex = buildByteIndex(instMap); // byte 검색용 인덱스 구성
+		version = StringUtil.toHex(digest.digest());
+	}
+	
+	/**
+	 * 클래스 초기화. InstTableGenerator가 inst.data로부터 생성한 상수(InstData)를 사용하므로 파일을 읽지 않는다.
+	 */
+	public InstTable() {
+		instMap = Collections.unmodifiableMap(loadConstants());
+		byteIndex = buildByteIndex(instMap); // byte 검색용 인덱스 구성
+		version = InstData.VERSION;
+	}
+	
+	/**
+	 * instruction 명세의 버전을 반환한다. 명세 파일 내용의 해시값으로, 빌드 캐시의 키에 포함된다.
+	 * @return
+	 */
+	public String getVersion() {
+		return version;
 	}
 	
 	/**
-	 * Է¹ ̸   ش  ĽϿ instMap Ѵ.
+	 * 입력받은 이름의 파일을 열고 해당 내용을 파싱하여 반환한다.
+	 * 테이블이 공유된 뒤 변경되지 않도록 생성자에서만 호출한다.
+	 * @param fileName
+	 * @param digest : 읽어들인 라인으로 갱신할 해시 (버전 계산용)
 	 */
-	public void openFile(String fileName) {
+	private static HashMap<String, Instruction> openFile(String fileName, MessageDigest digest) {
+		HashMap<String, Instruction> instMap = new HashMap<String, Instruction>();
+		
 		try {
 			File file = new File(fileName);
 			
-			FileReader fileReader = new FileReader(file); //  Ʈ 
-			BufferedReader bufferedReader = new BufferedReader(fileReader); //  
+			FileReader fileReader = new FileReader(file); // 파일 스트림 생성
+			BufferedReader bufferedReader = new BufferedReader(fileReader); // 버퍼 생성
 			
-			String line = ""; //   
+			String line = ""; // 라인 변수 생성
 			
 			while((line = bufferedReader.readLine()) != null) {
-				Instruction instruction = new Instruction(line);
+				digest.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+				
+				Instruction instruction = Instruction.parse(line);
 				
 				instMap.put(instruction.operator, instruction);
 				
@@ -56,87 +99,98 @@ public class InstTable {
 		} catch (IOException e) {
 			throw new InitException("An error occurred while reading the " + fileName + ".");
 		}
+		
+		return instMap;
 	}
 	
 	/**
-	 * ̺ Ǿ ִ νƮ ɾ ˻
-	 * 
-	 * @param operator
+	 * 생성된 상수(InstData)로 명령어 목록을 구성한다.
 	 * @return
 	 */
-	public Instruction findByOperator(String operator) {
-		return instMap.get(operator);
+	private static HashMap<String, Instruction> loadConstants() {
+		HashMap<String, Instruction> instMap = new HashMap<String, Instruction>(InstData.OPERATORS.length * 2);
+		
+		for(int i = 0; i < InstData.OPERATORS.length; i++) {
+			Instruction instruction = new Instruction(InstData.OPERATORS[i], InstData.FORMATS[i], InstData.OPCODES[i], InstData.MIN_OPERAND_COUNTS[i]);
+			
+			instMap.put(instruction.operator, instruction);
+		}
+		
+		System.out.println("init instruction complete!");
+		
+		return instMap;
 	}
-}
-/**
- * ɾ ϳϳ ü  InstructionŬ .
- * instruction õ  ϰ   Ѵ.
- */
-class Instruction {
-	
-	// ɾ
-	String operator;
-	
-	//  ڵ
-	int opcode;
-	
-	// 
-	int format;
-	
-	// ּ ۷ 
-	int minOperandCount;
 	
 	/**
-	 * Ŭ ϸ鼭 Ϲݹڿ   ° ĽѴ.
-	 * @param line : instruction Ϸκ پ  ڿ
+	 * 테이블에 저장되어 있는 인스트럭션을 명령어로 검색
+	 * 토큰 생성 시 한 번만 호출하고, 이후에는 Token.instruction을 사용한다.
+	 * 
+	 * @param operator
+	 * @return
 	 */
-	public Instruction(String line) {
-		parsing(line);
+	public Instruction findByOperator(String operator) {
+		return instMap.get(operator);
 	}
 	
 	/**
-	 * Ϲ ڿ ĽϿ instruction  ľϰ Ѵ.
-	 * @param line : instruction Ϸκ پ  ڿ
+	 * 테이블에 저장되어 있는 인스트럭션을 소스의 byte 구간으로 검색
+	 * 
+	 * @param source : 소스 내용
+	 * @param offset : 명령어 시작 위치
+	 * @param length : 명령어 길이
+	 * @return 해당 인스트럭션. 없을 경우 null
 	 */
-	public void parsing(String line) {
-		String[] parsingData = line.split("\\|"); // |  
+	public Instruction findByOperator(byte[] source, int offset, int length) {
+		int mask = byteIndex.length - 1;
+		int slot = hash(source, offset, length) & mask;
 		
-		// ɾ
-		this.operator = parsingData[0]; 
-		
-		// 
-		this.format = Integer.parseInt(parsingData[1]); 
-		
-		if(parsingData[2].equals("NULL")) {
-			parsingData[2] = "-1";
+		while(byteIndex[slot] != null) { // 빈 슬롯을 만날 때 까지 탐색 (linear probing)
+			if(byteIndex[slot].matches(source, offset, length)) {
+				return byteIndex[slot];
+			}
+			
+			slot = (slot + 1) & mask;
 		}
 		
-		//  ڵ
-		this.opcode = Integer.parseInt(parsingData[2], 16);
-		
-		
-		// ּ ۷ 
-		this.minOperandCount = Integer.parseInt(parsingData[3]); 
+		return null;
 	}
 	
 	/**
-	 * ش ɾ ο   ȮѴ.
+	 * instMap의 명령어들로 byte 검색용 인덱스를 구성한다. (적재율 0.5 이하)
+	 * @param instMap
 	 * @return
 	 */
-	public boolean isNewSection() {
-		return this.operator.equals("CSECT");
+	private static Instruction[] buildByteIndex(Map<String, Instruction> instMap) {
+		int capacity = Integer.highestOneBit(Math.max(instMap.size(), 1) * 4 - 1);
+		Instruction[] byteIndex = new Instruction[capacity];
+		
+		for(Instruction instruction : instMap.values()) {
+			int slot = instruction.operator.hashCode() & (capacity - 1);
+			
+			while(byteIndex[slot] != null) {
+				slot = (slot + 1) & (capacity - 1);
+			}
+			
+			byteIndex[slot] = instruction;
+		}
+		
+		return byteIndex;
 	}
 	
 	/**
-	 *  Ǽ  ӽ÷ ̵
+	 * byte 구간의 해시값을 계산한다. ASCII 명령어에 대해서는 String.hashCode()와 같은 값이다.
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return
 	 */
-	@Override
-	public String toString(){
-	    return 	 "{ "
-	    		+ "operator : " + this.operator + ", "
-	    		+ "format : " + this.format + ", "
-	    		+ "opcode : " + this.opcode + ", "
-	    		+ "minOperandCount : " + this.minOperandCount
-	    		+ " }";
+	private static int hash(byte[] source, int offset, int length) {
+		int h = 0;
+		
+		for(int i = offset; i < offset + length; i++) {
+			h = 31 * h + (source[i] & 0xFF);
+		}
+		
+		return h;
 	}
 }
@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import exception.InitException;
+import util.StringUtil;
+
+/**
+ * inst.data를 Java 상수(InstData.java)로 변환하는 빌드 도구.
+ * InstTable()은 생성된 상수로 초기화하므로, 실행 시에 inst.data를 읽고 분석하거나 해시를 계산하지 않는다.
+ * Gradle 빌드에서는 generateInstData 작업이 src/inst.data로 build/generated/sources/instdata/InstData.java를 만들고
+ * compileJava가 이 작업에 의존하므로, inst.data를 수정하면 다음 빌드에 바로 반영된다. (InstData.java는 저장소에 두지 않는다)
+ * 이 도구는 Instruction, exception, util 패키지만 사용하므로 InstData 없이 먼저 컴파일된다. (build.gradle의 generator source set)
+ *
+ * 사용법 : java InstTableGenerator [inst.data] [InstData.java]
+ *
+ * Gradle 없이 빌드하는 경우 (프로젝트 루트에서)
+ *   1) javac -d out/generator src/InstTableGenerator.java src/Instruction.java src/exception/*.java src/util/*.java
+ *   2) java -cp out/generator InstTableGenerator src/inst.data out/generated/InstData.java
+ *   3) javac -d out src/*.java src/exception/*.java src/util/*.java out/generated/InstData.java
+ *
+ * 시작 시간을 더 줄이려면 학습 실행으로 만든 AppCDS 아카이브로 클래스 로딩을 생략한다. (JDK 13 이상, classpath는 jar 파일이어야 한다)
+ *   ./gradlew cdsArchive : jar를 만들고 src/input.txt를 학습 실행으로 어셈블하여 build/libs/sicxe-1.0.jsa를 만든다.
+ *   java -XX:SharedArchiveFile=build/libs/sicxe-1.0.jsa -jar build/libs/sicxe-1.0.jar
+ * 아카이브는 만든 JDK와 jar에서만 사용되며, 맞지 않으면 JVM이 아카이브를 무시하고 일반적으로 시작한다.
+ *
+ * 측정 (JDK 17, CPU 1개, src/input.txt, 프로세스 시작부터 결과 파일 3개를 쓰고 종료할 때 까지 30회 평균)
+ *   1) inst.data 파일 분석 : 167ms
+ *   2) 생성된 상수 : 136ms (파일 분석과 SHA-256 버전 계산 생략)
+ *   3) 생성된 상수 + AppCDS : 117ms
+ *   4) 생성된 상수 + AppCDS + -XX:TieredStopAtLevel=1 : 110ms
+ */
+public class InstTableGenerator {
+	private static final String DEFAULT_INST_FILE = "src/inst.data";
+	private static final String DEFAULT_OUTPUT_FILE = "build/generated/sources/instdata/InstData.java";
+	
+	/**
+	 * 생성 도구의 메인 루틴
+	 */
+	public static void main(String[] args) {
+		Path instFile = Paths.get(args.length > 0 ? args[0] : DEFAULT_INST_FILE);
+		Path outputFile = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT_FILE);
+		
+		try {
+			List<String> lineList = Files.readAllLines(instFile, StandardCharsets.UTF_8);
+			
+			if(outputFile.getParent() != null) {
+				Files.createDirectories(outputFile.getParent());
+			}
+			
+			Files.write(outputFile, generate(lineList).getBytes(StandardCharsets.US_ASCII));
+			
+			System.out.println("generated " + outputFile + " (" + lineList.size() + " instructions)");
+		} catch(IOException e) {
+			throw new InitException("An error occurred while generating from the " + instFile + ". (" + e.getMessage() + ")");
+		}
+	}
+	
+	/**
+	 * inst.data의 라인들로 InstData.java 소스를 생성한다.
+	 * 버전은 InstTable(String)과 같은 방식으로 계산하므로, 같은 명세이면 빌드 캐시의 키도 같다.
+	 * @param lineList : inst.data의 라인
+	 * @return
+	 */
+	static String generate(List<String> lineList) {
+		MessageDigest digest = newDigest();
+		ArrayList<Instruction> instructionList = new ArrayList<>(lineList.size());
+		
+		for(String line : lineList) {
+			digest.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+			instructionList.add(Instruction.parse(line)); // 실행 시와 같은 분석으로 검증
+		}
+		
+		StringBuilder operators = new StringBuilder();
+		StringBuilder formats = new StringBuilder();
+		StringBuilder opcodes = new StringBuilder();
+		StringBuilder minOperandCounts = new StringBuilder();
+		
+		for(int i = 0; i < instructionList.size(); i++) {
+			Instruction instruction = instructionList.get(i);
+			String separator = i == 0 ? "" : i % 8 == 0 ? ",\n\t\t" : ", ";
+			
+			operators.append(separator).append('"').append(instruction.operator).append('"');
+			formats.append(separator).append(instruction.format);
+			opcodes.append(separator).append(instruction.opcode < 0 ? "-1" : String.format("0x%02X", instruction.opcode));
+			minOperandCounts.append(separator).append(instruction.minOperandCount);
+		}
+		
+		StringBuilder source = new StringBuilder();
+		
+		source.append("/**\n")
+			  .append(" * Generated by InstTableGenerator from inst.data. Do not edit.\n")
+			  .append(" * Instruction i is { OPERATORS[i], FORMATS[i], OPCODES[i], MIN_OPERAND_COUNTS[i] } (opcode -1 : directive).\n")
+			  .append(" */\n")
+			  .append("final class InstData {\n")
+			  .append("\t/** SHA-256 of inst.data (same as InstTable(String).getVersion()) */\n")
+			  .append("\tstatic final String VERSION = \"").append(StringUtil.toHex(digest.digest())).append("\";\n")
+			  .append("\t\n")
+			  .append("\tstatic final String[] OPERATORS = {\n\t\t").append(operators).append("\n\t};\n")
+			  .append("\t\n")
+			  .append("\tstatic final int[] FORMATS = {\n\t\t").append(formats).append("\n\t};\n")
+			  .append("\t\n")
+			  .append("\tstatic final int[] OPCODES = {\n\t\t").append(opcodes).append("\n\t};\n")
+			  .append("\t\n")
+			  .append("\tstatic final int[] MIN_OPERAND_COUNTS = {\n\t\t").append(minOperandCounts).append("\n\t};\n")
+			  .append("\t\n")
+			  .append("\tprivate InstData() {\n")
+			  .append("\t}\n")
+			  .append("}\n");
+		
+		return source.toString();
+	}
+	
+	/**
+	 * InstTable(String)의 버전과 같은 SHA-256 해시를 만든다. (BuildCache.newDigest와 같은 알고리즘. 이 도구는 BuildCache 없이 컴파일된다)
+	 * @return
+	 */
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // 모든 JVM이 지원해야 하는 알고리즘
+		}
+	}
+}
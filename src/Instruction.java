@@ -0,0 +1,138 @@
+/**
+ * 명령어 하나하나의 구체적인 정보는 Instruction클래스에 담긴다.
+ * instruction과 관련된 정보들을 저장하고 기초적인 연산을 수행한다.
+ * 모든 값은 생성 시에 정해지는 불변 객체이므로, InstTable과 함께 여러 Assembler(스레드)가 공유한다.
+ */
+class Instruction {
+	
+	/**
+	 * 명령어의 종류. 로드 시점에 한 번만 분류하여 pass1, pass2 에서 switch로 분기한다.
+	 */
+	enum Kind {
+		OPERATION, // 일반 기계어 명령
+		RSUB, // 오퍼랜드가 없는 형식 3 명령
+		SHIFT, // 두번째 오퍼랜드가 숫자인 형식 2 명령 (SHIFTL, SHIFTR)
+		START, CSECT, EXTDEF, EXTREF, RESW, RESB, EQU, LTORG, END, BYTE, WORD; // 어셈블러 지시어
+		
+		/**
+		 * 명령어 이름으로 종류를 분류한다.
+		 * @param operator
+		 * @return
+		 */
+		static Kind of(String operator) {
+			switch(operator) {
+			case "RSUB": return RSUB;
+			case "SHIFTL":
+			case "SHIFTR": return SHIFT;
+			case "START": return START;
+			case "CSECT": return CSECT;
+			case "EXTDEF": return EXTDEF;
+			case "EXTREF": return EXTREF;
+			case "RESW": return RESW;
+			case "RESB": return RESB;
+			case "EQU": return EQU;
+			case "LTORG": return LTORG;
+			case "END": return END;
+			case "BYTE": return BYTE;
+			case "WORD": return WORD;
+			default: return OPERATION;
+			}
+		}
+	}
+	
+	// 명령어
+	final String operator;
+	
+	// 명령어 종류
+	final Kind kind;
+	
+	// 기계어 코드
+	final int opcode;
+	
+	// 형식
+	final int format;
+	
+	// 최소 오퍼랜드의 수
+	final int minOperandCount;
+	
+	/**
+	 * 이미 분석된 값으로 instruction 정보를 저장한다. (InstData, parse)
+	 * @param operator : 명령어
+	 * @param format : 형식
+	 * @param opcode : 기계어 코드. 지시어는 -1
+	 * @param minOperandCount : 최소 오퍼랜드의 수
+	 */
+	public Instruction(String operator, int format, int opcode, int minOperandCount) {
+		this.operator = operator;
+		this.format = format;
+		this.opcode = opcode;
+		this.minOperandCount = minOperandCount;
+		this.kind = Kind.of(operator);
+	}
+	
+	/**
+	 * 일반 문자열을 파싱하여 instruction 정보를 만든다.
+	 * @param line : instruction 명세파일로부터 한줄씩 가져온 문자열
+	 * @return
+	 */
+	static Instruction parse(String line) {
+		String[] parsingData = line.split("\\|"); // | 단위로 나눔
+		
+		// 명령어
+		String operator = parsingData[0];
+		
+		// 형식
+		int format = Integer.parseInt(parsingData[1]);
+		
+		// 기계어 코드 (지시어는 NULL)
+		int opcode = parsingData[2].equals("NULL") ? -1 : Integer.parseInt(parsingData[2], 16);
+		
+		// 최소 오퍼랜드의 수
+		int minOperandCount = Integer.parseInt(parsingData[3]);
+		
+		return new Instruction(operator, format, opcode, minOperandCount);
+	}
+	
+	/**
+	 * 해당 명령어가 새로운 섹션을 만드는지 확인한다.
+	 * @return
+	 */
+	public boolean isNewSection() {
+		return this.kind == Kind.CSECT;
+	}
+	
+	/**
+	 * 명령어 이름이 소스의 byte 구간과 같은지 확인한다.
+	 * @param source
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public boolean matches(byte[] source, int offset, int length) {
+		if(operator.length() != length) {
+			return false;
+		}
+		
+		for(int i = 0; i < length; i++) {
+			if(operator.charAt(i) != (source[offset + i] & 0xFF)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 개발의 편의성을 위해 임시로 오버라이딩
+	 */
+	@Override
+	public String toString(){
+	    return 	 "{ "
+	    		+ "operator : " + this.operator + ", "
+	    		+ "format : " + this.format + ", "
+	    		+ "opcode : " + this.opcode + ", "
+	    		+ "minOperandCount : " + this.minOperandCount + ", "
+	    		+ "kind : " + this.kind
+	    		+ " }";
+	}
+}
@@ -1,51 +1,85 @@
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 import exception.LiteralDuplicationException;
 import exception.LiteralNotFoundException;
+import exception.SyntexException;
 
 /**
- * literal õ Ϳ  Ѵ.
- * section  ϳ νϽ ҴѴ.
+ * literal과 관련된 데이터와 연산을 소유한다.
+ * section 별로 하나씩 인스턴스를 할당한다.
+ *
+ * 리터럴의 데이터는 등록 시점에 한 번만 byte로 변환하여 byte pool에 저장하고,
+ * LTORG/END 에서는 마지막 LTORG 이후 새로 등록된 리터럴만 배치한다.
  */
 public class LiteralTable {
-	ArrayList<String> literalList;
-	ArrayList<Integer> locationList;
-	ArrayList<Character> literalTypeList;
-	// Ÿ literal, external   ó Ѵ.
+	private static final int INITIAL_CAPACITY = 8;
+	
+	String[] literalList; // 등록 순서대로 저장된 리터럴
+	int[] locationList; // 리터럴별 주소값 (-1 : 아직 배치되지 않음)
+	char[] literalTypeList; // 리터럴별 타입 (C, X)
+	int size; // 등록된 리터럴 수
+	
+	private HashMap<String, Integer> indexMap; // 리터럴 -> index
+	
+	/* byte pool */
+	private byte[] pool; // 모든 리터럴의 데이터를 등록 순서대로 이어 붙인 공간
+	private int poolSize;
+	private int[] poolOffset; // 리터럴별 pool 내 시작 위치
+	private int[] byteLength; // 리터럴별 byte 크기
+	
+	/* LTORG 처리 */
+	private int pendingIndex; // 아직 배치되지 않은 첫 리터럴의 index
+	private int[] ltorgEnd; // LTORG/END 별로 배치된 마지막 리터럴의 다음 index
+	private int ltorgCount;
+	
+	/* 계측 (AssemblyStats) */
+	long lookupCount; // search 호출 수
+	long hitCount; // 찾은 리터럴 수
 	
 	/**
-	 *  
+	 * 생성자 선언
 	 */
 	public LiteralTable() {
-		this.literalList = new ArrayList<>();
-		this.locationList = new ArrayList<>();
-		this.literalTypeList = new ArrayList<>();
+		this.literalList = new String[INITIAL_CAPACITY];
+		this.locationList = new int[INITIAL_CAPACITY];
+		this.literalTypeList = new char[INITIAL_CAPACITY];
+		this.poolOffset = new int[INITIAL_CAPACITY];
+		this.byteLength = new int[INITIAL_CAPACITY];
+		this.indexMap = new HashMap<>();
+		this.pool = new byte[INITIAL_CAPACITY * 4];
+		this.ltorgEnd = new int[INITIAL_CAPACITY];
 	}
 	
 	/**
-	 * ο Literal table ߰Ѵ.
-	 * @param literal :  ߰Ǵ literal label
-	 * @param location : ش literal  ּҰ
-	 * @param literalType : ش literal Ÿ
-	 *  :  ߺ literal putLiteral ؼ Էµȴٸ ̴ α׷ ڵ忡   Ÿ. 
-	 * ĪǴ ּҰ  modifyLiteral() ؼ ̷ Ѵ.
+	 * 새로운 Literal을 table에 추가한다.
+	 * @param literal : 새로 추가되는 literal의 label
+	 * @param location : 해당 literal이 가지는 주소값
+	 * @param literalType : 해당 literal의 타입
+	 * 주의 : 만약 중복된 literal이 putLiteral을 통해서 입력된다면 이는 프로그램 코드에 문제가 있음을 나타낸다.
+	 * 매칭되는 주소값의 변경은 modifyLiteral()을 통해서 이루어져야 한다.
 	 */
 	public void putLiteral(String literal, int location, Character literalType) {
-		int literalIndex = this.search(literal);
-		
-		if(literalIndex > -1) {
+		if(indexMap.containsKey(literal)) {
 			throw new LiteralDuplicationException();
 		}
 		
-		this.literalList.add(literal);
-		this.locationList.add(location);
-		this.literalTypeList.add(literalType);
+		if(size == literalList.length) {
+			this.grow();
+		}
+		
+		this.poolOffset[size] = poolSize;
+		this.byteLength[size] = this.encode(literal, literalType); // pool에 데이터 저장
+		this.literalList[size] = literal;
+		this.locationList[size] = location;
+		this.literalTypeList[size] = literalType;
+		this.indexMap.put(literal, size++);
 	}
 	
 	/**
-	 *  ϴ literal  ؼ Ű ּҰ Ѵ.
-	 * @param literal :  ϴ literal label
-	 * @param newLocation :  ٲٰ ϴ ּҰ
+	 * 기존에 존재하는 literal 값에 대해서 가리키는 주소값을 변경한다.
+	 * @param literal : 변경을 원하는 literal의 label
+	 * @param newLocation : 새로 바꾸고자 하는 주소값
 	 */
 	public void modifyLiteral(String literal, int newLocation) {
 		int literalIndex = this.search(literal);
@@ -54,47 +88,221 @@ public class LiteralTable {
 			throw new LiteralNotFoundException();
 		}
 		
-		this.locationList.set(literalIndex, newLocation);
+		this.locationList[literalIndex] = newLocation;
 	}
 	
 	/**
-	 * ڷ ޵ literal  ּҸ Īϴ ˷ش. 
-	 * @param literal : ˻ ϴ literal label
-	 * @return literal  ִ ּҰ. ش literal   -1 
+	 * 인자로 전달된 literal이 몇 번째로 등록되었는지 알려준다.
+	 * @param literal : 검색을 원하는 literal의 label
+	 * @return literal의 등록 순서(index). 해당 literal이 없을 경우 -1 리턴
 	 */
 	public int search(String literal) {
-		int address = 0;
+		Integer literalIndex = indexMap.get(literal);
+		
+		lookupCount++;
+		
+		if(literalIndex == null) {
+			return -1;
+		}
+		
+		hitCount++;
 		
-		for(String lit : literalList) { // ͷ ݺϿ
-			if(lit.equals(literal)) {
-				return address; // ش ͷ ã ͷ  
+		return literalIndex;
+	}
+	
+	/**
+	 * 등록된 리터럴의 수를 반환한다.
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * index번째로 등록된 리터럴을 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public String getLiteral(int index) {
+		return literalList[index];
+	}
+	
+	/**
+	 * index번째로 등록된 리터럴의 주소값을 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getLocation(int index) {
+		return locationList[index];
+	}
+	
+	/**
+	 * 마지막 LTORG 이후 등록된 리터럴들을 location부터 차례로 배치한다. (LTORG, END)
+	 *
+	 * @param location : 리터럴 pool이 시작되는 주소
+	 * @return 리터럴 pool 다음 주소
+	 */
+	public int placePool(int location) {
+		for(int i = pendingIndex; i < size; i++) { // 새로 등록된 리터럴만 반복
+			locationList[i] = location;
+			location = location + byteLength[i];
+		}
+		
+		if(ltorgCount == ltorgEnd.length) {
+			ltorgEnd = Arrays.copyOf(ltorgEnd, ltorgCount * 2);
+		}
+		
+		ltorgEnd[ltorgCount++] = size;
+		pendingIndex = size;
+		
+		return location;
+	}
+	
+	/**
+	 * 아직 배치되지 않은 첫 리터럴의 index를 반환한다.
+	 * @return
+	 */
+	public int getPendingIndex() {
+		return pendingIndex;
+	}
+	
+	/**
+	 * 배치된 리터럴 pool(LTORG, END)의 수를 반환한다.
+	 * @return
+	 */
+	public int getPoolCount() {
+		return ltorgCount;
+	}
+	
+	/**
+	 * count번째 이후에 등록된 리터럴과 poolCount번째 이후의 pool을 삭제한다. (증분 어셈블)
+	 * pendingIndex 이후의 리터럴은 배치되지 않은 상태로 되돌린다.
+	 * @param count : 남길 리터럴 수
+	 * @param pendingIndex : 배치되지 않은 첫 리터럴 index
+	 * @param poolCount : 남길 pool 수
+	 */
+	public void truncate(int count, int pendingIndex, int poolCount) {
+		if(count < size) {
+			for(int i = count; i < size; i++) {
+				indexMap.remove(literalList[i]);
+				literalList[i] = null;
 			}
 			
-			address++;
+			poolSize = poolOffset[count];
+			size = count;
 		}
 		
-		return -1;
+		for(int i = pendingIndex; i < size; i++) {
+			locationList[i] = -1;
+		}
+		
+		this.pendingIndex = pendingIndex;
+		this.ltorgCount = poolCount;
 	}
 	
+	/**
+	 * poolNumber번째 LTORG/END 에서 배치된 리터럴 pool의 시작 주소를 반환한다.
+	 *
+	 * @param poolNumber : 0부터 시작하는 LTORG/END 순번
+	 * @return pool의 시작 주소. 배치된 리터럴이 없을 경우 -1
+	 */
+	public int getPoolLocation(int poolNumber) {
+		if(poolNumber >= ltorgCount) {
+			return -1;
+		}
+		
+		int begin = this.poolBegin(poolNumber);
+		
+		return begin == ltorgEnd[poolNumber] ? -1 : locationList[begin];
+	}
+	
+	/**
+	 * poolNumber번째 LTORG/END 에서 배치된 리터럴들을 T 레코드에 바로 기록한다.
+	 * 진행 중인 T 레코드가 없으면 pool의 주소로 새로 시작한다.
+	 *
+	 * @param emitter : 레코드 버퍼
+	 * @param poolNumber : 0부터 시작하는 LTORG/END 순번
+	 */
+	void emitPool(RecordEmitter emitter, int poolNumber) {
+		if(poolNumber >= ltorgCount) {
+			return;
+		}
+		
+		int begin = this.poolBegin(poolNumber);
+		int end = ltorgEnd[poolNumber];
+		
+		if(begin < end) {
+			int poolEnd = poolOffset[end - 1] + byteLength[end - 1];
+			
+			if(poolEnd > poolOffset[begin]) {
+				if(!emitter.inText()) {
+					emitter.beginText(locationList[begin]);
+				}
+				
+				emitter.text(pool, poolOffset[begin], poolEnd - poolOffset[begin]);
+			}
+		}
+	}
 	
 	/**
-	 * ͷ  · ȯѴ.
-	 * 
+	 * poolNumber번째 pool의 첫 리터럴 index
+	 * @param poolNumber
 	 * @return
 	 */
-	public String print() {
-		String data = "";
+	private int poolBegin(int poolNumber) {
+		return poolNumber == 0 ? 0 : ltorgEnd[poolNumber - 1];
+	}
+	
+	/**
+	 * 리터럴 데이터를 byte로 변환하여 pool 끝에 저장한다.
+	 *
+	 * @param literal
+	 * @param literalType
+	 * @return 저장된 byte 크기
+	 */
+	private int encode(String literal, char literalType) {
+		int length = literalType == 'X' ? literal.length() / 2 : literal.length();
 		
-		for(int i = 0; i < literalList.size(); i++) {
-			if(literalTypeList.get(i) == 'X') {
-				data = literalList.get(i);
-			} else if(literalTypeList.get(i) == 'C') {
-				for(int z = 0; z < literalList.get(i).length(); z++) {
-					data = data + String.format("%02X", (int)literalList.get(i).charAt(z));
+		if(poolSize + length > pool.length) {
+			pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+		}
+		
+		if(literalType == 'X') {
+			if(literal.length() % 2 != 0) {
+				throw new SyntexException("Hexadecimal literal must have an even number of digits.");
+			}
+			
+			for(int i = 0; i < length; i++) { // 두 글자씩 1byte
+				int high = Character.digit(literal.charAt(i * 2), 16);
+				int low = Character.digit(literal.charAt(i * 2 + 1), 16);
+				
+				if(high < 0 || low < 0) {
+					throw new SyntexException("Invalid hexadecimal literal.");
 				}
+				
+				pool[poolSize + i] = (byte) ((high << 4) | low);
+			}
+		} else { // 문자는 한 글자씩 1byte
+			for(int i = 0; i < length; i++) {
+				pool[poolSize + i] = (byte) literal.charAt(i);
 			}
 		}
 		
-		return data;
+		poolSize = poolSize + length;
+		
+		return length;
+	}
+	
+	/**
+	 * 저장 공간을 두 배로 늘린다.
+	 */
+	private void grow() {
+		int capacity = literalList.length * 2;
+		
+		this.literalList = Arrays.copyOf(literalList, capacity);
+		this.locationList = Arrays.copyOf(locationList, capacity);
+		this.literalTypeList = Arrays.copyOf(literalTypeList, capacity);
+		this.poolOffset = Arrays.copyOf(poolOffset, capacity);
+		this.byteLength = Arrays.copyOf(byteLength, capacity);
 	}
 }
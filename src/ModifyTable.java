@@ -1,67 +1,274 @@
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 /**
- *  ʿ  Ƶδ ̺
- * 
+ * 수정이 필요한 정보를 담아두는 테이블
+ * 수정 정보 하나를 객체로 만들지 않고 주소, 길이, 부호, 레이블 번호를 각각의 배열에 등록 순서대로 저장한다.
+ * 레이블은 테이블 안에서 번호를 붙여 한 번만 저장한다. (같은 외부 참조가 여러 번 나오는 경우가 대부분)
+ *
+ * 병합 출력 (coalesce)
+ *   M 레코드를 주소 순서로 정렬하고, 같은 필드(주소, 길이)에 대한 +X, -X 쌍은 서로 상쇄되므로 출력하지 않는다.
+ *   수정은 필드에 대한 덧셈/뺄셈이므로 순서를 바꾸거나 상쇄된 쌍을 빼도 적재된 결과는 같다.
+ *
  * @author Cary
  *
  */
 public class ModifyTable {
-	ArrayList<Modify> modifyList;
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int[] EMPTY_INTS = {};
+	private static final byte[] EMPTY_BYTES = {};
+	private static final char[] EMPTY_CHARS = {};
+	/** 이 수 이하의 레이블은 map 없이 순서대로 비교하여 찾는다. (섹션의 외부 참조는 대부분 몇 개 뿐) */
+	private static final int LINEAR_LABELS = 16;
+	
+	private int[] locationList; // 주소 값
+	private byte[] lengthList; // 단위 : 니블
+	private char[] signList; // 부호
+	private int[] labelIdList; // 레이블 번호 (labelList의 index)
+	private int size;
+	
+	private String[] labelList; // 번호별 레이블
+	private HashMap<String, Integer> labelIdMap; // 레이블 -> 번호 (레이블이 LINEAR_LABELS 보다 많아지면 생성)
+	private int labelCount;
+	
+	/** M 레코드를 주소 순서로 정렬하고 상쇄되는 쌍을 제외하여 출력할지 여부 */
+	boolean coalesce;
 	
-	public ModifyTable() {
-		modifyList = new ArrayList<>();
+	public ModifyTable() { // 배열은 처음 추가할 때 만든다. (수정 정보가 없는 섹션이 많음)
+		locationList = EMPTY_INTS;
+		lengthList = EMPTY_BYTES;
+		signList = EMPTY_CHARS;
+		labelIdList = EMPTY_INTS;
+		labelList = new String[LINEAR_LABELS];
 	}
 	
 	/**
-	 *  ʿ  Ѵ.
-	 * 
+	 * 수정이 필요한 정보를 저장한다.
+	 *
 	 * @param location
 	 * @param length
 	 * @param sign
 	 * @param label
 	 */
 	public void add(int location, int length, char sign, String label) {
-		modifyList.add(new Modify(location, length, sign, label));
+		if(size == locationList.length) {
+			this.grow();
+		}
+		
+		locationList[size] = location;
+		lengthList[size] = (byte) length;
+		signList[size] = sign;
+		labelIdList[size] = this.labelId(label);
+		size++;
 	}
-}
-
-/**
- *   ü
- * 
- * @author Cary
- *
- */
-class Modify {
-	public int location; // ּ 
-	public int lenght; //  : Ϻ
-	public char sign; // ȣ
-	public String label; // ̺
-	
-	private static StringBuilder stringBuilder = new StringBuilder();
-	
-	public Modify(int location, int length, char sign, String label) {
-		this.location = location;
-		this.lenght = length;
-		this.sign = sign;
-		this.label = label;
+	
+	/**
+	 * 저장된 수정 정보의 수를 반환한다.
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * index번째 수정 정보의 주소를 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getLocation(int index) {
+		return locationList[index];
+	}
+	
+	/**
+	 * index번째 수정 정보의 길이(니블)를 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getLength(int index) {
+		return lengthList[index];
+	}
+	
+	/**
+	 * index번째 수정 정보의 부호를 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public char getSign(int index) {
+		return signList[index];
+	}
+	
+	/**
+	 * index번째 수정 정보의 레이블을 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public String getLabel(int index) {
+		return labelList[labelIdList[index]];
+	}
+	
+	/**
+	 * 저장된 수정 정보를 모두 삭제한다. (pass2를 다시 수행할 경우)
+	 * 레이블 번호는 다시 사용하므로 남겨둔다.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * 수정 정보의 순서를 바꾼다. order에 없는 수정 정보는 삭제된다. (증분 어셈블)
+	 * @param order : 새 순서의 index별 기존 index
+	 * @param count : 남길 수정 정보의 수
+	 */
+	void reorder(int[] order, int count) {
+		int[] locations = new int[Math.max(count, INITIAL_CAPACITY)];
+		byte[] lengths = new byte[locations.length];
+		char[] signs = new char[locations.length];
+		int[] labelIds = new int[locations.length];
+		
+		for(int i = 0; i < count; i++) {
+			locations[i] = locationList[order[i]];
+			lengths[i] = lengthList[order[i]];
+			signs[i] = signList[order[i]];
+			labelIds[i] = labelIdList[order[i]];
+		}
+		
+		locationList = locations;
+		lengthList = lengths;
+		signList = signs;
+		labelIdList = labelIds;
+		size = count;
+	}
+	
+	/**
+	 * 저장된 수정 정보를 M 레코드로 레코드 버퍼에 바로 기록한다.
+	 * 병합 출력이면 주소 순서로 정렬하고 상쇄되는 쌍을 제외한다.
+	 *
+	 * @param emitter
+	 * @return 기록한 M 레코드 수
+	 */
+	int emit(RecordEmitter emitter) {
+		if(!coalesce) {
+			for(int i = 0; i < size; i++) {
+				emitter.modify(locationList[i], lengthList[i], signList[i], labelList[labelIdList[i]]);
+			}
+			
+			return size;
+		}
+		
+		int[] order = this.coalesce();
+		
+		for(int i = 0; i < order.length; i++) {
+			int index = order[i];
+			
+			emitter.modify(locationList[index], lengthList[index], signList[index], labelList[labelIdList[index]]);
+		}
+		
+		return order.length;
 	}
 	
 	/**
-	 *   Ʈ α׷ Ŀ ߾ Ѵ.
-	 * 
+	 * 수정 정보를 주소 순서로 정렬하고, 같은 필드(주소, 길이)와 같은 레이블에 대한 +, - 쌍을 제외한다.
+	 * 주소가 같으면 등록 순서를 유지한다.
+	 * @return 출력할 수정 정보의 index (출력 순서)
+	 */
+	private int[] coalesce() {
+		long[] keyList = new long[size]; // 상위 32bit : 주소, 하위 32bit : 등록 순서
+		
+		for(int i = 0; i < size; i++) {
+			keyList[i] = ((long) locationList[i] << 32) | i;
+		}
+		
+		Arrays.sort(keyList);
+		
+		int[] order = new int[size];
+		boolean[] cancelled = new boolean[size];
+		int count = 0;
+		
+		for(int begin = 0; begin < size; ) {
+			int end = begin + 1;
+			
+			while(end < size && (keyList[end] >>> 32) == (keyList[begin] >>> 32)) { // 같은 주소의 구간
+				end++;
+			}
+			
+			for(int i = begin; i < end; i++) { // 구간 안에서 상쇄되는 쌍 찾기 (구간은 대부분 1~2개)
+				int index = (int) keyList[i];
+				
+				if(cancelled[index]) {
+					continue;
+				}
+				
+				for(int j = i + 1; j < end; j++) {
+					int other = (int) keyList[j];
+					
+					if(!cancelled[other] && lengthList[other] == lengthList[index] && labelIdList[other] == labelIdList[index]
+							&& signList[other] != signList[index]) {
+						cancelled[index] = true;
+						cancelled[other] = true;
+						break;
+					}
+				}
+				
+				if(!cancelled[index]) {
+					order[count++] = index;
+				}
+			}
+			
+			begin = end;
+		}
+		
+		return Arrays.copyOf(order, count);
+	}
+	
+	/**
+	 * 배열의 크기를 두 배로 늘린다.
+	 */
+	private void grow() {
+		int capacity = Math.max(size * 2, INITIAL_CAPACITY);
+		
+		locationList = Arrays.copyOf(locationList, capacity);
+		lengthList = Arrays.copyOf(lengthList, capacity);
+		signList = Arrays.copyOf(signList, capacity);
+		labelIdList = Arrays.copyOf(labelIdList, capacity);
+	}
+	
+	/**
+	 * 레이블의 번호를 반환한다. 처음 나온 레이블이면 새 번호를 붙인다.
+	 * @param label
 	 * @return
 	 */
-	public String print() {
-		stringBuilder.setLength(0);
+	private int labelId(String label) {
+		if(labelIdMap == null) {
+			for(int i = 0; i < labelCount; i++) {
+				if(labelList[i].equals(label)) {
+					return i;
+				}
+			}
+			
+			if(labelCount == LINEAR_LABELS) { // 레이블이 많으면 map으로 전환
+				labelIdMap = new HashMap<>();
+				
+				for(int i = 0; i < labelCount; i++) {
+					labelIdMap.put(labelList[i], i);
+				}
+			}
+		}
+		
+		Integer id = labelIdMap == null ? null : labelIdMap.get(label);
+		
+		if(id == null) {
+			if(labelCount == labelList.length) {
+				labelList = Arrays.copyOf(labelList, labelCount * 2);
+			}
+			
+			id = labelCount;
+			labelList[labelCount++] = label;
+			
+			if(labelIdMap != null) {
+				labelIdMap.put(label, id);
+			}
+		}
 		
-		stringBuilder.append("M")
-					 .append(String.format("%06X", location))
-				     .append(String.format("%02X", lenght))
-					 .append(sign)
-					 .append(label)
-					 .append("\n");
-	
-		return stringBuilder.toString();
+		return id;
 	}
 }
@@ -0,0 +1,185 @@
+import java.util.Arrays;
+
+import exception.SyntexException;
+import util.StringUtil;
+
+/**
+ * object code를 정수 연산(shift, mask)으로 조립하여 section 별 코드 버퍼에 byte 단위로 기록하는 클래스
+ * section 별로 하나씩 인스턴스를 할당한다.
+ *
+ * 포맷별 비트 구성
+ *   1) 포맷 1 : opcode(8)
+ *   2) 포맷 2 : opcode(8) r1(4) r2(4)
+ *   3) 포맷 3 : opcode(6) nixbpe(6) disp(12)
+ *   4) 포맷 4 : opcode(6) nixbpe(6) address(20)
+ */
+public class ObjectCodeEncoder {
+	private static final int INITIAL_CAPACITY = 256;
+	
+	/** 기록된 object code (byte) */
+	byte[] code;
+	/** 기록된 byte 수 */
+	int size;
+	
+	public ObjectCodeEncoder() {
+		this.code = new byte[INITIAL_CAPACITY];
+	}
+	
+	/**
+	 * 포맷 1 명령을 조립한다.
+	 * @param opcode
+	 * @return
+	 */
+	public static int format1(int opcode) {
+		return opcode & 0xFF;
+	}
+	
+	/**
+	 * 포맷 2 명령을 조립한다.
+	 * @param opcode
+	 * @param r1 : 첫번째 레지스터 번호
+	 * @param r2 : 두번째 레지스터 번호 (또는 숫자)
+	 * @return
+	 */
+	public static int format2(int opcode, int r1, int r2) {
+		return ((opcode & 0xFF) << 8) | ((r1 & 0xF) << 4) | (r2 & 0xF);
+	}
+	
+	/**
+	 * 포맷 3 명령을 조립한다. disp는 하위 12비트만 사용한다.
+	 * @param opcode
+	 * @param nixbpe
+	 * @param disp
+	 * @return
+	 */
+	public static int format3(int opcode, int nixbpe, int disp) {
+		return ((opcode & 0xFC) << 16) | ((nixbpe & 0x3F) << 12) | (disp & 0xFFF);
+	}
+	
+	/**
+	 * 포맷 4 명령을 조립한다. address는 하위 20비트만 사용한다.
+	 * @param opcode
+	 * @param nixbpe
+	 * @param address
+	 * @return
+	 */
+	public static int format4(int opcode, int nixbpe, int address) {
+		return ((opcode & 0xFC) << 24) | ((nixbpe & 0x3F) << 20) | (address & 0xFFFFF);
+	}
+	
+	/**
+	 * 조립된 코드를 byteSize 만큼 big-endian으로 버퍼에 기록한다.
+	 * @param objectCode : 조립된 코드
+	 * @param byteSize : 기록할 byte 수 (1 ~ 4)
+	 * @return 버퍼 내 기록 시작 위치
+	 */
+	public int write(int objectCode, int byteSize) {
+		int offset = this.reserve(byteSize);
+		
+		for(int i = byteSize - 1; i >= 0; i--) {
+			code[offset + i] = (byte) objectCode;
+			objectCode = objectCode >>> 8;
+		}
+		
+		return offset;
+	}
+	
+	/**
+	 * 형식이 있는 데이터(C'EOF', X'F1')를 byte로 변환하여 버퍼에 기록한다.
+	 * @param form
+	 * @return 버퍼 내 기록 시작 위치
+	 */
+	public int writeForm(String form) {
+		int begin = StringUtil.getFormDataOffset(form);
+		int end = form.length() - 1;
+		
+		if(form.charAt(0) == 'X') { // 두 글자씩 1byte
+			if((end - begin) % 2 != 0) {
+				throw new SyntexException("Hexadecimal data must have an even number of digits.");
+			}
+			
+			int offset = this.reserve((end - begin) / 2);
+			
+			for(int i = begin, z = offset; i < end; i += 2, z++) {
+				int high = Character.digit(form.charAt(i), 16);
+				int low = Character.digit(form.charAt(i + 1), 16);
+				
+				if(high < 0 || low < 0) {
+					throw new SyntexException("Invalid hexadecimal data.");
+				}
+				
+				code[z] = (byte) ((high << 4) | low);
+			}
+			
+			return offset;
+		}
+		
+		int offset = this.reserve(end - begin); // 문자는 한 글자씩 1byte
+		
+		for(int i = begin, z = offset; i < end; i++, z++) {
+			code[z] = (byte) form.charAt(i);
+		}
+		
+		return offset;
+	}
+	
+	/**
+	 * 형식이 있는 데이터(C'EOF', X'F1')의 byte 크기를 반환한다.
+	 * @param form
+	 * @return
+	 */
+	public static int formSize(String form) {
+		int length = form.length() - 1 - StringUtil.getFormDataOffset(form);
+		
+		return form.charAt(0) == 'X' ? length / 2 : length;
+	}
+	
+	/**
+	 * 버퍼의 offset부터 length byte를 HEX 문자로 버퍼에 추가한다.
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 */
+	public void appendHex(StringBuilder buffer, int offset, int length) {
+		for(int i = offset; i < offset + length; i++) {
+			StringUtil.appendHex(buffer, code[i], 2);
+		}
+	}
+	
+	/**
+	 * 버퍼의 offset부터 length byte를 HEX 문자열로 반환한다.
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public String toHex(int offset, int length) {
+		StringBuilder buffer = new StringBuilder(length * 2);
+		
+		this.appendHex(buffer, offset, length);
+		
+		return buffer.toString();
+	}
+	
+	/**
+	 * 버퍼를 비운다. (pass2를 다시 수행할 경우)
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+	
+	/**
+	 * length byte 만큼 공간을 확보한다.
+	 * @param length
+	 * @return 확보한 공간의 시작 위치
+	 */
+	private int reserve(int length) {
+		if(size + length > code.length) {
+			code = Arrays.copyOf(code, Math.max(code.length * 2, size + length));
+		}
+		
+		int offset = size;
+		size = size + length;
+		
+		return offset;
+	}
+}
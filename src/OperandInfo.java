@@ -0,0 +1,96 @@
+import util.StringUtil;
+
+/**
+ * 토큰의 operand를 토큰 생성 시 한 번만 분석하여 저장한다.
+ * pass1, pass2 에서는 문자열을 다시 검사하지 않고 이 정보를 사용한다.
+ */
+class OperandInfo {
+	/**
+	 * 첫번째 operand의 종류
+	 */
+	enum Kind {
+		NONE, // operand 없음
+		CURRENT, // 현재 주소 (*)
+		LITERAL, // 리터럴 (=C'EOF', =X'05')
+		FORM, // 형식이 있는 데이터 (C'EOF', X'05')
+		EXPRESSION, // 수식 (BUFEND-BUFFER)
+		SYMBOL, // 심볼
+		NUMBER, // 숫자
+		OTHER // 그 외
+	}
+	
+	Kind kind;
+	int addressingMode; // n, i 플래그 (TokenTable.nFlag, iFlag)
+	boolean indexed; // 두번째 operand가 X인 경우
+	char literalType; // 리터럴, 데이터의 타입 (C, X)
+	String name; // @, # 을 제외한 심볼 이름, 또는 리터럴의 데이터
+	int value; // 숫자인 경우의 값
+	String[] terms; // 수식을 나눈 결과
+	int register1; // 포맷 2의 첫번째 레지스터 번호
+	int register2; // 포맷 2의 두번째 레지스터 번호 (숫자인 경우 해당 값)
+	
+	/**
+	 * operand 배열을 분석한다.
+	 * @param operand : 토큰의 operand. 없을 경우 null
+	 */
+	public OperandInfo(String[] operand) {
+		this.addressingMode = TokenTable.nFlag | TokenTable.iFlag;
+		
+		if(operand == null || operand.length == 0) {
+			this.kind = Kind.NONE;
+			return;
+		}
+		
+		String first = operand[0];
+		
+		this.addressingMode = StringUtil.getAddressingMode(first);
+		this.register1 = StringUtil.getRegisterNumber(first);
+		
+		if(operand.length > 1) { // 두번째 operand
+			String second = StringUtil.nvl(operand[1]);
+			
+			this.indexed = second.equals("X");
+			this.register2 = StringUtil.isNumber(second) ? Integer.parseInt(second) : StringUtil.getRegisterNumber(second);
+		}
+		
+		if(first.equals("*")) {
+			this.kind = Kind.CURRENT;
+		} else if(StringUtil.isLiteral(first)) {
+			this.kind = Kind.LITERAL;
+			this.name = StringUtil.getLiteral(first);
+			this.literalType = first.charAt(1);
+		} else if(StringUtil.isForm(first)) {
+			this.kind = Kind.FORM;
+			this.literalType = first.charAt(0);
+		} else {
+			String stripped = this.addressingMode == (TokenTable.nFlag | TokenTable.iFlag) ? first : first.substring(1); // 간접, 직접 참조 기호 제거
+			
+			if(StringUtil.isArithmetic(stripped)) {
+				this.kind = Kind.EXPRESSION;
+				this.terms = StringUtil.getArithmetic(stripped);
+			} else if(StringUtil.isLetter(stripped)) {
+				this.kind = Kind.SYMBOL;
+				this.name = stripped;
+			} else if(StringUtil.isNumber(stripped)) {
+				this.kind = Kind.NUMBER;
+				this.value = Integer.parseInt(stripped);
+			} else {
+				this.kind = Kind.OTHER;
+			}
+		}
+	}
+	
+	/**
+	 * 개발의 편의성을 위해 임시로 오버라이딩
+	 */
+	@Override
+	public String toString(){
+	    return 	 "{ "
+	    		+ "kind : " + this.kind + ", "
+	    		+ "name : " + this.name + ", "
+	    		+ "value : " + this.value + ", "
+	    		+ "addressingMode : " + this.addressingMode + ", "
+	    		+ "indexed : " + this.indexed
+	    		+ " }";
+	}
+}
@@ -0,0 +1,201 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import exception.OutputException;
+
+/**
+ * 어셈블 결과(symtab, littab, obj)를 파일로 저장하는 출력 스트림.
+ * 문자를 일정 단위로 모아 byte로 바꾼 뒤 스레드마다 재사용하는 direct ByteBuffer에 기록하고, 버퍼가 차면 FileChannel로 내보낸다. (출력 전체를 문자열로 만들지 않음)
+ * 같은 디렉토리의 임시 파일에 쓴 뒤 commit에서 이름을 바꾸므로, 중간에 실패하면 기존 파일이 그대로 남는다.
+ * 출력은 ASCII이며, 소스에서 온 문자는 ISO-8859-1로 읽었으므로 원래의 byte로 기록된다.
+ */
+class OutputWriter implements Appendable, Closeable {
+	static final int BUFFER_SIZE = 64 * 1024;
+	/** 문자를 모아서 한 번에 byte로 변환하는 단위 (문자 하나씩 버퍼에 넣지 않는다) */
+	static final int CHUNK_SIZE = 8 * 1024;
+	
+	/** 스레드별로 재사용하는 출력 버퍼 (한 스레드는 한 번에 파일 하나만 쓴다) */
+	private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+	/** 임시 파일 이름 구분 번호 */
+	private static final AtomicLong TEMP_NUMBER = new AtomicLong();
+	
+	private Path file;
+	private Path tempFile;
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private StringBuilder chunk = new StringBuilder(CHUNK_SIZE * 2);
+	private boolean committed;
+	
+	/**
+	 * 임시 파일을 만든다. 임시 파일은 기본 권한으로 만들어 이름을 바꾼 뒤에도 기존 출력 파일과 같은 권한을 갖는다.
+	 * @param file : 저장할 파일
+	 * @throws IOException
+	 */
+	OutputWriter(Path file) throws IOException {
+		this.file = file;
+		
+		while(channel == null) { // 다른 프로세스가 사용 중인 이름은 건너뛴다.
+			try {
+				// 문자열 연결(+)은 처음 실행될 때 부트스트랩 비용(수십 ms)이 커서 StringBuilder를 사용한다.
+				String tempName = new StringBuilder(".").append(file.getFileName()).append('.').append(TEMP_NUMBER.incrementAndGet()).append(".tmp").toString();
+				
+				this.tempFile = file.resolveSibling(tempName);
+				this.channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			} catch(FileAlreadyExistsException e) {
+				continue;
+			}
+		}
+		
+		this.buffer = BUFFER.get();
+		this.buffer.clear();
+	}
+	
+	/**
+	 * content를 file에 저장한다. 모두 기록한 뒤에만 기존 파일을 교체한다.
+	 * @param fileName : 저장할 파일 이름
+	 * @param content : 출력 내용
+	 */
+	static void write(String fileName, OutputContent content) {
+		try(OutputWriter writer = new OutputWriter(Paths.get(fileName))) {
+			content.writeTo(writer);
+			writer.commit();
+		} catch(IOException e) {
+			throw new OutputException("An error occurred while writing " + fileName + ". (" + e.getMessage() + ")");
+		}
+	}
+	
+	/**
+	 * content를 문자열로 변환한다. (파일 저장과 같은 코드로 만든다)
+	 * @param content : 출력 내용
+	 * @return
+	 */
+	static String format(OutputContent content) {
+		StringBuilder stringBuilder = new StringBuilder();
+		
+		try {
+			content.writeTo(stringBuilder);
+		} catch(IOException e) { // StringBuilder는 IOException을 던지지 않는다.
+			throw new IllegalStateException(e);
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	@Override
+	public OutputWriter append(CharSequence csq) throws IOException {
+		chunk.append(csq);
+		
+		if(chunk.length() >= CHUNK_SIZE) {
+			this.encode();
+		}
+		
+		return this;
+	}
+	
+	@Override
+	public OutputWriter append(CharSequence csq, int start, int end) throws IOException {
+		chunk.append(csq, start, end);
+		
+		if(chunk.length() >= CHUNK_SIZE) {
+			this.encode();
+		}
+		
+		return this;
+	}
+	
+	@Override
+	public OutputWriter append(char ch) throws IOException {
+		chunk.append(ch);
+		
+		if(chunk.length() >= CHUNK_SIZE) {
+			this.encode();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * 모아둔 문자를 byte로 변환하여 버퍼에 기록한다. 버퍼가 차면 파일로 내보낸다.
+	 * @throws IOException
+	 */
+	private void encode() throws IOException {
+		byte[] data = chunk.toString().getBytes(StandardCharsets.ISO_8859_1);
+		
+		chunk.setLength(0);
+		
+		for(int offset = 0; offset < data.length; ) {
+			if(!buffer.hasRemaining()) {
+				this.flush();
+			}
+			
+			int count = Math.min(data.length - offset, buffer.remaining());
+			
+			buffer.put(data, offset, count);
+			offset = offset + count;
+		}
+	}
+	
+	/**
+	 * 버퍼의 내용을 파일로 내보낸다.
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		
+		buffer.clear();
+	}
+	
+	/**
+	 * 남은 내용을 기록하고 임시 파일의 이름을 바꿔 기존 파일을 교체한다.
+	 * 디스크 동기화(force)는 하지 않는다. 이름 변경은 다른 프로세스가 완성된 파일만 보도록 하기 위한 것이다.
+	 * @throws IOException
+	 */
+	void commit() throws IOException {
+		this.encode();
+		this.flush();
+		channel.close();
+		
+		try {
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(AtomicMoveNotSupportedException e) { // 원자적 이름 변경을 지원하지 않는 파일 시스템
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		
+		committed = true;
+	}
+	
+	/**
+	 * commit하지 않았으면 임시 파일을 삭제한다.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer.clear();
+		
+		if(!committed) {
+			channel.close();
+			Files.deleteIfExists(tempFile);
+		}
+	}
+}
+
+/**
+ * 출력 내용을 순서대로 기록하는 함수. 파일 저장(OutputWriter)과 문자열 변환(StringBuilder)이 같은 코드를 사용한다.
+ */
+interface OutputContent {
+	void writeTo(Appendable out) throws IOException;
+}
@@ -0,0 +1,440 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 여러 모듈(input 파일)로 이루어진 프로젝트를 어셈블하고, 모듈 사이의 외부 참조를 검사하는 진입점.
+ *
+ * 처리 순서
+ *   1) 사전 스캔 : 모듈별 START/CSECT 이름, EXTDEF, EXTREF만 읽어 참조 그래프와 전역 외부 정의 인덱스를 만든다.
+ *      어느 모듈에서도 정의되지 않은 EXTREF와 중복 정의는 어셈블 전에 바로 보고한다.
+ *      어셈블에 실패한 모듈의 정의도 인덱스에 남으므로, 참조하는 모듈에는 같은 원인의 오류를 다시 보고하지 않는다.
+ *   2) 어셈블 : 참조되는 모듈이 먼저 오도록 정렬(위상 정렬)한 순서대로 스레드 풀에 등록한다.
+ *   3) 검사 : 모듈의 어셈블이 끝나면 섹션의 이름과 EXTDEF를 인덱스에 추가하고, 참조하는 모듈이 모두 끝난 모듈부터
+ *      EXTREF와 M 레코드의 레이블을 인덱스로 한 번에 검사한다. (순환 참조는 마지막에 검사)
+ *
+ * 사용법 : java ProjectAssembler [-inst inst.data] [-threads n] [-cache 디렉토리] (디렉토리 | glob | 파일 | @파일목록) ...
+ */
+public class ProjectAssembler {
+	
+	/** 모든 Assembler가 공유하는 instruction 명세 */
+	InstTable instTable;
+	/** 동시에 어셈블할 모듈 수 */
+	int threads;
+	/** 섹션 단위 증분 빌드 캐시 (null이면 사용하지 않음) */
+	BuildCache cache;
+	
+	/** 전역 외부 정의 인덱스 (이름 -> 정의한 모듈). 섹션 이름과 EXTDEF를 모두 포함한다. */
+	HashMap<String, ProjectModule> exportIndex;
+	/** 발견된 오류 목록 */
+	ArrayList<String> errorList;
+	
+	/**
+	 * 생성자 선언
+	 * @param instTable : 공유할 instruction 명세
+	 * @param threads : 동시에 어셈블할 모듈 수
+	 */
+	public ProjectAssembler(InstTable instTable, int threads) {
+		this.instTable = instTable;
+		this.threads = Math.max(threads, 1);
+		this.exportIndex = new HashMap<>();
+		this.errorList = new ArrayList<>();
+	}
+	
+	/**
+	 * 프로젝트 어셈블러의 메인 루틴
+	 */
+	public static void main(String[] args) {
+		String instFile = null; // 지정하지 않으면 생성된 상수(InstData) 사용
+		int threads = Runtime.getRuntime().availableProcessors();
+		String cacheDirectory = null;
+		ArrayList<String> targetList = new ArrayList<>();
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(args[i].equals("-inst") && i + 1 < args.length) {
+				instFile = args[++i];
+			} else if(args[i].equals("-threads") && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else if(args[i].equals("-cache") && i + 1 < args.length) {
+				cacheDirectory = args[++i];
+			} else {
+				targetList.add(args[i]);
+			}
+		}
+		
+		if(targetList.isEmpty()) {
+			System.err.println("usage: java ProjectAssembler [-inst inst.data] [-threads n] [-cache dir] (directory | glob | file | @list) ...");
+			System.exit(2);
+		}
+		
+		ProjectAssembler project = new ProjectAssembler(instFile == null ? new InstTable() : new InstTable(instFile), threads);
+		
+		if(cacheDirectory != null) {
+			project.cache = new BuildCache(Paths.get(cacheDirectory), BuildCache.DEFAULT_MAX_SIZE);
+		}
+		
+		int errors = project.run(BatchAssembler.expand(targetList));
+		
+		System.exit(errors == 0 ? 0 : 1);
+	}
+	
+	/**
+	 * 프로젝트의 모든 모듈을 어셈블하고 모듈 사이의 참조를 검사한다.
+	 * 오류가 없는 모듈의 결과는 input 파일 옆에 저장한다.
+	 * @param fileList : 모듈(input 파일) 목록
+	 * @return 발견된 오류 수
+	 */
+	public int run(ArrayList<Path> fileList) {
+		// 1) 사전 스캔
+		ArrayList<ProjectModule> moduleList = new ArrayList<>(fileList.size());
+		
+		for(Path file : fileList) {
+			try {
+				moduleList.add(new ProjectModule(file, SourceBuffer.load(file.toString())));
+			} catch(RuntimeException e) {
+				this.error(file, e);
+			}
+		}
+		
+		this.link(moduleList);
+		
+		// 2) 어셈블 (참조되는 모듈 먼저)
+		ArrayList<ProjectModule> order = schedule(moduleList);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(order.size(), 1)));
+		
+		try {
+			for(ProjectModule module : order) {
+				module.result = executor.submit(() -> {
+					Assembler assembler = new Assembler(instTable);
+					
+					assembler.setVerbose(false);
+					assembler.setCache(cache);
+					assembler.assemble(module.source);
+					
+					return assembler;
+				});
+			}
+			
+			// 3) 검사 (참조하는 모듈이 모두 끝난 모듈부터)
+			ArrayList<ProjectModule> deferredList = new ArrayList<>();
+			
+			for(ProjectModule module : order) {
+				module.assembler = this.getResult(module);
+				module.done = true;
+				
+				if(module.assembler == null) {
+					continue;
+				}
+				
+				this.addExports(module);
+				
+				if(module.isReady()) {
+					this.check(module);
+				} else {
+					deferredList.add(module); // 순환 참조
+				}
+			}
+			
+			for(ProjectModule module : deferredList) {
+				this.check(module);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		// 결과 저장
+		for(ProjectModule module : order) {
+			if(module.assembler != null && module.errorCount == 0) {
+				BatchAssembler.writeOutputs(module.assembler, module.file);
+			}
+		}
+		
+		System.out.println(String.format("project: %d modules, %d exports, %d errors",
+				moduleList.size(), exportIndex.size(), errorList.size()));
+		
+		if(cache != null) {
+			cache.flush(); // 저장 대기 중인 항목 기록
+			System.out.println(cache.getStatistics());
+		}
+		
+		return errorList.size();
+	}
+	
+	/**
+	 * 사전 스캔 결과로 모듈 사이의 참조 관계를 연결한다.
+	 * 정의되지 않은 EXTREF와 중복 정의는 이 단계에서 보고한다.
+	 * @param moduleList
+	 */
+	private void link(ArrayList<ProjectModule> moduleList) {
+		for(ProjectModule module : moduleList) {
+			for(String name : module.exportSet) {
+				ProjectModule provider = exportIndex.putIfAbsent(name, module);
+				
+				if(provider != null && provider != module) {
+					this.error(module, name + " is already exported by " + provider.file + ".");
+				}
+			}
+		}
+		
+		for(ProjectModule module : moduleList) {
+			for(String name : module.importSet) {
+				ProjectModule provider = exportIndex.get(name);
+				
+				if(provider == null) {
+					module.unresolvedSet.add(name);
+					this.error(module, "EXTREF " + name + " is not defined by any module.");
+				} else if(provider != module && !module.providerList.contains(provider)) {
+					module.providerList.add(provider);
+					provider.consumerList.add(module);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 참조되는 모듈이 먼저 오도록 모듈을 정렬한다. (위상 정렬, 순환 참조는 입력 순서로 끊는다)
+	 * @param moduleList
+	 * @return 어셈블 순서
+	 */
+	static ArrayList<ProjectModule> schedule(ArrayList<ProjectModule> moduleList) {
+		ArrayList<ProjectModule> order = new ArrayList<>(moduleList.size());
+		HashMap<ProjectModule, Integer> remaining = new HashMap<>(); // 아직 순서가 정해지지 않은 참조 모듈 수
+		ArrayDeque<ProjectModule> readyQueue = new ArrayDeque<>();
+		int next = 0; // 순환을 끊을 때 사용할 입력 순서 위치
+		
+		for(ProjectModule module : moduleList) {
+			remaining.put(module, module.providerList.size());
+			
+			if(module.providerList.isEmpty()) {
+				readyQueue.add(module);
+			}
+		}
+		
+		while(order.size() < moduleList.size()) {
+			if(readyQueue.isEmpty()) { // 순환 참조 : 입력 순서상 남아있는 첫 모듈부터 진행
+				while(remaining.get(moduleList.get(next)) < 0) {
+					next++;
+				}
+				
+				readyQueue.add(moduleList.get(next));
+			}
+			
+			ProjectModule module = readyQueue.poll();
+			
+			if(remaining.get(module) < 0) { // 이미 정렬됨
+				continue;
+			}
+			
+			remaining.put(module, -1);
+			order.add(module);
+			
+			for(ProjectModule consumer : module.consumerList) {
+				int count = remaining.get(consumer);
+				
+				if(count > 0) {
+					remaining.put(consumer, count - 1);
+					
+					if(count == 1) {
+						readyQueue.add(consumer);
+					}
+				}
+			}
+		}
+		
+		return order;
+	}
+	
+	/**
+	 * 어셈블한 모듈의 섹션 이름과 EXTDEF를 전역 인덱스에 추가한다. (사전 스캔에서 찾지 못한 정의)
+	 * @param module
+	 */
+	private void addExports(ProjectModule module) {
+		for(int i = 0; i < module.assembler.TokenList.size(); i++) {
+			TokenTable tokenTable = module.assembler.TokenList.get(i);
+			String sectionName = tokenTable.section.programName;
+			
+			if(sectionName != null) {
+				exportIndex.putIfAbsent(sectionName, module);
+			}
+			
+			for(int j = 0; j < tokenTable.extTab.extdef.size(); j++) {
+				exportIndex.putIfAbsent(tokenTable.extTab.extdef.get(j).name, module);
+			}
+		}
+	}
+	
+	/**
+	 * 모듈의 모든 섹션에 대해 EXTREF와 M 레코드의 레이블을 전역 인덱스로 검사한다.
+	 * @param module
+	 */
+	private void check(ProjectModule module) {
+		for(int i = 0; i < module.assembler.TokenList.size(); i++) {
+			TokenTable tokenTable = module.assembler.TokenList.get(i);
+			String sectionName = tokenTable.section.programName;
+			
+			for(int j = 0; j < tokenTable.extTab.extref.size(); j++) {
+				String name = tokenTable.extTab.extref.get(j).name;
+				
+				if(!exportIndex.containsKey(name) && !module.unresolvedSet.contains(name)) {
+					this.error(module, sectionName + ": EXTREF " + name + " is not exported by any module.");
+				}
+			}
+			
+			for(int j = 0; j < tokenTable.modifyTab.size(); j++) {
+				String label = tokenTable.modifyTab.getLabel(j);
+				
+				if(!tokenTable.extTab.isExtref(label) && !label.equals(sectionName)) {
+					this.error(module, sectionName + ": M record label " + label + " is not declared by EXTREF.");
+				} else if(!exportIndex.containsKey(label) && !module.unresolvedSet.contains(label)) {
+					this.error(module, sectionName + ": M record label " + label + " is not exported by any module.");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 모듈의 어셈블 결과를 기다린다. 실패한 경우 오류로 기록한다.
+	 * @param module
+	 * @return 어셈블이 끝난 Assembler. 실패한 경우 null
+	 */
+	private Assembler getResult(ProjectModule module) {
+		try {
+			return module.result.get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Project assembly interrupted.", e);
+		} catch(ExecutionException e) {
+			this.error(module.file, e.getCause());
+			module.errorCount++;
+			
+			return null;
+		}
+	}
+	
+	/**
+	 * 모듈의 오류를 기록하고 바로 출력한다.
+	 * @param module
+	 * @param message
+	 */
+	private void error(ProjectModule module, String message) {
+		module.errorCount++;
+		this.report(module.file + " : " + message);
+	}
+	
+	/**
+	 * 파일의 예외를 기록하고 바로 출력한다.
+	 * @param file
+	 * @param cause
+	 */
+	private void error(Path file, Throwable cause) {
+		this.report(file + " : " + cause.getClass().getSimpleName()
+				+ (cause.getMessage() != null ? " " + cause.getMessage() : ""));
+	}
+	
+	/**
+	 * 오류를 기록하고 출력한다.
+	 * @param message
+	 */
+	private void report(String message) {
+		errorList.add(message);
+		System.err.println("ERROR " + message);
+	}
+}
+
+/**
+ * 프로젝트를 구성하는 모듈(input 파일) 하나의 정보
+ */
+class ProjectModule {
+	Path file;
+	SourceBuffer source;
+	
+	LinkedHashSet<String> exportSet; // 섹션 이름과 EXTDEF (사전 스캔)
+	LinkedHashSet<String> importSet; // EXTREF (사전 스캔)
+	HashSet<String> unresolvedSet; // 어느 모듈에서도 정의되지 않은 EXTREF (사전 스캔에서 보고됨)
+	ArrayList<ProjectModule> providerList; // 이 모듈이 참조하는 모듈
+	ArrayList<ProjectModule> consumerList; // 이 모듈을 참조하는 모듈
+	
+	Future<Assembler> result; // 어셈블 작업
+	Assembler assembler; // 어셈블 결과 (실패한 경우 null)
+	boolean done; // 어셈블 결과를 확인했는지 여부
+	int errorCount;
+	
+	/**
+	 * 모듈을 생성하면서 외부 정의, 외부 참조 라인만 스캔한다.
+	 * @param file
+	 * @param source
+	 */
+	public ProjectModule(Path file, SourceBuffer source) {
+		this.file = file;
+		this.source = source;
+		this.exportSet = new LinkedHashSet<>();
+		this.importSet = new LinkedHashSet<>();
+		this.unresolvedSet = new HashSet<>();
+		this.providerList = new ArrayList<>();
+		this.consumerList = new ArrayList<>();
+		
+		for(int line : source.findLines("START")) {
+			this.addLabel(exportSet, line);
+		}
+		for(int line : source.findLines("CSECT")) {
+			this.addLabel(exportSet, line);
+		}
+		for(int line : source.findLines("EXTDEF")) {
+			this.addOperand(exportSet, line);
+		}
+		for(int line : source.findLines("EXTREF")) {
+			this.addOperand(importSet, line);
+		}
+	}
+	
+	/**
+	 * 참조하는 모듈의 어셈블 결과를 모두 확인했는지 여부
+	 * @return
+	 */
+	public boolean isReady() {
+		for(ProjectModule provider : providerList) {
+			if(!provider.done) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 라인의 label을 목록에 추가한다.
+	 * @param nameSet
+	 * @param line
+	 */
+	private void addLabel(HashSet<String> nameSet, int line) {
+		Token token = new Token(source.data, source.getBegin(line), source.getEnd(line));
+		
+		if(token.label != null) {
+			nameSet.add(token.label);
+		}
+	}
+	
+	/**
+	 * 라인의 operand를 목록에 추가한다.
+	 * @param nameSet
+	 * @param line
+	 */
+	private void addOperand(HashSet<String> nameSet, int line) {
+		Token token = new Token(source.data, source.getBegin(line), source.getEnd(line));
+		
+		if(token.operand != null) {
+			for(String name : token.operand) {
+				nameSet.add(name);
+			}
+		}
+	}
+}
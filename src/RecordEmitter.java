@@ -0,0 +1,253 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 오브젝트 프로그램의 레코드(H, D, R, T, M, E)를 byte 버퍼에 바로 기록하는 클래스.
+ * 고정 길이 HEX와 공백을 채운 이름을 조회 테이블로 기록하며, String.format이나 중간 문자열을 만들지 않는다.
+ * T 레코드는 길이 자리를 비워 두고 시작한 뒤 본문 byte 수를 세어 두었다가 닫을 때 채운다.
+ * 섹션 하나의 오브젝트 프로그램마다 하나씩 사용한다.
+ *
+ * HEX 자리수 규칙 (기존 출력과 동일)
+ *   1) hex : 최소 width 자리. 값이 더 크면 필요한 만큼 늘린다. (String.format("%0nX")과 같음, H, T, E 레코드)
+ *   2) fixedHex : 정확히 width 자리. 값이 더 크면 하위 자리만 기록한다. (StringUtil.appendHex와 같음, D, M 레코드)
+ */
+class RecordEmitter {
+	/** T 레코드 본문의 최대 HEX 문자 수 */
+	static final int TEXT_LIMIT = 60;
+	
+	private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+	/** byte 값(0~255) -> HEX 두 글자 */
+	private static final byte[] HEX_PAIRS = new byte[512];
+	
+	static {
+		for(int i = 0; i < 256; i++) {
+			HEX_PAIRS[i * 2] = HEX_DIGITS[i >>> 4];
+			HEX_PAIRS[i * 2 + 1] = HEX_DIGITS[i & 0xF];
+		}
+	}
+	
+	private byte[] buffer;
+	private int size;
+	
+	/** 진행 중인 T 레코드의 길이 자리 위치. 없으면 -1 */
+	private int textLengthOffset = -1;
+	/** 진행 중인 T 레코드의 본문 byte 수 */
+	private int textBytes;
+	
+	/**
+	 * @param capacity : 예상 출력 길이 (부족하면 늘린다)
+	 */
+	RecordEmitter(int capacity) {
+		this.buffer = new byte[Math.max(capacity, 64)];
+	}
+	
+	/**
+	 * H 레코드를 기록한다.
+	 * @param programName : 프로그램 이름 (6자리로 공백을 채움)
+	 * @param startAddress
+	 * @param programLength
+	 */
+	void header(String programName, int startAddress, int programLength) {
+		this.put('H');
+		this.name(programName, 6);
+		this.hex(startAddress, 6);
+		this.hex(programLength, 6);
+		this.put('\n');
+	}
+	
+	/**
+	 * 레코드를 시작한다. (D, R 레코드처럼 항목을 이어서 기록하는 레코드)
+	 * @param type : 레코드 종류
+	 */
+	void beginRecord(char type) {
+		this.put(type);
+	}
+	
+	/**
+	 * 레코드를 끝낸다.
+	 */
+	void endRecord() {
+		this.put('\n');
+	}
+	
+	/**
+	 * 이름 뒤에 공백을 채워 width 자리로 기록한다. (String.format("%-ns")과 같이 길면 자르지 않는다)
+	 * @param name : 이름. null이면 "null"
+	 * @param width
+	 */
+	void name(String name, int width) {
+		if(name == null) {
+			name = "null";
+		}
+		
+		int length = name.length();
+		
+		this.ensure(Math.max(length, width));
+		
+		for(int i = 0; i < length; i++) {
+			buffer[size++] = (byte) name.charAt(i);
+		}
+		
+		for(int i = length; i < width; i++) {
+			buffer[size++] = ' ';
+		}
+	}
+	
+	/**
+	 * 값을 최소 width 자리의 대문자 HEX로 기록한다. (String.format("%0nX")과 같음)
+	 * @param value
+	 * @param width
+	 */
+	void hex(int value, int width) {
+		this.fixedHex(value, Math.max(width, hexDigits(value)));
+	}
+	
+	/**
+	 * 값을 정확히 width 자리의 대문자 HEX로 기록한다. 값이 width 자리를 넘으면 하위 자리만 기록한다.
+	 * @param value
+	 * @param width
+	 */
+	void fixedHex(int value, int width) {
+		this.ensure(width);
+		
+		for(int shift = (width - 1) * 4; shift >= 0; shift -= 4) {
+			buffer[size++] = HEX_DIGITS[(value >>> shift) & 0xF];
+		}
+	}
+	
+	/**
+	 * T 레코드를 시작한다. 길이 자리는 endText에서 채운다.
+	 * @param address : 본문의 시작 주소
+	 */
+	void beginText(int address) {
+		this.put('T');
+		this.hex(address, 6);
+		this.ensure(2);
+		
+		textLengthOffset = size;
+		textBytes = 0;
+		size = size + 2;
+	}
+	
+	/**
+	 * 진행 중인 T 레코드 본문에 byte들을 HEX로 추가한다.
+	 * @param data : 코드 버퍼, 리터럴 pool 등
+	 * @param offset : 시작 위치
+	 * @param length : byte 수
+	 */
+	void text(byte[] data, int offset, int length) {
+		this.ensure(length * 2);
+		
+		for(int i = offset; i < offset + length; i++) {
+			int pair = (data[i] & 0xFF) * 2;
+			
+			buffer[size++] = HEX_PAIRS[pair];
+			buffer[size++] = HEX_PAIRS[pair + 1];
+		}
+		
+		textBytes = textBytes + length;
+	}
+	
+	/**
+	 * @return T 레코드가 진행 중이면 true
+	 */
+	boolean inText() {
+		return textLengthOffset >= 0;
+	}
+	
+	/**
+	 * @return 진행 중인 T 레코드의 본문 byte 수
+	 */
+	int getTextBytes() {
+		return textBytes;
+	}
+	
+	/**
+	 * 진행 중인 T 레코드의 길이 자리를 채우고 끝낸다.
+	 * 본문이 0xFF byte를 넘으면 (String.format("%02X")과 같이) 길이 자리를 늘리고 본문을 뒤로 민다.
+	 */
+	void endText() {
+		int digits = hexDigits(textBytes);
+		
+		if(digits > 2) { // 리터럴 pool이 큰 경우에만 발생
+			this.ensure(digits - 2);
+			System.arraycopy(buffer, textLengthOffset + 2, buffer, textLengthOffset + digits, size - textLengthOffset - 2);
+			size = size + digits - 2;
+		} else {
+			digits = 2;
+		}
+		
+		for(int i = 0; i < digits; i++) {
+			buffer[textLengthOffset + i] = HEX_DIGITS[(textBytes >>> ((digits - 1 - i) * 4)) & 0xF];
+		}
+		
+		this.put('\n');
+		
+		textLengthOffset = -1;
+		textBytes = 0;
+	}
+	
+	/**
+	 * M 레코드를 기록한다.
+	 * @param location : 수정할 주소
+	 * @param length : 수정할 길이 (half byte)
+	 * @param sign : 부호
+	 * @param label : 외부 참조 이름
+	 */
+	void modify(int location, int length, char sign, String label) {
+		this.put('M');
+		this.fixedHex(location, 6);
+		this.fixedHex(length, 2);
+		this.put(sign);
+		this.name(label, 0);
+		this.put('\n');
+	}
+	
+	/**
+	 * E 레코드를 기록한다. 섹션 사이는 빈 줄로 구분한다.
+	 * @param isMain : 메인 섹션이면 시작 주소를 기록한다.
+	 * @param startAddress
+	 */
+	void end(boolean isMain, int startAddress) {
+		this.put('E');
+		
+		if(isMain) {
+			this.hex(startAddress, 6);
+		}
+		
+		this.put('\n');
+		this.put('\n');
+	}
+	
+	/**
+	 * 기록된 레코드를 문자열로 반환한다.
+	 */
+	@Override
+	public String toString() {
+		return new String(buffer, 0, size, StandardCharsets.ISO_8859_1);
+	}
+	
+	private void put(char ch) {
+		this.ensure(1);
+		buffer[size++] = (byte) ch;
+	}
+	
+	/**
+	 * length byte를 더 기록할 수 있도록 버퍼를 늘린다.
+	 * @param length
+	 */
+	private void ensure(int length) {
+		if(size + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+		}
+	}
+	
+	/**
+	 * 값을 HEX로 나타내는 데 필요한 자리수 (부호 없는 값, 최소 1)
+	 * @param value
+	 * @return
+	 */
+	private static int hexDigits(int value) {
+		return Math.max((35 - Integer.numberOfLeadingZeros(value)) / 4, 1);
+	}
+}
@@ -0,0 +1,579 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import exception.InitException;
+
+/**
+ * WorkloadGenerator로 만든 소스의 크기를 늘려가며 단계별 시간, 최대 메모리(힙, RSS), 출력 크기를 기록하고
+ * 크기에 비례하는 것보다 빠르게 느려지는 단계가 있으면 실패(종료 코드 1)하는 확장성 측정 도구.
+ * 크기마다 별도의 JVM(자식 프로세스)에서 측정하므로 앞선 크기의 힙, JIT 상태가 결과에 섞이지 않는다.
+ * 자식 프로세스는 측정 전에 작은 소스로 warmup 하므로 작은 크기의 결과도 JIT 컴파일 시간이 대부분이 되지 않는다.
+ * 작은 크기는 한 번의 시간이 너무 짧으므로 모든 단계의 합계 시간이 -min 이상이 될 때까지 (최소 3회) 전체 단계를 반복하여 평균을 기록한다.
+ * 따라서 크기마다 모든 단계를 비교한다.
+ *
+ * 사용법 : java ScalingHarness [-sizes 1000,100000,10000000] [-section n] [-xmx 크기] [-pretouch true|false]
+ *                             [-tolerance 배율] [-min ms] [-dir 디렉토리] [-json 파일] [WorkloadGenerator 옵션...]
+ *   -sizes : 측정할 문장 수 (작은 것부터)
+ *   -section : 섹션 하나의 문장 수. 섹션 수는 문장 수에 비례한다. (기본 1000)
+ *   -xmx : 자식 JVM의 힙 크기 (기본 5g. 10000000 문장에 약 4.5GB가 필요하다. -Xms와 -Xmx를 같게 설정하여 힙 크기 조정이 측정에 섞이지 않도록 한다)
+ *   -pretouch : 자식 JVM의 힙을 시작할 때 모두 할당(-XX:+AlwaysPreTouch)할지 여부 (기본 true)
+ *               false이면 큰 크기일수록 새 메모리의 page fault 시간이 더해져 선형보다 나쁘게 측정될 수 있다.
+ *               (작은 크기는 warmup에서 이미 사용한 메모리를 다시 사용한다)
+ *   -tolerance : 허용하는 배율. 문장 수가 k배일 때 시간이 k * tolerance배를 넘으면 실패 (기본 1.5)
+ *   -min : 크기마다 각 단계의 합계 시간이 이 시간 이상이 되도록 반복하는 최소 시간 (기본 20ms, 3 ~ 1000회 반복)
+ *   -dir : 생성한 소스와 결과 파일을 둘 디렉토리 (기본 임시 디렉토리)
+ *
+ * 측정 단계 (Assembler의 순차 처리와 같은 순서)
+ *   1) load : SourceBuffer.load (출력 : 바이트 수)
+ *   2) tokenize : 섹션 분리와 모든 라인의 토큰 분리 (출력 : 토큰 수)
+ *   3) setLocation : 주소 할당 (출력 : 심볼 수 + 리터럴 수)
+ *   4) makeObjectCode : 외부 정의 검증과 object code 생성 (출력 : object code 바이트 수)
+ *   5) makeObjectProgram : 오브젝트 프로그램 생성 (출력 : 문자 수)
+ *   6) write : symtab, littab, obj 파일 저장 (출력 : 파일 크기의 합)
+ * 시간은 반복의 평균이고, 최대 힙, 최대 RSS는 반복 중 가장 큰 값이다.
+ * 최대 힙은 단계마다 초기화한 heap memory pool 별 최대 사용량의 합이다.
+ * 최대 RSS는 단계마다 /proc/self/clear_refs로 초기화한 뒤의 VmHWM이다. (Linux가 아니면 측정하지 않는다)
+ * pretouch를 사용하면 RSS는 힙 크기와 같으므로 단계별 메모리는 최대 힙으로 비교한다.
+ */
+public class ScalingHarness {
+	private static final String CHILD = "-child";
+	private static final String PHASE = "phase";
+	private static final String[] PHASES = { "load", "tokenize", "setLocation", "makeObjectCode", "makeObjectProgram", "write" };
+	private static final int WARMUP_LINES = 20000;
+	private static final int WARMUP_ITERATIONS = 5;
+	/** 크기 하나의 최소 반복 횟수 (큰 크기도 한 번의 측정에 GC, page cache 등의 오차가 섞이지 않도록) */
+	private static final int MIN_RUNS = 3;
+	/** 크기 하나의 최대 반복 횟수 */
+	private static final int MAX_RUNS = 1000;
+	
+	/** 측정할 문장 수 */
+	int[] sizes = { 1000, 100000, 10000000 };
+	/** 섹션 하나의 문장 수 */
+	int sectionLines = 1000;
+	/** 자식 JVM의 힙 크기 */
+	String heapSize = "5g";
+	/** 자식 JVM의 힙을 미리 할당할지 여부 */
+	boolean pretouch = true;
+	/** 허용하는 배율 */
+	double tolerance = 1.5;
+	/** 단계마다 반복하는 최소 시간 (ms) */
+	double minMillis = 20;
+	/** 소스와 결과를 둘 디렉토리 */
+	Path directory;
+	/** 소스 생성 설정 (lines, sections는 크기마다 설정) */
+	WorkloadGenerator generator = new WorkloadGenerator();
+	
+	/**
+	 * 측정 도구의 메인 루틴
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length == 4 && args[0].equals(CHILD)) {
+			child(Paths.get(args[1]), Paths.get(args[2]), Double.parseDouble(args[3]));
+			return;
+		}
+		
+		ScalingHarness harness = new ScalingHarness();
+		String jsonFile = null;
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(i + 1 >= args.length) {
+				usage();
+			} else if(args[i].equals("-sizes")) {
+				String[] sizes = args[++i].split(",");
+				
+				harness.sizes = new int[sizes.length];
+				
+				for(int j = 0; j < sizes.length; j++) {
+					harness.sizes[j] = Integer.parseInt(sizes[j].trim());
+				}
+			} else if(args[i].equals("-section")) {
+				harness.sectionLines = Math.max(Integer.parseInt(args[++i]), 8);
+			} else if(args[i].equals("-xmx")) {
+				harness.heapSize = args[++i];
+			} else if(args[i].equals("-pretouch")) {
+				harness.pretouch = Boolean.parseBoolean(args[++i]);
+			} else if(args[i].equals("-tolerance")) {
+				harness.tolerance = Double.parseDouble(args[++i]);
+			} else if(args[i].equals("-min")) {
+				harness.minMillis = Double.parseDouble(args[++i]);
+			} else if(args[i].equals("-dir")) {
+				harness.directory = Paths.get(args[++i]);
+			} else if(args[i].equals("-json")) {
+				jsonFile = args[++i];
+			} else if(!harness.generator.setOption(args[i], args[++i])) {
+				usage();
+			}
+		}
+		
+		if(harness.directory == null) {
+			harness.directory = Files.createTempDirectory("scaling-");
+		}
+		
+		Files.createDirectories(harness.directory);
+		
+		ArrayList<ScalingPhase> resultList = new ArrayList<>();
+		boolean passed = harness.run(resultList);
+		
+		if(jsonFile != null) {
+			writeJson(Paths.get(jsonFile), resultList);
+		}
+		
+		System.exit(passed ? 0 : 1);
+	}
+	
+	private static void usage() {
+		System.err.println("usage: java ScalingHarness [-sizes n,n,...] [-section n] [-xmx size] [-pretouch true|false] [-tolerance ratio] [-min ms] [-dir dir] [-json file] [generator options...]");
+		System.exit(2);
+	}
+	
+	/**
+	 * 모든 크기를 측정하고 확장성을 검사한다.
+	 * @param resultList : 단계별 결과가 추가된다.
+	 * @return 모든 크기가 측정되었고 선형보다 나쁜 단계가 없으면 true
+	 */
+	public boolean run(ArrayList<ScalingPhase> resultList) {
+		boolean passed = true;
+		ArrayList<ScalingPhase> previous = null;
+		
+		System.out.println(ScalingPhase.HEADER);
+		
+		for(int size : sizes) {
+			Path input = directory.resolve("workload-" + size + ".txt");
+			
+			// 소스 생성 (측정에 포함하지 않는다)
+			generator.lines = size;
+			generator.sections = Math.max(1, size / sectionLines);
+			
+			try(Writer writer = Files.newBufferedWriter(input, StandardCharsets.ISO_8859_1)) {
+				generator.generate(writer);
+			} catch(IOException e) {
+				throw new InitException("An error occurred while writing the " + input + ".");
+			}
+			
+			ArrayList<ScalingPhase> current = this.measure(size, input);
+			
+			try {
+				Files.deleteIfExists(input);
+			} catch(IOException e) {
+				// 다음 측정에는 영향 없음
+			}
+			
+			if(current == null) { // 자식 프로세스 실패 (메모리 부족 등)
+				passed = false;
+				break;
+			}
+			
+			for(ScalingPhase phase : current) {
+				System.out.println(phase);
+			}
+			
+			resultList.addAll(current);
+			
+			if(previous != null && !this.check(previous, current)) {
+				passed = false;
+			}
+			
+			previous = current;
+		}
+		
+		System.out.println(passed ? "scaling: PASS" : "scaling: FAIL");
+		
+		return passed;
+	}
+	
+	/**
+	 * 자식 JVM에서 소스 하나를 측정한다.
+	 * @param size : 문장 수
+	 * @param input : 소스 파일
+	 * @return 단계별 결과. 자식 프로세스가 실패하면 null
+	 */
+	private ArrayList<ScalingPhase> measure(int size, Path input) {
+		Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+		ProcessBuilder builder = new ProcessBuilder(java.toString(), "-Xms" + heapSize, "-Xmx" + heapSize,
+				pretouch ? "-XX:+AlwaysPreTouch" : "-XX:-AlwaysPreTouch", "-cp", System.getProperty("java.class.path"),
+				ScalingHarness.class.getName(), CHILD, input.toString(), directory.toString(), Double.toString(minMillis));
+		ArrayList<ScalingPhase> phaseList = new ArrayList<>();
+		
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		
+		try {
+			Process process = builder.start();
+			
+			try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				
+				while((line = reader.readLine()) != null) { // phase 이름 시간(ns) 힙(byte) RSS(kB) 출력크기 반복횟수
+					String[] field = line.split(" ");
+					
+					if(field.length == 7 && field[0].equals(PHASE)) {
+						phaseList.add(new ScalingPhase(size, field[1], Long.parseLong(field[2]), Long.parseLong(field[3]),
+								Long.parseLong(field[4]), Long.parseLong(field[5]), Integer.parseInt(field[6])));
+					}
+				}
+			}
+			
+			int exitCode = process.waitFor();
+			
+			if(exitCode != 0 || phaseList.size() != PHASES.length) {
+				System.out.println(String.format("%-10d measurement failed (exit code %d, -xmx %s)", size, exitCode, heapSize));
+				return null;
+			}
+		} catch(IOException e) {
+			throw new InitException("An error occurred while running the measurement of " + input + ".");
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		
+		long total = 0;
+		long heap = 0;
+		long rss = -1;
+		long output = 0;
+		
+		for(ScalingPhase phase : phaseList) {
+			total = total + phase.nanos;
+			heap = Math.max(heap, phase.peakHeap);
+			rss = Math.max(rss, phase.peakKilobytes);
+			output = phase.output;
+		}
+		
+		phaseList.add(new ScalingPhase(size, "total", total, heap, rss, output, phaseList.get(0).runs));
+		
+		return phaseList;
+	}
+	
+	/**
+	 * 두 크기의 결과를 비교하여 선형보다 나쁜 단계를 출력한다. (모든 단계를 비교한다)
+	 * @param small : 작은 크기의 결과
+	 * @param large : 큰 크기의 결과
+	 * @return 모든 단계가 허용 범위 안이면 true
+	 */
+	private boolean check(ArrayList<ScalingPhase> small, ArrayList<ScalingPhase> large) {
+		boolean passed = true;
+		
+		for(int i = 0; i < small.size(); i++) {
+			ScalingPhase a = small.get(i);
+			ScalingPhase b = large.get(i);
+			double ratio = ((double) b.nanos / Math.max(a.nanos, 1)) / ((double) b.lines / a.lines);
+			
+			if(ratio > tolerance) {
+				System.out.println(String.format(Locale.ROOT, "%-10d %-18s superlinear : %.2fx lines, %.2fx time (ratio %.2f > %.2f)",
+						b.lines, b.phase, (double) b.lines / a.lines, (double) b.nanos / Math.max(a.nanos, 1), ratio, tolerance));
+				passed = false;
+			}
+		}
+		
+		return passed;
+	}
+	
+	/**
+	 * 자식 프로세스 : warmup 후 단계별로 측정하여 표준 출력으로 보낸다.
+	 * 모든 단계의 합계 시간이 minMillis 이상이 될 때까지 (MIN_RUNS ~ MAX_RUNS회) 전체 단계를 반복하고 평균을 보낸다.
+	 * @param input : 소스 파일
+	 * @param directory : 결과 파일을 저장할 디렉토리
+	 * @param minMillis : 단계마다 반복하는 최소 시간 (ms)
+	 */
+	private static void child(Path input, Path directory, double minMillis) {
+		InstTable instTable = new InstTable();
+		WorkloadGenerator warmup = new WorkloadGenerator();
+		StringWriter writer = new StringWriter();
+		
+		warmup.lines = WARMUP_LINES;
+		warmup.sections = WARMUP_LINES / 1000;
+		
+		try {
+			warmup.generate(writer);
+		} catch(IOException e) {
+			throw new InitException("An error occurred while generating the warmup source.");
+		}
+		
+		byte[] warmupSource = writer.toString().getBytes(StandardCharsets.ISO_8859_1);
+		
+		writer = null;
+		
+		for(int i = 0; i < WARMUP_ITERATIONS; i++) {
+			Assembler assembler = newAssembler(instTable, new SourceBuffer(warmupSource));
+			
+			for(int j = 0; j < assembler.TokenList.size(); j++) {
+				TokenTable tokenTable = assembler.TokenList.get(j);
+				
+				tokenTable.setLocation();
+				tokenTable.extTab.validation(tokenTable.symTab);
+				tokenTable.makeObjectCode();
+				assembler.codeList.add(tokenTable.makeObjectProgram());
+			}
+		}
+		
+		System.gc();
+		
+		String prefix = directory.resolve(input.getFileName().toString().replaceFirst("\\.txt$", "")).toString();
+		ArrayList<ScalingPhase> totalList = new ArrayList<>(); // 단계별 합계
+		int runs = 0;
+		
+		for(String name : PHASES) {
+			totalList.add(new ScalingPhase(0, name, 0, 0, -1, 0, 0));
+		}
+		
+		do {
+			run(instTable, input, prefix, totalList);
+			runs++;
+		} while(runs < MIN_RUNS || (runs < MAX_RUNS && shortest(totalList) < minMillis * 1000000));
+		
+		for(ScalingPhase total : totalList) {
+			System.out.println(PHASE + " " + total.phase + " " + total.nanos / runs + " " + total.peakHeap + " " + total.peakKilobytes + " "
+					+ total.output + " " + runs);
+		}
+		
+		System.out.flush();
+	}
+	
+	/**
+	 * 모든 단계를 한 번 수행하고 단계별 합계에 더한다.
+	 * @param instTable
+	 * @param input : 소스 파일
+	 * @param prefix : 결과 파일 이름 (확장자 제외)
+	 * @param totalList : PHASES 순서의 단계별 합계
+	 */
+	private static void run(InstTable instTable, Path input, String prefix, ArrayList<ScalingPhase> totalList) {
+		long[] output = new long[1];
+		SourceBuffer[] source = new SourceBuffer[1];
+		Assembler[] assembler = new Assembler[1];
+		
+		phase(totalList.get(0), () -> {
+			source[0] = SourceBuffer.load(input.toString());
+			return source[0].data.length;
+		});
+		
+		phase(totalList.get(1), () -> {
+			assembler[0] = newAssembler(instTable, source[0]);
+			
+			long tokens = 0;
+			
+			for(TokenTable tokenTable : assembler[0].TokenList) {
+				tokens = tokens + tokenTable.tokenList.size();
+			}
+			
+			return tokens;
+		});
+		
+		phase(totalList.get(2), () -> {
+			long symbols = 0;
+			
+			for(TokenTable tokenTable : assembler[0].TokenList) {
+				tokenTable.setLocation();
+				symbols = symbols + tokenTable.symTab.size() + tokenTable.literalTab.size();
+			}
+			
+			return symbols;
+		});
+		
+		phase(totalList.get(3), () -> {
+			long bytes = 0;
+			
+			for(TokenTable tokenTable : assembler[0].TokenList) {
+				tokenTable.extTab.validation(tokenTable.symTab);
+				tokenTable.makeObjectCode();
+				bytes = bytes + tokenTable.codeBytes;
+			}
+			
+			return bytes;
+		});
+		
+		phase(totalList.get(4), () -> {
+			long length = 0;
+			
+			for(TokenTable tokenTable : assembler[0].TokenList) {
+				String objectProgram = tokenTable.makeObjectProgram();
+				
+				assembler[0].codeList.add(objectProgram);
+				length = length + objectProgram.length();
+			}
+			
+			return length;
+		});
+		
+		phase(totalList.get(5), () -> {
+			assembler[0].printOutputs(prefix + ".symtab", prefix + ".littab", prefix + ".obj");
+			
+			for(String extension : new String[] { ".symtab", ".littab", ".obj" }) {
+				Path file = Paths.get(prefix + extension);
+				
+				output[0] = output[0] + file.toFile().length();
+				file.toFile().delete();
+			}
+			
+			return output[0];
+		});
+	}
+	
+	/**
+	 * 섹션을 나누고 모든 라인의 토큰을 분리한 Assembler를 만든다.
+	 * @param instTable
+	 * @param source
+	 * @return
+	 */
+	private static Assembler newAssembler(InstTable instTable, SourceBuffer source) {
+		Assembler assembler = new Assembler(instTable);
+		int[] sectionBegin = source.findSections();
+		
+		assembler.setVerbose(false);
+		assembler.source = source;
+		
+		for(int i = 0; i < sectionBegin.length; i++) {
+			assembler.addSection();
+		}
+		
+		for(int i = 0; i < sectionBegin.length; i++) {
+			assembler.tokenize(assembler.TokenList.get(i), sectionBegin[i], i + 1 < sectionBegin.length ? sectionBegin[i + 1] : source.size());
+		}
+		
+		return assembler;
+	}
+	
+	/**
+	 * 가장 짧은 단계의 합계 시간
+	 * @param totalList
+	 * @return ns
+	 */
+	private static long shortest(ArrayList<ScalingPhase> totalList) {
+		long nanos = Long.MAX_VALUE;
+		
+		for(ScalingPhase total : totalList) {
+			nanos = Math.min(nanos, total.nanos);
+		}
+		
+		return nanos;
+	}
+	
+	/**
+	 * 단계 하나를 수행하고 시간, 최대 힙, 최대 RSS, 출력 크기를 단계의 합계에 더한다.
+	 * @param total : 단계의 합계 (시간은 더하고 메모리는 최대값)
+	 * @param operation : 출력 크기를 반환하는 단계
+	 */
+	private static void phase(ScalingPhase total, LongSupplier operation) {
+		List<MemoryPoolMXBean> poolList = ManagementFactory.getMemoryPoolMXBeans();
+		long heap = 0;
+		
+		for(MemoryPoolMXBean pool : poolList) {
+			pool.resetPeakUsage();
+		}
+		
+		resetPeakRss();
+		
+		long begin = System.nanoTime();
+		long output = operation.getAsLong();
+		long nanos = System.nanoTime() - begin;
+		
+		for(MemoryPoolMXBean pool : poolList) {
+			if(pool.getType() == MemoryType.HEAP) {
+				heap = heap + pool.getPeakUsage().getUsed();
+			}
+		}
+		
+		total.nanos = total.nanos + nanos;
+		total.peakHeap = Math.max(total.peakHeap, heap);
+		total.peakKilobytes = Math.max(total.peakKilobytes, peakRss());
+		total.output = output;
+	}
+	
+	/**
+	 * 프로세스의 최대 RSS(VmHWM)를 현재 RSS로 초기화한다. (Linux 4.0 이상)
+	 */
+	private static void resetPeakRss() {
+		try {
+			Files.write(Paths.get("/proc/self/clear_refs"), "5".getBytes(StandardCharsets.US_ASCII));
+		} catch(IOException | UnsupportedOperationException e) {
+			// 초기화할 수 없으면 프로세스 시작 이후의 최대값이 된다.
+		}
+	}
+	
+	/**
+	 * 프로세스의 최대 RSS를 조회한다.
+	 * @return kB. 조회할 수 없으면 -1
+	 */
+	private static long peakRss() {
+		try {
+			for(String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII)) {
+				if(line.startsWith("VmHWM:")) { // "VmHWM:    123456 kB"
+					return Long.parseLong(line.substring(6).replace("kB", "").trim());
+				}
+			}
+		} catch(IOException | NumberFormatException e) {
+			// Linux가 아닌 경우
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 결과를 JSON 배열로 저장한다.
+	 * @param file
+	 * @param resultList
+	 */
+	static void writeJson(Path file, ArrayList<ScalingPhase> resultList) {
+		StringBuilder json = new StringBuilder("[\n");
+		
+		for(int i = 0; i < resultList.size(); i++) {
+			json.append(i == 0 ? "" : ",\n").append("    ").append(resultList.get(i).toJson());
+		}
+		
+		json.append("\n]\n");
+		
+		try {
+			Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+		} catch(IOException e) {
+			throw new InitException("An error occurred while writing the " + file + ".");
+		}
+	}
+}
+
+/**
+ * 크기 하나, 단계 하나의 측정 결과
+ */
+class ScalingPhase {
+	static final String HEADER = String.format("%-10s %-18s %12s %10s %14s %14s %10s %6s", "lines", "phase", "time(ms)", "ns/line", "peak heap(MB)", "peak RSS(MB)", "output", "runs");
+	
+	int lines;
+	String phase;
+	long nanos;
+	long peakHeap; // byte
+	long peakKilobytes; // RSS. -1 : 측정하지 않음
+	long output;
+	int runs; // 평균을 낸 반복 횟수
+	
+	ScalingPhase(int lines, String phase, long nanos, long peakHeap, long peakKilobytes, long output, int runs) {
+		this.lines = lines;
+		this.phase = phase;
+		this.nanos = nanos;
+		this.peakHeap = peakHeap;
+		this.peakKilobytes = peakKilobytes;
+		this.output = output;
+		this.runs = runs;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%-10d %-18s %12.3f %10.1f %14.1f %14s %10d %6d", lines, phase, nanos / 1e6, (double) nanos / lines,
+				peakHeap / 1048576.0, peakKilobytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", peakKilobytes / 1024.0), output, runs);
+	}
+	
+	String toJson() {
+		return String.format(Locale.ROOT, "{ \"lines\" : %d, \"phase\" : \"%s\", \"nanos\" : %d, \"peakHeapBytes\" : %d, \"peakRssKb\" : %d, \"output\" : %d, \"runs\" : %d }",
+				lines, phase, nanos, peakHeap, peakKilobytes, output, runs);
+	}
+}
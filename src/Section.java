@@ -1,20 +1,20 @@
 
 /**
- * Ʈ α׷ ϱ    ϴ ü
+ * 오브젝트 프로그램을 출력하기 위해 섹션의 정보를 저장하는 객체
  * 
  * @author Cary
  *
  */
 public class Section {
-	// α׷ ̸
+	// 프로그램의 이름
 	public String programName;
 	
-	// α׷  ּ
+	// 프로그램의 시작 주소
 	public int startAddress;
 	
-	// α׷ ü ũ
+	// 프로그램의 전체 크기
 	public int programLength;
 	
-	//  
+	// 메인 여부
 	public boolean isMain;
 }
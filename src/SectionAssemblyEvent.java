@@ -0,0 +1,66 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 섹션 하나의 pass1 또는 pass2 처리를 기록하는 JFR 이벤트.
+ * 예) java -XX:StartFlightRecording=filename=assembler.jfr ... 후 jfr print --events sicxe.SectionAssembly assembler.jfr
+ */
+@Name("sicxe.SectionAssembly")
+@Label("Section Assembly")
+@Category({ "SIC/XE", "Assembler" })
+@Description("Pass 1 or pass 2 of one control section")
+@StackTrace(false)
+class SectionAssemblyEvent extends Event {
+	@Label("Section")
+	String section;
+	
+	@Label("Section Number")
+	int sectionNumber;
+	
+	@Label("Pass")
+	int pass;
+	
+	@Label("Tokens")
+	int tokens;
+	
+	@Label("Allocated")
+	@DataAmount
+	long allocated;
+	
+	@Label("Cached")
+	boolean cached;
+	
+	static SectionAssemblyEvent start() {
+		SectionAssemblyEvent event = new SectionAssemblyEvent();
+		
+		event.begin();
+		
+		return event;
+	}
+	
+	/**
+	 * 이벤트를 끝내고 기록한다. (이 이벤트가 꺼져 있으면 기록하지 않는다)
+	 * @param timer
+	 * @param tokenTable
+	 * @param bytes : 할당량
+	 * @param cached
+	 */
+	void finish(SectionTimer timer, TokenTable tokenTable, long bytes, boolean cached) {
+		this.end();
+		
+		if(this.shouldCommit()) {
+			this.section = tokenTable.section.programName;
+			this.sectionNumber = timer.sectionNumber;
+			this.pass = timer.pass;
+			this.tokens = tokenTable.tokenList.size();
+			this.allocated = bytes;
+			this.cached = cached;
+			this.commit();
+		}
+	}
+}
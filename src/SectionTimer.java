@@ -0,0 +1,18 @@
+/**
+ * 섹션 하나의 pass1 또는 pass2 처리 측정
+ */
+class SectionTimer {
+	final int sectionNumber;
+	final int pass; // 1 또는 2
+	final long allocated; // 시작 시점의 스레드 할당량
+	final long startNanos;
+	final SectionAssemblyEvent event; // JFR이 꺼져 있으면 null
+	
+	SectionTimer(int sectionNumber, int pass, long allocated, SectionAssemblyEvent event) {
+		this.sectionNumber = sectionNumber;
+		this.pass = pass;
+		this.allocated = allocated;
+		this.event = event;
+		this.startNanos = System.nanoTime();
+	}
+}
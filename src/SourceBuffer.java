@@ -0,0 +1,343 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import exception.InitException;
+
+/**
+ * input 파일의 내용을 byte 배열로 한 번에 읽어들이고, 각 라인의 위치(offset)만 기록하는 클래스.
+ * 라인 문자열은 만들지 않으며, Token은 이 배열의 구간(slice)을 직접 분석한다.
+ *
+ * 빈 라인과 주석 라인('.'으로 시작)은 스캔 단계에서 제외한다.
+ */
+public class SourceBuffer {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int READ_CHUNK = 64 * 1024; // 나누어 읽을 때 한 번에 읽는 크기
+	static final byte[] CSECT = { 'C', 'S', 'E', 'C', 'T' };
+	static final byte[] START = { 'S', 'T', 'A', 'R', 'T' };
+	
+	byte[] data; // 파일 내용 (ASCII)
+	int[] lineBegin; // 라인별 시작 위치
+	int[] lineEnd; // 라인별 끝 위치 (개행 문자 제외)
+	int lineCount; // 기록된 라인 수
+	
+	/**
+	 * 생성자 선언. 생성과 동시에 라인 위치를 스캔한다.
+	 * @param data : 소스 내용
+	 */
+	public SourceBuffer(byte[] data) {
+		this.data = data;
+		this.lineBegin = new int[INITIAL_CAPACITY];
+		this.lineEnd = new int[INITIAL_CAPACITY];
+		this.scan(0, data.length, true);
+	}
+	
+	/**
+	 * 이미 기록된 내용과 라인 위치를 공유하는 SourceBuffer를 생성한다. (나누어 읽는 중의 view)
+	 */
+	private SourceBuffer(byte[] data, int[] lineBegin, int[] lineEnd, int lineCount) {
+		this.data = data;
+		this.lineBegin = lineBegin;
+		this.lineEnd = lineEnd;
+		this.lineCount = lineCount;
+	}
+	
+	/**
+	 * 파일을 읽어들여 SourceBuffer를 생성한다.
+	 * @param fileName : input 파일 이름
+	 * @return
+	 */
+	public static SourceBuffer load(String fileName) {
+		try {
+			return new SourceBuffer(Files.readAllBytes(Paths.get(fileName)));
+		} catch(NoSuchFileException e) {
+			throw new InitException(fileName + " not found.");
+		} catch(IOException e) {
+			throw new InitException("An error occurred while reading the " + fileName + ".");
+		}
+	}
+	
+	/**
+	 * 파일을 나누어 읽으며 라인 위치를 기록하고, 섹션이 닫힐 때마다 (다음 CSECT 라인 또는 파일 끝) listener에 전달한다.
+	 * 파일 전체를 읽기 전에 앞 섹션의 처리를 시작할 수 있다. (AssemblyPipeline)
+	 * 
+	 * 전달하는 SourceBuffer는 그 시점까지 기록된 내용의 view이다. 이후에 읽는 내용은 view의 라인 밖에만 기록되고,
+	 * 배열을 늘려야 하면 새 배열에 복사하므로 view의 라인은 바뀌지 않는다.
+	 * @param fileName : input 파일 이름
+	 * @param listener : 섹션을 받을 곳
+	 * @return 파일 전체의 SourceBuffer
+	 * @throws InterruptedException : listener가 기다리는 중에 중단된 경우
+	 */
+	static SourceBuffer load(String fileName, SectionListener listener) throws InterruptedException {
+		Path path = Paths.get(fileName);
+		
+		try(InputStream input = Files.newInputStream(path)) {
+			SourceBuffer buffer = new SourceBuffer(new byte[(int) Math.min(Files.size(path), Integer.MAX_VALUE - 8)],
+					new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], 0);
+			int size = 0; // 읽은 byte 수
+			int position = 0; // 라인 스캔이 끝난 위치
+			int sectionBegin = 0; // 진행 중인 섹션의 시작 라인 번호
+			boolean eof = false;
+			
+			while(!eof) {
+				int read;
+				
+				if(size < buffer.data.length) {
+					read = input.read(buffer.data, size, Math.min(READ_CHUNK, buffer.data.length - size));
+				} else { // 파일 크기만큼 읽은 경우 끝인지 확인 (읽는 중에 파일이 늘어난 경우 배열을 늘린다)
+					int next = input.read();
+					
+					if(next >= 0) {
+						buffer.data = Arrays.copyOf(buffer.data, Math.max(size * 2, INITIAL_CAPACITY));
+						buffer.data[size] = (byte) next;
+					}
+					
+					read = next < 0 ? -1 : 1;
+				}
+				
+				eof = read < 0;
+				size = eof ? size : size + read;
+				
+				int scanned = buffer.lineCount;
+				
+				position = buffer.scan(position, size, eof);
+				
+				for(int line = Math.max(scanned, 1); line < buffer.lineCount; line++) { // 새로 기록된 라인 중 CSECT
+					if(buffer.isOperator(line, CSECT)) {
+						listener.section(buffer.view(), sectionBegin, line);
+						sectionBegin = line;
+					}
+				}
+			}
+			
+			if(size < buffer.data.length) { // 읽는 중에 파일이 줄어든 경우
+				buffer.data = Arrays.copyOf(buffer.data, size);
+			}
+			
+			if(buffer.lineCount > 0) { // 마지막 섹션 (빈 파일은 섹션이 없다)
+				listener.section(buffer.view(), sectionBegin, buffer.lineCount);
+			}
+			
+			return buffer;
+		} catch(NoSuchFileException e) {
+			throw new InitException(fileName + " not found.");
+		} catch(IOException e) {
+			throw new InitException("An error occurred while reading the " + fileName + ".");
+		}
+	}
+	
+	/**
+	 * 기록된 라인의 수를 반환한다.
+	 * @return
+	 */
+	public int size() {
+		return lineCount;
+	}
+	
+	/**
+	 * index번째 라인의 시작 위치를 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getBegin(int index) {
+		return lineBegin[index];
+	}
+	
+	/**
+	 * index번째 라인의 끝 위치를 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getEnd(int index) {
+		return lineEnd[index];
+	}
+	
+	/**
+	 * 명령어가 CSECT인 라인을 찾아 섹션별 시작 라인 번호를 반환한다. 첫 섹션은 항상 0번 라인에서 시작한다.
+	 * 토큰을 만들지 않고 명령어 필드만 확인하므로, pass1 전에 섹션을 나누는 용도로 사용한다.
+	 * @return 섹션별 시작 라인 번호
+	 */
+	public int[] findSections() {
+		int[] sectionBegin = new int[8];
+		int count = 0;
+		
+		for(int line = 0; line < lineCount; line++) {
+			if(line == 0 || this.isOperator(line, CSECT)) {
+				if(count == sectionBegin.length) {
+					sectionBegin = Arrays.copyOf(sectionBegin, count * 2);
+				}
+				
+				sectionBegin[count++] = line;
+			}
+		}
+		
+		return Arrays.copyOf(sectionBegin, count);
+	}
+	
+	/**
+	 * 명령어가 operator인 라인 번호들을 반환한다. 토큰을 만들지 않고 명령어 필드만 확인한다.
+	 * @param operator
+	 * @return 라인 번호 목록
+	 */
+	public int[] findLines(String operator) {
+		byte[] name = operator.getBytes(StandardCharsets.ISO_8859_1);
+		int[] lineList = new int[8];
+		int count = 0;
+		
+		for(int line = 0; line < lineCount; line++) {
+			if(this.isOperator(line, name)) {
+				if(count == lineList.length) {
+					lineList = Arrays.copyOf(lineList, count * 2);
+				}
+				
+				lineList[count++] = line;
+			}
+		}
+		
+		return Arrays.copyOf(lineList, count);
+	}
+	
+	/**
+	 * index번째 라인의 명령어 필드가 operator와 같은지 확인한다. (필드 구분 규칙은 Token.parsing과 같다)
+	 * @param index
+	 * @param operator
+	 * @return
+	 */
+	private boolean isOperator(int index, byte[] operator) {
+		return isOperator(data, lineBegin[index], lineEnd[index], operator);
+	}
+	
+	/**
+	 * 라인 구간의 명령어 필드가 operator와 같은지 확인한다. (필드 구분 규칙은 Token.parsing과 같다)
+	 * @param data : 라인이 포함된 내용
+	 * @param begin : 라인 시작 위치
+	 * @param end : 라인 끝 위치
+	 * @param operator
+	 * @return
+	 */
+	static boolean isOperator(byte[] data, int begin, int end, byte[] operator) {
+		int position = begin;
+		
+		while(position < end && !Token.isBlank(data[position])) { // label 건너뛰기
+			position++;
+		}
+		
+		int blankBegin = position;
+		int tabCount = 0;
+		
+		while(position < end && Token.isBlank(data[position])) {
+			if(data[position] == '\t') {
+				tabCount++;
+			}
+			position++;
+		}
+		
+		if(position == blankBegin || tabCount > 1) { // 명령어 필드가 아닌 경우
+			return false;
+		}
+		
+		if(end - position < operator.length 
+				|| (end - position > operator.length && !Token.isBlank(data[position + operator.length]))) {
+			return false;
+		}
+		
+		for(int i = 0; i < operator.length; i++) {
+			if(data[position + i] != operator[i]) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 라인 구간이 빈 라인이나 주석('.'으로 시작)이 아닌 문장인지 확인한다.
+	 * @param data : 라인이 포함된 내용
+	 * @param begin : 라인 시작 위치
+	 * @param end : 라인 끝 위치
+	 * @return
+	 */
+	static boolean isStatement(byte[] data, int begin, int end) {
+		// 양 옆 공백을 제외한 첫 글자 탐색
+		int first = begin;
+		
+		while(first < end && (data[first] & 0xFF) <= ' ') {
+			first++;
+		}
+		
+		return first < end && data[first] != '.';
+	}
+	
+	/**
+	 * 현재까지 기록된 내용과 라인의 view를 생성한다.
+	 * @return
+	 */
+	private SourceBuffer view() {
+		return new SourceBuffer(data, lineBegin, lineEnd, lineCount);
+	}
+	
+	/**
+	 * 내용을 한 번만 스캔하며 라인 위치를 기록한다. (\n, \r\n, \r 모두 개행으로 처리)
+	 * 나누어 읽는 경우 개행으로 끝나지 않은 마지막 라인은 다음 호출에서 다시 스캔한다.
+	 * @param position : 스캔을 시작할 위치 (라인의 시작)
+	 * @param limit : 읽어들인 내용의 끝
+	 * @param eof : 내용의 끝이 파일의 끝인지 여부
+	 * @return 스캔이 끝난 위치 (다음 라인의 시작)
+	 */
+	private int scan(int position, int limit, boolean eof) {
+		while(position < limit) {
+			int begin = position;
+			
+			while(position < limit && data[position] != '\n' && data[position] != '\r') { // 라인 끝 탐색
+				position++;
+			}
+			
+			int end = position;
+			
+			if(!eof && (position >= limit - 1)) { // 개행 문자를 찾지 못했거나 \r 뒤의 \n을 아직 읽지 않은 경우
+				if(position >= limit || data[position] == '\r') {
+					return begin;
+				}
+			}
+			
+			if(position < limit && data[position] == '\r') {
+				position++;
+			}
+			if(position < limit && data[position] == '\n') {
+				position++;
+			}
+			
+			if(!isStatement(data, begin, end)) { // 빈 라인과 주석은 추가하지 않음
+				continue;
+			}
+			
+			if(lineCount == lineBegin.length) {
+				lineBegin = Arrays.copyOf(lineBegin, lineCount * 2);
+				lineEnd = Arrays.copyOf(lineEnd, lineCount * 2);
+			}
+			
+			lineBegin[lineCount] = begin;
+			lineEnd[lineCount++] = end;
+		}
+		
+		return position;
+	}
+	
+	/**
+	 * 나누어 읽는 중에 닫힌 섹션을 받는 곳
+	 */
+	interface SectionListener {
+		/**
+		 * @param source : 섹션의 라인까지 기록된 view
+		 * @param begin : 섹션 시작 라인 번호
+		 * @param end : 섹션 끝 라인 번호 (포함하지 않음)
+		 * @throws InterruptedException
+		 */
+		void section(SourceBuffer source, int begin, int end) throws InterruptedException;
+	}
+}
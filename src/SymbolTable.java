@@ -1,80 +1,275 @@
-import java.util.ArrayList;
+import java.util.Arrays;
 
 import exception.SymbolDuplicationException;
 import exception.SymbolNotFoundException;
 
 /**
- * symbol õ Ϳ  Ѵ.
- * section  ϳ νϽ ҴѴ.
+ * symbol과 관련된 데이터와 연산을 소유한다.
+ * section 별로 하나씩 인스턴스를 할당한다.
+ *
+ * 심볼은 등록 순서대로 배열에 저장하고(출력 순서 유지),
+ * 이름 검색은 open addressing 방식의 해시 인덱스로 처리한다.
  */
 public class SymbolTable {
-	ArrayList<String> symbolList;
-	ArrayList<Integer> locationList;
-	// Ÿ literal, external   ó Ѵ.
-	
+	/** 심볼이 존재하지 않을 때 getLocation이 반환하는 값 */
+	public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	String[] symbolList; // 등록 순서대로 저장된 심볼 (intern 된 문자열)
+	int[] locationList; // 심볼별 주소값
+	int size; // 등록된 심볼 수
+
+	private int[] hashList; // 심볼별 해시값
+	private int[] indexSlot; // 해시 인덱스. 심볼의 index + 1을 저장하며 0은 빈 슬롯이다.
+
+	/* 계측 (AssemblyStats) */
+	long lookupCount; // search 호출 수
+	long hitCount; // 찾은 심볼 수
+	long hitDepth; // 찾은 심볼마다 비교한 슬롯 수의 합
+	// 기타 literal, external 선언 및 처리방법을 구현한다.
+
 	/**
-	 *  
+	 * 생성자 선언
 	 */
 	public SymbolTable() {
-		this.symbolList = new ArrayList<>();
-		this.locationList = new ArrayList<>();
+		this.symbolList = new String[INITIAL_CAPACITY];
+		this.locationList = new int[INITIAL_CAPACITY];
+		this.hashList = new int[INITIAL_CAPACITY];
+		this.indexSlot = new int[INITIAL_CAPACITY * 2];
+		this.size = 0;
 	}
-	
+
 	/**
-	 * ο Symbol table ߰Ѵ.
-	 * @param symbol :  ߰Ǵ symbol label
-	 * @param location : ش symbol  ּҰ
-	 *  :  ߺ symbol putSymbol ؼ Էµȴٸ ̴ α׷ ڵ忡   Ÿ. 
-	 * ĪǴ ּҰ  modifySymbol() ؼ ̷ Ѵ.
+	 * 새로운 Symbol을 table에 추가한다.
+	 * @param symbol : 새로 추가되는 symbol의 label
+	 * @param location : 해당 symbol이 가지는 주소값
+	 * 주의 : 만약 중복된 symbol이 putSymbol을 통해서 입력된다면 이는 프로그램 코드에 문제가 있음을 나타낸다.
+	 * 매칭되는 주소값의 변경은 modifySymbol()을 통해서 이루어져야 한다.
 	 */
 	public void putSymbol(String symbol, int location) {
-		symbol = symbol.trim();
-		int symbolIndex = this.search(symbol); // ɺ ˻
-		
-		// ɺ   
-		if(symbolIndex > -1) {
-			throw new SymbolDuplicationException(); // ɺ ߺ exception ߻
+		symbol = symbol.trim().intern();
+		int hash = hash(symbol);
+		int slot = this.findSlot(symbol, hash); // 심볼 검색
+
+		// 심볼이 존재 할 경우
+		if(indexSlot[slot] != 0) {
+			throw new SymbolDuplicationException(symbol); // 심볼 중복 exception 발생
+		}
+
+		// 심볼테이블 추가
+		if(size == symbolList.length) {
+			this.grow();
+			slot = this.findSlot(symbol, hash); // 인덱스가 재구성되었으므로 슬롯을 다시 찾는다.
 		}
-		
-		// ɺ̺ ߰
-		this.symbolList.add(symbol);
-		this.locationList.add(location);
+
+		this.symbolList[size] = symbol;
+		this.locationList[size] = location;
+		this.hashList[size] = hash;
+		this.indexSlot[slot] = ++size;
 	}
-	
+
 	/**
-	 *  ϴ symbol  ؼ Ű ּҰ Ѵ.
-	 * @param symbol :  ϴ symbol label
-	 * @param newLocation :  ٲٰ ϴ ּҰ
+	 * 기존에 존재하는 symbol 값에 대해서 가리키는 주소값을 변경한다.
+	 * @param symbol : 변경을 원하는 symbol의 label
+	 * @param newLocation : 새로 바꾸고자 하는 주소값
 	 */
 	public void modifySymbol(String symbol, int newLocation) {
 		symbol = symbol.trim();
-		int symbolIndex = this.search(symbol); // ɺ ˻
-		
-		// ɺ   
+		int symbolIndex = this.search(symbol); // 심볼 검색
+
+		// 심볼이 존재하지 않을 경우
 		if(symbolIndex == -1) {
-			throw new SymbolNotFoundException(); // ɺ  exception ߻
+			throw new SymbolNotFoundException(); // 심볼 없음 exception 발생
 		}
 
-		// ɺ̺ Ʈ
-		this.locationList.set(symbolIndex, newLocation);
+		// 심볼테이블 업데이트
+		this.locationList[symbolIndex] = newLocation;
 	}
-	
+
 	/**
-	 * ڷ ޵ symbol  ּҸ Īϴ ˷ش. 
-	 * @param symbol : ˻ ϴ symbol label
-	 * @return symbol  ִ ּҰ. ش symbol   -1 
+	 * 인자로 전달된 symbol이 몇 번째로 등록되었는지 알려준다.
+	 * @param symbol : 검색을 원하는 symbol의 label
+	 * @return symbol의 등록 순서(index). 해당 symbol이 없을 경우 -1 리턴
 	 */
 	public int search(String symbol) {
-		int address = 0;
-		
-		for(String sym : symbolList) { // ɺ ݺϿ
-			if(sym.equals(symbol)) {
-				return address; // ش ɺ ã ɺ  
+		if(symbol == null) {
+			return -1;
+		}
+
+		int hash = hash(symbol);
+		int slot = this.findSlot(symbol, hash);
+
+		lookupCount++;
+
+		if(indexSlot[slot] == 0) {
+			return -1;
+		}
+
+		hitCount++;
+		hitDepth = hitDepth + ((slot - hash) & (indexSlot.length - 1)) + 1; // 해시 위치부터 찾은 슬롯까지
+
+		return indexSlot[slot] - 1;
+	}
+
+	/**
+	 * 인자로 전달된 symbol이 어떤 주소를 지칭하는지 알려준다.
+	 * @param symbol : 검색을 원하는 symbol의 label
+	 * @return symbol이 가지고 있는 주소값. 해당 symbol이 없을 경우 NOT_FOUND 리턴
+	 */
+	public int getLocation(String symbol) {
+		int symbolIndex = this.search(symbol);
+
+		return symbolIndex == -1 ? NOT_FOUND : locationList[symbolIndex];
+	}
+
+	/**
+	 * 등록된 심볼의 수를 반환한다.
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * index번째로 등록된 심볼을 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public String getSymbol(int index) {
+		return symbolList[index];
+	}
+
+	/**
+	 * index번째로 등록된 심볼의 주소값을 반환한다.
+	 * @param index
+	 * @return
+	 */
+	public int getLocation(int index) {
+		return locationList[index];
+	}
+
+	/**
+	 * count번째 이후에 등록된 심볼을 삭제한다. (증분 어셈블)
+	 * 나중에 등록된 심볼부터 삭제하므로, 삭제되는 심볼의 슬롯을 거쳐 등록된 심볼은 남아있지 않다.
+	 * @param count : 남길 심볼 수
+	 */
+	public void truncate(int count) {
+		while(size > count) {
+			size--;
+			this.removeSlot(this.findSlot(symbolList[size], hashList[size]));
+			symbolList[size] = null;
+		}
+	}
+
+	/**
+	 * index번째로 등록된 심볼의 주소값을 변경한다. (증분 어셈블)
+	 * @param index
+	 * @param location
+	 */
+	public void setLocation(int index, int location) {
+		this.locationList[index] = location;
+	}
+
+	/**
+	 * index번째로 등록된 심볼의 이름을 변경한다. 등록 순서와 주소값은 그대로 유지한다. (증분 어셈블)
+	 * @param index
+	 * @param symbol : 새 이름
+	 */
+	public void rename(int index, String symbol) {
+		symbol = symbol.trim().intern();
+		int hash = hash(symbol);
+
+		if(indexSlot[this.findSlot(symbol, hash)] != 0) {
+			throw new SymbolDuplicationException();
+		}
+
+		this.removeSlot(this.findSlot(symbolList[index], hashList[index]));
+
+		this.symbolList[index] = symbol;
+		this.hashList[index] = hash;
+		this.indexSlot[this.findSlot(symbol, hash)] = index + 1;
+	}
+
+	/**
+	 * 심볼이 저장되어 있거나 저장될 해시 슬롯을 찾는다. (linear probing)
+	 * @param symbol
+	 * @param hash
+	 * @return
+	 */
+	private int findSlot(String symbol, int hash) {
+		int mask = indexSlot.length - 1;
+		int slot = hash & mask;
+
+		while(indexSlot[slot] != 0) { // 빈 슬롯을 만날 때 까지 탐색
+			int symbolIndex = indexSlot[slot] - 1;
+
+			if(hashList[symbolIndex] == hash
+					&& (symbolList[symbolIndex] == symbol || symbolList[symbolIndex].equals(symbol))) {
+				return slot; // 해당 심볼의 슬롯
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * 해시 슬롯을 비우고, 뒤따르는 슬롯의 심볼을 당겨 탐색 경로가 끊어지지 않게 한다. (backward shift)
+	 * @param slot
+	 */
+	private void removeSlot(int slot) {
+		int mask = indexSlot.length - 1;
+		int next = (slot + 1) & mask;
+
+		indexSlot[slot] = 0;
+
+		while(indexSlot[next] != 0) {
+			int home = hashList[indexSlot[next] - 1] & mask;
+
+			if(((next - home) & mask) >= ((next - slot) & mask)) { // 비운 슬롯으로 옮겨도 탐색 가능한 경우
+				indexSlot[slot] = indexSlot[next];
+				indexSlot[next] = 0;
+				slot = next;
+			}
+
+			next = (next + 1) & mask;
+		}
+	}
+
+	/**
+	 * 저장 공간을 두 배로 늘리고 해시 인덱스를 재구성한다.
+	 */
+	private void grow() {
+		int capacity = symbolList.length * 2;
+
+		this.symbolList = Arrays.copyOf(symbolList, capacity);
+		this.locationList = Arrays.copyOf(locationList, capacity);
+		this.hashList = Arrays.copyOf(hashList, capacity);
+		this.indexSlot = new int[capacity * 2]; // 적재율은 항상 0.5 이하로 유지
+
+		int mask = indexSlot.length - 1;
+
+		for(int i = 0; i < size; i++) {
+			int slot = hashList[i] & mask;
+
+			while(indexSlot[slot] != 0) {
+				slot = (slot + 1) & mask;
 			}
-			
-			address++;
+
+			indexSlot[slot] = i + 1;
 		}
-		
-		return -1;
+	}
+
+	/**
+	 * 해시 인덱스에 사용할 해시값을 계산한다.
+	 * @param symbol
+	 * @return
+	 */
+	private static int hash(String symbol) {
+		int h = symbol.hashCode();
+
+		return h ^ (h >>> 16); // 하위 비트만 사용하므로 상위 비트를 섞어준다.
 	}
 }
@@ -0,0 +1,315 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import exception.SyntexException;
+
+/**
+ * 각 라인별로 저장된 코드를 단어 단위로 분할한 후  의미를 해석하는 데에 사용되는 변수와 연산을 정의한다. 
+ * 의미 해석이 끝나면 pass2에서 object code로 변형되었을 때의 바이트 코드 역시 저장한다.
+ */
+class Token{
+	//의미 분석 단계에서 사용되는 변수들
+	int location;
+	String label;
+	String operator;
+	String[] operand;
+	String comment; // getComment 호출 시 생성
+	char nixbpe;
+	Instruction instruction; // operator에 해당하는 명령어 정보 (validation 에서 설정)
+	OperandInfo operandInfo; // operand를 미리 분석한 정보 (putToken 에서 설정)
+	
+	// 소스 구간 (문자열을 만들지 않는 필드)
+	byte[] source; // 프로그램 코드 전체
+	int operatorOffset;
+	int operatorLength;
+	int commentOffset;
+	int commentLength;
+
+	// object code 생성 단계에서 사용되는 변수들 
+	String objectCode; // HEX 문자열 (TokenTable.getObjectCode 호출 시 생성)
+	int codeOffset; // 코드 버퍼 내 시작 위치
+	int byteSize;
+	int modifyBegin; // 수정 테이블 내 이 토큰의 수정 정보 구간
+	int modifyEnd;
+	
+	// setLocation이 이 토큰을 처리한 직후의 상태 (다음 토큰부터 다시 할당할 때 사용)
+	int nextLocation; // 다음 토큰의 주소
+	int symbolMark; // 심볼 수
+	int literalMark; // 리터럴 수
+	int poolMark; // 배치되지 않은 첫 리터럴 index
+	int ltorgMark; // 배치된 리터럴 pool 수
+	int extdefMark; // 외부 정의 수
+	int extrefMark; // 외부 참조 수
+	
+	int updateMark; // object code를 다시 생성하도록 표시된 증분 어셈블 편집 번호
+	
+	/**
+	 * 클래스를 초기화 하면서 바로 line의 의미 분석을 수행한다. 
+	 * @param line 문장단위로 저장된 프로그램 코드
+	 */
+	public Token(String line) {
+		byte[] source = line.getBytes(StandardCharsets.ISO_8859_1);
+		
+		parsing(source, 0, source.length);
+	}
+	
+	/**
+	 * 클래스를 초기화 하면서 바로 소스의 line 구간에 대한 의미 분석을 수행한다.
+	 * @param source 프로그램 코드 전체 (SourceBuffer)
+	 * @param begin line 시작 위치
+	 * @param end line 끝 위치
+	 */
+	public Token(byte[] source, int begin, int end) {
+		parsing(source, begin, end);
+	}
+	
+	/**
+	 * line의 실질적인 분석을 수행하는 함수. 소스를 한 번만 스캔하며 각 필드의 위치를 기록한다.
+	 * 필드 구분은 탭과 공백을 모두 허용하며, 공백 구간 안의 탭 수 만큼 필드를 건너뛴다. (탭이 없으면 1)
+	 * 단, operand 안의 ',' 앞뒤 공백은 operand에 포함한다. (BUFFER, X)
+	 * 문자열은 테이블에 등록되는 label과 operand만 생성하고, 명령어는 Instruction의 이름을 사용한다.
+	 * @param source 프로그램 코드 전체
+	 * @param begin line 시작 위치
+	 * @param end line 끝 위치
+	 */
+	public void parsing(byte[] source, int begin, int end) {
+		// 파싱 과정에서 사용하는 변수 초기화
+		int position = begin;
+		int field = 0; // 0 : label, 1 : 명령어, 2 : operand, 3 : 코멘트
+		
+		this.source = source;
+		
+		while(position < end) {
+			// 필드 구분 공백 건너뛰기 begin --
+			int blankBegin = position;
+			int tabCount = 0;
+			
+			while(position < end && isBlank(source[position])) {
+				if(source[position] == '\t') {
+					tabCount++;
+				}
+				position++;
+			}
+			
+			if(position > blankBegin) {
+				field = field + Math.max(tabCount, 1);
+			}
+			// 필드 구분 공백 건너뛰기 end --
+			
+			if(position == end) {
+				break;
+			}
+			
+			// 코멘트 설정 (라인의 나머지 전체)
+			if(field >= 3) {
+				int commentEnd = end;
+				
+				while(isBlank(source[commentEnd - 1])) {
+					commentEnd--;
+				}
+				
+				this.commentOffset = position;
+				this.commentLength = commentEnd - position;
+				break;
+			}
+			
+			int fieldBegin = position;
+			
+			while(position < end) {
+				if(isBlank(source[position])) {
+					int next = field == 2 ? skipOperandSpace(source, position, end) : position;
+					
+					if(next == position) { // 필드 끝
+						break;
+					}
+					
+					position = next;
+				} else {
+					position++;
+				}
+			}
+			
+			if(field == 0) { // label 설정
+				this.label = new String(source, fieldBegin, position - fieldBegin, StandardCharsets.ISO_8859_1);
+			} else if(field == 1) { // 명령어 위치 설정 (validation 에서 Instruction의 이름으로 설정)
+				this.operatorOffset = fieldBegin;
+				this.operatorLength = position - fieldBegin;
+			} else { // operand 설정
+				this.operand = splitOperand(source, fieldBegin, position);
+			}
+		}
+		
+		if(this.operatorLength == 0) {
+			throw new SyntexException("Operator is required."); // 명령어가 없으면 오류
+		}
+	}
+	
+	/**
+	 * 코멘트를 반환한다. 코멘트 문자열은 처음 요청될 때 생성한다.
+	 * @return 코멘트. 없을 경우 null
+	 */
+	public String getComment() {
+		if(this.comment == null && this.commentLength > 0) {
+			this.comment = new String(source, commentOffset, commentLength, StandardCharsets.ISO_8859_1);
+		}
+		
+		return this.comment;
+	}
+	
+	/**
+	 * operand 안의 공백이 ','의 앞뒤에 있으면 공백 구간을 건너뛴다. 탭은 항상 필드를 구분한다.
+	 * @param source
+	 * @param position : 공백 위치 (operand의 첫 글자 다음)
+	 * @param end : line 끝 위치
+	 * @return ',' 앞뒤의 공백이면 공백 구간 끝 위치, 아니면 position
+	 */
+	private static int skipOperandSpace(byte[] source, int position, int end) {
+		int next = position;
+		
+		while(next < end && source[next] == ' ') {
+			next++;
+		}
+		
+		if(next > position && (source[position - 1] == ',' || (next < end && source[next] == ','))) {
+			return next;
+		}
+		
+		return position;
+	}
+	
+	/**
+	 * operand 구간을 ','로 분리하고 각 operand 앞뒤의 공백을 제거한다. String.split(",")과 같이 뒤쪽의 빈 operand는 제외한다.
+	 * @param source
+	 * @param begin
+	 * @param end
+	 * @return
+	 */
+	private static String[] splitOperand(byte[] source, int begin, int end) {
+		int count = 1;
+		
+		for(int i = begin; i < end; i++) {
+			if(source[i] == ',') {
+				count++;
+			}
+		}
+		
+		String[] operandData = new String[count];
+		int index = 0;
+		int operandBegin = begin;
+		
+		for(int i = begin; i <= end; i++) {
+			if(i == end || source[i] == ',') {
+				int operandEnd = i;
+				
+				while(operandBegin < operandEnd && source[operandBegin] == ' ') {
+					operandBegin++;
+				}
+				
+				while(operandEnd > operandBegin && source[operandEnd - 1] == ' ') {
+					operandEnd--;
+				}
+				
+				operandData[index++] = new String(source, operandBegin, operandEnd - operandBegin, StandardCharsets.ISO_8859_1);
+				operandBegin = i + 1;
+			}
+		}
+		
+		while(count > 0 && operandData[count - 1].isEmpty()) { // 뒤쪽의 빈 operand 제거
+			count--;
+		}
+		
+		return count == operandData.length ? operandData : Arrays.copyOf(operandData, count);
+	}
+	
+	/**
+	 * 필드 구분 문자(탭, 공백)인지 확인한다.
+	 * @param ch
+	 * @return
+	 */
+	static boolean isBlank(byte ch) {
+		return ch == '\t' || ch == ' ';
+	}
+	
+	/**
+	 * 주소 배치에 같은 영향을 주는 토큰의 주소와 처리 직후 상태를 복사한다. (증분 어셈블)
+	 * @param token
+	 */
+	void copyLocation(Token token) {
+		this.location = token.location;
+		this.nextLocation = token.nextLocation;
+		this.symbolMark = token.symbolMark;
+		this.literalMark = token.literalMark;
+		this.poolMark = token.poolMark;
+		this.ltorgMark = token.ltorgMark;
+		this.extdefMark = token.extdefMark;
+		this.extrefMark = token.extrefMark;
+	}
+	
+	/**
+	 * 실제 명령어가 정상적으로 입력되었는지 검토한다.
+	 * 
+	 * @param instruction
+	 */
+	public void validation(Instruction instruction) {
+		if(instruction == null) {
+			throw new SyntexException("This instruction does not exist."); // 명령어가 존재하지 않을 때
+		}
+		
+		this.operator = instruction.operator; // 명령어 이름은 Instruction의 문자열을 공유한다.
+		
+		if(this.operand != null 
+				&& this.operand.length < instruction.minOperandCount) { // 매개변수 숫자 미달 시
+			throw new SyntexException("The minimum number of parameters is "+instruction.minOperandCount+".");
+		}
+		
+		this.instruction = instruction; // 이후 pass1, pass2 에서는 다시 검색하지 않고 사용한다.
+	}
+	
+	/** 
+	 * n,i,x,b,p,e flag를 설정한다. 
+	 * 
+	 * 사용 예 : setFlag(nFlag, 1); 
+	 *   또는     setFlag(TokenTable.nFlag, 1);
+	 * 
+	 * @param flag : 원하는 비트 위치
+	 * @param value : 집어넣고자 하는 값. 1또는 0으로 선언한다.
+	 */
+	public void setFlag(int flag, int value) {
+		if(this.getFlag(flag) == flag) { // 플래그가 설정 되어 있을 경우
+			if(value == 0) {
+				this.nixbpe -= flag;
+			}
+		} else { // 플래그가 설정 되어 있지 않을 경우
+			if(value == 1) {
+				this.nixbpe += flag;
+			}
+		}
+	}
+	
+	/**
+	 * 원하는 flag들의 값을 얻어올 수 있다. flag의 조합을 통해 동시에 여러개의 플래그를 얻는 것 역시 가능하다 
+	 * 
+	 * 사용 예 : getFlag(nFlag)
+	 *   또는     getFlag(nFlag|iFlag)
+	 * 
+	 * @param flags : 값을 확인하고자 하는 비트 위치
+	 * @return : 비트위치에 들어가 있는 값. 플래그별로 각각 32, 16, 8, 4, 2, 1의 값을 리턴할 것임.
+	 */
+	public int getFlag(int flags) {
+		return nixbpe & flags;
+	}
+	
+	/**
+	 * 개발의 편의성을 위해 임시로 오버라이딩
+	 */
+	@Override
+	public String toString(){
+	    return 	 "{ "
+	    		+ "location : " + this.location + ","
+	    		+ "label : " + this.label + ", "
+	    		+ "operator : " + this.operator + ", "
+	    		+ "operand : " + Arrays.toString(this.operand) + ","
+				+ "nixbpe : " + (int)this.nixbpe
+	    		+ " }";
+	}
+}
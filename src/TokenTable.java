@@ -1,6 +1,6 @@
 import java.util.ArrayList;
-import java.util.Arrays;
 
+import exception.AssemblerException;
 import exception.LiteralNotFoundException;
 import exception.SizeOverflowException;
 import exception.SymbolNotFoundException;
@@ -8,15 +8,15 @@ import exception.SyntexException;
 import util.StringUtil;
 
 /**
- * ڰ ۼ α׷ ڵ带 ܾ   , ǹ̸ мϰ,  ڵ ȯϴ  Ѱϴ Ŭ̴. <br>
- * pass2 object code ȯϴ  ȥ ذ   symbolTable instTable  ʿϹǷ ̸ ũŲ.<br>
- * section  νϽ ϳ Ҵȴ.
+ * 사용자가 작성한 프로그램 코드를 단어별로 분할 한 후, 의미를 분석하고, 최종 코드로 변환하는 과정을 총괄하는 클래스이다. <br>
+ * pass2에서 object code로 변환하는 과정은 혼자 해결할 수 없고 symbolTable과 instTable의 정보가 필요하므로 이를 링크시킨다.<br>
+ * section 마다 인스턴스가 하나씩 할당된다.
  *
  */
 public class TokenTable {
 	public static final int MAX_OPERAND = 3;
 	
-	/* bit     */
+	/* bit 조작의 가독성을 위한 선언 */
 	public static final int nFlag = 32;
 	public static final int iFlag = 16;
 	public static final int xFlag = 8;
@@ -24,7 +24,7 @@ public class TokenTable {
 	public static final int pFlag = 2;
 	public static final int eFlag = 1;
 	
-	/* Token ٷ  ʿ ̺ ũŲ. */
+	/* Token을 다룰 때 필요한 테이블들을 링크시킨다. */
 	SymbolTable symTab;
 	LiteralTable literalTab;
 	InstTable instTab;
@@ -32,43 +32,147 @@ public class TokenTable {
 	Section section;
 	ModifyTable modifyTab;
 	
-	/**  line ǹ̺ ϰ мϴ . */
+	/** pass2에서 만든 object code를 byte 단위로 저장하는 공간. */
+	ObjectCodeEncoder encoder;
+	
+	/** 각 line을 의미별로 분할하고 분석하는 공간. */
 	ArrayList<Token> tokenList;
 	
+	/** setLocation이 처리를 마친 토큰 수. 이 토큰들의 처리 직후 상태(checkpoint)만 유효하다. */
+	int locatedCount;
+	/** 코드 버퍼에서 현재 토큰들이 사용하는 byte 수 (다시 생성한 토큰의 이전 코드는 포함하지 않음) */
+	int codeBytes;
+	/** 마지막 makeObjectProgram이 만든 T 레코드 수 (AssemblyStats) */
+	int textRecordCount;
+	/** 마지막 makeObjectProgram이 만든 M 레코드 수 (병합 출력이면 수정 정보 수보다 적을 수 있다) */
+	int modifyRecordCount;
+	
+	/** 소스 오류를 모으는 공간. null이면 첫 오류에서 예외를 던진다. (Assembler.setDiagnostics) */
+	Diagnostics diagnostics;
+	/** diagnostics에 기록한 이 섹션의 오류 수 */
+	int errorCount;
+	
 	/**
-	 * ʱȭϸ鼭 symTable instTable ũŲ.
-	 * @param symTab : ش section Ǿִ symbol table
-	 * @param instTab : instruction  ǵ instTable
+	 * 초기화하면서 symTable과 instTable을 링크시킨다.
+	 * @param symTab : 해당 section과 연결되어있는 symbol table
+	 * @param instTab : instruction 명세가 정의된 instTable
 	 */
 	public TokenTable(SymbolTable symTab, InstTable instTab, LiteralTable literalTab, 
 			ExtTable extTab, Section section, ModifyTable modifyTab) {
-		tokenList = new ArrayList<>(); // ū Ʈ 
-		
-		this.symTab = symTab; //  ɺ̺ 
-		this.instTab = instTab; //  ̺ 
-		this.literalTab = literalTab; // ͷ ̺ 
-		this.extTab = extTab; // ̺ܺ 
-		this.section = section; //  
-		this.modifyTab = modifyTab; //  ̺ 
+		tokenList = new ArrayList<>(); // 토큰 리스트 생성
+		
+		this.symTab = symTab; // 섹션의 심볼테이블 연결
+		this.instTab = instTab; // 기계어 테이블 연결
+		this.literalTab = literalTab; // 리터럴 테이블 연결
+		this.extTab = extTab; // 외부테이블 연결
+		this.section = section; // 섹션 연결
+		this.modifyTab = modifyTab; // 수정 테이블 연결
+		this.encoder = new ObjectCodeEncoder(); // 섹션의 코드 버퍼 생성
 	}
 	
 	/**
-	 * Ϲ ڿ ޾Ƽ Token и tokenList ߰Ѵ.
-	 * @param line : и  Ϲ ڿ
+	 * 일반 문자열을 받아서 Token단위로 분리시켜 tokenList에 추가한다.
+	 * @param line : 분리되지 않은 일반 문자열
+	 * @return 추가된 토큰
 	 */
-	public void putToken(String line) {
-		// ū 
-		Token token = new Token(line);
+	public Token putToken(String line) {
+		// 토큰 생성 후 추가
+		return this.putToken(new Token(line));
+	}
+	
+	/**
+	 * 소스의 line 구간을 Token단위로 분리시켜 tokenList에 추가한다.
+	 * 진단 모드에서는 오류가 있는 라인을 기록하고 건너뛴다.
+	 * @param source : 프로그램 코드 전체 (SourceBuffer)
+	 * @param begin : line 시작 위치
+	 * @param end : line 끝 위치
+	 * @return 추가된 토큰. 건너뛴 경우 null
+	 */
+	public Token putToken(byte[] source, int begin, int end) {
+		Token token;
 		
-		// ū 
-		token.validation(instTab.findByOperator(token.operator));
+		try {
+			token = new Token(source, begin, end);
+		} catch(AssemblerException e) { // 토큰을 만들 수 없는 라인
+			if(diagnostics == null) {
+				throw e;
+			}
+			
+			errorCount++;
+			diagnostics.add(source, begin, e);
+			return null;
+		}
 		
-		// ū̺ ߰
+		try {
+			// 토큰 추가
+			return this.putToken(token);
+		} catch(AssemblerException e) {
+			this.report(token, e);
+			return null;
+		}
+	}
+	
+	/**
+	 * 분리된 토큰을 검토, 분석한 뒤 tokenList에 추가한다.
+	 * @param token
+	 * @return 추가된 토큰
+	 */
+	private Token putToken(Token token) {
+		this.analyze(token);
+		
+		// 토큰테이블에 추가
 		tokenList.add(token);
+		
+		return token;
+	}
+	
+	/**
+	 * 소스의 line 구간을 Token단위로 분리하고 분석한다. tokenList에는 추가하지 않는다. (증분 어셈블)
+	 * @param source : 라인 내용
+	 * @param begin : line 시작 위치
+	 * @param end : line 끝 위치
+	 * @return 분석된 토큰
+	 */
+	Token createToken(byte[] source, int begin, int end) {
+		Token token = new Token(source, begin, end);
+		
+		this.analyze(token);
+		
+		return token;
+	}
+	
+	/**
+	 * 분리된 토큰을 검토, 분석한다.
+	 * @param token
+	 */
+	private void analyze(Token token) {
+		// 토큰 검토 (명령어는 문자열을 만들지 않고 소스의 byte 구간으로 검색)
+		token.validation(instTab.findByOperator(token.source, token.operatorOffset, token.operatorLength));
+		
+		// 오퍼랜드 분석 (pass1, pass2 에서는 다시 분석하지 않는다)
+		try {
+			token.operandInfo = new OperandInfo(token.operand);
+		} catch(NumberFormatException e) { // int 범위를 벗어난 숫자
+			throw new SyntexException("The number is out of range.");
+		}
+	}
+	
+	/**
+	 * 토큰 처리 중 발생한 오류를 진단 정보에 기록한다. 진단 모드가 아니면 그대로 던진다.
+	 * @param token : 오류가 발생한 토큰
+	 * @param e : 발생한 오류
+	 */
+	private void report(Token token, AssemblerException e) {
+		if(diagnostics == null) {
+			throw e;
+		}
+		
+		errorCount++;
+		diagnostics.add(token, e);
 	}
 	
 	/**
-	 * ū ޾ ū ̺ ߰Ѵ.
+	 * 토큰을 받아 토큰 테이블에 추가한다.
 	 * 
 	 * @param token
 	 */
@@ -78,590 +182,558 @@ public class TokenTable {
 	
 	
 	/**
-	 *  ū Ѵ. (CSECT)
+	 * 마지막 토큰을 삭제한다. (CSECT)
 	 */
 	public void removeLastToken() {
-		if(tokenList.size() > 0) { // ū Ʈ  ϳ  
-			tokenList.remove(tokenList.size() - 1); //  ū 
+		if(tokenList.size() > 0) { // 토큰 리스트의 사이즈가 하나라도 있을 경우
+			tokenList.remove(tokenList.size() - 1); // 마지막 토큰 삭제
 		}
 	}
 	
 	/**
-	 * ش ū ̺ ū  ݺϸ ּҰ ҴѴ.
-	 * , Ϻ  ڵ  мѴ.
+	 * 해당 토큰 테이블의 토큰을 순서대로 반복하며 주소값을 할당한다.
+	 * 또한, 일부 어셈블러 지시자도 같이 분석한다.
 	 */
 	public void setLocation() {
+		this.setLocation(0, false);
+	}
+	
+	/**
+	 * from번째 토큰부터 주소값을 다시 할당한다. (증분 어셈블)
+	 * 테이블을 from-1번째 토큰을 처리한 직후의 상태로 되돌린 뒤 이어서 처리하며, 그 이전 토큰은 다시 처리하지 않는다.
+	 * @param from : 다시 할당을 시작할 토큰 index. locatedCount보다 크면 locatedCount부터 처리한다.
+	 * @param keepSymbols : 레이블의 순서가 바뀌지 않은 경우 true. 심볼을 다시 등록하지 않고 주소값만 갱신한다.
+	 */
+	void setLocation(int from, boolean keepSymbols) {
 		int location = 0;
+		int symbolCount = 0; // 처리한 토큰까지의 심볼 수
 		Instruction instruction = null;
+		OperandInfo operandInfo = null;
 		
-		// ū ݺ
-		for(Token token : tokenList) {
+		from = Math.min(from, locatedCount);
+		
+		// 테이블 되돌리기 begin --
+		if(from == 0) {
+			section.programName = null;
+			section.startAddress = 0;
+			section.isMain = false;
 			
-			// ּҰ Ҵ begin --
-			instruction = instTab.findByOperator(token.operator);
+			literalTab.truncate(0, 0, 0);
+			extTab.truncate(0, 0);
+		} else {
+			Token mark = tokenList.get(from - 1);
 			
-			token.location = location; // ū ּҰ Ҵ
-			location = location + instruction.format; // Ϲ ɾ ˸ŭ 
-			// ּҰ Ҵ end --
+			location = mark.nextLocation;
+			symbolCount = mark.symbolMark;
 			
-			//  þ ó begin --
-			if(StringUtil.nvl(instruction.operator).equals("START") 
-					|| StringUtil.nvl(instruction.operator).equals("CSECT")) { // ű   
-				if(!StringUtil.isEmpty(token.label)) { // ̺ ݵ ؾ 
-					this.section.programName = token.label;
-					
-					if(StringUtil.nvl(instruction.operator).equals("START")) { // START 쿡  ּ Ҵ 
-						this.section.isMain = true; // START  
-						if(StringUtil.isNumber(token.operand[0])) { //  ּҴ 
-							this.section.startAddress = Integer.parseInt(token.operand[0]);
-						} else {
-							throw new SyntexException("A number must be entered for this parameter."); // Ķʹ ݵ ڿ 
+			literalTab.truncate(mark.literalMark, mark.poolMark, mark.ltorgMark);
+			extTab.truncate(mark.extdefMark, mark.extrefMark);
+		}
+		
+		if(!keepSymbols) {
+			symTab.truncate(symbolCount);
+		}
+		
+		locatedCount = from;
+		// 테이블 되돌리기 end --
+		
+		// 토큰 반복
+		for(int index = from; index < tokenList.size(); index++) {
+			Token token = tokenList.get(index);
+			
+			// 주소값 할당 begin --
+			instruction = token.instruction;
+			operandInfo = token.operandInfo;
+			
+			token.location = location; // 토큰에 주소값 할당
+			location = location + instruction.format; // 일반 명령어는 포맷만큼 증가
+			// 주소값 할당 end --
+			
+			// 어셈블리 지시어 처리 begin --
+			try {
+				switch(instruction.kind) {
+				case START: // 신규 섹션 시작 시
+				case CSECT:
+					if(!StringUtil.isEmpty(token.label)) { // 레이블이 반드시 존재해야 함
+						this.section.programName = token.label;
+						
+						if(instruction.kind == Instruction.Kind.START) { // START 경우에만 시작 주소 할당 
+							this.section.isMain = true; // START는 메인 섹션
+							if(operandInfo.kind == OperandInfo.Kind.NUMBER) { // 시작 주소는 숫자
+								this.section.startAddress = operandInfo.value;
+							} else {
+								throw new SyntexException("A number must be entered for this parameter."); // 파라미터는 반드시 숫자여야 함
+							}
 						}
+					} else { 
+						throw new SyntexException("START instruction label cannot be null."); // 스타트 명령은 반드시 레이블이 존재해야 함
 					}
-				} else { 
-					throw new SyntexException("START instruction label cannot be null."); // ŸƮ  ݵ ̺ ؾ 
-				}
-				
-			} else if(StringUtil.nvl(instruction.operator).equals("EXTDEF")) { // ܺ    ܺ  ̺ ߰ (Pass1 ͸ ߰ϰ pass2 Ѵ)
-				this.extTab.addExtdef(token.operand);
-			} else if(StringUtil.nvl(instruction.operator).equals("EXTREF")) { // ܺ    ܺ  ̺ ߰ (Pass1 ͸ ߰ϰ pass2 Ѵ)
-				this.extTab.addExtref(token.operand);
-			} else if(StringUtil.nvl(instruction.operator).equals("RESW")) { // ش þ   Ű ŭ ޸  Ȯ (3byte)
-				if(StringUtil.isNumber(token.operand[0])) {
-					location = location + (Integer.parseInt(token.operand[0]) * 3);
-				} else {
-					throw new SyntexException("A number must be entered for this parameter.");
-				}
-			} else if(StringUtil.nvl(instruction.operator).equals("RESB")) { // ش þ   Ű ŭ ޸  Ȯ (1byte)
-				if(StringUtil.isNumber(token.operand[0])) {
-					location = location + Integer.parseInt(token.operand[0]);
-				} else {
-					throw new SyntexException("A number must be entered for this parameter.");
-				}
-			} else if(StringUtil.nvl(instruction.operator).equals("EQU")) { // ش þ   ޸  Ѵ.
-				if(token.operand[0].equals("*")) { //  ޸ ּҸ ּҰ 
-					token.location = location;
-				} else if(StringUtil.isArithmetic(token.operand[0])) { //  
-					String[] arithmetics = StringUtil.getArithmetic(token.operand[0]);
-					char arithmeticSymbol = 0; 
-					
-					for(String arithmetic : arithmetics) { // ޸ ּ 
-						if(!StringUtil.isEmpty(arithmetic)) {
-							if(StringUtil.isLetter(arithmetic)) { //  
-								int symbolIndex = this.symTab.search(arithmetic); // ɺ ̺ ȸ
-								
-								if(symbolIndex == -1) { // ɺ  
-									throw new SymbolNotFoundException();
-								}
-								
-								if(arithmeticSymbol == 0) { //  Ģ
-									token.location = this.symTab.locationList.get(symbolIndex);
-								} else if(arithmeticSymbol == '+') {
-									token.location = token.location + this.symTab.locationList.get(symbolIndex);
-								} else if(arithmeticSymbol == '-') {
-									token.location = token.location - this.symTab.locationList.get(symbolIndex);
-								} else if(arithmeticSymbol == '*') {
-									token.location = token.location * this.symTab.locationList.get(symbolIndex);
-								} else if(arithmeticSymbol == '/') {
-									token.location = token.location / this.symTab.locationList.get(symbolIndex);
+					break;
+				case EXTDEF: // 외부 정의 접촉 시 외부 참조 테이블에 추가 (Pass1에서는 데이터만 추가하고 pass2에서 검증한다)
+					this.extTab.addExtdef(token.operand);
+					break;
+				case EXTREF: // 외부 참조 접촉 시 외부 참조 테이블에 추가 (Pass1에서는 데이터만 추가하고 pass2에서 검증한다)
+					this.extTab.addExtref(token.operand);
+					break;
+				case RESW: // 해당 지시어 접촉 시 매개변수 만큼 메모리 공간 확보 (3byte)
+					if(operandInfo.kind == OperandInfo.Kind.NUMBER) {
+						location = location + (operandInfo.value * 3);
+					} else {
+						throw new SyntexException("A number must be entered for this parameter.");
+					}
+					break;
+				case RESB: // 해당 지시어 접촉 시 매개변수 만큼 메모리 공간 확보 (1byte)
+					if(operandInfo.kind == OperandInfo.Kind.NUMBER) {
+						location = location + operandInfo.value;
+					} else {
+						throw new SyntexException("A number must be entered for this parameter.");
+					}
+					break;
+				case EQU: // 해당 지시어 접촉 시 메모리의 공간을 변경한다.
+					if(operandInfo.kind == OperandInfo.Kind.CURRENT) { // 현재 메모리 주소를 주소값으로 설정
+						token.location = location;
+					} else if(operandInfo.kind == OperandInfo.Kind.EXPRESSION) { // 수식의 경우
+						char arithmeticSymbol = 0; 
+						
+						for(String arithmetic : operandInfo.terms) { // 메모리 주소 계산
+							if(!StringUtil.isEmpty(arithmetic)) {
+								if(StringUtil.isLetter(arithmetic)) { // 변수의 경우
+									int symbolIndex = this.symTab.search(arithmetic); // 심볼 테이블 조회
+									
+									if(symbolIndex == -1 || symbolIndex >= symbolCount) { // 심볼이 없으면 예외 (앞에서 정의된 심볼만 사용)
+										throw new SymbolNotFoundException(arithmetic);
+									}
+									
+									int symbolLocation = this.symTab.getLocation(symbolIndex);
+									
+									if(arithmeticSymbol == 0) { // 최초 사칙연산
+										token.location = symbolLocation;
+									} else if(arithmeticSymbol == '+') {
+										token.location = token.location + symbolLocation;
+									} else if(arithmeticSymbol == '-') {
+										token.location = token.location - symbolLocation;
+									} else if(arithmeticSymbol == '*') {
+										token.location = token.location * symbolLocation;
+									} else if(arithmeticSymbol == '/') {
+										token.location = token.location / symbolLocation;
+									}
+								} else { // 사칙연산 기호의 경우
+									arithmeticSymbol = arithmetic.charAt(0);
 								}
-							} else { // Ģ ȣ 
-								arithmeticSymbol = arithmetic.charAt(0);
 							}
 						}
+					} else if(operandInfo.kind == OperandInfo.Kind.NUMBER) {
+						token.location = operandInfo.value;
 					}
-				} else if(StringUtil.isNumber(token.operand[0])) {
-					token.location = Integer.parseInt(token.operand[0]);
-				}
-			} else if(StringUtil.nvl(instruction.operator).equals("LTORG") || StringUtil.nvl(instruction.operator).equals("END")) { // ͷ Ҵ
-				
-				for(int i = 0; i < literalTab.literalList.size(); i++) { //   ͷ ݺ
-					// ͷ  ȸ
-					String literal = literalTab.literalList.get(i); 
-					int literalLocation = literalTab.locationList.get(i);
-					char literalType = literalTab.literalTypeList.get(i);
-					
-					if(literalLocation == -1) { // ͷ ּҰ  Ҵ ʾ 
-						literalTab.modifyLiteral(literal, location);
-						
-						location = (int)(location + (literal.length() * (literalType == 'C' ? 1 : 0.5)));
-					}
+					break;
+				case LTORG: // 리터럴 할당
+				case END:
+					location = literalTab.placePool(location); // 마지막 LTORG 이후 등록된 리터럴만 배치
+					break;
+				default:
+					break;
 				}
-				
+			} catch(AssemblerException e) { // 진단 모드에서는 지시어만 무시하고 label은 등록한다.
+				this.report(token, e);
 			}
-			//  þ ó end --
+			// 어셈블리 지시어 처리 end --
 			
-			// ɺ̺ 
+			// 심볼테이블 등록
 			if(token.label != null) { 
-				symTab.putSymbol(token.label, token.location);
+				try {
+					if(keepSymbols) { // 같은 순서로 이미 등록된 심볼
+						symTab.setLocation(symbolCount, token.location);
+					} else {
+						symTab.putSymbol(token.label, token.location);
+					}
+					
+					symbolCount++;
+				} catch(AssemblerException e) { // 중복된 심볼은 등록하지 않는다.
+					this.report(token, e);
+				}
 			}
 			
-			// ͷ ̺ 
-			if(token.operand != null) {
-				Arrays.stream(token.operand)
-					  .filter(x -> StringUtil.isLiteral(x)) // ͷ ˻
-					  .forEach(x -> { // ͷ ݺϿ ͷ ̺ 
-						  String literal = StringUtil.getLiteral(x);
-						  
-						  if(literalTab.search(literal) == -1) { // ͷ ̺ ϵǾ   쿡 ϵ ó
-							  literalTab.putLiteral(literal, -1, StringUtil.getLiteralType(x));
-						  }
-					  });
+			// 리터럴 테이블 등록
+			if(operandInfo.kind == OperandInfo.Kind.LITERAL
+					&& literalTab.search(operandInfo.name) == -1) { // 리터럴 테이블에 등록되어 있지 않을 경우에만 등록하도록 처리
+				try {
+					literalTab.putLiteral(operandInfo.name, -1, operandInfo.literalType);
+				} catch(AssemblerException e) { // 잘못된 리터럴 데이터
+					this.report(token, e);
+				}
 			}
+			
+			// 처리 직후 상태 기록 (다음 토큰부터 다시 할당할 때 사용)
+			token.nextLocation = location;
+			token.symbolMark = symbolCount;
+			token.literalMark = literalTab.size();
+			token.poolMark = literalTab.getPendingIndex();
+			token.ltorgMark = literalTab.getPoolCount();
+			token.extdefMark = extTab.extdef.size();
+			token.extrefMark = extTab.extref.size();
+			
+			locatedCount = index + 1;
 		}
 		
 		section.programLength = location;
 	}
 	
 	/**
-	 * tokenList index شϴ Token Ѵ.
+	 * tokenList에서 index에 해당하는 Token을 리턴한다.
 	 * @param index
-	 * @return : indexȣ شϴ ڵ带 м Token Ŭ
+	 * @return : index번호에 해당하는 코드를 분석한 Token 클래스
 	 */
 	public Token getToken(int index) {
 		return tokenList.get(index);
 	}
 	
 	/**
-	 * Pass2  Ѵ.
-	 * instruction table, symbol table literal table  Ͽ objectcode ϰ, ̸ Ѵ.
+	 * Pass2 과정에서 사용한다.
+	 * 외부 정의 테이블을 검증한다. 진단 모드에서는 정의되지 않은 모든 심볼을 해당 EXTDEF 토큰의 오류로 기록한다.
+	 */
+	public void validateExtdef() {
+		if(diagnostics == null) {
+			extTab.validation(symTab);
+			return;
+		}
+		
+		ArrayList<String> undefinedList = new ArrayList<>(0);
+		
+		extTab.validation(symTab, undefinedList);
+		
+		if(undefinedList.isEmpty()) {
+			return;
+		}
+		
+		for(Token token : tokenList) { // 오류가 있을 때만 EXTDEF 토큰을 찾는다.
+			if(token.instruction.kind == Instruction.Kind.EXTDEF) {
+				for(String name : token.operand) {
+					if(undefinedList.contains(name)) {
+						this.report(token, new SymbolNotFoundException(name));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Pass2 과정에서 사용한다.
+	 * instruction table, symbol table literal table 등을 참조하여 objectcode를 생성하고, 이를 저장한다.
 	 * @param index
 	 */
 	public void makeObjectCode(){
-		// pass2  ϴ  ʱȭ
-		Instruction instruction = null;
-		StringBuilder binaryObjectCode = new StringBuilder();
-		int addressingMode = 0;
+		encoder.clear(); // 코드 버퍼 초기화
+		modifyTab.clear();
 		
-		// ū ݺ
+		// 토큰 반복
 		for(Token token : tokenList) {
-			//   ȸ
-			instruction = instTab.findByOperator(token.operator);
+			try {
+				this.encode(token);
+			} catch(AssemblerException e) { // 진단 모드에서는 코드 없이 다음 토큰으로 진행
+				token.modifyEnd = modifyTab.size();
+				this.report(token, e);
+			}
+		}
+		
+		codeBytes = encoder.size;
+	}
+	
+	/**
+	 * 일부 토큰의 object code만 다시 생성한다. (증분 어셈블)
+	 * 새 코드는 코드 버퍼 끝에 기록하며, 버려진 공간이 커지면 전체를 다시 생성한다.
+	 * @param tokens : 다시 생성할 토큰 (tokenList에 있는 토큰)
+	 * @param modifyChanged : 삭제된 토큰에 수정 정보가 있었는지 여부
+	 */
+	void makeObjectCode(Iterable<Token> tokens, boolean modifyChanged) {
+		for(Token token : tokens) {
+			modifyChanged = modifyChanged || token.modifyEnd > token.modifyBegin;
+			codeBytes = codeBytes - token.byteSize;
 			
-			//  ʱȭ
-			binaryObjectCode.setLength(0); 
-					
-			// nixbpe  begin --
-			if(token.operand != null) {
-				addressingMode = StringUtil.getAddressingMode(token.operand[0]);
-				token.setFlag(addressingMode, 1); // 巹  
-				
-				if(token.operand.length > 1 
-						&& StringUtil.nvl(token.operand[1]).equals("X")) {
-					token.setFlag(xFlag, 1);
-				}
+			this.encode(token);
+			
+			modifyChanged = modifyChanged || token.modifyEnd > token.modifyBegin;
+			codeBytes = codeBytes + token.byteSize;
+		}
+		
+		if(encoder.size > codeBytes * 2 + 1024) { // 버려진 코드가 많으면 버퍼 재구성
+			this.makeObjectCode();
+		} else if(modifyChanged) { // 수정 정보를 토큰 순서대로 다시 정렬
+			int[] order = new int[modifyTab.size()];
+			int count = 0;
+			
+			for(Token token : tokenList) {
+				int begin = count;
 				
-				if(instruction.format == 3 //  3 ̸鼭
-						&& (addressingMode == nFlag || addressingMode == (nFlag+iFlag))) { // 巹 尡  ų, SIC/XE  
-					token.setFlag(pFlag, 1);
+				for(int i = token.modifyBegin; i < token.modifyEnd; i++) {
+					order[count++] = i;
 				}
 				
-				if(instruction.format == 4) { //  4  
-					token.setFlag(eFlag, 1);
-				}
+				token.modifyBegin = begin;
+				token.modifyEnd = count;
+			}
+			
+			modifyTab.reorder(order, count);
+		}
+	}
+	
+	/**
+	 * 토큰 하나의 object code를 생성하여 코드 버퍼 끝에 기록한다. 필요한 수정 정보는 수정 테이블 끝에 추가한다.
+	 * @param token
+	 */
+	private void encode(Token token) {
+		// 명령 정보 조회
+		Instruction instruction = token.instruction;
+		OperandInfo operandInfo = token.operandInfo;
+		
+		token.byteSize = 0;
+		token.objectCode = null;
+		token.modifyBegin = modifyTab.size();
+		
+		// nixbpe 설정 begin --
+		if(operandInfo.kind != OperandInfo.Kind.NONE) {
+			token.setFlag(operandInfo.addressingMode, 1); // 어드레싱 모드 설정
+			
+			if(operandInfo.indexed) {
+				token.setFlag(xFlag, 1);
+			}
+			
+			if(instruction.format == 3 // 포맷 3 형식이면서
+					&& (operandInfo.addressingMode == nFlag || operandInfo.addressingMode == (nFlag+iFlag))) { // 어드레싱 모드가 간접 참조거나, SIC/XE모드 일 경우
+				token.setFlag(pFlag, 1);
 			}
-			// nixbpe  end --
 			
-			// object code  begin --
-			if(instruction.opcode != -1) { //  ڰ ƴ 츸 ó,  ڴ ڿ ó .
-				String opcodeBinary = Integer.toBinaryString(0x100 | instruction.opcode).substring(1);
+			if(instruction.format == 4) { // 포맷 4 형식의 경우
+				token.setFlag(eFlag, 1);
+			}
+		}
+		// nixbpe 설정 end --
+		
+		// object code 설정 begin --
+		switch(instruction.kind) {
+		case OPERATION: // 어셈블리어 지시자가 아닌 경우만 처리, 어셈블리어 지시자는 뒤에서 처리토록 함.
+		case RSUB:
+		case SHIFT:
+			int objectCode = 0;
+			
+			if(instruction.format == 1) { // 포맷 1의 경우
+				objectCode = ObjectCodeEncoder.format1(instruction.opcode); // 포맷 1은 opcode를 8비트 모두 사용한다.
+			} else if(instruction.format == 2) { // 포맷 2의 경우 (SHIFTL, SHIFTR의 두번째 오퍼랜드는 숫자)
+				objectCode = ObjectCodeEncoder.format2(instruction.opcode, operandInfo.register1, operandInfo.register2); // 포맷 2는 opcode를 8비트 모두 사용한다.
+			} else if(instruction.format == 3 || instruction.format == 4) { // 포맷 3혹은 4의 경우
 				
-				if(instruction.format == 1) { //  1 
-					binaryObjectCode.append(opcodeBinary); //  1 opcode 8Ʈ  Ѵ.
-				} else if(instruction.format == 2) { //  2 
-					binaryObjectCode.append(opcodeBinary); //  2 opcode 8Ʈ  Ѵ.
-					
-					int registerNo = StringUtil.getRegisterNumber(token.operand[0]); //  2 ù Ķʹ   ȣ
-					
-					String binaryRegisterNo = Integer.toBinaryString(0x10 | registerNo).substring(1); //  ȣ ̳ʸ 
-					binaryObjectCode.append(binaryRegisterNo); // ڵ忡 ߰
+				if(instruction.kind == Instruction.Kind.RSUB) { // 오퍼랜드 없이 n, i만 설정
+					objectCode = ObjectCodeEncoder.format3(instruction.opcode, nFlag | iFlag, 0);
+				} else {
+					int disp = 0;
 					
-					if(instruction.operator.equals("SHIFTR") 
-							|| instruction.operator.equals("SHIFTL")) { //  2 ɾ  ɾ 2° ۷忡 ڰ  .
-						binaryRegisterNo = Integer.toBinaryString(0x10 | Integer.parseInt(token.operand[1])).substring(1);
-						binaryObjectCode.append(binaryRegisterNo);
-					} else {
-						if(token.operand.length > 1 && !StringUtil.isEmpty(token.operand[1])) {
-							registerNo = StringUtil.getRegisterNumber(token.operand[1]); //  2 ι° Ķʹ Ͱų 
-							
-							binaryRegisterNo = Integer.toBinaryString(0x10 | registerNo).substring(1); //  ȣ ̳ʸ 
-							binaryObjectCode.append(binaryRegisterNo);
+					// 주소 처리
+					switch(operandInfo.kind) {
+					case LITERAL: // 리터럴의 경우
+						int literalIndex = literalTab.search(operandInfo.name);
+						
+						if(literalIndex > -1) {
+							disp = literalTab.getLocation(literalIndex) - (token.location + instruction.format); // target - PC;
 						} else {
-							binaryRegisterNo = Integer.toBinaryString(0x10 | 0).substring(1); //  ȣ ̳ʸ 
-							binaryObjectCode.append(binaryRegisterNo);
+							throw new LiteralNotFoundException(); // 리터럴이 없을 때
 						}
-					}
-				} else if(instruction.format == 3 || instruction.format == 4) { //  3Ȥ 4 
-					
-					if(instruction.operator.equals("RSUB")) {
-						binaryObjectCode.setLength(0);
-						binaryObjectCode.append(Integer.toBinaryString(0x4F0000));
-					} else {
-						opcodeBinary = opcodeBinary.substring(0, 6); // 6Ʈ ڸ
-						binaryObjectCode.append(opcodeBinary); //  3, 4 opcode 6Ʈ Ѵ.
-						
-						String nixbpeBinary = Integer.toBinaryString(0b1000000 | token.nixbpe).substring(1); // nixbpe ̳ʸ · 
-						binaryObjectCode.append(nixbpeBinary); //  3, 4 nixbpe 
+						break;
+					case SYMBOL: // 심볼의 경우
+						int symbolLocation = symTab.getLocation(operandInfo.name);
 						
-						int disp = 0;
-						String operand = token.operand[0];
-						
-						if(addressingMode != (nFlag+iFlag)) { // ų  
-							operand = operand.substring(1);
-						} else if(StringUtil.isLiteral(operand)) {
-							String literal = StringUtil.getLiteral(operand);
-							
-							int literalIndex = literalTab.search(literal);
+						if(symbolLocation != SymbolTable.NOT_FOUND) {
+							disp = symbolLocation;
 							
-							if(literalIndex > -1) {
-								disp = literalTab.locationList.get(literalIndex) - (token.location + instruction.format); // target - PC;
+							if(instruction.format == 3) {
+								disp = disp - (token.location + instruction.format);
+							}
+						} else {
+							if(extTab.isExtref(operandInfo.name)) {
+								disp = 0;
+								
+								modifyTab.add(token.location+1, 5, '+', operandInfo.name);
 							} else {
-								throw new LiteralNotFoundException(); // ͷ  
+								throw new SymbolNotFoundException(operandInfo.name);
 							}
 						}
-						
-						// ּ ó
-						if(disp == 0) { // ͷ ̹ ּҰ Ƿ н
-							if(StringUtil.isLetter(operand)) { // ɺ 
-								int symbolIndex = symTab.search(operand);
-								
-								if(symbolIndex > -1) {
-									disp = symTab.locationList.get(symbolIndex);
+						break;
+					case NUMBER: // 숫자의 경우
+						disp = operandInfo.value;
+						break;
+					default:
+						break;
+					}
+					
+					if(instruction.format == 3) { // 포맷 3, 4는 opcode를 6비트, nixbpe를 6비트 사용한다.
+						objectCode = ObjectCodeEncoder.format3(instruction.opcode, token.nixbpe, disp);
+					} else {
+						objectCode = ObjectCodeEncoder.format4(instruction.opcode, token.nixbpe, disp);
+					}
+				}
+			}
+			
+			token.codeOffset = encoder.write(objectCode, instruction.format); // 코드 버퍼에 기록
+			token.byteSize = instruction.format;
+			token.objectCode = null; // HEX 문자열은 필요할 때 생성
+			break;
+		case BYTE: // 해당 내용은 오브젝트 코드를 할당해야함
+		case WORD:
+			String operand = token.operand[0];
+			int data = 0; // 심볼, 수식의 경우 0으로 할당하고 필요하면 수정 레코드를 남긴다.
+			
+			token.objectCode = null;
+			
+			if(operandInfo.kind == OperandInfo.Kind.FORM) { // 형식이 있는 매개변수의 경우 (EX: X'05')
+				int formSize = ObjectCodeEncoder.formSize(operand);
+				
+				if(formSize <= instruction.format) { // 해당 데이터가 오버플로우인지 확인
+					token.codeOffset = encoder.writeForm(operand); // 데이터를 byte로 변환하여 기록
+					token.byteSize = formSize;
+				} else {
+					throw new SizeOverflowException(); 
+				}
+				break;
+			} else if(operandInfo.kind == OperandInfo.Kind.EXPRESSION) { // 수식의 경우
+				char arithmeticSymbol = 0; // 수식 심볼
+				
+				for(String arithmetic : operandInfo.terms) { // 수식 반복
+					if(!StringUtil.isEmpty(arithmetic)) {
+						if(StringUtil.isLetter(arithmetic)) { // 심볼의 경우
+							int symbolIndex = this.symTab.search(arithmetic); // 심볼 테이블 조회
+							
+							if(symbolIndex == -1) { 
+								if(extTab.isExtref(arithmetic)) { // 심볼이 아니지만 외부 참조의 경우
+									arithmeticSymbol = arithmeticSymbol == 0 ? '+' : arithmeticSymbol; // 최초 데이터는 +로 
 									
-									if(instruction.format == 3) {
-										disp = disp - (token.location + instruction.format);
-									}
+									modifyTab.add(token.location, instruction.format*2, arithmeticSymbol, arithmetic); // 수정 테이블 등록
 								} else {
-									if(extTab.isExtref(operand)) {
-										disp = 0;
-										
-										modifyTab.add(token.location+1, 5, '+', operand);
-									} else {
-										throw new SymbolNotFoundException();
-									}
+									throw new SymbolNotFoundException(arithmetic); // 심볼이 없을 경우
 								}
-							} else if(StringUtil.isNumber(operand)) { //  
-								disp = Integer.parseInt(operand);
-							}
+							} 
+						} else { // 사칙연산 기호의 경우
+							arithmeticSymbol = arithmetic.charAt(0);
 						}
-						
-						String targetBinary = "";
-						
-						if(instruction.format == 3) {
-							targetBinary = Integer.toBinaryString(0x1000 | disp).substring(1);
-							targetBinary = targetBinary.substring(targetBinary.length()-12, targetBinary.length());
-						} else if(instruction.format == 4) {
-							targetBinary = Integer.toBinaryString(0x100000 | disp).substring(1);
-							targetBinary = targetBinary.substring(targetBinary.length()-20, targetBinary.length());
-						}
-						
-						binaryObjectCode.append(targetBinary); //  Object Code
 					}
 				}
+			} else if(operandInfo.kind == OperandInfo.Kind.SYMBOL) { // 문자의 경우
+				int symbolIndex = this.symTab.search(operandInfo.name); // 심볼 테이블 조회
 				
-				int objectCode = Integer.parseInt(binaryObjectCode.toString(), 2);
-				
-				String hexObjectCode = String.format("%0"+(instruction.format * 2)+"X", objectCode);
-				
-				token.objectCode = hexObjectCode;
-				token.byteSize = token.objectCode.length() / 2;
-			// object code  end --
-			} else if(instruction.operator.equals("BYTE") || instruction.operator.equals("WORD")) { // ش  Ʈ ڵ带 Ҵؾ
-				String operand = token.operand[0];
-				
-				if(StringUtil.isForm(operand)) { //  ִ Ű  (EX: X'05')
-					String hexData = StringUtil.getFormDataToHex(operand); // ͸ HEX  
-					
-					if((hexData.length() / 2) <= instruction.format) { // ش Ͱ ÷ο Ȯ
-						token.objectCode = hexData; //  Ҵ
-						token.byteSize = token.objectCode.length() / 2;
+				if(symbolIndex == -1) { 
+					if(extTab.isExtref(operandInfo.name)) { // 심볼이 아니지만 외부 참조의 경우
+						modifyTab.add(token.location, instruction.format*2, '+', operandInfo.name); // 수정 테이블 등록
 					} else {
-						throw new SizeOverflowException(); 
+						throw new SymbolNotFoundException(operandInfo.name);
 					}
-				} else if(StringUtil.isArithmetic(operand)) { //  
-					String[] arithmetics = StringUtil.getArithmetic(operand); //   ȸ
-					char arithmeticSymbol = 0; //  ɺ
-					
-					for(String arithmetic : arithmetics) { //  ݺ
-						if(!StringUtil.isEmpty(arithmetic)) {
-							if(StringUtil.isLetter(arithmetic)) { // ɺ 
-								int symbolIndex = this.symTab.search(arithmetic); // ɺ ̺ ȸ
-								
-								if(symbolIndex == -1) { 
-									if(extTab.isExtref(arithmetic)) { // ɺ ƴ ܺ  
-										arithmeticSymbol = arithmeticSymbol == 0 ? '+' : arithmeticSymbol; //  ʹ + 
-										
-										modifyTab.add(token.location, instruction.format*2, arithmeticSymbol, arithmetic); //  ̺ 
-									} else {
-										throw new SymbolNotFoundException(); // ɺ  
-									}
-								} 
-							} else { // Ģ ȣ 
-								arithmeticSymbol = arithmetic.charAt(0);
-							}
-						}
-					}
-					
-					if(instruction.format == 3) { // word
-						token.objectCode = Integer.toHexString(0x1000000 | 0).substring(1); // 6ڸ Ҵ
-					} else { // byte
-						token.objectCode = Integer.toHexString(0x100 | 0).substring(1); // 2ڸ Ҵ
-					}
-					
-					token.byteSize = token.objectCode.length() / 2; 
-				} else if(StringUtil.isLetter(operand)) { //  
-					int symbolIndex = this.symTab.search(operand); // ɺ ̺ ȸ
-					
-					if(symbolIndex == -1) { 
-						if(extTab.isExtref(operand)) { // ɺ ƴ ܺ  
-							modifyTab.add(token.location, instruction.format*2, '+', operand); //  ̺ 
-						} else {
-							throw new SymbolNotFoundException();
-						}
-					} 
-					
-					if(instruction.format == 3) { // word
-						token.objectCode = Integer.toHexString(0x1000000 | 0).substring(1); // 6ڸ Ҵ
-					} else { // byte
-						token.objectCode = Integer.toHexString(0x100 | 0).substring(1); // 2ڸ Ҵ
-					}
-					
-					token.byteSize = token.objectCode.length() / 2;
-				} else if(StringUtil.isNumber(operand)) { //  
-					if(instruction.format == 3) { // word
-						token.objectCode = Integer.toHexString(0x1000000 | Integer.parseInt(operand)).substring(1); // 6ڸ Ҵ
-					} else { // byte
-						token.objectCode = Integer.toHexString(0x100 | Integer.parseInt(operand)).substring(1); // 2ڸ Ҵ
-					}
-					
-					token.byteSize = token.objectCode.length() / 2;
-				}
+				} 
+			} else if(operandInfo.kind == OperandInfo.Kind.NUMBER) { // 숫자의 경우
+				data = operandInfo.value;
+			} else {
+				break;
 			}
+			
+			token.codeOffset = encoder.write(data, instruction.format); // word는 3byte, byte는 1byte 할당
+			token.byteSize = instruction.format;
+			break;
+		default:
+			break;
 		}
+		// object code 설정 end --
+		
+		token.modifyEnd = modifyTab.size();
 	}
 	
 	/**
-	 * Pass2  Ѵ.
-	 * Object Program Ͽ ڿ · Ѵ.
+	 * Pass2 과정에서 사용한다.
+	 * Object Program을 생성하여 문자열의 형태로 리턴한다.
 	 * @param index
 	 */
 	public String makeObjectProgram() {
-		StringBuilder stringBuilder = new StringBuilder();
+		RecordEmitter emitter = new RecordEmitter(64 + extTab.extdef.size() * 12 + extTab.extref.size() * 6 
+				+ encoder.size * 3 + modifyTab.size() * 20);
 		
-		// Ʈ α׷   
-		stringBuilder.append(String.format("H%-6s%06X%06X\n", section.programName, section.startAddress, section.programLength));
+		// 오브젝트 프로그램의 헤더 영역 설정
+		emitter.header(section.programName, section.startAddress, section.programLength);
 		
-		// Ʈ α׷ ܺ   
+		// 오브젝트 프로그램의 외부 정의 영역 설정
 		if(extTab.extdef.size() > 0) {
-			stringBuilder.append(extTab.printDef());
+			extTab.emitDef(emitter);
 		}
 		
-		// Ʈ α׷ ܺ   
+		// 오브젝트 프로그램의 외부 참조 영역 설정
 		if(extTab.extref.size() > 0) {
-			stringBuilder.append(extTab.printRef());
+			extTab.emitRef(emitter);
 		}
 		
-		// Ʈ α׷ ٵ  
-		StringBuilder bodyBuilder = new StringBuilder();
-		int startLocation = section.startAddress; //  ּ
-		boolean isNewLine = false; // ο   
+		// 오브젝트 프로그램의 바디 영역 설정
+		boolean isNewLine = false; // 새로운 줄 생성 여부
+		int poolNumber = 0; // 리터럴 pool 순번 (LTORG, END)
+		int textRecords = 0; // T 레코드 수
 		
-		// ū ݺ
+		// 토큰 반복
 		for(Token token : tokenList) {
 			
-			// ڿ ̰ ʰϿų, ο   ÷װ ϰ
-			if((bodyBuilder.length() + token.byteSize > 60) || isNewLine) { 
-				if(!StringUtil.isEmpty(bodyBuilder.toString())) { //    
-					//  
-					stringBuilder.append(String.format("T%06X%02X%s\n", startLocation, bodyBuilder.length() / 2, bodyBuilder.toString()));
-					
-					//  ʱȭ
-					isNewLine = false; 
-					bodyBuilder.setLength(0); 
-				}
+			// 문자열의 길이가 초과하였거나, 새로운 라인 생성 플래그가 참일경우 (HEX 문자 수에 byte 수를 더해 비교)
+			if(emitter.inText() && (emitter.getTextBytes() * 2 + token.byteSize > RecordEmitter.TEXT_LIMIT || isNewLine)) {
+				// 라인 출력 (길이는 기록한 byte 수로 채움)
+				emitter.endText();
+				textRecords++;
+				
+				// 정보 초기화
+				isNewLine = false; 
 			}
 			
-			if(!StringUtil.isEmpty(token.objectCode)) { // Ʈ ڵ尡 ִ 
-				if(StringUtil.isEmpty(bodyBuilder.toString())) { // ڿ  ִ 
-					startLocation = token.location; //  ּҸ ش ڵ 
+			if(token.byteSize > 0) { // 오브젝트 코드가 있는 경우
+				if(!emitter.inText()) { // 라인이 비어 있는 경우
+					emitter.beginText(token.location); // 시작 주소를 해당 코드로 설정
 				}
 				
-				bodyBuilder.append(token.objectCode); // ش ڵ ߰
-			} else if(token.operator.equals("RESB") || token.operator.equals("RESW")) { //    
-				if(!StringUtil.isEmpty(bodyBuilder.toString())) { //  ű  
+				emitter.text(encoder.code, token.codeOffset, token.byteSize); // 해당 코드 추가 (코드 버퍼에서 바로 변환)
+			} else if(token.instruction.kind == Instruction.Kind.RESB 
+					|| token.instruction.kind == Instruction.Kind.RESW) { // 다음 명령을 만날 경우
+				if(emitter.inText()) { // 무조건 신규 라인으로 변경
 					isNewLine = true;
 				}
-			} else if(token.operator.equals("LTORG") || token.operator.equals("END")) { // ͷ  ʿ 
-				if(literalTab.literalList.size() > 0) { // ͷ   쿡
-					if(StringUtil.isEmpty(bodyBuilder.toString())) {
-						startLocation = literalTab.locationList.get(0); // ͷ ּҸ  ּҷ 
-					}
-					
-					bodyBuilder.append(literalTab.print()); // ͷ 
-				}
+			} else if(token.instruction.kind == Instruction.Kind.LTORG 
+					|| token.instruction.kind == Instruction.Kind.END) { // 리터럴 출력이 필요한 경우
+				literalTab.emitPool(emitter, poolNumber); // 해당 LTORG에서 배치된 리터럴이 존재 할 경우에만 출력
+				
+				poolNumber++;
 			}
 		}
 		
-		if(!StringUtil.isEmpty(bodyBuilder.toString())) { //   
-			stringBuilder.append(String.format("T%06X%02X%s\n", startLocation, bodyBuilder.length() / 2, bodyBuilder.toString()));
+		if(emitter.inText()) { // 최종 라인 출력
+			emitter.endText();
+			textRecords++;
 		}
 		
-		// Ʈ α׷   
-		if(modifyTab.modifyList.size() > 0) {
-			modifyTab.modifyList.forEach(x-> stringBuilder.append(x.print()));
-		}
+		textRecordCount = textRecords;
 		
+		// 오브젝트 프로그램의 수정 라인 출력
+		modifyRecordCount = modifyTab.emit(emitter);
 		
-		// 
-		stringBuilder.append("E");
-		if(section.isMain) {
-			stringBuilder.append(String.format("%06X", section.startAddress));	
-		}
-		stringBuilder.append("\n\n");
+		// 종료
+		emitter.end(section.isMain, section.startAddress);
 		
-		return stringBuilder.toString();
+		return emitter.toString();
 	}
 	
 	/** 
-	 * indexȣ شϴ object code Ѵ.
+	 * index번호에 해당하는 object code를 리턴한다.
+	 * HEX 문자열은 처음 요청될 때 코드 버퍼로부터 만든다.
 	 * @param index
 	 * @return : object code
 	 */
 	public String getObjectCode(int index) {
-		return tokenList.get(index).objectCode;
-	}
-	
-	@Override
-	public String toString(){
-	    return tokenList.toString();
-	}
-}
-
-/**
- *  κ  ڵ带 ܾ     ǹ̸ ؼϴ  Ǵ   Ѵ. 
- * ǹ ؼ  pass2 object code Ǿ  Ʈ ڵ  Ѵ.
- */
-class Token{
-	//ǹ м ܰ迡 Ǵ 
-	int location;
-	String label;
-	String operator;
-	String[] operand;
-	String comment;
-	char nixbpe;
-
-	// object code  ܰ迡 Ǵ  
-	String objectCode;
-	int byteSize;
-	
-	/**
-	 * Ŭ ʱȭ ϸ鼭 ٷ line ǹ м Ѵ. 
-	 * @param line   α׷ ڵ
-	 */
-	public Token(String line) {
-		parsing(line);
-	}
-	
-	/**
-	 * line  м ϴ Լ. Token   м  Ѵ.
-	 * @param line   α׷ ڵ.
-	 */
-	public void parsing(String line) {
-		// Ľ  ϴ  ʱȭ
-		String[] parsingData = line.split("\t");
-		
-		// label 
-		if(!StringUtil.isEmpty(parsingData[0])) {  //  
-			this.label = parsingData[0]; // label 
-		}
+		Token token = tokenList.get(index);
 		
-		// ɾ 
-		if(!StringUtil.isEmpty(parsingData[1])) {
-			this.operator = parsingData[1];
-		} else {
-			throw new SyntexException("Operator is required."); // ɾ  
+		if(token.objectCode == null && token.byteSize > 0) {
+			token.objectCode = encoder.toHex(token.codeOffset, token.byteSize);
 		}
 		
-		// operand 
-		if(parsingData.length > 2 
-				&& !StringUtil.isEmpty(parsingData[2])) { //  
-			String[] operandData = parsingData[2].split(",");
-			
-			this.operand = new String[operandData.length]; // ۷ ̸ŭ Ҵ
-			this.operand = operandData;
-		}
-		
-		// ڸƮ 
-		if(parsingData.length > 3) {
-			this.comment = parsingData[3];
-		}
-	}
-	
-	/**
-	 *  ɾ  ԷµǾ Ѵ.
-	 * 
-	 * @param instruction
-	 */
-	public void validation(Instruction instruction) {
-		if(instruction == null) {
-			throw new SyntexException("This instruction does not exist."); // ɾ   
-		}
-		
-		if(this.operand != null 
-				&& this.operand.length < instruction.minOperandCount) { // Ű  ̴ 
-			throw new SyntexException("The minimum number of parameters is "+instruction.minOperandCount+".");
-		}
-		
-		if(instruction.isNewSection()) { // ο  ʿ 
-			Assembler.numberOfSection++;
-		}
-	}
-	
-	/** 
-	 * n,i,x,b,p,e flag Ѵ. 
-	 * 
-	 *   : setFlag(nFlag, 1); 
-	 *   Ǵ     setFlag(TokenTable.nFlag, 1);
-	 * 
-	 * @param flag : ϴ Ʈ ġ
-	 * @param value : ְ ϴ . 1Ǵ 0 Ѵ.
-	 */
-	public void setFlag(int flag, int value) {
-		if(this.getFlag(flag) == flag) { // ÷װ  Ǿ  
-			if(value == 0) {
-				this.nixbpe -= flag;
-			}
-		} else { // ÷װ  Ǿ   
-			if(value == 1) {
-				this.nixbpe += flag;
-			}
-		}
-	}
-	
-	/**
-	 * ϴ flag    ִ. flag   ÿ  ÷׸    ϴ 
-	 * 
-	 *   : getFlag(nFlag)
-	 *   Ǵ     getFlag(nFlag|iFlag)
-	 * 
-	 * @param flags :  Ȯϰ ϴ Ʈ ġ
-	 * @return : Ʈġ  ִ . ÷׺  32, 16, 8, 4, 2, 1   .
-	 */
-	public int getFlag(int flags) {
-		return nixbpe & flags;
+		return token.objectCode;
 	}
 	
-	/**
-	 *  Ǽ  ӽ÷ ̵
-	 */
 	@Override
 	public String toString(){
-	    return 	 "{ "
-	    		+ "location : " + this.location + ","
-	    		+ "label : " + this.label + ", "
-	    		+ "operator : " + this.operator + ", "
-	    		+ "operand : " + Arrays.toString(this.operand) + ","
-				+ "nixbpe : " + (int)this.nixbpe
-	    		+ " }";
+	    return tokenList.toString();
 	}
 }
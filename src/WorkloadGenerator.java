@@ -0,0 +1,471 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import exception.InitException;
+
+/**
+ * 시드가 같으면 항상 같은 SIC/XE 프로그램을 만드는 부하 생성기. (빌드 장비 용량 산정, 확장성 측정용)
+ * 생성된 프로그램은 이 어셈블러로 오류 없이 어셈블된다.
+ *
+ * 사용법 : java WorkloadGenerator [-seed n] [-lines n] [-sections n] [-labels n] [-literals 비율] [-ltorg n]
+ *                                [-fanout n] [-equ n] [-mix f2:f3:f4] [-o 파일]
+ *   -lines : 전체 문장 수 (섹션별로 나눈다)
+ *   -sections : CSECT 수 (START 섹션 포함)
+ *   -labels : 섹션별 레이블 수
+ *   -literals : 포맷 3 명령 중 리터럴 operand의 비율 (0 ~ 1)
+ *   -ltorg : LTORG 사이의 문장 수 (리터럴 pool이 PC 상대 주소 범위를 넘지 않도록 필요하면 더 자주 넣는다)
+ *   -fanout : 섹션별 EXTDEF 수와 EXTREF 수 (EXTDEF, EXTREF는 이름이 2개 이상 필요하므로 1이면 2로 처리)
+ *   -equ : EQU 수식의 항 수 (0이면 EQU 수식을 만들지 않는다)
+ *   -mix : 명령어 포맷 2, 3, 4의 비율
+ *
+ * 이름은 영문자만 사용한다. (심볼은 StringUtil.isLetter를 만족해야 한다)
+ *   1) 섹션 : S + 섹션 번호
+ *   2) 레이블 : L + 섹션 번호 + Q + 레이블 번호 (번호는 A~P의 16진수이므로 섹션 사이에 겹치지 않는다)
+ */
+public class WorkloadGenerator {
+	long seed = 1;
+	int lines = 1000;
+	int sections = 1;
+	int labels = 50;
+	double literalDensity = 0.1;
+	int ltorgInterval = 200;
+	int fanout = 4;
+	int equDepth = 3;
+	int[] formatMix = { 2, 7, 1 }; // 포맷 2, 3, 4
+	
+	/**
+	 * 생성기의 메인 루틴
+	 */
+	public static void main(String[] args) {
+		WorkloadGenerator generator = new WorkloadGenerator();
+		String outputFile = null;
+		
+		// 인자 분석
+		for(int i = 0; i < args.length; i++) {
+			if(i + 1 >= args.length) {
+				usage();
+			} else if(args[i].equals("-o")) {
+				outputFile = args[++i];
+			} else if(!generator.setOption(args[i], args[++i])) {
+				usage();
+			}
+		}
+		
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(
+					outputFile == null ? System.out : Files.newOutputStream(Paths.get(outputFile)), StandardCharsets.ISO_8859_1), 1 << 16);
+			
+			generator.generate(writer);
+			writer.flush();
+			
+			if(outputFile != null) {
+				writer.close();
+			}
+		} catch(IOException e) {
+			throw new InitException("An error occurred while writing the " + outputFile + ".");
+		}
+	}
+	
+	private static void usage() {
+		System.err.println("usage: java WorkloadGenerator [-seed n] [-lines n] [-sections n] [-labels n] [-literals ratio] [-ltorg n] [-fanout n] [-equ n] [-mix f2:f3:f4] [-o file]");
+		System.exit(2);
+	}
+	
+	/**
+	 * 옵션 하나를 설정한다.
+	 * @param option : 옵션 이름 (-seed 등)
+	 * @param value
+	 * @return 알 수 없는 옵션이면 false
+	 */
+	boolean setOption(String option, String value) {
+		switch(option) {
+		case "-seed": seed = Long.parseLong(value); break;
+		case "-lines": lines = Integer.parseInt(value); break;
+		case "-sections": sections = Integer.parseInt(value); break;
+		case "-labels": labels = Integer.parseInt(value); break;
+		case "-literals": literalDensity = Double.parseDouble(value); break;
+		case "-ltorg": ltorgInterval = Integer.parseInt(value); break;
+		case "-fanout": fanout = Integer.parseInt(value); break;
+		case "-equ": equDepth = Integer.parseInt(value); break;
+		case "-mix":
+			String[] mix = value.split(":");
+			
+			if(mix.length != 3) {
+				return false;
+			}
+			
+			for(int i = 0; i < 3; i++) {
+				formatMix[i] = Integer.parseInt(mix[i]);
+			}
+			break;
+		default:
+			return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 설정에 따라 프로그램 전체를 생성한다.
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void generate(Writer writer) throws IOException {
+		int sectionCount = Math.max(1, Math.min(sections, lines / 8)); // 섹션마다 최소한의 문장이 필요하다.
+		int remaining = lines;
+		
+		for(int section = 0; section < sectionCount; section++) {
+			int sectionLines = remaining / (sectionCount - section);
+			
+			new SectionWriter(this, writer, new Random(seed ^ section * 0x9E3779B97F4A7C15L), section, sectionCount, sectionLines).write();
+			remaining = remaining - sectionLines;
+		}
+	}
+	
+	/**
+	 * 번호를 A~P 문자의 16진수로 변환한다.
+	 * @param number
+	 * @return
+	 */
+	static String letters(int number) {
+		StringBuilder buffer = new StringBuilder();
+		
+		do {
+			buffer.append((char) ('A' + (number & 0xF)));
+			number = number >>> 4;
+		} while(number != 0);
+		
+		return buffer.reverse().toString();
+	}
+	
+	static String sectionName(int section) {
+		return "S" + letters(section);
+	}
+	
+	static String labelName(int section, int label) {
+		return "L" + letters(section) + "Q" + letters(label);
+	}
+}
+
+/**
+ * 섹션 하나를 생성한다. 주소를 직접 계산하여 포맷 3의 심볼, 리터럴 참조가 PC 상대 주소 범위 안에 있도록 한다.
+ */
+class SectionWriter {
+	/** PC 상대 주소의 범위 (포맷 3 disp) */
+	private static final int PC_RANGE = 2047;
+	/** 리터럴 pool을 배치해야 하는 거리 (PC_RANGE 보다 작게) */
+	private static final int POOL_RANGE = 1500;
+	
+	private static final String[] FORMAT2 = { "CLEAR", "TIXR", "COMPR", "ADDR", "SUBR", "RMO" };
+	private static final String[] FORMAT3 = { "LDA", "STA", "LDX", "STX", "LDT", "COMP", "ADD", "SUB", "LDCH", "STCH", "J", "JEQ", "JLT", "JGT" };
+	private static final String[] FORMAT4 = { "JSUB", "LDA", "STA", "LDT", "LDCH", "STCH" };
+	private static final String[] REGISTERS = { "A", "X", "S", "T" };
+	
+	private final WorkloadGenerator generator;
+	private final Writer writer;
+	private final Random random;
+	private final int section;
+	private final int sectionCount;
+	private final int lines;
+	
+	private final StringBuilder line = new StringBuilder(64);
+	private int written; // 생성한 문장 수
+	private int location; // 현재 주소
+	private int labelCount; // 정의한 레이블 수
+	private int labelEvery; // 레이블을 붙이는 문장 간격
+	private int sinceLtorg; // 마지막 LTORG 이후 문장 수
+	
+	private final ArrayList<Integer> labelLocation = new ArrayList<>(); // 레이블 번호 -> 주소 (EQU는 -1)
+	private final HashMap<String, Integer> literalLocation = new HashMap<>(); // 리터럴 데이터 -> 주소 (섹션 안에서 데이터 별로 한 번만 배치된다. 배치 전에는 -1)
+	private final ArrayList<String> pendingLiteral = new ArrayList<>(); // 아직 배치되지 않은 리터럴
+	private int pendingSize; // 배치되지 않은 리터럴의 크기
+	private int firstPendingLocation = -1; // 배치되지 않은 리터럴을 처음 참조한 주소
+	private final ArrayList<String> extrefList = new ArrayList<>();
+	
+	SectionWriter(WorkloadGenerator generator, Writer writer, Random random, int section, int sectionCount, int lines) {
+		this.generator = generator;
+		this.writer = writer;
+		this.random = random;
+		this.section = section;
+		this.sectionCount = sectionCount;
+		this.lines = lines;
+	}
+	
+	/**
+	 * 섹션 전체를 기록한다. 마지막 섹션은 END로 끝난다.
+	 * @throws IOException
+	 */
+	void write() throws IOException {
+		int fanout = Math.max(0, Math.min(generator.fanout, generator.labels));
+		
+		if(fanout == 1) { // EXTDEF, EXTREF는 이름이 2개 이상 필요하다. (inst.data)
+			fanout = generator.labels >= 2 ? 2 : 0;
+		}
+		int body = lines - 2 - (fanout > 0 ? 1 : 0) - (sectionCount > 1 && fanout > 0 ? 1 : 0) - (section == sectionCount - 1 ? 1 : 0);
+		
+		labelEvery = Math.max(1, body / Math.max(generator.labels, 1));
+		
+		// 섹션 시작
+		this.statement(WorkloadGenerator.sectionName(section), section == 0 ? "START" : "CSECT", section == 0 ? "0" : null);
+		
+		if(fanout > 0) { // 먼저 정의될 레이블을 외부에 공개
+			StringBuilder extdef = new StringBuilder();
+			
+			for(int i = 0; i < fanout; i++) {
+				extdef.append(i == 0 ? "" : ",").append(WorkloadGenerator.labelName(section, i));
+			}
+			
+			this.statement(null, "EXTDEF", extdef.toString());
+		}
+		
+		if(sectionCount > 1 && fanout > 0) { // 다른 섹션이 공개한 레이블 참조
+			StringBuilder extref = new StringBuilder();
+			
+			while(extrefList.size() < fanout) { // 서로 다른 이름 fanout개 (다른 섹션이 공개한 이름은 fanout개 이상)
+				int other = (section + 1 + random.nextInt(sectionCount - 1)) % sectionCount;
+				String name = WorkloadGenerator.labelName(other, random.nextInt(fanout));
+				
+				if(!extrefList.contains(name)) {
+					extref.append(extrefList.isEmpty() ? "" : ",").append(name);
+					extrefList.add(name);
+				}
+			}
+			
+			this.statement(null, "EXTREF", extref.toString());
+		}
+		
+		// 본문
+		while(written < lines - 2) {
+			if(sinceLtorg >= generator.ltorgInterval || (firstPendingLocation >= 0 && location + pendingSize - firstPendingLocation > POOL_RANGE)) {
+				this.ltorg();
+				continue;
+			}
+			
+			this.body();
+		}
+		
+		// 섹션 끝 (남은 리터럴은 RSUB 뒤의 LTORG 또는 END에서 배치)
+		this.statement(null, "RSUB", null);
+		
+		if(section == sectionCount - 1) {
+			this.statement(null, "END", WorkloadGenerator.sectionName(0));
+		} else {
+			this.ltorg();
+		}
+	}
+	
+	/**
+	 * 본문 문장 하나를 생성한다.
+	 * @throws IOException
+	 */
+	private void body() throws IOException {
+		String label = null;
+		
+		if(written % labelEvery == 0 && labelCount < generator.labels) {
+			label = WorkloadGenerator.labelName(section, labelCount);
+		}
+		
+		int roll = random.nextInt(100);
+		
+		if(label != null && labelCount > generator.fanout && roll < 5 && generator.equDepth > 0) { // EQU 수식 (공개 레이블은 항상 주소를 가진다)
+			this.equ(label);
+			return;
+		}
+		
+		if(label != null && roll < 10) { // 데이터 영역
+			int words = 1 + random.nextInt(4);
+			
+			this.define(location);
+			this.statement(label, "RESW", Integer.toString(words));
+			location = location + words * 3;
+			return;
+		}
+		
+		if(label == null && !extrefList.isEmpty() && roll < 3) { // 외부 참조 수식
+			this.statement(null, "WORD", extrefList.get(random.nextInt(extrefList.size())));
+			location = location + 3;
+			return;
+		}
+		
+		int[] mix = generator.formatMix;
+		int format = random.nextInt(Math.max(mix[0] + mix[1] + mix[2], 1));
+		
+		if(label != null) {
+			this.define(location);
+		}
+		
+		if(format < mix[0]) { // 포맷 2
+			String operator = FORMAT2[random.nextInt(FORMAT2.length)];
+			String register = REGISTERS[random.nextInt(REGISTERS.length)];
+			
+			if(operator.equals("CLEAR") || operator.equals("TIXR")) {
+				this.statement(label, operator, register);
+			} else {
+				this.statement(label, operator, register + "," + REGISTERS[random.nextInt(REGISTERS.length)]);
+			}
+			
+			location = location + 2;
+		} else if(format < mix[0] + mix[1]) { // 포맷 3
+			this.statement(label, FORMAT3[random.nextInt(FORMAT3.length)], this.format3Operand());
+			location = location + 3;
+		} else { // 포맷 4
+			String operand;
+			
+			if(!extrefList.isEmpty() && random.nextBoolean()) {
+				operand = extrefList.get(random.nextInt(extrefList.size()));
+			} else if(labelCount > 0) {
+				operand = this.anyLabel();
+			} else {
+				operand = "#" + random.nextInt(4096);
+			}
+			
+			this.statement(label, "+" + FORMAT4[random.nextInt(FORMAT4.length)], operand);
+			location = location + 4;
+		}
+		
+		sinceLtorg++;
+	}
+	
+	/**
+	 * 포맷 3의 operand를 만든다. 심볼은 PC 상대 주소 범위 안의 레이블만 사용한다.
+	 * @return
+	 */
+	private String format3Operand() {
+		if(random.nextDouble() < generator.literalDensity) { // 리터럴
+			for(int i = 0; i < 4; i++) {
+				String literal = random.nextBoolean()
+						? "=X'" + String.format("%02X", random.nextInt(256)) + "'"
+						: "=C'" + WorkloadGenerator.letters(random.nextInt(4096)) + "'";
+				String data = literal.substring(3, literal.length() - 1); // LiteralTable은 데이터로 구분한다. (=C'AB'와 =X'AB'는 같은 리터럴)
+				Integer address = literalLocation.get(data);
+				
+				if(address == null) { // 다음 pool에 배치된다.
+					literalLocation.put(data, -1);
+					pendingLiteral.add(literal);
+					pendingSize = pendingSize + (literal.charAt(1) == 'X' ? 1 : literal.length() - 4);
+					
+					if(firstPendingLocation < 0) {
+						firstPendingLocation = location;
+					}
+					
+					return literal;
+				} else if(address < 0 || location + 3 - address <= PC_RANGE) { // 배치 예정이거나 이미 범위 안에 배치된 리터럴
+					return literal;
+				}
+			}
+		}
+		
+		int label = this.nearLabel();
+		
+		if(label >= 0 && random.nextInt(4) != 0) {
+			return WorkloadGenerator.labelName(section, label) + (random.nextInt(8) == 0 ? ",X" : "");
+		}
+		
+		return "#" + random.nextInt(2048);
+	}
+	
+	/**
+	 * EQU 수식을 생성한다. 앞에서 주소가 정해진 레이블만 사용한다.
+	 * @param label
+	 * @throws IOException
+	 */
+	private void equ(String label) throws IOException {
+		int depth = generator.equDepth;
+		StringBuilder expression = new StringBuilder();
+		
+		for(int i = 0; i < depth; i++) {
+			if(i > 0) {
+				expression.append(random.nextBoolean() ? '+' : '-');
+			}
+			
+			expression.append(this.anyLabel());
+		}
+		
+		labelLocation.add(-1); // 주소 참조에는 사용하지 않는다.
+		labelCount++;
+		this.statement(label, "EQU", depth == 1 && random.nextBoolean() ? "*" : expression.toString());
+	}
+	
+	/**
+	 * LTORG를 생성하고 리터럴 pool 만큼 주소를 증가시킨다.
+	 * @throws IOException
+	 */
+	private void ltorg() throws IOException {
+		this.statement(null, "LTORG", null);
+		
+		for(String literal : pendingLiteral) { // 등록된 순서대로 배치된다.
+			literalLocation.put(literal.substring(3, literal.length() - 1), location);
+			location = location + (literal.charAt(1) == 'X' ? 1 : literal.length() - 4);
+		}
+		
+		pendingLiteral.clear();
+		pendingSize = 0;
+		firstPendingLocation = -1;
+		sinceLtorg = 0;
+	}
+	
+	private void define(int address) {
+		labelLocation.add(address);
+		labelCount++;
+	}
+	
+	/**
+	 * PC 상대 주소 범위 안의 레이블을 찾는다. (최근 레이블부터)
+	 * @return 레이블 번호. 없으면 -1
+	 */
+	private int nearLabel() {
+		int tries = Math.min(labelCount, 4);
+		
+		for(int i = 0; i < tries; i++) {
+			int label = labelCount - 1 - random.nextInt(Math.min(labelCount, 16));
+			int address = labelLocation.get(label);
+			
+			if(address >= 0 && location + 3 - address <= PC_RANGE) {
+				return label;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 주소를 가진 아무 레이블이나 선택한다.
+	 * @return
+	 */
+	private String anyLabel() {
+		int label;
+		
+		do {
+			label = random.nextInt(labelCount);
+		} while(labelLocation.get(label) < 0);
+		
+		return WorkloadGenerator.labelName(section, label);
+	}
+	
+	/**
+	 * 문장 하나를 기록한다. (레이블, 명령어, operand를 탭으로 구분)
+	 * @param label
+	 * @param operator
+	 * @param operand
+	 * @throws IOException
+	 */
+	private void statement(String label, String operator, String operand) throws IOException {
+		line.setLength(0);
+		line.append(label == null ? "" : label).append('\t').append(operator);
+		
+		if(operand != null) {
+			line.append('\t').append(operand);
+		}
+		
+		writer.append(line).append('\n');
+		written++;
+	}
+}
@@ -0,0 +1,28 @@
+package exception;
+
+/**
+ * 소스의 오류로 어셈블을 진행할 수 없을 때 호출 (어셈블 오류의 공통 부모)
+ * 소스 오류는 호출 위치가 의미 없으므로 stack trace를 만들지 않는다. (오류가 많은 소스도 빠르게 진단)
+ */
+public class AssemblerException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	/** 오류의 원인이 된 심볼, 리터럴 등. 없으면 null */
+	private final String token;
+	
+	public AssemblerException(String msg) {
+		this(msg, null);
+	}
+	
+	
+	public AssemblerException(String msg, String token) {
+		super(msg, null, false, false); // suppression, stack trace 비활성화
+		this.token = token;
+	}
+	
+	
+	public String getToken() {
+		return token;
+	}
+}
@@ -1,7 +1,7 @@
 package exception;
 
 /**
- * Init     ߻ ȣ
+ * Init 과정 수행 중 오류가 발생시 호출
  * 
  * @author Cary
  *
@@ -1,12 +1,12 @@
 package exception;
 
 /**
- * ͷ ߺ ϵǾ  ȣ
+ * 리터럴이 중복 등록되었을 때 호출
  * 
  * @author Cary
  *
  */
-public class LiteralDuplicationException extends RuntimeException {
+public class LiteralDuplicationException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
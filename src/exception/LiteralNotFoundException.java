@@ -1,12 +1,12 @@
 package exception;
 
 /**
- * ͷ   ȣ
+ * 리터럴이 없을 때 호출
  * 
  * @author Cary
  *
  */
-public class LiteralNotFoundException extends RuntimeException {
+public class LiteralNotFoundException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,19 @@
+package exception;
+
+/**
+ * 어셈블 결과 파일 저장 중 오류가 발생시 호출
+ */
+public class OutputException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	
+	public OutputException() {
+		super("An error occurred while writing output.");
+	}
+	
+	
+	public OutputException(String msg) {
+		super(msg);
+	}
+}
@@ -1,12 +1,12 @@
 package exception;
 
 /**
- * Ҵ ũ⺸ ū Ͱ ߻ 
+ * 할당한 크기보다 큰 데이터가 발생했을 때
  * 
  * @author Cary
  *
  */
-public class SizeOverflowException extends RuntimeException {
+public class SizeOverflowException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
@@ -1,16 +1,20 @@
 package exception;
 
 /**
- * ɺ ߺ ϵǾ  ȣ
+ * 심볼이 중복 등록되었을 때 호출
  * 
  * @author Cary
  *
  */
-public class SymbolDuplicationException extends RuntimeException {
+public class SymbolDuplicationException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
 	public SymbolDuplicationException() {
 		super("Duplicate symbol exist.");
 	}
+	
+	public SymbolDuplicationException(String symbol) {
+		super("Duplicate symbol exist.", symbol);
+	}
 }
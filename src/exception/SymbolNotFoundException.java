@@ -1,16 +1,20 @@
 package exception;
 
 /**
- * ɺ   ȣ
+ * 심볼이 없을 때 호출
  * 
  * @author Cary
  *
  */
-public class SymbolNotFoundException extends RuntimeException {
+public class SymbolNotFoundException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
 	public SymbolNotFoundException() {
 		super("Symbol not found.");
 	}
+	
+	public SymbolNotFoundException(String symbol) {
+		super("Symbol not found.", symbol);
+	}
 }
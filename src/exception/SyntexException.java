@@ -1,12 +1,12 @@
 package exception;
 
 /**
- * ū Ľ     ߻ ȣ
+ * 토큰 파싱 과정 수행 중 오류가 발생시 호출
  * 
  * @author Cary
  *
  */
-public class SyntexException extends RuntimeException {
+public class SyntexException extends AssemblerException {
 
 	private static final long serialVersionUID = 1L;
 
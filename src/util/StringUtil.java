@@ -1,37 +1,27 @@
 package util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
- * ڿ ƿƼ
+ * 문자열 유틸리티
  * 
  * @author Cary
  *
  */
 public class StringUtil {
 	
-	private static final String LITERAL_PATTERN_REGEXP = "^={1}[CX]{1}[']{1}[0-9a-zA-Z]*[']{1}$";
-	private static final String LITERAL_FIND_PATTERN_REGEXP = "'[0-9a-zA-Z]*'";
-	private static final String DATA_PATTERN_REGEXP = "^[CX]{1}[']{1}[0-9a-zA-Z]*[']{1}$";
-	private static final String DATA_FIND_PATTERN_REGEXP = "'[0-9a-zA-Z]*'";
-	private static int FIND_TOKEN_INDEX = 0;
-	private static int FIND_TOKEN_TYPE = -1; // 0 : END, 1 : TOKEN, 2 : OPERATOR
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
 
 	/**
-	 * ڿ ̰ų empty   ڿ 
+	 * 문자열이 널이거나 empty일 경우 빈 문자열 리턴
 	 * 
 	 * @param val
 	 * @return
 	 */
 	public static String nvl(String val) {
-		val = val.trim();
-
 		return nvl(val, "");
 	}
 
 	/**
-	 * ڿ ̰ų empty  rep 
+	 * 문자열이 널이거나 empty일 경우 rep 리턴
 	 * 
 	 * @param val
 	 * @param rep
@@ -48,17 +38,27 @@ public class StringUtil {
 	}
 
 	/**
-	 * ڿ ̰ų empty   ڿ 
+	 * 문자열이 널이거나 empty일 경우 빈 문자열 리턴
 	 * 
 	 * @param val
 	 * @return
 	 */
 	public static boolean isEmpty(String val) {
-		return nvl(val, "").equals("");
+		if(val == null) {
+			return true;
+		}
+		
+		for(int i = 0; i < val.length(); i++) { // trim() 없이 공백이 아닌 문자가 있는지 확인
+			if(val.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		
+		return true;
 	}
 
 	/**
-	 * ڿ  ڷθ ̷ ִ ȮѴ.
+	 * 문자열이 모두 숫자로만 이루어져 있는지 확인한다.
 	 * 
 	 * @param str
 	 * @return
@@ -82,7 +82,7 @@ public class StringUtil {
 	}
 	
 	/**
-	 * ڿ  ڷθ ̷ ִ ȮѴ.
+	 * 문자열이 모두 문자로만 이루어져 있는지 확인한다.
 	 * 
 	 * @param str
 	 * @return
@@ -106,21 +106,21 @@ public class StringUtil {
 	}
 	
 	/**
-	 * ڿ ͷ ȮѴ.
+	 * 문자열이 리터럴인지 확인한다.
 	 * 
 	 * @param str
 	 * @return
 	 */
 	public static boolean isLiteral(String str) {
-		if(StringUtil.isEmpty(str)) {
+		if(str == null || str.length() < 4 || str.charAt(0) != '=') { // =C'' 가 최소 길이
 			return false;
 		}
 		
-        return Pattern.matches(LITERAL_PATTERN_REGEXP, str);
+		return StringUtil.isFormAt(str, 1);
 	}
 	
 	/**
-	 * ͷ ڿ  κи Ѵ.
+	 * 리터럴 문자열에서 문자 부분만 추출한다.
 	 * 
 	 * @param str
 	 * @return
@@ -130,21 +130,11 @@ public class StringUtil {
 			return null;
 		}
 		
-		Pattern pattern = Pattern.compile(LITERAL_FIND_PATTERN_REGEXP);
-		Matcher matcher = pattern.matcher(str);
-		
-		if(matcher.find()) {
-			String matchers = matcher.group();
-			matchers = matchers.replace("'", "");
-			
-			return matchers;
-		}
-		
-		return null;
+		return str.substring(3, str.length() - 1); // =C' 와 마지막 ' 를 제외
 	}
 	
 	/**
-	 * ͷ Ÿ Ѵ.
+	 * 리터럴의 타입을 추출한다.
 	 * 
 	 * @param str
 	 * @return
@@ -158,16 +148,18 @@ public class StringUtil {
 	}
 	
 	/**
-	 *  ȸѴ.
+	 * 수식인지 조회한다.
 	 * 
 	 * @param str
 	 * @return
 	 */
 	public static boolean isArithmetic(String str) {
-		if(!str.startsWith("+") && !str.startsWith("-") //  ΰ 
-				&& !str.startsWith("*") && !str.startsWith("/")) {
-			if(str.contains("-") || str.contains("+")  //  ȣ ϳ ϸ
-					|| str.contains("*") || str.contains("/")) {
+		if(str.length() == 0 || isOperator(str.charAt(0))) { // 시작점이 수식인것은 제외
+			return false;
+		}
+		
+		for(int i = 1; i < str.length(); i++) { // 수식 기호를 하나라도 포함하면
+			if(isOperator(str.charAt(i))) {
 				return true;
 			}
 		}
@@ -176,7 +168,17 @@ public class StringUtil {
 	}
 	
 	/**
-	 *  ڿ 迭 ߶ ȸ
+	 * 사칙연산 기호인지 확인한다.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	private static boolean isOperator(char c) {
+		return c == '+' || c == '-' || c == '*' || c == '/';
+	}
+	
+	/**
+	 * 수식을 문자열의 배열로 잘라서 조회
 	 * 
 	 * @param str
 	 * @return
@@ -186,32 +188,36 @@ public class StringUtil {
 			return null;
 		}
 		
-		//  ʱȭ
-		FIND_TOKEN_INDEX = 0;
-		FIND_TOKEN_TYPE = -1;
-		int i = 0;
+		// 항/기호 수를 먼저 세어 결과 배열의 크기를 정한다. (탐색 위치는 지역 변수로 관리하여 여러 스레드에서 동시에 호출할 수 있다)
+		int count = 0;
 		
-		String[] arithmetic = new String[10];
-		String data = StringUtil.getToken(str);
+		for(int index = 0, end = StringUtil.getTokenEnd(str, 0); end > index; index = end, end = StringUtil.getTokenEnd(str, index)) {
+			count++;
+		}
+		
+		String[] arithmetic = new String[count];
+		int index = 0;
 		
-		while(FIND_TOKEN_TYPE != 0) {
-			arithmetic[i++] = data;
-			data = StringUtil.getToken(str);
+		for(int i = 0; i < count; i++) {
+			int end = StringUtil.getTokenEnd(str, index);
+			
+			arithmetic[i] = str.substring(index, end);
+			index = end;
 		}
 		
 		return arithmetic;
 	}
 	
 	/**
-	 * 巹 带 ȯѴ.
+	 * 어드레싱 모드를 반환한다.
 	 * 
 	 * @param str
 	 * @return
 	 */
 	public static int getAddressingMode(String str) {
-		if(str.startsWith("@")) { //  
+		if(str.startsWith("@")) { // 간접 참조
 			return 32;
-		} else if(str.startsWith("#")) { //  
+		} else if(str.startsWith("#")) { // 직접 참조
 			return 16;
 		}
 		
@@ -219,7 +225,7 @@ public class StringUtil {
 	}
 	
 	/**
-	 * ڿ ޾  ȣ ȯѴ.
+	 * 문자열을 받아 레지스터의 번호를 반환한다.
 	 * 
 	 * @param str
 	 * @return
@@ -253,90 +259,149 @@ public class StringUtil {
 	}
 	
 	/**
-	 * ڿ Ư   ڿ ȮѴ.
+	 * 문자열이 특수 형식을 가진 문자열인지 확인한다.
 	 * 
 	 * @param str
 	 * @return
 	 */
 	public static boolean isForm(String str) {
-		if(StringUtil.isEmpty(str)) {
+		if(str == null) {
 			return false;
 		}
 		
-        return Pattern.matches(DATA_PATTERN_REGEXP, str);
+		return StringUtil.isFormAt(str, 0);
 	}
 	
 	/**
-	 * Ư  ڿ  κи Ѵ.
+	 * 문자열의 offset 위치부터 끝까지가 C'...' 또는 X'...' 형식인지 한 번의 순회로 확인한다.
+	 * 따옴표 안에는 영문자와 숫자만 허용한다.
 	 * 
 	 * @param str
+	 * @param offset
 	 * @return
 	 */
-	public static String getFormDataToHex(String str) {
-		if(!StringUtil.isForm(str)) {
-			return null;
+	private static boolean isFormAt(String str, int offset) {
+		int last = str.length() - 1;
+		
+		if(last - offset < 2) { // C'' 가 최소 길이
+			return false;
 		}
 		
-		Pattern pattern = Pattern.compile(DATA_FIND_PATTERN_REGEXP);
-		Matcher matcher = pattern.matcher(str);
+		char type = str.charAt(offset);
 		
-		if(matcher.find()) {
-			String hexData = "";
-			String matchers = matcher.group();
-			matchers = matchers.replace("'", "");
+		if((type != 'C' && type != 'X') || str.charAt(offset + 1) != '\'' || str.charAt(last) != '\'') {
+			return false;
+		}
+		
+		for(int i = offset + 2; i < last; i++) {
+			char c = str.charAt(i);
 			
-			if(str.charAt(0) == 'X') {
-				hexData = matchers;
-			} else if(str.charAt(0) == 'C') {
-				for(int i = 0; i < matchers.length(); i++) {
-					hexData = hexData + String.format("%02X", str.charAt(i));
-				}
+			if(!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+				return false;
 			}
-			
-			return matchers;
 		}
 		
-		return null;
+		return true;
 	}
 	
 	/**
-	 * ڿ ū  ڸ Լ 
+	 * 형식이 있는 문자열(C'EOF', =X'05')에서 데이터가 시작하는 위치를 반환한다.
+	 * 데이터는 반환값부터 str.length() - 1 전까지이다.
+	 * 
+	 * @param str
+	 * @return 데이터 시작 위치. 형식이 없을 경우 -1
+	 */
+	public static int getFormDataOffset(String str) {
+		if(StringUtil.isForm(str)) {
+			return 2;
+		} else if(StringUtil.isLiteral(str)) {
+			return 3;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * 특수 형식 문자열에서 문자 부분만 추출한다.
 	 * 
 	 * @param str
 	 * @return
 	 */
-	private static String getToken(String str) {
-		if(FIND_TOKEN_INDEX >= str.length()) { // ڿ ũⰡ ̶
-			FIND_TOKEN_TYPE = 0;
+	public static String getFormDataToHex(String str) {
+		if(!StringUtil.isForm(str)) {
 			return null;
 		}
 		
-		if(Character.isLetter(str.charAt(FIND_TOKEN_INDEX))) { // ڶ
-			String newStr = "";
+		int last = str.length() - 1;
+		
+		if(str.charAt(0) == 'X') {
+			return str.substring(2, last);
+		}
+		
+		StringBuilder hexData = new StringBuilder((last - 2) * 2);
+		
+		for(int i = 2; i < last; i++) { // 문자는 한 글자씩 HEX 두 자리
+			StringUtil.appendHex(hexData, str.charAt(i), 2);
+		}
+		
+		return hexData.toString();
+	}
+	
+	/**
+	 * 값을 width 자리의 대문자 HEX 문자열로 버퍼에 추가한다. (String.format("%0nX") 대체)
+	 * 값이 width 자리를 넘으면 하위 자리만 추가한다.
+	 * 
+	 * @param buffer
+	 * @param value
+	 * @param width
+	 */
+	public static void appendHex(StringBuilder buffer, int value, int width) {
+		for(int shift = (width - 1) * 4; shift >= 0; shift -= 4) {
+			buffer.append(HEX_DIGITS[(value >>> shift) & 0xF]);
+		}
+	}
+	
+	/**
+	 * byte 배열을 대문자 HEX 문자열로 변환한다. (해시값 등)
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static String toHex(byte[] data) {
+		StringBuilder buffer = new StringBuilder(data.length * 2);
+		
+		for(byte b : data) {
+			appendHex(buffer, b, 2);
+		}
+		
+		return buffer.toString();
+	}
+	
+	/**
+	 * 문자열을 토큰 단위로 자르는 함수 
+	 * index 부터 시작하는 토큰(문자열 또는 수식 기호 하나)의 끝 위치를 반환한다.
+	 * 
+	 * @param str
+	 * @param index : 탐색 시작 위치
+	 * @return 토큰의 끝 위치. 토큰이 없을 경우 index
+	 */
+	private static int getTokenEnd(String str, int index) {
+		if(index >= str.length()) { // 문자열의 크기가 끝이라면
+			return index;
+		}
+		
+		if(Character.isLetter(str.charAt(index))) { // 문자라면
+			int end = index;
 			
-			for(int i = FIND_TOKEN_INDEX; i < str.length(); i++) { // ڰ    ݺ
-				if(Character.isLetter(str.charAt(i))) {
-					newStr = newStr + str.charAt(i);
-					FIND_TOKEN_INDEX++;
-				} else {
-					break;
-				}
+			while(end < str.length() && Character.isLetter(str.charAt(end))) { // 문자가 끝날 때 까지 반복
+				end++;
 			}
 			
-			FIND_TOKEN_TYPE = 1; // ū
-			return newStr;
-		} else if(str.charAt(FIND_TOKEN_INDEX) == '+' || str.charAt(FIND_TOKEN_INDEX) == '-' //  ȣ   
-				|| str.charAt(FIND_TOKEN_INDEX) == '*' || str.charAt(FIND_TOKEN_INDEX) == '/') {
-			
-			char symbol = str.charAt(FIND_TOKEN_INDEX);
-			
-			FIND_TOKEN_INDEX++;
-			FIND_TOKEN_TYPE = 2; // 
-			
-			return String.valueOf(symbol);
+			return end;
+		} else if(isOperator(str.charAt(index))) { // 수식 기호의 경우 한 글자
+			return index + 1;
 		}
 		
-		FIND_TOKEN_TYPE = 0;
-		return null;
+		return index;
 	}
 }
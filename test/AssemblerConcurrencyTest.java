@@ -0,0 +1,200 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 하나의 InstTable을 공유하는 여러 Assembler를 동시에 실행한 결과가 하나씩 실행한 결과와 같은지 확인한다.
+ * 생성기로 만든 여러 소스(섹션 수, 리터럴, EQU 수식, 포맷 비율이 다름)와 오류가 있는 소스를 사용한다.
+ */
+public class AssemblerConcurrencyTest {
+	private static final int SOURCES = 24;
+	private static final int THREADS = 8;
+	private static final int ROUNDS = 4;
+	
+	private static InstTable instTable;
+	private static ExecutorService executor;
+	
+	@TempDir
+	static Path directory;
+	
+	/** 소스별 input 파일 */
+	private static List<Path> fileList;
+	/** 소스별 하나씩 실행한 결과 */
+	private static List<String> expectedList;
+	
+	@BeforeAll
+	static void prepare() throws IOException {
+		instTable = new InstTable();
+		executor = Executors.newFixedThreadPool(THREADS);
+		fileList = new ArrayList<>();
+		expectedList = new ArrayList<>();
+		
+		for(int i = 0; i < SOURCES; i++) {
+			fileList.add(write("source" + i + ".asm", generate(i)));
+		}
+		
+		fileList.add(write("input.asm", new String(Files.readAllBytes(Paths.get("src/input.txt")), StandardCharsets.ISO_8859_1)));
+		fileList.add(write("error.asm", generate(0).replaceFirst("\n", "\n\tLDA\tNOWHERE\n"))); // 정의되지 않은 심볼
+		
+		for(Path file : fileList) {
+			expectedList.add(assemble(file, 0));
+		}
+	}
+	
+	@AfterAll
+	static void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * 모든 소스를 여러 번씩 동시에 어셈블한다. (섹션 병렬, 파이프라인 모드를 섞음)
+	 */
+	@Test
+	void parallelAssemblyMatchesSerial() throws Exception {
+		CountDownLatch start = new CountDownLatch(1); // 모든 작업을 등록한 뒤 한 번에 시작
+		List<Future<String>> resultList = new ArrayList<>();
+		
+		for(int round = 0; round < ROUNDS; round++) {
+			for(Path file : fileList) {
+				int mode = round % 3;
+				
+				resultList.add(executor.submit(() -> {
+					start.await();
+					
+					return assemble(file, mode);
+				}));
+			}
+		}
+		
+		start.countDown();
+		
+		for(int i = 0; i < resultList.size(); i++) {
+			Path file = fileList.get(i % fileList.size());
+			
+			assertEquals(expectedList.get(i % fileList.size()), resultList.get(i).get(), file.getFileName() + " round " + i / fileList.size());
+		}
+	}
+	
+	/**
+	 * BatchAssembler를 한 스레드와 여러 스레드로 실행하여 저장한 결과 파일을 비교한다.
+	 */
+	@Test
+	void batchAssemblerMatchesSerial() throws IOException {
+		ArrayList<Path> serialList = copy("serial");
+		ArrayList<Path> parallelList = copy("parallel");
+		
+		assertEquals(1, new BatchAssembler(instTable, 1).run(serialList)); // error.asm
+		assertEquals(1, new BatchAssembler(instTable, THREADS).run(parallelList));
+		
+		for(int i = 0; i < serialList.size(); i++) {
+			for(String extension : new String[] { ".obj", ".symtab", ".littab" }) {
+				assertEquals(read(serialList.get(i), extension), read(parallelList.get(i), extension),
+						parallelList.get(i).getFileName() + extension);
+			}
+		}
+	}
+	
+	/**
+	 * 파일 하나를 어셈블한 결과 (오브젝트 프로그램, 심볼, 리터럴 테이블. 오류가 있으면 예외 이름과 메시지)
+	 * @param file
+	 * @param mode : 0 = 기본, 1 = 섹션 병렬, 2 = 파이프라인
+	 */
+	private static String assemble(Path file, int mode) {
+		Assembler assembler = new Assembler(instTable);
+		
+		assembler.setVerbose(false);
+		
+		if(mode == 1) {
+			assembler.setParallelism(4);
+		} else if(mode == 2) {
+			assembler.setPipelined(true);
+		}
+		
+		try {
+			return assembler.assemble(file.toString()) + tables(assembler);
+		} catch(RuntimeException e) {
+			return "ERROR " + e.getClass().getSimpleName() + " " + e.getMessage();
+		}
+	}
+	
+	private static String tables(Assembler assembler) {
+		StringBuilder builder = new StringBuilder();
+		
+		for(TokenTable tokenTable : assembler.TokenList) {
+			for(int i = 0; i < tokenTable.symTab.size(); i++) {
+				builder.append(tokenTable.symTab.getSymbol(i)).append('=').append(tokenTable.symTab.getLocation(i)).append(' ');
+			}
+			
+			builder.append('|');
+			
+			for(int i = 0; i < tokenTable.literalTab.size(); i++) {
+				builder.append(tokenTable.literalTab.getLiteral(i)).append('=').append(tokenTable.literalTab.getLocation(i)).append(' ');
+			}
+			
+			builder.append('\n');
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * 소스마다 설정을 바꾸어 생성한다.
+	 * @param number : 소스 번호 (seed)
+	 */
+	private static String generate(int number) throws IOException {
+		WorkloadGenerator generator = new WorkloadGenerator();
+		StringWriter writer = new StringWriter();
+		
+		generator.seed = number;
+		generator.lines = 400 + number * 150;
+		generator.sections = 1 + number % 5;
+		generator.literalDensity = 0.05 * (number % 4);
+		generator.equDepth = number % 4;
+		generator.formatMix = new int[] { 1 + number % 3, 6, 1 + number % 2 };
+		generator.generate(writer);
+		
+		return writer.toString();
+	}
+	
+	private static Path write(String name, String source) throws IOException {
+		return Files.write(directory.resolve(name), source.getBytes(StandardCharsets.ISO_8859_1));
+	}
+	
+	/**
+	 * input 파일을 하위 디렉토리로 복사한다. (결과 파일이 input 파일 옆에 저장되므로)
+	 * @param name : 하위 디렉토리 이름
+	 */
+	private static ArrayList<Path> copy(String name) throws IOException {
+		Path target = Files.createDirectories(directory.resolve(name));
+		ArrayList<Path> copyList = new ArrayList<>();
+		
+		for(Path file : fileList) {
+			copyList.add(Files.copy(file, target.resolve(file.getFileName())));
+		}
+		
+		return copyList;
+	}
+	
+	private static String read(Path file, String extension) throws IOException {
+		String name = file.toString();
+		Path output = Paths.get(name.substring(0, name.lastIndexOf('.')) + extension);
+		
+		return Files.exists(output) ? new String(Files.readAllBytes(output), StandardCharsets.ISO_8859_1) : null;
+	}
+}
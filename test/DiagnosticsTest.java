@@ -0,0 +1,42 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Diagnostics의 라인, 컬럼 계산을 확인한다. SourceBuffer와 같이 \r, \n, \r\n을 모두 라인 끝으로 본다.
+ */
+public class DiagnosticsTest {
+	@Test
+	void lineEndingsReportTheSamePosition() throws IOException {
+		String source = new String(Files.readAllBytes(Paths.get("src/input.txt")), StandardCharsets.ISO_8859_1)
+				.replace("\r\n", "\n").replaceFirst("BUFFER", "NOSUCH");
+		InstTable instTable = new InstTable();
+		String expected = diagnose(instTable, source);
+		
+		assertEquals(expected, diagnose(instTable, source.replace("\n", "\r")));
+		assertEquals(expected, diagnose(instTable, source.replace("\n", "\r\n")));
+	}
+	
+	private static String diagnose(InstTable instTable, String source) {
+		Assembler assembler = new Assembler(instTable);
+		Diagnostics diagnostics = new Diagnostics();
+		
+		assembler.setVerbose(false);
+		assembler.setDiagnostics(diagnostics);
+		
+		try {
+			assembler.assemble(new SourceBuffer(source.getBytes(StandardCharsets.ISO_8859_1)));
+		} catch(RuntimeException e) {
+			// 오류는 diagnostics에 기록된다.
+		}
+		
+		assertEquals(1, diagnostics.size());
+		
+		return diagnostics.format("input.txt");
+	}
+}
@@ -0,0 +1,316 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IncrementalAssembler의 결과가 같은 소스를 Assembler로 처음부터 어셈블한 결과와 같은지 확인한다.
+ * 고정된 seed로 라인 추가, 삭제, 변경을 무작위로 몇 개씩 묶어 적용하고, 묶음마다 오브젝트 프로그램과 심볼, 리터럴 테이블을 비교한다.
+ * 오류가 생긴 편집 묶음은 되돌려서 (되돌리는 편집도 증분으로 처리하여 오류에서 복구되는지 확인) 오류가 없는 상태에서 계속 편집한다.
+ */
+public class IncrementalAssemblerTest {
+	/** 추가, 변경에 사용하는 문장 (크기, 리터럴, LTORG, 외부 참조, EQU, 빈 라인, 주석) */
+	private static final String[] EDIT_LINES = { "\tLDA\t#3", "\t+LDA\t#3", "\t+JSUB\tRDREC", "\tRESW\t2", "\tRESB\t7",
+			"\tWORD\t5", "\tBYTE\tX'F1'", "\tLDA\t=C'ZZ'", "\tCOMP\t=X'05'", "\tLTORG", "QX\tEQU\t*", "QA\tCLEAR\tX",
+			"\tEXTREF\tRDREC,WRREC", ". comment", "", "\tCLEAR\tX", "\tRSUB", "\tCOMPR\tA,S" };
+	
+	private static InstTable instTable;
+	
+	@BeforeAll
+	static void loadInstTable() {
+		instTable = new InstTable();
+	}
+	
+	@Test
+	void randomEditsOnInputFile() throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get("src/input.txt"), StandardCharsets.ISO_8859_1);
+		
+		this.checkRandomEdits(lines, 1, 1500);
+	}
+	
+	@Test
+	void randomEditsOnLargeProgram() {
+		this.checkRandomEdits(generateProgram(new Random(2), 3, 900), 2, 600); // 여러 라인 블록에 걸친 섹션
+	}
+	
+	/**
+	 * 편집 묶음을 적용하며 매번 처음부터 어셈블한 결과와 비교한다.
+	 * @param source : 시작 소스
+	 * @param seed
+	 * @param batches : 편집 묶음 수
+	 */
+	private void checkRandomEdits(List<String> source, long seed, int batches) {
+		Random random = new Random(seed);
+		List<String> lines = new ArrayList<>(source);
+		IncrementalAssembler incremental = new IncrementalAssembler(instTable);
+		
+		incremental.setText(String.join("\n", lines) + "\n");
+		assertEquals(assemble(lines), render(incremental), "initial text");
+		
+		for(int batch = 0; batch < batches; batch++) {
+			List<String[]> undoList = new ArrayList<>(); // { 종류, 라인, 이전 내용 }
+			int edits = 1 + random.nextInt(6);
+			
+			for(int i = 0; i < edits; i++) {
+				this.applyRandomEdit(random, incremental, lines, source, undoList);
+			}
+			
+			String expected = assemble(lines);
+			
+			assertEquals(expected, render(incremental), "batch " + batch + " : " + String.join(" / ", describe(undoList)));
+			
+			if(expected.startsWith("ERROR")) { // 오류가 생긴 편집 묶음 되돌리기
+				for(int i = undoList.size() - 1; i >= 0; i--) {
+					String[] undo = undoList.get(i);
+					int line = Integer.parseInt(undo[1]);
+					
+					if(undo[0].equals("insert")) {
+						lines.remove(line);
+						ignoreError(() -> incremental.removeLine(line));
+					} else if(undo[0].equals("remove")) {
+						lines.add(line, undo[2]);
+						ignoreError(() -> incremental.insertLine(line, undo[2]));
+					} else {
+						lines.set(line, undo[2]);
+						ignoreError(() -> incremental.replaceLine(line, undo[2]));
+					}
+				}
+				
+				assertEquals(assemble(lines), render(incremental), "undo of batch " + batch);
+			}
+		}
+	}
+	
+	/**
+	 * 라인 하나를 무작위로 추가, 삭제, 변경한다. 편집에서 발생한 예외는 결과 비교에서 확인한다.
+	 */
+	private void applyRandomEdit(Random random, IncrementalAssembler incremental, List<String> lines, List<String> source,
+			List<String[]> undoList) {
+		int kind = random.nextInt(4);
+		
+		if(kind == 0 && lines.size() > 1) { // 삭제
+			int line = random.nextInt(lines.size());
+			
+			undoList.add(new String[] { "remove", Integer.toString(line), lines.remove(line) });
+			ignoreError(() -> incremental.removeLine(line));
+		} else if(kind == 1) { // 추가
+			int line = random.nextInt(lines.size() + 1);
+			String text = pick(random, source);
+			
+			lines.add(line, text);
+			undoList.add(new String[] { "insert", Integer.toString(line), null });
+			ignoreError(() -> incremental.insertLine(line, text));
+		} else { // 변경 (다른 문장 또는 같은 문장의 크기, operand, 레이블 변경)
+			int line = random.nextInt(lines.size());
+			String old = lines.get(line);
+			String text = random.nextBoolean() ? pick(random, source) : mutate(random, old);
+			
+			lines.set(line, text);
+			undoList.add(new String[] { "replace", Integer.toString(line), old });
+			ignoreError(() -> incremental.replaceLine(line, text));
+		}
+	}
+	
+	/**
+	 * 문장의 일부만 바꾼다. (포맷 3 <-> 4, 즉시값, 레이블 이름)
+	 */
+	private static String mutate(Random random, String line) {
+		String[] field = line.split("\t", -1);
+		
+		if(field.length < 3 || line.startsWith(".")) {
+			return line;
+		}
+		
+		switch(random.nextInt(3)) {
+		case 0:
+			field[1] = field[1].startsWith("+") ? field[1].substring(1) : "+" + field[1];
+			break;
+		case 1:
+			field[2] = field[2].startsWith("#") ? "#" + random.nextInt(64) : field[2];
+			break;
+		default:
+			field[0] = field[0].isEmpty() ? "" : field[0] + "Q";
+			break;
+		}
+		
+		return String.join("\t", field);
+	}
+	
+	/**
+	 * 처음부터 어셈블한 결과 (오류가 있으면 "ERROR")
+	 */
+	private static String assemble(List<String> lines) {
+		Assembler assembler = new Assembler(instTable);
+		
+		assembler.setVerbose(false);
+		
+		try {
+			String objectProgram = assembler.assemble(new SourceBuffer(String.join("\n", lines).getBytes(StandardCharsets.ISO_8859_1)));
+			
+			return objectProgram + tables(assembler);
+		} catch(RuntimeException e) {
+			return "ERROR";
+		}
+	}
+	
+	/**
+	 * 증분 어셈블 결과 (오류가 있으면 "ERROR")
+	 */
+	private static String render(IncrementalAssembler incremental) {
+		try {
+			String objectProgram = incremental.getObjectProgram();
+			
+			return objectProgram + tables(incremental.getAssembler());
+		} catch(RuntimeException e) {
+			return "ERROR";
+		}
+	}
+	
+	private static String tables(Assembler assembler) {
+		StringBuilder builder = new StringBuilder();
+		
+		for(TokenTable tokenTable : assembler.TokenList) {
+			for(int i = 0; i < tokenTable.symTab.size(); i++) {
+				builder.append(tokenTable.symTab.getSymbol(i)).append('=').append(tokenTable.symTab.getLocation(i)).append(' ');
+			}
+			
+			builder.append('|');
+			
+			for(int i = 0; i < tokenTable.literalTab.size(); i++) {
+				builder.append(tokenTable.literalTab.getLiteral(i)).append('=').append(tokenTable.literalTab.getLocation(i)).append(' ');
+			}
+			
+			builder.append('\n');
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * 추가, 변경에 사용할 라인을 고른다. 주로 주소 배치와 리터럴 pool을 바꾸는 문장을 고르고, 가끔 소스의 라인(레이블, 지시어 포함)을 고른다.
+	 */
+	private static String pick(Random random, List<String> source) {
+		if(random.nextInt(10) < 2) {
+			return source.get(random.nextInt(source.size()));
+		}
+		
+		return EDIT_LINES[random.nextInt(EDIT_LINES.length)];
+	}
+	
+	private static List<String> describe(List<String[]> undoList) {
+		List<String> descriptionList = new ArrayList<>();
+		
+		for(String[] undo : undoList) {
+			descriptionList.add(undo[0] + " " + undo[1]);
+		}
+		
+		return descriptionList;
+	}
+	
+	private static void ignoreError(Runnable edit) {
+		try {
+			edit.run();
+		} catch(RuntimeException e) {
+			// 결과 비교에서 확인
+		}
+	}
+	
+	/**
+	 * 섹션마다 명령어(심볼, 리터럴, 외부 참조, 수식), LTORG, 데이터, EQU가 섞인 프로그램을 만든다.
+	 * @param random
+	 * @param sections : 섹션 수
+	 * @param statements : 섹션당 명령어 수
+	 */
+	static List<String> generateProgram(Random random, int sections, int statements) {
+		List<String> lines = new ArrayList<>();
+		
+		for(int section = 0; section < sections; section++) {
+			String prefix = String.valueOf((char) ('A' + section));
+			
+			lines.add(prefix + "SEC\t" + (section == 0 ? "START\t0" : "CSECT"));
+			lines.add("\tEXTDEF\t" + prefix + "DA," + prefix + "DB");
+			lines.add("\tEXTREF\tRDREC,WRREC");
+			
+			List<String> codeLabelList = new ArrayList<>();
+			String[] labels = new String[statements];
+			
+			for(int i = 0; i < statements; i++) { // 명령어의 레이블 (앞, 뒤의 명령어에서 참조)
+				labels[i] = random.nextInt(4) == 0 ? prefix + "L" + name(i) : "";
+				
+				if(!labels[i].isEmpty()) {
+					codeLabelList.add(labels[i]);
+				}
+			}
+			
+			for(int i = 0; i < statements; i++) {
+				String label = labels[i];
+				String target = random.nextBoolean() || codeLabelList.isEmpty() ? prefix + "D" + name(random.nextInt(20))
+						: codeLabelList.get(random.nextInt(codeLabelList.size()));
+				
+				switch(random.nextInt(10)) {
+				case 0:
+					lines.add(label + "\tLDA\t=C'" + name(random.nextInt(30)) + "'");
+					break;
+				case 1:
+					lines.add(label + "\t+JSUB\t" + (random.nextBoolean() ? "RDREC" : "WRREC"));
+					break;
+				case 2:
+					lines.add(label + "\t+LDA\t" + prefix + "D" + name(random.nextInt(20)));
+					break;
+				case 3:
+					lines.add(label + "\tCOMP\t#" + random.nextInt(100));
+					break;
+				case 4:
+					lines.add(label + "\tCLEAR\tX");
+					break;
+				case 5: // 주석 뒤의 명령어
+					lines.add(". comment " + i);
+					lines.add(label + "\tCLEAR\tS");
+					break;
+				default:
+					lines.add(label + "\tSTA\t" + target);
+					break;
+				}
+				
+				if(i % 100 == 99) {
+					lines.add("\tLTORG");
+				}
+			}
+			
+			for(int i = 0; i < 20; i++) {
+				lines.add(prefix + "D" + name(i) + "\tRESW\t1");
+			}
+			
+			lines.add(prefix + "DEND\tEQU\t*");
+			lines.add(prefix + "DLEN\tEQU\t" + prefix + "DEND-" + prefix + "DA");
+			lines.add("\tWORD\t" + prefix + "DEND-" + prefix + "DB");
+			lines.add("\tWORD\tRDREC");
+		}
+		
+		lines.add("\tEND\tASEC");
+		
+		return lines;
+	}
+	
+	/**
+	 * 숫자를 문자로만 된 이름으로 바꾼다. (심볼은 문자로만 이루어져야 한다)
+	 */
+	private static String name(int number) {
+		StringBuilder builder = new StringBuilder();
+		
+		do {
+			builder.append((char) ('A' + number % 26));
+			number = number / 26;
+		} while(number > 0);
+		
+		return builder.toString();
+	}
+}
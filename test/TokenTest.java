@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Token의 필드 분리를 확인한다. 필드는 탭과 공백으로 구분하지만 operand 안의 ',' 앞뒤 공백은 operand에 포함된다.
+ */
+public class TokenTest {
+	@Test
+	void spaceAfterCommaStaysInOperand() {
+		Token token = new Token("\t+STCH\tBUFFER, X");
+		
+		assertArrayEquals(new String[] { "BUFFER", "X" }, token.operand);
+		assertNull(token.getComment());
+		
+		token = new Token("\tCOMPR\tX, Y\tcompare");
+		
+		assertArrayEquals(new String[] { "X", "Y" }, token.operand);
+		assertEquals("compare", token.getComment());
+		
+		token = new Token("\tCOMPR\tA , S");
+		
+		assertArrayEquals(new String[] { "A", "S" }, token.operand);
+	}
+	
+	@Test
+	void spaceWithoutCommaSeparatesComment() {
+		Token token = new Token("LOOP LDA ALPHA load alpha");
+		
+		assertEquals("LOOP", token.label);
+		assertArrayEquals(new String[] { "ALPHA" }, token.operand);
+		assertEquals("load alpha", token.getComment());
+	}
+	
+	/**
+	 * ',' 뒤에 공백이 있어도 인덱스 주소 지정(x 비트)이 유지되어야 한다.
+	 */
+	@Test
+	void indexedOperandWithSpaceAssemblesTheSame() throws IOException {
+		String source = new String(Files.readAllBytes(Paths.get("src/input.txt")), StandardCharsets.ISO_8859_1);
+		InstTable instTable = new InstTable();
+		
+		assertEquals(assemble(instTable, source), assemble(instTable, source.replace("BUFFER,X", "BUFFER, X")));
+	}
+	
+	private static String assemble(InstTable instTable, String source) {
+		Assembler assembler = new Assembler(instTable);
+		
+		assembler.setVerbose(false);
+		
+		return assembler.assemble(new SourceBuffer(source.getBytes(StandardCharsets.ISO_8859_1)));
+	}
+}